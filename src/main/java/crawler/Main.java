@@ -4,15 +4,62 @@ import crawler.argumentparser.ArgumentParser;
 import crawler.argumentparser.OptionsArgumentParser;
 import crawler.webpage.filter.DuplicateLoadFilter;
 import crawler.webpage.filter.RobotsLoadFilter;
+import crawler.webpage.filter.ShardLoadFilter;
 import crawler.webpage.filter.WebpageLoadFilter;
 import crawler.webpage.AsyncWebpageLoader;
+import crawler.webpage.CrawlBudget;
+import crawler.webpage.CrawlEngine;
+import crawler.webpage.ForkJoinWebpageLoader;
+import crawler.webpage.NonBlockingWebpageLoader;
+import crawler.webpage.PipelinedWebpageLoader;
+import crawler.webpage.WebpageLoader;
+import crawler.webpage.archive.WarcReader;
+import crawler.webpage.archive.WarcWriter;
+import crawler.webpage.cache.HttpCache;
+import crawler.webpage.checkpoint.CheckpointJournal;
+import crawler.webpage.concurrency.AdaptiveConcurrencyController;
+import crawler.webpage.concurrency.JsonLinesConcurrencyListener;
+import crawler.webpage.dns.DnsCache;
+import crawler.webpage.dns.HostResolver;
+import crawler.webpage.fetcher.ArchivingFetcher;
+import crawler.webpage.fetcher.CachingFetcher;
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.fetcher.FetcherType;
+import crawler.webpage.fetcher.HedgingFetcher;
+import crawler.webpage.fetcher.HttpClientFetcher;
+import crawler.webpage.fetcher.JsoupFetcher;
+import crawler.webpage.fetcher.ReplayFetcher;
 import crawler.webpage.Webpage;
+import crawler.webpage.frontier.CrawlFrontier;
+import crawler.webpage.frontier.FifoCrawlFrontier;
+import crawler.webpage.frontier.PoliteCrawlFrontier;
+import crawler.webpage.frontier.PrefetchingCrawlFrontier;
+import crawler.webpage.frontier.PriorityCrawlFrontier;
+import crawler.webpage.frontier.SpillingCrawlFrontier;
+import crawler.webpage.frontier.scorer.DepthScorer;
+import crawler.webpage.frontier.scorer.InLinkCountScorer;
+import crawler.webpage.frontier.scorer.SameHostScorer;
+import crawler.webpage.frontier.scorer.WeightedUrlScorer;
+import crawler.webpage.linkcheck.LinkChecker;
+import crawler.webpage.retry.RetryPolicy;
+import crawler.webpage.shard.ShardExchange;
+import crawler.webpage.shard.ShardPartitioner;
+import crawler.webpage.shard.ShardResultMerger;
+import crawler.webpage.shard.ShardedCrawl;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.*;
+import java.net.InetAddress;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
     public static final String
@@ -23,6 +70,20 @@ public class Main {
 
     public static ArrayList<Webpage> rootPages = new ArrayList<>();
 
+    public static CrawlBudget crawlBudget = CrawlBudget.unlimited();
+
+    public static AdaptiveConcurrencyController concurrencyController;
+
+    public static CachingFetcher cachingFetcher;
+
+    public static ArchivingFetcher archivingFetcher;
+
+    public static ReplayFetcher replayFetcher;
+
+    public static DnsCache dnsCache;
+
+    public static LinkChecker linkChecker;
+
     private Main() {}
 
     public static void main(String[] args) {
@@ -40,7 +101,21 @@ public class Main {
 
         initializeRootPages();
 
+        if (parser.getShardCount() > 1) {
+            crawlShard(args);
+            closeCache();
+            closeArchive();
+            printReplayStatistics();
+            shutdownDnsCache();
+            return;
+        }
+
         startLoadingPagesAsynchronously();
+        closeCache();
+        closeArchive();
+        printReplayStatistics();
+        shutdownDnsCache();
+        writeBrokenLinkReport();
 
         printPages();
     }
@@ -77,20 +152,32 @@ public class Main {
 
     /**
      * Loads the root page with the specified filters, user agent and links per page.
+     * All pages share one fetcher, so the http-client fetcher can reuse its connections,
+     * and one link checker if a broken-link report is requested.
      * @throws URISyntaxException If the given string violates RFC 2396
      */
     public static void initializeRootPages() {
         ArrayList<WebpageLoadFilter> loadFilters = new ArrayList<>();
+        if (parser.getShardCount() > 1)
+            loadFilters.add(new ShardLoadFilter(new ShardPartitioner(parser.getShardCount()), getOwnShardIndex()));
         if (parser.omitDuplicates())
             loadFilters.add(new DuplicateLoadFilter());
-        if (parser.respectRobotsTxt())
+        if (parser.respectRobotsTxt() && parser.getReplayDirectory().isEmpty())
             loadFilters.add(new RobotsLoadFilter());
 
+        dnsCache = createDnsCache();
+        Fetcher fetcher = createFetcher();
+        if (!parser.getBrokenLinkReportFile().isEmpty())
+            linkChecker = new LinkChecker();
+
         try {
             for (String rootUrl : parser.getRootUrls()) {
                 Webpage rootPage = new Webpage(rootUrl, loadFilters);
                 rootPage.setRequestUserAgent(parser.spoofBrowser() ? BROWSER_USER_AGENT : DEFAULT_USER_AGENT);
                 rootPage.setMaxChildrenPerPage(parser.getMaxLinksPerPage());
+                rootPage.setFetcher(fetcher);
+                rootPage.setAnalysisMode(parser.getAnalysisMode());
+                rootPage.setLinkChecker(linkChecker);
                 rootPages.add(rootPage);
             }
         } catch (URISyntaxException e) {
@@ -104,9 +191,16 @@ public class Main {
      * or into System.out.
      */
     public static void printPages() {
+        printJson(getRootPagesAsJsonString());
+    }
 
-        String rootPagesAsJSONString = getRootPagesAsJsonString();
-
+    /**
+     * Prints the JSON either into a file if one is specified
+     * or into System.out.
+     *
+     * @param rootPagesAsJSONString the root pages as JSON String
+     */
+    public static void printJson(String rootPagesAsJSONString) {
         if (parser.outputIntoFile()) {
             FileWriter fileWriter = null;
             try {
@@ -130,15 +224,511 @@ public class Main {
     }
 
     /**
-     * Starts an {@link AsyncWebpageLoader} for every rootPage
+     * Starts the {@link WebpageLoader} of the chosen engine for every rootPage,
+     * journaling the crawl if a checkpoint directory is set.
      */
     public static void startLoadingPagesAsynchronously() {
+        CheckpointJournal journal = null;
+        JsonLinesConcurrencyListener concurrencyMetrics = null;
         try {
-            AsyncWebpageLoader pageProcessor = new AsyncWebpageLoader(rootPages, parser.getMaxDepth(), parser.getThreadCount());
+            crawlBudget = createBudget();
+            concurrencyController = createConcurrencyController();
+            concurrencyMetrics = startConcurrencyMetrics();
+            WebpageLoader pageProcessor = createLoader();
+            journal = startCheckpointing(pageProcessor);
             pageProcessor.loadPagesRecursivelyAndBlock();
+
+            String statistics = pageProcessor.getStatistics();
+            if (!statistics.isEmpty())
+                System.err.print(statistics);
+
+            printBudgetExhaustion();
         } catch (InterruptedException e) {
             // this doesn't happen since we don't interact with the threads
             e.printStackTrace();
+        } catch (IOException e) {
+            System.err.println("Couldn't prepare the crawl: " + e.getMessage());
+        } finally {
+            closeJournal(journal);
+            closeConcurrencyMetrics(concurrencyMetrics);
+        }
+    }
+
+    private static void printBudgetExhaustion() {
+        if (crawlBudget.getExhaustedBy() != null)
+            System.err.printf("The %s budget was exhausted after %d pages, the result is partial%n",
+                    crawlBudget.getExhaustedBy(), crawlBudget.getStartedPages());
+    }
+
+    /**
+     * Crawls the hosts of this shard, every round with a loader of the chosen engine. <br>
+     * Without --shard-index this process is shard 0, it launches the other shards,
+     * merges the results of all shards and prints them.
+     *
+     * @param args  the arguments of this process, passed on to the other shards
+     */
+    public static void crawlShard(String[] args) {
+        boolean launchesShards = parser.getShardIndex() == ArgumentParser.NO_SHARD_INDEX;
+        JsonLinesConcurrencyListener concurrencyMetrics = null;
+        try {
+            Path shardDirectory = createShardDirectory();
+            if (launchesShards) {
+                ShardExchange.clear(shardDirectory);
+                for (int shard = 1; shard < parser.getShardCount(); shard++)
+                    launchShard(createShardCommand(args, shard, shardDirectory));
+            }
+
+            crawlBudget = createBudget();
+            concurrencyController = createConcurrencyController();
+            concurrencyMetrics = startConcurrencyMetrics();
+            try (ShardExchange exchange = new ShardExchange(shardDirectory, getOwnShardIndex(), parser.getShardCount())) {
+                ShardedCrawl crawl = new ShardedCrawl(exchange, Main::createLoader);
+                crawl.setBudget(crawlBudget);
+                crawl.crawl(rootPages, parser.getMaxDepth());
+                printBudgetExhaustion();
+
+                if (launchesShards)
+                    printJson(ShardResultMerger.merge(exchange.awaitResults(ShardedCrawl.POLL_INTERVAL_MILLIS), rootPages).toString(2));
+            }
+        } catch (InterruptedException e) {
+            // this doesn't happen since we don't interact with the threads
+            e.printStackTrace();
+        } catch (IOException e) {
+            System.err.println("Couldn't run the shard: " + e.getMessage());
+        } finally {
+            closeConcurrencyMetrics(concurrencyMetrics);
+        }
+    }
+
+    /**
+     * Creates the command that runs another shard with the same JVM, classpath and arguments as this process.
+     *
+     * @param args              the arguments of this process
+     * @param shard             the index of the shard to run
+     * @param shardDirectory    the directory shared by all shards
+     * @return                  the command line of the shard
+     */
+    public static List<String> createShardCommand(String[] args, int shard, Path shardDirectory) {
+        ArrayList<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Main.class.getName());
+        command.addAll(Arrays.asList(args));
+        command.add("--shard-index");
+        command.add(shard + "");
+        command.add("--shard-dir");
+        command.add(shardDirectory.toString());
+        return command;
+    }
+
+    /**
+     * Starts a shard whose output is discarded, it only publishes its result into the shard directory.
+     * Since the other shards would wait for it forever, this process exits when the shard fails.
+     */
+    private static void launchShard(List<String> command) throws IOException {
+        Process shardProcess = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        shardProcess.onExit().thenAccept(process -> {
+            if (process.exitValue() != 0) {
+                System.err.println("A shard failed with exit code " + process.exitValue());
+                System.exit(1);
+            }
+        });
+    }
+
+    /**
+     * @return the shard directory of the parser, or a new temporary directory if none is set
+     * @throws IOException if the directory can't be created
+     */
+    public static Path createShardDirectory() throws IOException {
+        if (!parser.getShardDirectory().isEmpty())
+            return Files.createDirectories(Paths.get(parser.getShardDirectory()));
+
+        Path shardDirectory = Files.createTempDirectory("webcrawler-shards");
+        shardDirectory.toFile().deleteOnExit();
+        return shardDirectory;
+    }
+
+    /**
+     * @return the shard of this process, shard 0 launches the other shards
+     */
+    public static int getOwnShardIndex() {
+        return Math.max(parser.getShardIndex(), 0);
+    }
+
+    /**
+     * Journals the crawl of the loader into the checkpoint directory, if one is set.
+     * With --resume the journaled pages are restored first and the loader continues where the journal ends.
+     *
+     * @param loader    the loader to journal
+     * @return          the started journal or null if no checkpoint directory is set
+     * @throws IOException if the journal can't be read or opened
+     */
+    public static CheckpointJournal startCheckpointing(WebpageLoader loader) throws IOException {
+        if (parser.getCheckpointDirectory().isEmpty())
+            return null;
+
+        CheckpointJournal journal = new CheckpointJournal(Paths.get(parser.getCheckpointDirectory()),
+                TimeUnit.SECONDS.toMillis(parser.getCheckpointIntervalSeconds()));
+        if (parser.resumeRequested())
+            loader.setStartTasks(journal.restore(rootPages, parser.getMaxDepth()));
+
+        loader.setCrawlObserver(journal);
+        journal.start();
+        return journal;
+    }
+
+    /**
+     * Creates the controller adapting the concurrency of the pool and virtual engines if --adaptive is set.
+     * It starts at the thread count and may grow up to the max concurrency of the parser.
+     *
+     * @return the new controller or null if the concurrency is fixed
+     */
+    public static AdaptiveConcurrencyController createConcurrencyController() {
+        if (!parser.adaptiveConcurrency() || (parser.getEngine() != CrawlEngine.POOL && parser.getEngine() != CrawlEngine.VIRTUAL))
+            return null;
+
+        return new AdaptiveConcurrencyController(parser.getThreadCount(), parser.getMaxConcurrency(), parser.getMaxPerHost());
+    }
+
+    /**
+     * Writes the decisions of the concurrencyController into the metrics file of the parser, if one is set.
+     * Every shard of a sharded crawl writes its own file, suffixed with its index.
+     *
+     * @return the listener writing the metrics or null if no metrics are written
+     * @throws IOException if the file can't be opened
+     */
+    public static JsonLinesConcurrencyListener startConcurrencyMetrics() throws IOException {
+        if (concurrencyController == null || parser.getConcurrencyMetricsFile().isEmpty())
+            return null;
+
+        String metricsFile = parser.getConcurrencyMetricsFile();
+        if (parser.getShardCount() > 1)
+            metricsFile += "." + getOwnShardIndex();
+
+        JsonLinesConcurrencyListener concurrencyMetrics = new JsonLinesConcurrencyListener(Paths.get(metricsFile));
+        concurrencyController.setListener(concurrencyMetrics);
+        return concurrencyMetrics;
+    }
+
+    private static void closeConcurrencyMetrics(JsonLinesConcurrencyListener concurrencyMetrics) {
+        if (concurrencyMetrics == null)
+            return;
+
+        try {
+            concurrencyMetrics.close();
+        } catch (IOException e) {
+            System.err.println("Couldn't write the concurrency metrics: " + e.getMessage());
+        }
+    }
+
+    private static void closeJournal(CheckpointJournal journal) {
+        if (journal == null)
+            return;
+
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Couldn't write the checkpoint journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the loader of the engine selected by the parser.
+     * Unless the engine is fork-join, it schedules the pages in the frontier chosen by the parser,
+     * which spills pages to disk once it holds too many.
+     * Every engine is limited by crawlBudget, the pool and virtual engines adapt their concurrency
+     * with the concurrencyController if there is one. Engines with a frontier retry pages that failed transiently.
+     *
+     * @return a new loader for the rootPages
+     * @throws IOException if the spill directory can't be created
+     */
+    public static WebpageLoader createLoader() throws IOException {
+        if (parser.getEngine() == CrawlEngine.FORK_JOIN) {
+            ForkJoinWebpageLoader loader = new ForkJoinWebpageLoader(rootPages, parser.getMaxDepth(), parser.getThreadCount());
+            loader.setBudget(crawlBudget);
+            return loader;
+        }
+
+        CrawlFrontier frontier = createFrontier();
+        if (dnsCache != null)
+            frontier = new PrefetchingCrawlFrontier(frontier, dnsCache);
+        frontier = new SpillingCrawlFrontier(frontier, parser.getMaxFrontierMemory(), createSpillDirectory());
+
+        if (parser.getEngine() == CrawlEngine.ASYNC) {
+            NonBlockingWebpageLoader loader = new NonBlockingWebpageLoader(rootPages, parser.getMaxDepth(), parser.getThreadCount(), parser.getParseThreadCount());
+            loader.setFrontier(frontier);
+            loader.setBudget(crawlBudget);
+            loader.setRetryPolicy(createRetryPolicy());
+            return loader;
+        }
+
+        if (parser.getEngine() == CrawlEngine.PIPELINE) {
+            PipelinedWebpageLoader loader = new PipelinedWebpageLoader(rootPages, parser.getMaxDepth(), parser.getThreadCount(), parser.getParseThreadCount());
+            loader.setFrontier(frontier);
+            loader.setBudget(crawlBudget);
+            loader.setRetryPolicy(createRetryPolicy());
+            return loader;
+        }
+
+        int threadCount = concurrencyController == null ? parser.getThreadCount() : concurrencyController.getMaxLimit();
+        AsyncWebpageLoader loader = new AsyncWebpageLoader(rootPages, parser.getMaxDepth(), threadCount, parser.getEngine());
+        loader.setFrontier(frontier);
+        loader.setBudget(crawlBudget);
+        loader.setConcurrencyController(concurrencyController);
+        loader.setRetryPolicy(createRetryPolicy());
+        return loader;
+    }
+
+    /**
+     * Creates the fetcher of the type and with the timeouts and max body size of the parser,
+     * it hedges slow requests if --hedge is set, revalidates cached pages if --cache-dir is set
+     * and archives the responses the pages are analyzed from if --warc-dir is set.
+     * Every shard of a sharded crawl uses its own cache in a subdirectory and its own WARC files,
+     * a cache or archive that can't be opened is skipped.
+     *
+     * @return a new fetcher
+     */
+    public static Fetcher createFetcher() {
+        Fetcher fetcher;
+        if (!parser.getReplayDirectory().isEmpty())
+            fetcher = replayFetcher = createReplayFetcher();
+        else if (parser.getFetcherType() == FetcherType.HTTP_CLIENT)
+            fetcher = new HttpClientFetcher(Duration.ofMillis(parser.getConnectTimeoutMillis()), Duration.ofMillis(parser.getReadTimeoutMillis()),
+                    parser.getMaxBodyKilobytes() * 1024);
+        else
+            fetcher = new JsoupFetcher(parser.getReadTimeoutMillis(), parser.getMaxBodyKilobytes() * 1024);
+
+        if (parser.hedgeRequests())
+            fetcher = new HedgingFetcher(fetcher);
+
+        return createArchivingFetcher(createCachingFetcher(fetcher));
+    }
+
+    /**
+     * Maps the WARC files of the replay directory, exits if they can't be read,
+     * the crawl must not fall back to the network.
+     *
+     * @return  a fetcher replaying the recorded responses with the recorded latencies scaled by the parser
+     */
+    private static ReplayFetcher createReplayFetcher() {
+        try {
+            WarcReader reader = new WarcReader(Paths.get(parser.getReplayDirectory()));
+            System.err.printf("Replay: %d responses in %d files%n", reader.getResponseCount(), reader.getFileCount());
+            return new ReplayFetcher(reader, parser.getReplayLatencyPercent());
+        } catch (IOException e) {
+            System.err.println("Couldn't read the recorded crawl: " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * @param fetcher   the fetcher sending the requests
+     * @return          the fetcher wrapped in the cachingFetcher, the fetcher itself if there is no cache
+     */
+    private static Fetcher createCachingFetcher(Fetcher fetcher) {
+        if (parser.getCacheDirectory().isEmpty())
+            return fetcher;
+
+        Path cacheDirectory = Paths.get(parser.getCacheDirectory());
+        if (parser.getShardCount() > 1)
+            cacheDirectory = cacheDirectory.resolve("shard-" + getOwnShardIndex());
+        try {
+            cachingFetcher = new CachingFetcher(fetcher, new HttpCache(cacheDirectory, parser.getCacheSizeMegabytes() * 1024L * 1024L));
+            return cachingFetcher;
+        } catch (IOException e) {
+            System.err.println("Couldn't open the cache, crawling without it: " + e.getMessage());
+            return fetcher;
+        }
+    }
+
+    /**
+     * @param fetcher   the fetcher whose responses are archived, including the ones served from the cache
+     * @return          the fetcher wrapped in the archivingFetcher, the fetcher itself if there is no archive
+     */
+    private static Fetcher createArchivingFetcher(Fetcher fetcher) {
+        if (parser.getWarcDirectory().isEmpty())
+            return fetcher;
+
+        String prefix = parser.getShardCount() > 1 ? "crawl-shard-" + getOwnShardIndex() : "crawl";
+        try {
+            archivingFetcher = new ArchivingFetcher(fetcher,
+                    new WarcWriter(Paths.get(parser.getWarcDirectory()), prefix, parser.getWarcFileMegabytes() * 1024L * 1024L));
+            return archivingFetcher;
+        } catch (IOException e) {
+            System.err.println("Couldn't open the WARC directory, crawling without archive: " + e.getMessage());
+            return fetcher;
+        }
+    }
+
+    /**
+     * Writes the records still queued by the archivingFetcher, if there is one, and prints how much was archived.
+     */
+    public static void closeArchive() {
+        if (archivingFetcher == null)
+            return;
+
+        WarcWriter writer = archivingFetcher.getWriter();
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Couldn't write the WARC files: " + e.getMessage());
+        }
+        System.err.printf("Archive: %d responses, %d records in %d files with %d bytes%n",
+                archivingFetcher.getArchivedCount(), writer.getRecordCount(), writer.getFileCount(), writer.getBytesWritten());
+    }
+
+    /**
+     * Creates the DNS cache with the TTLs of the parser and aligns the JVM's cache with it,
+     * the hosts of pages entering the frontier are resolved by its prefetch threads.
+     *
+     * @return a new DNS cache resolving through the system resolver
+     */
+    public static DnsCache createDnsCache() {
+        if (!parser.getReplayDirectory().isEmpty())
+            return new DnsCache(host -> new InetAddress[0], Duration.ofSeconds(parser.getDnsTtlSeconds()),
+                    Duration.ofSeconds(parser.getDnsNegativeTtlSeconds()), 0);
+
+        DnsCache cache = new DnsCache(HostResolver.system(), Duration.ofSeconds(parser.getDnsTtlSeconds()),
+                Duration.ofSeconds(parser.getDnsNegativeTtlSeconds()), parser.getDnsPrefetchThreadCount());
+        cache.applyToJvmCache();
+        return cache;
+    }
+
+    /**
+     * Prints how many requests the replayFetcher, if there is one, answered from the recorded crawl.
+     */
+    public static void printReplayStatistics() {
+        if (replayFetcher == null)
+            return;
+
+        System.err.printf("Replay: %d replayed, %d not recorded%n", replayFetcher.getReplayedCount(), replayFetcher.getMissingCount());
+    }
+
+    /**
+     * Stops the prefetch threads of the dnsCache, if there is one, and prints how many hosts it resolved.
+     */
+    public static void shutdownDnsCache() {
+        if (dnsCache == null)
+            return;
+
+        dnsCache.shutdown();
+        System.err.print(dnsCache.getStatistics());
+    }
+
+    /**
+     * Writes the broken links found by the linkChecker, if there is one, into the report file of the parser
+     * and prints how many links were checked.
+     */
+    public static void writeBrokenLinkReport() {
+        if (linkChecker == null)
+            return;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(parser.getBrokenLinkReportFile()))) {
+            writer.write(linkChecker.asReport().toString(2));
+            System.err.printf("Links: %d checked, %d broken%n", linkChecker.getRequestCount(), linkChecker.getBrokenLinks().size());
+        } catch (IOException e) {
+            System.err.println("Couldn't write the broken-link report: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the cache of the cachingFetcher, if there is one, and prints how many pages it saved.
+     */
+    public static void closeCache() {
+        if (cachingFetcher == null)
+            return;
+
+        HttpCache cache = cachingFetcher.getCache();
+        System.err.printf("Cache: %d pages not modified, %d stored, %d pages with %d bytes cached%n",
+                cachingFetcher.getRevalidatedCount(), cachingFetcher.getStoredCount(), cache.size(), cache.getTotalBytes());
+        try {
+            cache.close();
+        } catch (IOException e) {
+            System.err.println("Couldn't write the cache index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the retry policy from the retries and retry delay of the parser,
+     * a delay or Retry-After longer than {@link ArgumentParser#MAX_RETRY_DELAY_MILLIS} isn't waited for.
+     *
+     * @return a new retry policy
+     */
+    public static RetryPolicy createRetryPolicy() {
+        return new RetryPolicy(parser.getMaxRetries(), parser.getRetryDelayMillis(), ArgumentParser.MAX_RETRY_DELAY_MILLIS);
+    }
+
+    /**
+     * Creates the budget of the crawl from the page, byte and time limits of the parser,
+     * limits which aren't set are unlimited.
+     *
+     * @return a new budget
+     */
+    public static CrawlBudget createBudget() {
+        return new CrawlBudget(
+                toBudgetLimit(parser.getMaxPages()),
+                toBudgetLimit(parser.getMaxBytes()),
+                parser.getMaxTimeSeconds() == ArgumentParser.UNLIMITED_BUDGET
+                        ? CrawlBudget.UNLIMITED
+                        : TimeUnit.SECONDS.toMillis(parser.getMaxTimeSeconds()));
+    }
+
+    private static long toBudgetLimit(long limit) {
+        return limit == ArgumentParser.UNLIMITED_BUDGET ? CrawlBudget.UNLIMITED : limit;
+    }
+
+    /**
+     * Creates the spill directory specified by the parser,
+     * or a temporary one that is deleted on exit if none was specified.
+     * Sharded crawls get a new subdirectory of the specified one per loader, since the shards may share it.
+     *
+     * @return the spill directory
+     * @throws IOException if the directory can't be created
+     */
+    public static Path createSpillDirectory() throws IOException {
+        if (!parser.getSpillDirectory().isEmpty() && parser.getShardCount() > 1)
+            return Files.createTempDirectory(Files.createDirectories(Paths.get(parser.getSpillDirectory())), "shard-" + getOwnShardIndex() + "-");
+        if (!parser.getSpillDirectory().isEmpty())
+            return Files.createDirectories(Paths.get(parser.getSpillDirectory()));
+
+        Path spillDirectory = Files.createTempDirectory("webcrawler-spill");
+        spillDirectory.toFile().deleteOnExit();
+        return spillDirectory;
+    }
+
+    /**
+     * Creates the frontier selected by the parser. <br>
+     * The priority frontier prefers shallow pages, pages on the hosts of the root pages
+     * and pages that were linked often so far.
+     *
+     * @return a new frontier
+     */
+    public static CrawlFrontier createFrontier() {
+        switch (parser.getFrontierType()) {
+            case FIFO:
+                return new FifoCrawlFrontier();
+            case PRIORITY:
+                ArrayList<String> rootHosts = new ArrayList<>();
+                for (Webpage rootPage : rootPages)
+                    rootHosts.add(rootPage.getPageURI().getHost());
+
+                return new PriorityCrawlFrontier(new WeightedUrlScorer()
+                        .add(new DepthScorer(), 1)
+                        .add(new SameHostScorer(rootHosts), 1)
+                        .add(new InLinkCountScorer(), 0.5));
+            default:
+                PoliteCrawlFrontier frontier = new PoliteCrawlFrontier(parser.getMaxPerHost(), parser.getMaxPerIp(), parser.getCrawlDelayMillis());
+                if (concurrencyController != null)
+                    frontier.setHostLimitLookup(concurrencyController::getHostLimit);
+                if (dnsCache != null)
+                    frontier.setAddressResolver(dnsCache::resolveAddressAsync);
+                return frontier;
         }
     }
 
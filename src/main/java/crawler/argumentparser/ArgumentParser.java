@@ -1,5 +1,10 @@
 package crawler.argumentparser;
 
+import crawler.webpage.CrawlEngine;
+import crawler.webpage.analysis.AnalysisMode;
+import crawler.webpage.fetcher.FetcherType;
+import crawler.webpage.frontier.FrontierType;
+
 import java.util.ArrayList;
 
 public interface ArgumentParser {
@@ -7,18 +12,67 @@ public interface ArgumentParser {
      int MAX_DEPTH_ALLOWED = 10;
      int DEFAULT_THREAD_COUNT = 2;
      int MAX_THREAD_COUNT = 1024;
+     int MAX_VIRTUAL_CONCURRENCY = 65536;
      int DEFAULT_MAX_LINKS_PER_PAGE = 100;
+     CrawlEngine DEFAULT_ENGINE = CrawlEngine.POOL;
+     int DEFAULT_MAX_PER_HOST = 4;
+     int DEFAULT_MAX_PER_IP = 8;
+     int DEFAULT_CRAWL_DELAY_MILLIS = 0;
+     FrontierType DEFAULT_FRONTIER = FrontierType.POLITE;
+     int DEFAULT_MAX_FRONTIER_MEMORY = 100000;
+     int DEFAULT_PARSE_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+     long UNLIMITED_BUDGET = 0;
+     int DEFAULT_CHECKPOINT_INTERVAL_SECONDS = 10;
+     int DEFAULT_SHARD_COUNT = 1;
+     int MAX_SHARD_COUNT = 64;
+     int NO_SHARD_INDEX = -1;
+     int DEFAULT_MAX_CONCURRENCY_FACTOR = 4;
+     int DEFAULT_MAX_RETRIES = 2;
+     int MAX_RETRIES = 10;
+     int DEFAULT_RETRY_DELAY_MILLIS = 500;
+     int MAX_RETRY_DELAY_MILLIS = 60000;
+     FetcherType DEFAULT_FETCHER = FetcherType.JSOUP;
+     int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10000;
+     int DEFAULT_READ_TIMEOUT_MILLIS = 30000;
+     int DEFAULT_CACHE_SIZE_MEGABYTES = 1024;
+     int DEFAULT_MAX_BODY_KILOBYTES = 2048;
+     int MAX_BODY_KILOBYTES = 1024 * 1024;
+     int DEFAULT_DNS_TTL_SECONDS = 60;
+     int DEFAULT_DNS_NEGATIVE_TTL_SECONDS = 10;
+     int DEFAULT_DNS_PREFETCH_THREAD_COUNT = 4;
+     int MAX_DNS_PREFETCH_THREAD_COUNT = 64;
+     int DEFAULT_WARC_FILE_MEGABYTES = 1024;
+     int DEFAULT_REPLAY_LATENCY_PERCENT = 0;
+     AnalysisMode DEFAULT_ANALYSIS_MODE = AnalysisMode.DOM;
 
     /**
      * Parses the Arguments <br>
      * errors out if: <br>
      * - u is missing <br>
-     * - u, t, d, l, o are missing an argument <br>
+     * - u, t, d, l, o, e, f, p, i, w, m, spill-dir, parse-threads, max-pages, max-bytes, max-time, checkpoint-dir, checkpoint-interval, shards, shard-index, shard-dir, max-concurrency, concurrency-metrics, retries, retry-delay, fetcher, connect-timeout, read-timeout, cache-dir, cache-size, max-body-size, dns-ttl, dns-negative-ttl, dns-prefetch-threads, broken-links, warc-dir, warc-size, replay, replay-latency, analysis are missing an argument <br>
      * - u doesn't have valid comma separated urls as argument <br>
-     * - t, d, l are < 1 <br>
-     * - t > {@link ArgumentParser#MAX_THREAD_COUNT} <br>
+     * - t, d, l, p, i, m are < 1 <br>
+     * - w, max-pages, max-bytes, max-time are < 0 <br>
+     * - checkpoint-interval is < 1 <br>
+     * - resume is set without checkpoint-dir <br>
+     * - shards is < 1 or > {@link ArgumentParser#MAX_SHARD_COUNT} <br>
+     * - shard-index isn't a shard of shards or is set without shard-dir <br>
+     * - shards > 1 is combined with checkpoint-dir or broken-links <br>
+     * - max-concurrency is < t or > the max of t <br>
+     * - retries is < 0 or > {@link ArgumentParser#MAX_RETRIES} <br>
+     * - retry-delay is < 1 or > {@link ArgumentParser#MAX_RETRY_DELAY_MILLIS} <br>
+     * - connect-timeout, read-timeout, cache-size, dns-ttl, warc-size are < 1 <br>
+     * - dns-negative-ttl, replay-latency are < 0 <br>
+     * - replay isn't a directory <br>
+     * - dns-prefetch-threads is < 0 or > {@link ArgumentParser#MAX_DNS_PREFETCH_THREAD_COUNT} <br>
+     * - max-body-size is < 1 or > {@link ArgumentParser#MAX_BODY_KILOBYTES} <br>
+     * - t > {@link ArgumentParser#MAX_THREAD_COUNT} (> {@link ArgumentParser#MAX_VIRTUAL_CONCURRENCY} for the async engine and the virtual engine with virtual threads) <br>
      * - d > {@link ArgumentParser#MAX_DEPTH_ALLOWED} <br>
-     * - a option isn't: t, l, d, u, o, s, b, r, h <br>
+     * - e isn't the name of a {@link CrawlEngine} <br>
+     * - f isn't the name of a {@link FrontierType} <br>
+     * - fetcher isn't the name of a {@link FetcherType} <br>
+     * - analysis isn't the name of an {@link AnalysisMode} <br>
+     * - a option isn't: t, l, d, u, o, e, f, p, i, w, m, spill-dir, parse-threads, max-pages, max-bytes, max-time, checkpoint-dir, checkpoint-interval, resume, shards, shard-index, shard-dir, adaptive, max-concurrency, concurrency-metrics, retries, retry-delay, hedge, fetcher, connect-timeout, read-timeout, cache-dir, cache-size, max-body-size, dns-ttl, dns-negative-ttl, dns-prefetch-threads, broken-links, warc-dir, warc-size, replay, replay-latency, analysis, s, b, r, h <br>
      * @param args arguments to parse
      * @return false if an error occurs
      */
@@ -32,10 +86,22 @@ public interface ArgumentParser {
      * @return true if -s is set
      */
     boolean omitDuplicates();
+    /**
+     * @return true if --resume is set
+     */
+    boolean resumeRequested();
     /**
      * @return true if -b is set
      */
     boolean spoofBrowser();
+    /**
+     * @return true if --adaptive is set
+     */
+    boolean adaptiveConcurrency();
+    /**
+     * @return true if --hedge is set
+     */
+    boolean hedgeRequests();
     /**
      * @return false if -r is set
      */
@@ -60,6 +126,181 @@ public interface ArgumentParser {
      *         - the argument of -l otherwise
      */
     int getMaxLinksPerPage();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_ENGINE} when -e isn't set <br>
+     *         - the argument of -e otherwise
+     */
+    CrawlEngine getEngine();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_FRONTIER} when -f isn't set <br>
+     *         - the argument of -f otherwise
+     */
+    FrontierType getFrontierType();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_MAX_PER_HOST} when -p isn't set <br>
+     *         - the argument of -p otherwise
+     */
+    int getMaxPerHost();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_MAX_PER_IP} when -i isn't set <br>
+     *         - the argument of -i otherwise
+     */
+    int getMaxPerIp();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_CRAWL_DELAY_MILLIS} when -w isn't set <br>
+     *         - the argument of -w otherwise
+     */
+    int getCrawlDelayMillis();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_MAX_FRONTIER_MEMORY} when -m isn't set <br>
+     *         - the argument of -m otherwise
+     */
+    int getMaxFrontierMemory();
+    /**
+     * @return - an empty String when --spill-dir isn't set <br>
+     *         - the argument of --spill-dir otherwise
+     */
+    String getSpillDirectory();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_PARSE_THREAD_COUNT} when --parse-threads isn't set <br>
+     *         - the argument of --parse-threads otherwise
+     */
+    int getParseThreadCount();
+    /**
+     * @return - t times {@link ArgumentParser#DEFAULT_MAX_CONCURRENCY_FACTOR}, at most the max of t, when --max-concurrency isn't set <br>
+     *         - the argument of --max-concurrency otherwise
+     */
+    int getMaxConcurrency();
+    /**
+     * @return - an empty String when --concurrency-metrics isn't set <br>
+     *         - the argument of --concurrency-metrics otherwise
+     */
+    String getConcurrencyMetricsFile();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_MAX_RETRIES} when --retries isn't set <br>
+     *         - the argument of --retries otherwise
+     */
+    int getMaxRetries();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_RETRY_DELAY_MILLIS} when --retry-delay isn't set <br>
+     *         - the argument of --retry-delay otherwise
+     */
+    int getRetryDelayMillis();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_FETCHER} when --fetcher isn't set <br>
+     *         - the argument of --fetcher otherwise
+     */
+    FetcherType getFetcherType();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_CONNECT_TIMEOUT_MILLIS} when --connect-timeout isn't set <br>
+     *         - the argument of --connect-timeout otherwise
+     */
+    int getConnectTimeoutMillis();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_READ_TIMEOUT_MILLIS} when --read-timeout isn't set <br>
+     *         - the argument of --read-timeout otherwise
+     */
+    int getReadTimeoutMillis();
+    /**
+     * @return - an empty String when --cache-dir isn't set <br>
+     *         - the argument of --cache-dir otherwise
+     */
+    String getCacheDirectory();
+    /**
+     * @return - an empty String when --broken-links isn't set <br>
+     *         - the argument of --broken-links otherwise
+     */
+    String getBrokenLinkReportFile();
+    /**
+     * @return - an empty String when --warc-dir isn't set <br>
+     *         - the argument of --warc-dir otherwise
+     */
+    String getWarcDirectory();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_WARC_FILE_MEGABYTES} when --warc-size isn't set <br>
+     *         - the argument of --warc-size otherwise
+     */
+    int getWarcFileMegabytes();
+    /**
+     * @return - an empty String when --replay isn't set <br>
+     *         - the argument of --replay otherwise
+     */
+    String getReplayDirectory();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_REPLAY_LATENCY_PERCENT} when --replay-latency isn't set <br>
+     *         - the argument of --replay-latency otherwise
+     */
+    int getReplayLatencyPercent();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_ANALYSIS_MODE} when --analysis isn't set <br>
+     *         - the argument of --analysis otherwise
+     */
+    AnalysisMode getAnalysisMode();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_CACHE_SIZE_MEGABYTES} when --cache-size isn't set <br>
+     *         - the argument of --cache-size otherwise
+     */
+    int getCacheSizeMegabytes();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_MAX_BODY_KILOBYTES} when --max-body-size isn't set <br>
+     *         - the argument of --max-body-size otherwise
+     */
+    int getMaxBodyKilobytes();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_DNS_TTL_SECONDS} when --dns-ttl isn't set <br>
+     *         - the argument of --dns-ttl otherwise
+     */
+    int getDnsTtlSeconds();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_DNS_NEGATIVE_TTL_SECONDS} when --dns-negative-ttl isn't set <br>
+     *         - the argument of --dns-negative-ttl otherwise
+     */
+    int getDnsNegativeTtlSeconds();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_DNS_PREFETCH_THREAD_COUNT} when --dns-prefetch-threads isn't set <br>
+     *         - the argument of --dns-prefetch-threads otherwise
+     */
+    int getDnsPrefetchThreadCount();
+    /**
+     * @return - {@link ArgumentParser#UNLIMITED_BUDGET} when --max-pages isn't set <br>
+     *         - the argument of --max-pages otherwise
+     */
+    long getMaxPages();
+    /**
+     * @return - {@link ArgumentParser#UNLIMITED_BUDGET} when --max-bytes isn't set <br>
+     *         - the argument of --max-bytes otherwise
+     */
+    long getMaxBytes();
+    /**
+     * @return - {@link ArgumentParser#UNLIMITED_BUDGET} when --max-time isn't set <br>
+     *         - the argument of --max-time otherwise, in seconds
+     */
+    long getMaxTimeSeconds();
+    /**
+     * @return - an empty String when --checkpoint-dir isn't set <br>
+     *         - the argument of --checkpoint-dir otherwise
+     */
+    String getCheckpointDirectory();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_CHECKPOINT_INTERVAL_SECONDS} when --checkpoint-interval isn't set <br>
+     *         - the argument of --checkpoint-interval otherwise
+     */
+    int getCheckpointIntervalSeconds();
+    /**
+     * @return - {@link ArgumentParser#DEFAULT_SHARD_COUNT} when --shards isn't set <br>
+     *         - the argument of --shards otherwise
+     */
+    int getShardCount();
+    /**
+     * @return - {@link ArgumentParser#NO_SHARD_INDEX} when --shard-index isn't set, this process launches the other shards then <br>
+     *         - the argument of --shard-index otherwise
+     */
+    int getShardIndex();
+    /**
+     * @return - an empty String when --shard-dir isn't set <br>
+     *         - the argument of --shard-dir otherwise
+     */
+    String getShardDirectory();
     /**
      * @return - an empty String when -o isn't set <br>
      *         - the argument of -o otherwise
@@ -1,10 +1,16 @@
 package crawler.argumentparser;
 
 import crawler.util.Util;
+import crawler.webpage.CrawlEngine;
+import crawler.webpage.analysis.AnalysisMode;
+import crawler.webpage.fetcher.FetcherType;
+import crawler.webpage.frontier.FrontierType;
 import org.apache.commons.cli.*;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 
 public class OptionsArgumentParser implements ArgumentParser {
@@ -13,7 +19,12 @@ public class OptionsArgumentParser implements ArgumentParser {
     private CommandLine cmdLine;
 
     private String errorMessage = "";
-    private int maxDepth, maxLinksPerPage, threadCount;
+    private int maxDepth, maxLinksPerPage, threadCount, maxPerHost, maxPerIp, crawlDelayMillis, maxFrontierMemory, parseThreadCount, checkpointIntervalSeconds, shardCount, shardIndex, maxConcurrency, maxRetries, retryDelayMillis, connectTimeoutMillis, readTimeoutMillis, cacheSizeMegabytes, maxBodyKilobytes, dnsTtlSeconds, dnsNegativeTtlSeconds, dnsPrefetchThreadCount, warcFileMegabytes, replayLatencyPercent;
+    private long maxPages, maxBytes, maxTimeSeconds;
+    private CrawlEngine engine;
+    private FrontierType frontierType;
+    private FetcherType fetcherType;
+    private AnalysisMode analysisMode;
     private final ArrayList<String> rootUrls = new ArrayList<>();
     private final ArrayList<String> warnings = new ArrayList<>();
 
@@ -25,7 +36,23 @@ public class OptionsArgumentParser implements ArgumentParser {
             parseRootUrls();
             parseMaxDepth();
             parseMaxLinksPerPage();
+            parseEngine();
             parseThreadCount();
+            parseFrontierType();
+            parsePoliteness();
+            parseMaxFrontierMemory();
+            parseParseThreadCount();
+            parseBudget();
+            parseCheckpoint();
+            parseShards();
+            parseAdaptiveConcurrency();
+            parseRetries();
+            parseFetcher();
+            parseCache();
+            parseDns();
+            parseArchive();
+            parseReplay();
+            parseAnalysisMode();
 
         } catch (ParseException e) {
             errorMessage = e.getMessage();
@@ -69,11 +96,237 @@ public class OptionsArgumentParser implements ArgumentParser {
     }
 
     private void parseThreadCount() throws ParseException {
+        int maxThreadCount = getConcurrencyLimit();
         threadCount = Integer.parseInt(cmdLine.getOptionValue("thread-count", DEFAULT_THREAD_COUNT + ""));
-        if (threadCount < 1 || threadCount > MAX_THREAD_COUNT)
+        if (engine == CrawlEngine.VIRTUAL && maxThreadCount == MAX_THREAD_COUNT && threadCount > maxThreadCount)
+            throw new ParseException(String.format("%d is not a valid number of threads, without virtual threads the virtual engine is limited to %d", threadCount, maxThreadCount));
+        if (threadCount < 1 || threadCount > maxThreadCount)
             throw new ParseException(String.format("%d is not a valid number of threads", threadCount));
     }
 
+    /**
+     * The virtual engine only loads more pages at once than there may be threads if it gets virtual threads,
+     * on JDKs without them every loading page blocks a platform thread.
+     *
+     * @return  the max amount of pages that may load concurrently with the selected engine
+     */
+    private int getConcurrencyLimit() {
+        if (engine == CrawlEngine.ASYNC || engine == CrawlEngine.VIRTUAL && Util.virtualThreadsAvailable())
+            return MAX_VIRTUAL_CONCURRENCY;
+        return MAX_THREAD_COUNT;
+    }
+
+    private void parseFrontierType() throws ParseException {
+        String frontierName = cmdLine.getOptionValue("frontier", DEFAULT_FRONTIER.name());
+        try {
+            frontierType = FrontierType.fromName(frontierName);
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(String.format("\"%s\" is not a valid frontier", frontierName));
+        }
+
+        if (engine == CrawlEngine.FORK_JOIN && cmdLine.hasOption("frontier"))
+            warnings.add("The fork-join engine doesn't use a frontier, ignoring -f");
+    }
+
+    private void parsePoliteness() throws ParseException {
+        maxPerHost = Integer.parseInt(cmdLine.getOptionValue("max-per-host", DEFAULT_MAX_PER_HOST + ""));
+        if (maxPerHost < 1)
+            throw new ParseException("Max concurrent requests per host should be > 0");
+
+        maxPerIp = Integer.parseInt(cmdLine.getOptionValue("max-per-ip", DEFAULT_MAX_PER_IP + ""));
+        if (maxPerIp < 1)
+            throw new ParseException("Max concurrent requests per IP should be > 0");
+
+        crawlDelayMillis = Integer.parseInt(cmdLine.getOptionValue("crawl-delay", DEFAULT_CRAWL_DELAY_MILLIS + ""));
+        if (crawlDelayMillis < 0)
+            throw new ParseException("Crawl delay should be >= 0");
+    }
+
+    private void parseMaxFrontierMemory() throws ParseException {
+        maxFrontierMemory = Integer.parseInt(cmdLine.getOptionValue("max-frontier-memory", DEFAULT_MAX_FRONTIER_MEMORY + ""));
+        if (maxFrontierMemory < 1)
+            throw new ParseException("Max pages kept in memory should be > 0");
+    }
+
+    private void parseParseThreadCount() throws ParseException {
+        parseThreadCount = Integer.parseInt(cmdLine.getOptionValue("parse-threads", DEFAULT_PARSE_THREAD_COUNT + ""));
+        if (parseThreadCount < 1 || parseThreadCount > MAX_THREAD_COUNT)
+            throw new ParseException(String.format("%d is not a valid number of parse threads", parseThreadCount));
+
+        if (engine != CrawlEngine.PIPELINE && engine != CrawlEngine.ASYNC && cmdLine.hasOption("parse-threads"))
+            warnings.add("Only the pipeline and async engines use separate parse threads, ignoring --parse-threads");
+    }
+
+    private void parseBudget() throws ParseException {
+        maxPages = Long.parseLong(cmdLine.getOptionValue("max-pages", UNLIMITED_BUDGET + ""));
+        if (maxPages < 0)
+            throw new ParseException("Max pages should be >= 0");
+
+        maxBytes = Long.parseLong(cmdLine.getOptionValue("max-bytes", UNLIMITED_BUDGET + ""));
+        if (maxBytes < 0)
+            throw new ParseException("Max bytes should be >= 0");
+
+        maxTimeSeconds = Long.parseLong(cmdLine.getOptionValue("max-time", UNLIMITED_BUDGET + ""));
+        if (maxTimeSeconds < 0)
+            throw new ParseException("Max time should be >= 0");
+    }
+
+    private void parseCheckpoint() throws ParseException {
+        checkpointIntervalSeconds = Integer.parseInt(cmdLine.getOptionValue("checkpoint-interval", DEFAULT_CHECKPOINT_INTERVAL_SECONDS + ""));
+        if (checkpointIntervalSeconds < 1)
+            throw new ParseException("Checkpoint interval should be > 0");
+
+        if (cmdLine.hasOption("resume") && !cmdLine.hasOption("checkpoint-dir"))
+            throw new ParseException("--resume needs the --checkpoint-dir of the crawl to resume");
+    }
+
+    private void parseShards() throws ParseException {
+        shardCount = Integer.parseInt(cmdLine.getOptionValue("shards", DEFAULT_SHARD_COUNT + ""));
+        if (shardCount < 1 || shardCount > MAX_SHARD_COUNT)
+            throw new ParseException(String.format("%d is not a valid number of shards", shardCount));
+
+        shardIndex = Integer.parseInt(cmdLine.getOptionValue("shard-index", NO_SHARD_INDEX + ""));
+        if (cmdLine.hasOption("shard-index") && (shardIndex < 0 || shardIndex >= shardCount))
+            throw new ParseException(String.format("%d is not a shard of %d shards", shardIndex, shardCount));
+
+        if (cmdLine.hasOption("shard-index") && !cmdLine.hasOption("shard-dir"))
+            throw new ParseException("--shard-index needs the --shard-dir shared by all shards");
+
+        if (shardCount > 1 && cmdLine.hasOption("checkpoint-dir"))
+            throw new ParseException("Sharded crawls can't be checkpointed, remove --checkpoint-dir or --shards");
+
+        if (shardCount > 1 && cmdLine.hasOption("broken-links"))
+            throw new ParseException("Sharded crawls can't check links across shards, remove --broken-links or --shards");
+    }
+
+    private void parseAdaptiveConcurrency() throws ParseException {
+        int maxThreadCount = getConcurrencyLimit();
+        maxConcurrency = Integer.parseInt(cmdLine.getOptionValue("max-concurrency",
+                Math.min(threadCount * DEFAULT_MAX_CONCURRENCY_FACTOR, maxThreadCount) + ""));
+        if (maxConcurrency < threadCount || maxConcurrency > maxThreadCount)
+            throw new ParseException(String.format("Max concurrency should be between %d (-t) and %d", threadCount, maxThreadCount));
+
+        boolean adaptiveEngine = engine == CrawlEngine.POOL || engine == CrawlEngine.VIRTUAL;
+        if (!adaptiveEngine && cmdLine.hasOption("adaptive"))
+            warnings.add("Only the pool and virtual engines adapt their concurrency, ignoring --adaptive");
+        if (!cmdLine.hasOption("adaptive") && (cmdLine.hasOption("max-concurrency") || cmdLine.hasOption("concurrency-metrics")))
+            warnings.add("--max-concurrency and --concurrency-metrics only apply with --adaptive");
+    }
+
+    private void parseRetries() throws ParseException {
+        maxRetries = Integer.parseInt(cmdLine.getOptionValue("retries", DEFAULT_MAX_RETRIES + ""));
+        if (maxRetries < 0 || maxRetries > MAX_RETRIES)
+            throw new ParseException(String.format("%d is not a valid number of retries", maxRetries));
+
+        retryDelayMillis = Integer.parseInt(cmdLine.getOptionValue("retry-delay", DEFAULT_RETRY_DELAY_MILLIS + ""));
+        if (retryDelayMillis < 1 || retryDelayMillis > MAX_RETRY_DELAY_MILLIS)
+            throw new ParseException(String.format("Retry delay should be between 1 and %d", MAX_RETRY_DELAY_MILLIS));
+
+        if (engine == CrawlEngine.FORK_JOIN && (cmdLine.hasOption("retries") || cmdLine.hasOption("retry-delay")))
+            warnings.add("The fork-join engine doesn't use a frontier to retry pages through, ignoring --retries and --retry-delay");
+    }
+
+    private void parseFetcher() throws ParseException {
+        String fetcherName = cmdLine.getOptionValue("fetcher", DEFAULT_FETCHER.name());
+        try {
+            fetcherType = FetcherType.fromName(fetcherName);
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(String.format("\"%s\" is not a valid fetcher", fetcherName));
+        }
+
+        connectTimeoutMillis = Integer.parseInt(cmdLine.getOptionValue("connect-timeout", DEFAULT_CONNECT_TIMEOUT_MILLIS + ""));
+        if (connectTimeoutMillis < 1)
+            throw new ParseException(String.format("%d is not a valid connect timeout", connectTimeoutMillis));
+
+        readTimeoutMillis = Integer.parseInt(cmdLine.getOptionValue("read-timeout", DEFAULT_READ_TIMEOUT_MILLIS + ""));
+        if (readTimeoutMillis < 1)
+            throw new ParseException(String.format("%d is not a valid read timeout", readTimeoutMillis));
+
+        if (fetcherType == FetcherType.JSOUP && cmdLine.hasOption("connect-timeout"))
+            warnings.add("The jsoup fetcher only has one timeout for connecting and reading, ignoring --connect-timeout");
+
+        maxBodyKilobytes = Integer.parseInt(cmdLine.getOptionValue("max-body-size", DEFAULT_MAX_BODY_KILOBYTES + ""));
+        if (maxBodyKilobytes < 1 || maxBodyKilobytes > MAX_BODY_KILOBYTES)
+            throw new ParseException(String.format("Max body size should be between 1 and %d", MAX_BODY_KILOBYTES));
+    }
+
+    private void parseCache() throws ParseException {
+        cacheSizeMegabytes = Integer.parseInt(cmdLine.getOptionValue("cache-size", DEFAULT_CACHE_SIZE_MEGABYTES + ""));
+        if (cacheSizeMegabytes < 1)
+            throw new ParseException(String.format("%d is not a valid cache size", cacheSizeMegabytes));
+
+        if (cmdLine.hasOption("cache-size") && !cmdLine.hasOption("cache-dir"))
+            warnings.add("No cache directory set, ignoring --cache-size");
+    }
+
+    private void parseDns() throws ParseException {
+        dnsTtlSeconds = Integer.parseInt(cmdLine.getOptionValue("dns-ttl", DEFAULT_DNS_TTL_SECONDS + ""));
+        if (dnsTtlSeconds < 1)
+            throw new ParseException(String.format("%d is not a valid DNS TTL", dnsTtlSeconds));
+
+        dnsNegativeTtlSeconds = Integer.parseInt(cmdLine.getOptionValue("dns-negative-ttl", DEFAULT_DNS_NEGATIVE_TTL_SECONDS + ""));
+        if (dnsNegativeTtlSeconds < 0)
+            throw new ParseException(String.format("%d is not a valid negative DNS TTL", dnsNegativeTtlSeconds));
+
+        dnsPrefetchThreadCount = Integer.parseInt(cmdLine.getOptionValue("dns-prefetch-threads", DEFAULT_DNS_PREFETCH_THREAD_COUNT + ""));
+        if (dnsPrefetchThreadCount < 0 || dnsPrefetchThreadCount > MAX_DNS_PREFETCH_THREAD_COUNT)
+            throw new ParseException(String.format("DNS prefetch threads should be between 0 and %d", MAX_DNS_PREFETCH_THREAD_COUNT));
+
+        if (engine == CrawlEngine.FORK_JOIN && cmdLine.hasOption("dns-prefetch-threads"))
+            warnings.add("The fork-join engine doesn't use a frontier to prefetch hosts from, ignoring --dns-prefetch-threads");
+    }
+
+    private void parseArchive() throws ParseException {
+        warcFileMegabytes = Integer.parseInt(cmdLine.getOptionValue("warc-size", DEFAULT_WARC_FILE_MEGABYTES + ""));
+        if (warcFileMegabytes < 1)
+            throw new ParseException(String.format("%d is not a valid WARC file size", warcFileMegabytes));
+
+        if (cmdLine.hasOption("warc-size") && !cmdLine.hasOption("warc-dir"))
+            warnings.add("No WARC directory set, ignoring --warc-size");
+    }
+
+    private void parseReplay() throws ParseException {
+        replayLatencyPercent = Integer.parseInt(cmdLine.getOptionValue("replay-latency", DEFAULT_REPLAY_LATENCY_PERCENT + ""));
+        if (replayLatencyPercent < 0)
+            throw new ParseException(String.format("%d is not a valid replay latency", replayLatencyPercent));
+
+        if (!cmdLine.hasOption("replay")) {
+            if (cmdLine.hasOption("replay-latency"))
+                warnings.add("No replay directory set, ignoring --replay-latency");
+            return;
+        }
+
+        String replayDirectory = cmdLine.getOptionValue("replay");
+        if (!Files.isDirectory(Paths.get(replayDirectory)))
+            throw new ParseException(String.format("\"%s\" is not a directory", replayDirectory));
+
+        if (cmdLine.hasOption("fetcher"))
+            warnings.add("The responses are replayed from --replay, ignoring --fetcher");
+        if (!cmdLine.hasOption("ignore-robots-txt"))
+            warnings.add("robots.txt isn't recorded, ignoring it while replaying");
+    }
+
+    private void parseAnalysisMode() throws ParseException {
+        String modeName = cmdLine.getOptionValue("analysis", DEFAULT_ANALYSIS_MODE.name());
+        try {
+            analysisMode = AnalysisMode.fromName(modeName);
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(String.format("\"%s\" is not a valid analysis mode", modeName));
+        }
+    }
+
+    private void parseEngine() throws ParseException {
+        String engineName = cmdLine.getOptionValue("engine", DEFAULT_ENGINE.name());
+        try {
+            engine = CrawlEngine.fromName(engineName);
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(String.format("\"%s\" is not a valid engine", engineName));
+        }
+
+        if (engine == CrawlEngine.VIRTUAL && !Util.virtualThreadsAvailable())
+            warnings.add(String.format("Virtual threads are not available on this JDK, falling back to at most %d platform threads", MAX_THREAD_COUNT));
+    }
+
     /**
      * Generates a help dialog from the parsed arguments <br>
      * https://stackoverflow.com/questions/44426626/how-do-i-get-help-string-from-commons-cli-instead-of-print
@@ -107,6 +360,44 @@ public class OptionsArgumentParser implements ArgumentParser {
         options.addOption("t",  "thread-count",     true, String.format("Amount of threads to use, will increase CPU and Memory consumption. Default: %d, Range 1-%d", DEFAULT_THREAD_COUNT, MAX_THREAD_COUNT));
         options.addOption("l",  "max-links",        true, String.format("Max amount of links to follow per page. Default: %d, Range: 1-inf", DEFAULT_MAX_LINKS_PER_PAGE));
         options.addOption("d",  "max-depth",        true, String.format("Specify the recursion depth for following links. Default: %d, Range 1-%d", DEFAULT_DEPTH, MAX_DEPTH_ALLOWED));
+        options.addOption("e",  "engine",           true, String.format("Engine used for loading pages: pool, virtual, fork-join, pipeline or async. With virtual and async, -t limits the concurrently loading pages instead, Range 1-%d. With pipeline, -t sets the download threads. Default: %s", MAX_VIRTUAL_CONCURRENCY, DEFAULT_ENGINE.name().toLowerCase()));
+        options.addOption("f",  "frontier",         true, String.format("Order in which pages are loaded: fifo (breadth-first), polite (per host limits) or priority (best-first). Default: %s", DEFAULT_FRONTIER.name().toLowerCase()));
+        options.addOption("p",  "max-per-host",     true, String.format("Max amount of concurrent requests to the same host. Default: %d, Range: 1-inf", DEFAULT_MAX_PER_HOST));
+        options.addOption("i",  "max-per-ip",       true, String.format("Max amount of concurrent requests to the same IP address. Default: %d, Range: 1-inf", DEFAULT_MAX_PER_IP));
+        options.addOption("w",  "crawl-delay",      true, String.format("Min milliseconds between requests to the same host, a longer Crawl-delay from robots.txt is respected. Default: %d, Range: 0-inf", DEFAULT_CRAWL_DELAY_MILLIS));
+        options.addOption("m",  "max-frontier-memory", true, String.format("Max amount of pages waiting in memory, further pages are spilled to disk. Default: %d, Range: 1-inf", DEFAULT_MAX_FRONTIER_MEMORY));
+        options.addOption(null, "spill-dir",        true,   "Directory for pages spilled to disk. Default: a temporary directory");
+        options.addOption(null, "parse-threads",    true, String.format("Amount of threads parsing pages with the pipeline and async engines. Default: amount of available processors, Range 1-%d", MAX_THREAD_COUNT));
+        options.addOption(null, "max-pages",        true,   "Stop loading new pages after this many pages, the result is written nonetheless. Default: 0 (unlimited), Range: 0-inf");
+        options.addOption(null, "max-bytes",        true,   "Stop loading new pages after this many bytes were downloaded. Default: 0 (unlimited), Range: 0-inf");
+        options.addOption(null, "max-time",         true,   "Stop loading new pages after this many seconds. Default: 0 (unlimited), Range: 0-inf");
+        options.addOption(null, "checkpoint-dir",   true,   "Directory to journal the crawl into, so it can be resumed. Default: no checkpoints");
+        options.addOption(null, "checkpoint-interval", true, String.format("Seconds between forcing the journal to disk. Default: %d, Range: 1-inf", DEFAULT_CHECKPOINT_INTERVAL_SECONDS));
+        options.addOption(null, "resume",           false,  "If set, resumes the crawl journaled in --checkpoint-dir instead of starting over, use the same -u and -d");
+        options.addOption(null, "shards",           true, String.format("Amount of processes crawling the hosts partitioned by their hash, limits apply per process. Default: %d, Range: 1-%d", DEFAULT_SHARD_COUNT, MAX_SHARD_COUNT));
+        options.addOption(null, "shard-index",      true,   "Shard of this process, set for the processes launched by --shards. Default: this process launches the other shards");
+        options.addOption(null, "shard-dir",        true,   "Directory the shards exchange pages and results through. Default: a temporary directory");
+        options.addOption(null, "adaptive",         false,  "If set, adapts the concurrency to the latency, timeouts and 429/503 responses, starting at -t globally and -p per host");
+        options.addOption(null, "max-concurrency",  true, String.format("Max amount of concurrently loading pages with --adaptive. Default: %d times -t", DEFAULT_MAX_CONCURRENCY_FACTOR));
+        options.addOption(null, "concurrency-metrics", true, "File to write every concurrency limit change of --adaptive into as JSON lines. Default: no metrics");
+        options.addOption(null, "retries",          true, String.format("Max amount of retries of a page that failed with a timeout, a reset connection or a 408/425/429/5xx status. Default: %d, Range: 0-%d", DEFAULT_MAX_RETRIES, MAX_RETRIES));
+        options.addOption(null, "retry-delay",      true, String.format("Milliseconds before the first retry, doubled with every retry and jittered, a longer Retry-After is respected. Default: %d, Range: 1-%d", DEFAULT_RETRY_DELAY_MILLIS, MAX_RETRY_DELAY_MILLIS));
+        options.addOption(null, "hedge",            false,  "If set, requests a page a second time when it takes longer than 95% of the previous requests to its host");
+        options.addOption(null, "fetcher",          true, String.format("Client used for loading pages: jsoup or http-client. http-client pools connections and uses HTTP/2 where supported. Default: %s", DEFAULT_FETCHER.name().toLowerCase().replace('_', '-')));
+        options.addOption(null, "connect-timeout",  true, String.format("Milliseconds establishing a connection may take with the http-client fetcher. Default: %d", DEFAULT_CONNECT_TIMEOUT_MILLIS));
+        options.addOption(null, "read-timeout",     true, String.format("Milliseconds a page may take to load once connected, the only timeout of the jsoup fetcher. Default: %d", DEFAULT_READ_TIMEOUT_MILLIS));
+        options.addOption(null, "max-body-size",    true, String.format("Max kilobytes read of a page, larger pages are cut off and marked as truncated. Default: %d, Range: 1-%d", DEFAULT_MAX_BODY_KILOBYTES, MAX_BODY_KILOBYTES));
+        options.addOption(null, "cache-dir",        true,   "Directory to cache pages with an ETag or Last-Modified date in, they are revalidated with conditional requests on the next crawl. Default: no cache");
+        options.addOption(null, "cache-size",       true, String.format("Max megabytes of page bodies in --cache-dir, the least recently used pages are evicted first. Default: %d, Range: 1-inf", DEFAULT_CACHE_SIZE_MEGABYTES));
+        options.addOption(null, "dns-ttl",          true, String.format("Seconds resolved hosts are cached. Default: %d, Range: 1-inf", DEFAULT_DNS_TTL_SECONDS));
+        options.addOption(null, "dns-negative-ttl", true, String.format("Seconds hosts that can't be resolved are cached. Default: %d, Range: 0-inf", DEFAULT_DNS_NEGATIVE_TTL_SECONDS));
+        options.addOption(null, "dns-prefetch-threads", true, String.format("Amount of threads resolving the hosts of pages as they enter the frontier, 0 to resolve them when loading. Default: %d, Range: 0-%d", DEFAULT_DNS_PREFETCH_THREAD_COUNT, MAX_DNS_PREFETCH_THREAD_COUNT));
+        options.addOption(null, "broken-links",     true,   "File to write the broken links with the pages referring to them into as JSON, the pages of the last depth level are then only checked with HEAD requests. Default: no link check");
+        options.addOption(null, "warc-dir",         true,   "Directory to archive every response into as WARC files, with an index of the record offsets next to every file. Default: no archive");
+        options.addOption(null, "warc-size",        true, String.format("Megabytes after which a new WARC file is started in --warc-dir. Default: %d, Range: 1-inf", DEFAULT_WARC_FILE_MEGABYTES));
+        options.addOption(null, "replay",           true,   "Directory of WARC files written with --warc-dir to replay the responses from instead of the network, URLs that weren't recorded are answered with 404. Default: no replay");
+        options.addOption(null, "replay-latency",   true, String.format("Percentage of the recorded latency of every response to wait before it is replayed from --replay. Default: %d, Range: 0-inf", DEFAULT_REPLAY_LATENCY_PERCENT));
+        options.addOption(null, "analysis",         true, String.format("How pages are analyzed: dom (parsed into a document) or streaming (tokenized while read without a document, constant memory for huge pages). Default: %s", DEFAULT_ANALYSIS_MODE.name().toLowerCase()));
         options.addOption("u",  "urls",             true,   "Specify the root urls for the crawler. Multiple urls must be comma separated");
         options.addOption("o",  "output",           true,   "Specify a Output File as alternative to stdout");
         options.addOption("s",  "omit-duplicates",  false,  "If set, omits duplicate pages");
@@ -126,6 +417,21 @@ public class OptionsArgumentParser implements ArgumentParser {
         return cmdLine != null && cmdLine.hasOption("omit-duplicates");
     }
 
+    @Override
+    public boolean resumeRequested() {
+        return cmdLine != null && cmdLine.hasOption("resume");
+    }
+
+    @Override
+    public boolean adaptiveConcurrency() {
+        return cmdLine != null && cmdLine.hasOption("adaptive");
+    }
+
+    @Override
+    public boolean hedgeRequests() {
+        return cmdLine != null && cmdLine.hasOption("hedge");
+    }
+
     @Override
     public boolean spoofBrowser() {
         return cmdLine != null && cmdLine.hasOption("spoof-browser");
@@ -156,6 +462,181 @@ public class OptionsArgumentParser implements ArgumentParser {
         return maxLinksPerPage;
     }
 
+    @Override
+    public CrawlEngine getEngine() {
+        return engine;
+    }
+
+    @Override
+    public FrontierType getFrontierType() {
+        return frontierType;
+    }
+
+    @Override
+    public int getMaxPerHost() {
+        return maxPerHost;
+    }
+
+    @Override
+    public int getMaxPerIp() {
+        return maxPerIp;
+    }
+
+    @Override
+    public int getCrawlDelayMillis() {
+        return crawlDelayMillis;
+    }
+
+    @Override
+    public int getMaxFrontierMemory() {
+        return maxFrontierMemory;
+    }
+
+    @Override
+    public String getSpillDirectory() {
+        return cmdLine.getOptionValue("spill-dir", "");
+    }
+
+    @Override
+    public int getParseThreadCount() {
+        return parseThreadCount;
+    }
+
+    @Override
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    @Override
+    public int getRetryDelayMillis() {
+        return retryDelayMillis;
+    }
+
+    @Override
+    public FetcherType getFetcherType() {
+        return fetcherType;
+    }
+
+    @Override
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    @Override
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    @Override
+    public int getMaxBodyKilobytes() {
+        return maxBodyKilobytes;
+    }
+
+    @Override
+    public int getDnsTtlSeconds() {
+        return dnsTtlSeconds;
+    }
+
+    @Override
+    public int getDnsNegativeTtlSeconds() {
+        return dnsNegativeTtlSeconds;
+    }
+
+    @Override
+    public int getDnsPrefetchThreadCount() {
+        return dnsPrefetchThreadCount;
+    }
+
+    @Override
+    public String getCacheDirectory() {
+        return cmdLine.getOptionValue("cache-dir", "");
+    }
+
+    @Override
+    public String getWarcDirectory() {
+        return cmdLine.getOptionValue("warc-dir", "");
+    }
+
+    @Override
+    public int getWarcFileMegabytes() {
+        return warcFileMegabytes;
+    }
+
+    @Override
+    public String getReplayDirectory() {
+        return cmdLine.getOptionValue("replay", "");
+    }
+
+    @Override
+    public int getReplayLatencyPercent() {
+        return replayLatencyPercent;
+    }
+
+    @Override
+    public AnalysisMode getAnalysisMode() {
+        return analysisMode;
+    }
+
+    @Override
+    public String getBrokenLinkReportFile() {
+        return cmdLine.getOptionValue("broken-links", "");
+    }
+
+    @Override
+    public int getCacheSizeMegabytes() {
+        return cacheSizeMegabytes;
+    }
+
+    @Override
+    public long getMaxPages() {
+        return maxPages;
+    }
+
+    @Override
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public long getMaxTimeSeconds() {
+        return maxTimeSeconds;
+    }
+
+    @Override
+    public String getCheckpointDirectory() {
+        return cmdLine.getOptionValue("checkpoint-dir", "");
+    }
+
+    @Override
+    public int getCheckpointIntervalSeconds() {
+        return checkpointIntervalSeconds;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public String getConcurrencyMetricsFile() {
+        return cmdLine.getOptionValue("concurrency-metrics", "");
+    }
+
+    @Override
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    @Override
+    public String getShardDirectory() {
+        return cmdLine.getOptionValue("shard-dir", "");
+    }
+
     @Override
     public ArrayList<String> getRootUrls() {
         return rootUrls;
@@ -7,6 +7,8 @@ import java.lang.reflect.Field;
 import java.net.URI;
 import java.text.DecimalFormat;
 import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class Util {
 
@@ -79,4 +81,31 @@ public class Util {
             }
         };
     }
+
+    /**
+     * Creates an Executor that starts a new virtual thread for each task. <br>
+     * Virtual threads are looked up reflectively, since they are not available on every supported JDK.
+     * If they are missing, a cached pool of platform threads is returned instead.
+     *
+     * @return an Executor with one thread per task
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * @return true if the running JDK supports virtual threads
+     */
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
 }
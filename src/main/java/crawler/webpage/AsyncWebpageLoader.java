@@ -1,16 +1,41 @@
 package crawler.webpage;
 
+import crawler.util.Util;
+import crawler.webpage.concurrency.AdaptiveConcurrencyController;
+import crawler.webpage.concurrency.FetchOutcome;
+import crawler.webpage.frontier.CrawlFrontier;
+import crawler.webpage.frontier.CrawlTask;
+import crawler.webpage.frontier.FifoCrawlFrontier;
+import crawler.webpage.retry.RetryPolicy;
+import crawler.webpage.retry.RetryScheduler;
+
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class AsyncWebpageLoader {
+public class AsyncWebpageLoader implements WebpageLoader {
 
     private final ArrayList<Webpage> rootPages;
-    private final int depth;
-    private final ThreadPoolExecutor threadPool;
+    private final int depth, threadCount;
+    private final CrawlEngine engine;
+    private final ExecutorService threadPool;
+    private final Semaphore loadPermits;
+
+    private CrawlFrontier frontier = new FifoCrawlFrontier();
+    private CrawlBudget budget = CrawlBudget.unlimited();
+    private CrawlObserver observer = task -> { };
+    private AdaptiveConcurrencyController concurrency;
+    private RetryScheduler retries = new RetryScheduler(RetryPolicy.none());
+    private List<CrawlTask> startTasks;
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    private final AtomicInteger loadingTasks = new AtomicInteger();
+    private final CountDownLatch crawlFinished = new CountDownLatch(1);
 
     /**
      * @param rootPage      the first page to load
@@ -27,42 +52,340 @@ public class AsyncWebpageLoader {
      * @param threadCount   how many threads to use for loading
      */
     public AsyncWebpageLoader(ArrayList<Webpage> rootPages, int depth, int threadCount) {
+        this(rootPages, depth, threadCount, CrawlEngine.POOL);
+    }
+
+    /**
+     * @param rootPages     the first pages to load
+     * @param depth         to which depth to load children of the rootPages
+     * @param threadCount   how many threads to use for loading,
+     *                      or for {@link CrawlEngine#VIRTUAL} how many pages may load concurrently
+     * @param engine        how the loading threads are provided
+     */
+    public AsyncWebpageLoader(ArrayList<Webpage> rootPages, int depth, int threadCount, CrawlEngine engine) {
         this.rootPages = rootPages;
         this.depth = depth;
-        this.threadPool = (ThreadPoolExecutor) Executors.newFixedThreadPool(threadCount);
+        this.threadCount = threadCount;
+        this.engine = engine;
+
+        if (engine == CrawlEngine.VIRTUAL) {
+            this.threadPool = Util.newThreadPerTaskExecutor();
+            this.loadPermits = new Semaphore(threadCount);
+        } else {
+            this.threadPool = Executors.newFixedThreadPool(threadCount);
+            this.loadPermits = null;
+        }
     }
 
     /**
      * Starts loading the pages recursively with the parameters specified int the constructor. <br>
-     * This method blocks until the recursive loading process is finished.
+     * This method blocks until the recursive loading process is finished,
+     * which is exactly when the last scheduled page has been processed. <br>
+     * If the budget runs out first, no further pages are loaded and this method returns
+     * as soon as the pages which are already loading are finished.
      *
      * @throws InterruptedException when interrupted
      */
+    @Override
     public void loadPagesRecursivelyAndBlock() throws InterruptedException {
-        loadPagesRecursively(rootPages, depth);
+        try {
+            budget.start();
+            if (startTasks == null) {
+                for (Webpage rootPage : rootPages)
+                    schedule(new CrawlTask(rootPage, depth));
+            } else {
+                for (CrawlTask startTask : startTasks)
+                    schedule(startTask);
+            }
 
-        while (threadPool.getActiveCount() > 0)
-            Thread.sleep(50);
+            if (pendingTasks.get() == 0)
+                return;
 
-        threadPool.shutdown();
-        threadPool.awaitTermination(30, TimeUnit.SECONDS);
+            if (engine == CrawlEngine.VIRTUAL) {
+                threadPool.execute(this::dispatchFrontier);
+            } else {
+                for (int i = 0; i < threadCount; i++)
+                    threadPool.execute(this::processFrontier);
+            }
+
+            awaitCrawl();
+        } finally {
+            retries.shutdown();
+            threadPool.shutdownNow();
+        }
     }
 
     /**
-     * Method for loading the Webpages children recursively.
+     * Waits until the crawl is finished or the time budget ran out and the loading pages are drained.
      *
-     * @param pages             list of pages to load
-     * @param remainingDepth    the remaining depth for loading, will only load if > 0
+     * @throws InterruptedException when interrupted
      */
-    private void loadPagesRecursively(ArrayList<Webpage> pages, int remainingDepth) {
-        if (remainingDepth < 1)
+    private void awaitCrawl() throws InterruptedException {
+        long remainingNanos = budget.getRemainingNanos();
+        if (remainingNanos == CrawlBudget.UNLIMITED) {
+            crawlFinished.await();
             return;
+        }
+
+        if (!crawlFinished.await(remainingNanos, TimeUnit.NANOSECONDS) && budget.isExhausted())
+            finishIfDrained();
+        crawlFinished.await();
+    }
+
+    /**
+     * Worker loop, takes tasks from the frontier until the pool is shut down.
+     * With a concurrency controller, workers beyond its current limit wait before taking a task.
+     */
+    private void processFrontier() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (concurrency == null) {
+                    process(frontier.take());
+                    continue;
+                }
 
-        for (Webpage page : pages) {
-            threadPool.execute(() -> {
+                concurrency.acquire();
+                try {
+                    process(frontier.take());
+                } finally {
+                    concurrency.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Dispatcher loop, starts a new thread for every task taken from the frontier
+     * as long as a load permit is available, until the pool is shut down.
+     * With a concurrency controller, its current limit replaces the fixed amount of permits.
+     */
+    private void dispatchFrontier() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                acquireLoadPermit();
+                CrawlTask task;
+                try {
+                    task = frontier.take();
+                } catch (InterruptedException e) {
+                    releaseLoadPermit();
+                    throw e;
+                }
+                threadPool.execute(() -> {
+                    try {
+                        process(task);
+                    } finally {
+                        releaseLoadPermit();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acquireLoadPermit() throws InterruptedException {
+        if (concurrency == null)
+            loadPermits.acquire();
+        else
+            concurrency.acquire();
+    }
+
+    private void releaseLoadPermit() {
+        if (concurrency == null)
+            loadPermits.release();
+        else
+            concurrency.release();
+    }
+
+    /**
+     * Loads the page of the task and schedules its children, a page on the last depth level is only checked with a link checker.
+     * The children are counted before this task is marked as finished,
+     * so the amount of pending tasks only reaches zero once the whole crawl is done. <br>
+     * Once the budget is exhausted, tasks are dropped without loading their page. <br>
+     * A page that failed with a transient error is pushed to the frontier again after its backoff,
+     * it only counts towards the page budget once. <br>
+     * An exception of the observer or the frontier is reported and ends only this task,
+     * so the worker keeps taking tasks and the crawl can't hang with tasks left in the frontier.
+     *
+     * @param task  the task to process
+     */
+    private void process(CrawlTask task) {
+        // counted before asking the budget, so a drain can't be missed by a page that is about to load
+        loadingTasks.incrementAndGet();
+        try {
+            if (!startWithinBudget(task))
+                return;
+
+            Webpage page = task.getPage();
+            long startTime = System.nanoTime();
+            if (task.isLinkCheck())
+                page.checkLink(task.getParent());
+            else
                 page.loadPage();
-                loadPagesRecursively(page.getChildren(), remainingDepth - 1);
-            });
+            recordFetch(page, System.nanoTime() - startTime);
+            if (retryLater(task))
+                return;
+            budget.recordBytes(page.getPageSize());
+            observer.pageProcessed(task);
+            // copied, since the frontier may release children while they are scheduled
+            for (Webpage child : new ArrayList<>(page.getChildren()))
+                schedule(new CrawlTask(child, task.getRemainingDepth() - 1, page));
+        } catch (RuntimeException e) {
+            System.err.println("Processing " + task.getPage().getPageURI() + " failed: " + e);
+        } finally {
+            loadingTasks.decrementAndGet();
+            frontier.complete(task);
+            if (pendingTasks.decrementAndGet() == 0)
+                crawlFinished.countDown();
+            else if (budget.isExhausted())
+                finishIfDrained();
+        }
+    }
+
+    /**
+     * Schedules the next attempt of the task if its page failed transiently.
+     * The attempt is counted as pending right away, so the crawl doesn't finish while it waits.
+     *
+     * @param task  the task whose page was just loaded
+     * @return      true if the task will be retried
+     */
+    private boolean retryLater(CrawlTask task) {
+        pendingTasks.incrementAndGet();
+        if (retries.retryLater(task, frontier::push))
+            return true;
+
+        pendingTasks.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * Reports the outcome of the fetch to the concurrency controller, before the frontier frees the host of the page.
+     *
+     * @param page          the loaded page
+     * @param elapsedNanos  how long loading the page took, used if the fetch itself wasn't timed
+     */
+    private void recordFetch(Webpage page, long elapsedNanos) {
+        if (concurrency == null || page.loadingWasPreventedByFilter())
+            return;
+
+        String host = page.getPageURI().getHost();
+        long latencyNanos = page.getLoadTimeInNanos() > 0 ? page.getLoadTimeInNanos() : elapsedNanos;
+        concurrency.record(host == null ? "" : host, latencyNanos, FetchOutcome.of(page.getError()));
+    }
+
+    /**
+     * Decides whether the page of a task is loaded. The first attempt is taken from the budget
+     * only after the filters of the page passed, a page rejected by a filter isn't downloaded, so it doesn't use up the budget.
+     * Retries were taken from the budget with their first attempt already. <br>
+     * Once the budget is exhausted, tasks are dropped without checking the filters.
+     *
+     * @param task  the task that is about to be processed
+     * @return      false if the task should be dropped
+     */
+    private boolean startWithinBudget(CrawlTask task) {
+        if (budget.isExhausted())
+            return false;
+        if (task.getAttempt() > 1 || !task.getPage().passesLoadFilters())
+            return true;
+        return budget.tryStartPage();
+    }
+
+    /**
+     * Finishes the crawl once no page is loading anymore,
+     * the tasks left in the frontier are dropped.
+     */
+    private void finishIfDrained() {
+        if (loadingTasks.get() == 0)
+            crawlFinished.countDown();
+    }
+
+    /**
+     * Sets the frontier the pages are scheduled in, must be called before loading.
+     * Defaults to a {@link FifoCrawlFrontier}.
+     *
+     * @param newFrontier   the frontier to use
+     */
+    public void setFrontier(CrawlFrontier newFrontier) {
+        frontier = newFrontier;
+    }
+
+    /**
+     * Lets the controller adapt how many pages load at once, must be called before loading.
+     * Its limit can't exceed the threadCount of the constructor, which should be its max limit.
+     * Defaults to no controller, so threadCount pages load at once.
+     *
+     * @param newConcurrency    the controller to use
+     */
+    public void setConcurrencyController(AdaptiveConcurrencyController newConcurrency) {
+        concurrency = newConcurrency;
+    }
+
+    /**
+     * Retries pages that failed with a transient error through the frontier, must be called before loading.
+     * Defaults to {@link RetryPolicy#none()}.
+     *
+     * @param newRetryPolicy    the policy to use
+     */
+    public void setRetryPolicy(RetryPolicy newRetryPolicy) {
+        retries = new RetryScheduler(newRetryPolicy);
+    }
+
+    /**
+     * @return  how many retries were scheduled so far
+     */
+    public long getRetryCount() {
+        return retries.getRetryCount();
+    }
+
+    /**
+     * @return  the statistics of the concurrency controller, empty without one
+     */
+    @Override
+    public String getStatistics() {
+        return concurrency == null ? "" : concurrency.getStatistics();
+    }
+
+    @Override
+    public void setStartTasks(List<CrawlTask> newStartTasks) {
+        startTasks = newStartTasks;
+    }
+
+    @Override
+    public void setCrawlObserver(CrawlObserver newObserver) {
+        observer = newObserver;
+    }
+
+    /**
+     * Sets the limits of the crawl, must be called before loading.
+     * Defaults to {@link CrawlBudget#unlimited()}.
+     *
+     * @param newBudget the budget to use
+     */
+    @Override
+    public void setBudget(CrawlBudget newBudget) {
+        budget = newBudget;
+    }
+
+    /**
+     * Adds a task to the frontier, given that it still has depth remaining,
+     * the budget isn't exhausted and the observer doesn't leave it out.
+     *
+     * @param task  the task to schedule
+     */
+    private void schedule(CrawlTask task) {
+        if (task.getRemainingDepth() < 1 || budget.isExhausted() || !observer.shouldSchedule(task))
+            return;
+
+        pendingTasks.incrementAndGet();
+        try {
+            frontier.push(task);
+        } catch (RuntimeException e) {
+            // the task never reaches the frontier, so it won't be finished either
+            if (pendingTasks.decrementAndGet() == 0)
+                crawlFinished.countDown();
+            throw e;
         }
     }
 }
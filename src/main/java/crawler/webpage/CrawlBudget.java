@@ -0,0 +1,126 @@
+package crawler.webpage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Global limits for a crawl, shared by all workers of a loader. <br>
+ * Every limit is checked before a page is loaded, so pages which are already loading
+ * when a limit is reached are finished and may exceed the byte limit by their size.
+ */
+public class CrawlBudget {
+
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final long maxPages, maxBytes, maxNanos;
+
+    private final AtomicLong startedPages = new AtomicLong();
+    private final AtomicLong loadedBytes = new AtomicLong();
+    private final AtomicReference<String> exhaustedBy = new AtomicReference<>();
+    private volatile long deadline;
+    private boolean started;
+
+    /**
+     * @param maxPages      how many pages may be loaded, pages rejected by a load filter don't count,
+     *                      {@link CrawlBudget#UNLIMITED} for no limit
+     * @param maxBytes      how many bytes may be downloaded, {@link CrawlBudget#UNLIMITED} for no limit
+     * @param maxMillis     how long the crawl may take, {@link CrawlBudget#UNLIMITED} for no limit
+     */
+    public CrawlBudget(long maxPages, long maxBytes, long maxMillis) {
+        this.maxPages = maxPages;
+        this.maxBytes = maxBytes;
+        this.maxNanos = maxMillis == UNLIMITED ? UNLIMITED : TimeUnit.MILLISECONDS.toNanos(maxMillis);
+    }
+
+    /**
+     * @return  a budget without any limits
+     */
+    public static CrawlBudget unlimited() {
+        return new CrawlBudget(UNLIMITED, UNLIMITED, UNLIMITED);
+    }
+
+    /**
+     * Starts the wall clock, called by the loader when the crawl begins.
+     * Only the first call starts it, so a budget can be shared by several loaders of one crawl.
+     */
+    public synchronized void start() {
+        if (started)
+            return;
+        started = true;
+        deadline = maxNanos == UNLIMITED ? UNLIMITED : System.nanoTime() + maxNanos;
+    }
+
+    /**
+     * Takes a page from the budget, atomically across all workers.
+     *
+     * @return  true if the page may be loaded, false if the budget is exhausted
+     */
+    public boolean tryStartPage() {
+        if (isExhausted())
+            return false;
+
+        long pages;
+        do {
+            pages = startedPages.get();
+            if (pages >= maxPages) {
+                exhaust("pages");
+                return false;
+            }
+        } while (!startedPages.compareAndSet(pages, pages + 1));
+
+        return true;
+    }
+
+    /**
+     * Adds the size of a loaded page to the downloaded bytes.
+     *
+     * @param bytes the size of the page
+     */
+    public void recordBytes(long bytes) {
+        if (loadedBytes.addAndGet(bytes) >= maxBytes)
+            exhaust("bytes");
+    }
+
+    /**
+     * @return  true once any limit has been reached, no new pages should be scheduled then
+     */
+    public boolean isExhausted() {
+        if (exhaustedBy.get() != null)
+            return true;
+
+        if (deadline != UNLIMITED && deadline != 0 && System.nanoTime() - deadline >= 0) {
+            exhaust("time");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return  how long until the time limit is reached, {@link CrawlBudget#UNLIMITED} if there is none
+     */
+    public long getRemainingNanos() {
+        if (maxNanos == UNLIMITED)
+            return UNLIMITED;
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * @return  the limit that was reached first (pages, bytes or time), null if none was reached
+     */
+    public String getExhaustedBy() {
+        return exhaustedBy.get();
+    }
+
+    public long getStartedPages() {
+        return startedPages.get();
+    }
+
+    public long getLoadedBytes() {
+        return loadedBytes.get();
+    }
+
+    private void exhaust(String limit) {
+        exhaustedBy.compareAndSet(null, limit);
+    }
+}
@@ -0,0 +1,39 @@
+package crawler.webpage;
+
+public enum CrawlEngine {
+    /**
+     * A fixed amount of platform threads, each loading one page at a time.
+     */
+    POOL,
+    /**
+     * A virtual thread per page, the amount of concurrently loading pages is bounded by a semaphore.
+     * Falls back to platform threads on runtimes without virtual threads.
+     */
+    VIRTUAL,
+    /**
+     * A work-stealing {@link java.util.concurrent.ForkJoinPool}, where every page forks its children as subtasks.
+     * Doesn't use a frontier, pages are loaded in depth-first order per worker.
+     */
+    FORK_JOIN,
+    /**
+     * Separate stages for downloading, parsing and expanding pages, connected by bounded queues.
+     * Downloading uses its own threads for blocking I/O, parsing a CPU sized pool.
+     */
+    PIPELINE,
+    /**
+     * Every page is a chain of {@link java.util.concurrent.CompletableFuture} stages, no thread waits for a response
+     * with an async fetcher. The amount of requests in flight is bounded by a semaphore, parsing uses a CPU sized pool.
+     */
+    ASYNC;
+
+    /**
+     * Case insensitive lookup of an engine by its name.
+     *
+     * @param name  the name of the engine
+     * @return      the engine with that name
+     * @throws IllegalArgumentException if no engine has that name
+     */
+    public static CrawlEngine fromName(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
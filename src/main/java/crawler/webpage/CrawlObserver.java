@@ -0,0 +1,25 @@
+package crawler.webpage;
+
+import crawler.webpage.frontier.CrawlTask;
+
+public interface CrawlObserver {
+    /**
+     * Called by the loader once the page of a task was loaded, before its children are scheduled.
+     * Called concurrently by the workers of the loader.
+     *
+     * @param task  the processed task
+     */
+    void pageProcessed(CrawlTask task);
+
+    /**
+     * Called by the loader before a task is scheduled, e.g. to leave out the children another process loads.
+     * A task left out isn't pushed to the frontier, so it isn't filtered, loaded or taken from the budget.
+     * Called concurrently by the workers of the loader.
+     *
+     * @param task  the task about to be scheduled
+     * @return      true if the task should be scheduled, which is the default
+     */
+    default boolean shouldSchedule(CrawlTask task) {
+        return true;
+    }
+}
@@ -0,0 +1,227 @@
+package crawler.webpage;
+
+import crawler.webpage.frontier.CrawlTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+public class ForkJoinWebpageLoader implements WebpageLoader {
+
+    /**
+     * How many threads the pool may start in addition to the threadCount to replace workers blocked on the network,
+     * the same amount of spare threads the common pool allows.
+     */
+    public static final int MAX_SPARE_THREADS = 256;
+
+    private final ArrayList<Webpage> rootPages;
+    private final int depth;
+    private final ForkJoinPool forkJoinPool;
+    private CrawlBudget budget = CrawlBudget.unlimited();
+    private CrawlObserver observer = task -> { };
+    private List<CrawlTask> startTasks;
+
+    /**
+     * @param rootPage      the first page to load
+     * @param depth         to which depth to load children of the rootPages
+     * @param threadCount   how many threads to use for loading
+     */
+    public ForkJoinWebpageLoader(Webpage rootPage, int depth, int threadCount) {
+        this(new ArrayList<>(Collections.singletonList(rootPage)), depth, threadCount);
+    }
+
+    /**
+     * @param rootPages     the first pages to load
+     * @param depth         to which depth to load children of the rootPages
+     * @param threadCount   how many threads to use for loading, while workers wait for the network
+     *                      up to {@link ForkJoinWebpageLoader#MAX_SPARE_THREADS} more threads are started to replace them
+     */
+    public ForkJoinWebpageLoader(ArrayList<Webpage> rootPages, int depth, int threadCount) {
+        this.rootPages = rootPages;
+        this.depth = depth;
+        // once all spare threads are used, blocked workers wait without being replaced instead of failing
+        this.forkJoinPool = new ForkJoinPool(threadCount, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false,
+                0, threadCount + MAX_SPARE_THREADS, 1, pool -> true, 60, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts loading the pages recursively with the parameters specified in the constructor. <br>
+     * Every page forks a subtask per child into the deque of its worker,
+     * idle workers steal subtasks from busy ones instead of sharing a single queue. <br>
+     * Pages are loaded through {@link ForkJoinPool#managedBlock}, so the pool keeps threadCount workers running
+     * while others wait for a response. <br>
+     * This method blocks until the recursive loading process is finished,
+     * or until the budget ran out and the pages which are already loading are finished.
+     *
+     * @throws InterruptedException when interrupted
+     */
+    @Override
+    public void loadPagesRecursivelyAndBlock() throws InterruptedException {
+        try {
+            budget.start();
+            if (startTasks == null)
+                forkJoinPool.submit(new LoadPagesAction(rootPages, null, depth, budget, observer)).get();
+            else
+                forkJoinPool.submit(new LoadTasksAction(startTasks, budget, observer)).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Loading the pages failed", e.getCause());
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+    }
+
+    @Override
+    public void setStartTasks(List<CrawlTask> newStartTasks) {
+        startTasks = newStartTasks;
+    }
+
+    @Override
+    public void setCrawlObserver(CrawlObserver newObserver) {
+        observer = newObserver;
+    }
+
+    /**
+     * Sets the limits of the crawl, must be called before loading.
+     * Defaults to {@link CrawlBudget#unlimited()}.
+     *
+     * @param newBudget the budget to use
+     */
+    @Override
+    public void setBudget(CrawlBudget newBudget) {
+        budget = newBudget;
+    }
+
+    /**
+     * @return  how many subtasks were stolen by idle workers so far
+     */
+    public long getStealCount() {
+        return forkJoinPool.getStealCount();
+    }
+
+    private static class LoadTasksAction extends RecursiveAction {
+        private final List<CrawlTask> tasks;
+        private final CrawlBudget budget;
+        private final CrawlObserver observer;
+
+        private LoadTasksAction(List<CrawlTask> tasks, CrawlBudget budget, CrawlObserver observer) {
+            this.tasks = tasks;
+            this.budget = budget;
+            this.observer = observer;
+        }
+
+        @Override
+        protected void compute() {
+            ArrayList<LoadPageAction> subtasks = new ArrayList<>();
+            for (CrawlTask task : tasks)
+                if (task.getRemainingDepth() >= 1 && observer.shouldSchedule(task))
+                    subtasks.add(new LoadPageAction(task.getPage(), task.getParent(), task.getRemainingDepth(), budget, observer));
+            invokeAll(subtasks);
+        }
+    }
+
+    private static class LoadPagesAction extends RecursiveAction {
+        private final ArrayList<Webpage> pages;
+        private final Webpage parent;
+        private final int remainingDepth;
+        private final CrawlBudget budget;
+        private final CrawlObserver observer;
+
+        private LoadPagesAction(ArrayList<Webpage> pages, Webpage parent, int remainingDepth, CrawlBudget budget, CrawlObserver observer) {
+            this.pages = pages;
+            this.parent = parent;
+            this.remainingDepth = remainingDepth;
+            this.budget = budget;
+            this.observer = observer;
+        }
+
+        @Override
+        protected void compute() {
+            if (remainingDepth < 1 || budget.isExhausted())
+                return;
+
+            ArrayList<LoadPageAction> subtasks = new ArrayList<>();
+            for (Webpage page : pages)
+                if (observer.shouldSchedule(new CrawlTask(page, remainingDepth, parent)))
+                    subtasks.add(new LoadPageAction(page, parent, remainingDepth, budget, observer));
+            invokeAll(subtasks);
+        }
+    }
+
+    private static class LoadPageAction extends RecursiveAction {
+        private final Webpage page, parent;
+        private final int remainingDepth;
+        private final CrawlBudget budget;
+        private final CrawlObserver observer;
+
+        private LoadPageAction(Webpage page, Webpage parent, int remainingDepth, CrawlBudget budget, CrawlObserver observer) {
+            this.page = page;
+            this.parent = parent;
+            this.remainingDepth = remainingDepth;
+            this.budget = budget;
+            this.observer = observer;
+        }
+
+        /**
+         * Loads the page and its children, the page is taken from the budget only after its filters passed,
+         * so a page rejected e.g. as duplicate doesn't use up the budget.
+         */
+        @Override
+        protected void compute() {
+            if (budget.isExhausted())
+                return;
+
+            CrawlTask task = new CrawlTask(page, remainingDepth, parent);
+            try {
+                ForkJoinPool.managedBlock(new BlockingStep(page::passesLoadFilters));
+                if (page.passesLoadFilters() && !budget.tryStartPage())
+                    return;
+                ForkJoinPool.managedBlock(new BlockingStep(() -> load(task)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            budget.recordBytes(page.getPageSize());
+            observer.pageProcessed(task);
+            new LoadPagesAction(page.getChildren(), page, remainingDepth - 1, budget, observer).compute();
+        }
+    }
+
+    /**
+     * Loads the page of a task, a page on the last depth level is only checked with a link checker.
+     */
+    private static void load(CrawlTask task) {
+        if (task.isLinkCheck())
+            task.getPage().checkLink(task.getParent());
+        else
+            task.getPage().loadPage();
+    }
+
+    /**
+     * A step that blocks on the network, like loading a page or checking its filters.
+     * Run through {@link ForkJoinPool#managedBlock} the pool can compensate for the blocked worker.
+     */
+    private static class BlockingStep implements ForkJoinPool.ManagedBlocker {
+        private final Runnable step;
+        private boolean done;
+
+        private BlockingStep(Runnable step) {
+            this.step = step;
+        }
+
+        @Override
+        public boolean block() {
+            step.run();
+            done = true;
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package crawler.webpage;
+
+import crawler.webpage.fetcher.AsyncFetcher;
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.frontier.CrawlFrontier;
+import crawler.webpage.frontier.CrawlTask;
+import crawler.webpage.frontier.FifoCrawlFrontier;
+import crawler.webpage.retry.RetryPolicy;
+import crawler.webpage.retry.RetryScheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads pages as chains of {@link java.util.concurrent.CompletableFuture} stages instead of a blocked thread per request: <br>
+ * one thread takes pages from the frontier, a blocking thread checks their filters and starts the download,
+ * the parse threads analyze the downloaded pages and schedule their children once the download completes. <br>
+ * With an {@link AsyncFetcher} like the http-client fetcher no thread waits for a response,
+ * other fetchers are run through a {@link crawler.webpage.fetcher.BlockingFetcherAdapter} and block a thread per request again.
+ * Filters may block as well, e.g. while robots.txt is loaded, so a page with filters blocks a thread until they are checked.
+ */
+public class NonBlockingWebpageLoader implements WebpageLoader {
+
+    private final ArrayList<Webpage> rootPages;
+    private final int depth, maxInFlight, parseThreadCount;
+
+    private final ExecutorService dispatchThread = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "dispatch"));
+    private final ExecutorService parseThreadPool;
+    private final ThreadPoolExecutor blockingThreadPool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "blocking");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private final ConcurrentHashMap<Fetcher, AsyncFetcher> asyncFetchers = new ConcurrentHashMap<>();
+    private final Semaphore inFlightPermits;
+
+    private CrawlFrontier frontier = new FifoCrawlFrontier();
+    private CrawlBudget budget = CrawlBudget.unlimited();
+    private CrawlObserver observer = task -> { };
+    private RetryScheduler retries = new RetryScheduler(RetryPolicy.none());
+    private List<CrawlTask> startTasks;
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    private final AtomicInteger loadingTasks = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder fetchedCount = new LongAdder();
+    private final CountDownLatch crawlFinished = new CountDownLatch(1);
+
+    /**
+     * @param rootPage          the first page to load
+     * @param depth             to which depth to load children of the rootPages
+     * @param maxInFlight       how many requests may be in flight at once
+     * @param parseThreadCount  how many threads parse and analyze downloaded pages
+     */
+    public NonBlockingWebpageLoader(Webpage rootPage, int depth, int maxInFlight, int parseThreadCount) {
+        this(new ArrayList<>(Collections.singletonList(rootPage)), depth, maxInFlight, parseThreadCount);
+    }
+
+    /**
+     * @param rootPages         the first pages to load
+     * @param depth             to which depth to load children of the rootPages
+     * @param maxInFlight       how many requests may be in flight at once, independent of the amount of threads
+     * @param parseThreadCount  how many threads parse and analyze downloaded pages, sized for the CPU
+     */
+    public NonBlockingWebpageLoader(ArrayList<Webpage> rootPages, int depth, int maxInFlight, int parseThreadCount) {
+        this.rootPages = rootPages;
+        this.depth = depth;
+        this.maxInFlight = maxInFlight;
+        this.parseThreadCount = parseThreadCount;
+        this.parseThreadPool = Executors.newFixedThreadPool(parseThreadCount);
+        this.inFlightPermits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Starts loading the pages recursively with the parameters specified in the constructor. <br>
+     * This method blocks until the recursive loading process is finished,
+     * or until the budget ran out and the requests in flight are drained.
+     *
+     * @throws InterruptedException when interrupted
+     */
+    @Override
+    public void loadPagesRecursivelyAndBlock() throws InterruptedException {
+        try {
+            budget.start();
+            if (startTasks == null) {
+                for (Webpage rootPage : rootPages)
+                    schedule(new CrawlTask(rootPage, depth));
+            } else {
+                for (CrawlTask startTask : startTasks)
+                    schedule(startTask);
+            }
+
+            if (pendingTasks.get() == 0)
+                return;
+
+            dispatchThread.execute(this::dispatchFromFrontier);
+            awaitCrawl();
+        } finally {
+            retries.shutdown();
+            dispatchThread.shutdownNow();
+            parseThreadPool.shutdownNow();
+            blockingThreadPool.shutdownNow();
+        }
+    }
+
+    @Override
+    public void setStartTasks(List<CrawlTask> newStartTasks) {
+        startTasks = newStartTasks;
+    }
+
+    @Override
+    public void setCrawlObserver(CrawlObserver newObserver) {
+        observer = newObserver;
+    }
+
+    /**
+     * Sets the limits of the crawl, must be called before loading.
+     * Defaults to {@link CrawlBudget#unlimited()}.
+     *
+     * @param newBudget the budget to use
+     */
+    @Override
+    public void setBudget(CrawlBudget newBudget) {
+        budget = newBudget;
+    }
+
+    /**
+     * Retries pages whose download failed with a transient error through the frontier, must be called before loading.
+     * Defaults to {@link RetryPolicy#none()}.
+     *
+     * @param newRetryPolicy    the policy to use
+     */
+    public void setRetryPolicy(RetryPolicy newRetryPolicy) {
+        retries = new RetryScheduler(newRetryPolicy);
+    }
+
+    /**
+     * @return  how many retries were scheduled so far
+     */
+    public long getRetryCount() {
+        return retries.getRetryCount();
+    }
+
+    /**
+     * Sets the frontier the pages are scheduled in, must be called before loading.
+     * Defaults to a {@link FifoCrawlFrontier}.
+     *
+     * @param newFrontier   the frontier to use
+     */
+    public void setFrontier(CrawlFrontier newFrontier) {
+        frontier = newFrontier;
+    }
+
+    /**
+     * @return  the most requests that were in flight at once
+     */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    /**
+     * @return  the most threads that blocked on filters or on requests of fetchers which aren't async at once
+     */
+    public int getPeakBlockingThreadCount() {
+        return blockingThreadPool.getLargestPoolSize();
+    }
+
+    /**
+     * @return  a table with the limit and peak of the requests in flight and the threads used for them
+     */
+    @Override
+    public String getStatistics() {
+        return String.format("%-14s %8s %8s %10s%n", "stage", "limit", "peak", "processed")
+                + String.format("%-14s %8d %8d %10d%n", "fetch", maxInFlight, peakInFlight.get(), fetchedCount.sum())
+                + String.format("%-14s %8s %8d %10s%n", "blocking", "-", getPeakBlockingThreadCount(), "-")
+                + String.format("%-14s %8d %8s %10s%n", "parse", parseThreadCount, "-", "-");
+    }
+
+    /**
+     * Waits until the crawl is finished or the time budget ran out and the loading pages are drained.
+     *
+     * @throws InterruptedException when interrupted
+     */
+    private void awaitCrawl() throws InterruptedException {
+        long remainingNanos = budget.getRemainingNanos();
+        if (remainingNanos == CrawlBudget.UNLIMITED) {
+            crawlFinished.await();
+            return;
+        }
+
+        if (!crawlFinished.await(remainingNanos, TimeUnit.NANOSECONDS) && budget.isExhausted())
+            finishIfDrained();
+        crawlFinished.await();
+    }
+
+    /**
+     * Dispatch loop, starts the next page from the frontier whenever a request may be sent,
+     * until the thread is shut down. The permit of a page is held from its filters until its download completed. <br>
+     * Once the budget is exhausted tasks are dropped without downloading their page.
+     */
+    private void dispatchFromFrontier() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                inFlightPermits.acquire();
+                CrawlTask task;
+                try {
+                    task = frontier.take();
+                } catch (InterruptedException e) {
+                    inFlightPermits.release();
+                    throw e;
+                }
+                // counted before asking the budget, so a drain can't be missed by a page that is about to load
+                loadingTasks.incrementAndGet();
+                startWithinBudgetAsync(task).whenComplete((withinBudget, e) -> {
+                    if (e != null || !withinBudget) {
+                        if (e != null && !blockingThreadPool.isShutdown())
+                            System.err.println("Checking the filters of " + task.getPage().getPageURI() + " failed: " + e);
+                        inFlightPermits.release();
+                        finish(task);
+                        return;
+                    }
+                    load(task);
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Downloads the page of a task that was started within the budget and hands it to the parse threads.
+     *
+     * @param task  the task to load
+     */
+    private void load(CrawlTask task) {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        fetch(task)
+                .whenComplete((downloaded, e) -> {
+                    inFlight.decrementAndGet();
+                    inFlightPermits.release();
+                })
+                .thenAcceptAsync(downloaded -> process(task, downloaded), parseThreadPool)
+                .exceptionally(e -> {
+                    // the page never reached the parse pool, e.g. because it was shut down
+                    if (e.getCause() instanceof RejectedExecutionException)
+                        finish(task);
+                    return null;
+                });
+    }
+
+    /**
+     * Analyzes the downloaded page and schedules its children,
+     * a page whose download failed with a transient error is pushed to the frontier again after its backoff.
+     *
+     * @param task          the task whose download completed
+     * @param downloaded    true if the page was downloaded, false if it was filtered or failed
+     */
+    private void process(CrawlTask task, boolean downloaded) {
+        fetchedCount.increment();
+        if (downloaded)
+            task.getPage().analyzePage();
+        else if (retryLater(task)) {
+            finish(task);
+            return;
+        }
+
+        expand(task);
+    }
+
+    /**
+     * Schedules the children of the task and marks it as finished.
+     * The children are counted before, so the amount of pending tasks only reaches zero once the whole crawl is done.
+     *
+     * @param task  the task to finish
+     */
+    private void expand(CrawlTask task) {
+        try {
+            Webpage page = task.getPage();
+            page.expandChildren();
+            budget.recordBytes(page.getPageSize());
+            observer.pageProcessed(task);
+            // copied, since the frontier may release children while they are scheduled
+            for (Webpage child : new ArrayList<>(page.getChildren()))
+                schedule(new CrawlTask(child, task.getRemainingDepth() - 1, page));
+        } finally {
+            finish(task);
+        }
+    }
+
+    /**
+     * Schedules the next attempt of the task if its page failed transiently.
+     * The attempt is counted as pending right away, so the crawl doesn't finish while it waits.
+     *
+     * @param task  the task whose page failed to download
+     * @return      true if the task will be retried
+     */
+    private boolean retryLater(CrawlTask task) {
+        pendingTasks.incrementAndGet();
+        if (retries.retryLater(task, frontier::push))
+            return true;
+
+        pendingTasks.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * Starts downloading the page of the task.
+     * A page on the last depth level is only checked with a link checker, on a blocking thread since status requests block.
+     *
+     * @return  completes with true if the page was downloaded and should be analyzed
+     */
+    private CompletableFuture<Boolean> fetch(CrawlTask task) {
+        Webpage page = task.getPage();
+        if (!task.isLinkCheck())
+            return page.fetchPageAsync(getAsyncFetcher(page));
+
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                page.checkLink(task.getParent());
+                return false;
+            }, blockingThreadPool);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private AsyncFetcher getAsyncFetcher(Webpage page) {
+        return asyncFetchers.computeIfAbsent(page.getFetcher(), fetcher -> AsyncFetcher.of(fetcher, blockingThreadPool));
+    }
+
+    private void finish(CrawlTask task) {
+        loadingTasks.decrementAndGet();
+        frontier.complete(task);
+        if (pendingTasks.decrementAndGet() == 0)
+            crawlFinished.countDown();
+        else if (budget.isExhausted())
+            finishIfDrained();
+    }
+
+    /**
+     * Decides whether the page of a task is loaded. The first attempt is taken from the budget
+     * only after the filters of the page passed, a page rejected by a filter isn't downloaded, so it doesn't use up the budget.
+     * Retries were taken from the budget with their first attempt already. <br>
+     * Once the budget is exhausted, tasks are dropped without checking the filters.
+     *
+     * @param task  the task that is about to be processed
+     * @return      false if the task should be dropped
+     */
+    private boolean startWithinBudget(CrawlTask task) {
+        if (budget.isExhausted())
+            return false;
+        if (task.getAttempt() > 1 || !task.getPage().passesLoadFilters())
+            return true;
+        return budget.tryStartPage();
+    }
+
+    /**
+     * Decides on a blocking thread whether the page of a task is loaded, since its filters may block.
+     * A page without filters is decided right away.
+     *
+     * @param task  the task that is about to be processed
+     * @return      completes with false if the task should be dropped,
+     *              exceptionally if the blocking threads were shut down
+     */
+    private CompletableFuture<Boolean> startWithinBudgetAsync(CrawlTask task) {
+        if (task.getPage().getLoadFilters().isEmpty())
+            return CompletableFuture.completedFuture(startWithinBudget(task));
+
+        try {
+            return CompletableFuture.supplyAsync(() -> startWithinBudget(task), blockingThreadPool);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Finishes the crawl once no page is loading anymore,
+     * the tasks left in the frontier are dropped.
+     */
+    private void finishIfDrained() {
+        if (loadingTasks.get() == 0)
+            crawlFinished.countDown();
+    }
+
+    private void schedule(CrawlTask task) {
+        if (task.getRemainingDepth() < 1 || budget.isExhausted() || !observer.shouldSchedule(task))
+            return;
+
+        pendingTasks.incrementAndGet();
+        try {
+            frontier.push(task);
+        } catch (RuntimeException e) {
+            // the task never reaches the frontier, so it won't be finished either
+            if (pendingTasks.decrementAndGet() == 0)
+                crawlFinished.countDown();
+            throw e;
+        }
+    }
+}
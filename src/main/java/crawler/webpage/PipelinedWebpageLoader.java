@@ -0,0 +1,366 @@
+package crawler.webpage;
+
+import crawler.webpage.frontier.CrawlFrontier;
+import crawler.webpage.frontier.CrawlTask;
+import crawler.webpage.frontier.FifoCrawlFrontier;
+import crawler.webpage.pipeline.PipelineStage;
+import crawler.webpage.retry.RetryPolicy;
+import crawler.webpage.retry.RetryScheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PipelinedWebpageLoader implements WebpageLoader {
+
+    public static final int QUEUE_CAPACITY_PER_THREAD = 4;
+
+    private final ArrayList<Webpage> rootPages;
+    private final int depth, fetchThreadCount;
+
+    private final ExecutorService fetchThreadPool;
+    private final PipelineStage<CrawlTask> parseStage, expandStage;
+
+    private CrawlFrontier frontier = new FifoCrawlFrontier();
+    private CrawlBudget budget = CrawlBudget.unlimited();
+    private CrawlObserver observer = task -> { };
+    private RetryScheduler retries = new RetryScheduler(RetryPolicy.none());
+    private List<CrawlTask> startTasks;
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    private final AtomicInteger loadingTasks = new AtomicInteger();
+    private final AtomicInteger peakFrontierSize = new AtomicInteger();
+    private final LongAdder fetchedCount = new LongAdder();
+    private final CountDownLatch crawlFinished = new CountDownLatch(1);
+
+    /**
+     * @param rootPage          the first page to load
+     * @param depth             to which depth to load children of the rootPages
+     * @param fetchThreadCount  how many threads download pages
+     * @param parseThreadCount  how many threads parse and analyze downloaded pages
+     */
+    public PipelinedWebpageLoader(Webpage rootPage, int depth, int fetchThreadCount, int parseThreadCount) {
+        this(new ArrayList<>(Collections.singletonList(rootPage)), depth, fetchThreadCount, parseThreadCount);
+    }
+
+    /**
+     * @param rootPages         the first pages to load
+     * @param depth             to which depth to load children of the rootPages
+     * @param fetchThreadCount  how many threads download pages, sized for blocking I/O
+     * @param parseThreadCount  how many threads parse and analyze downloaded pages, sized for the CPU
+     */
+    public PipelinedWebpageLoader(ArrayList<Webpage> rootPages, int depth, int fetchThreadCount, int parseThreadCount) {
+        this.rootPages = rootPages;
+        this.depth = depth;
+        this.fetchThreadCount = fetchThreadCount;
+        this.fetchThreadPool = Executors.newFixedThreadPool(fetchThreadCount);
+        this.parseStage = new PipelineStage<>("parse", parseThreadCount,
+                parseThreadCount * QUEUE_CAPACITY_PER_THREAD, this::parse);
+        this.expandStage = new PipelineStage<>("expand", 1, QUEUE_CAPACITY_PER_THREAD * 4, this::expand);
+    }
+
+    /**
+     * Starts loading the pages recursively with the parameters specified in the constructor. <br>
+     * Pages are downloaded by the fetch threads, handed to the parse stage through a bounded queue
+     * and from there to the expand stage, which schedules their children in the frontier. <br>
+     * This method blocks until the recursive loading process is finished,
+     * or until the budget ran out and the pages in the stages are drained.
+     *
+     * @throws InterruptedException when interrupted
+     */
+    @Override
+    public void loadPagesRecursivelyAndBlock() throws InterruptedException {
+        try {
+            budget.start();
+            if (startTasks == null) {
+                for (Webpage rootPage : rootPages)
+                    schedule(new CrawlTask(rootPage, depth));
+            } else {
+                for (CrawlTask startTask : startTasks)
+                    schedule(startTask);
+            }
+
+            if (pendingTasks.get() == 0)
+                return;
+
+            expandStage.start();
+            parseStage.start();
+            for (int i = 0; i < fetchThreadCount; i++)
+                fetchThreadPool.execute(this::fetchFromFrontier);
+
+            awaitCrawl();
+        } finally {
+            retries.shutdown();
+            fetchThreadPool.shutdownNow();
+            parseStage.shutdown();
+            expandStage.shutdown();
+        }
+    }
+
+    @Override
+    public void setStartTasks(List<CrawlTask> newStartTasks) {
+        startTasks = newStartTasks;
+    }
+
+    @Override
+    public void setCrawlObserver(CrawlObserver newObserver) {
+        observer = newObserver;
+    }
+
+    /**
+     * Sets the limits of the crawl, must be called before loading.
+     * Defaults to {@link CrawlBudget#unlimited()}.
+     *
+     * @param newBudget the budget to use
+     */
+    @Override
+    public void setBudget(CrawlBudget newBudget) {
+        budget = newBudget;
+    }
+
+    /**
+     * Retries pages whose download failed with a transient error through the frontier, must be called before loading.
+     * Defaults to {@link RetryPolicy#none()}.
+     *
+     * @param newRetryPolicy    the policy to use
+     */
+    public void setRetryPolicy(RetryPolicy newRetryPolicy) {
+        retries = new RetryScheduler(newRetryPolicy);
+    }
+
+    /**
+     * @return  how many retries were scheduled so far
+     */
+    public long getRetryCount() {
+        return retries.getRetryCount();
+    }
+
+    /**
+     * Sets the frontier the pages are scheduled in, must be called before loading.
+     * Defaults to a {@link FifoCrawlFrontier}.
+     *
+     * @param newFrontier   the frontier to use
+     */
+    public void setFrontier(CrawlFrontier newFrontier) {
+        frontier = newFrontier;
+    }
+
+    /**
+     * @return  a table with the threads, current and peak queue depth and processed pages of every stage
+     */
+    @Override
+    public String getStatistics() {
+        StringBuilder statistics = new StringBuilder(String.format("%-8s %8s %8s %8s %10s%n", "stage", "threads", "queued", "peak", "processed"));
+        statistics.append(String.format("%-8s %8d %8d %8d %10d%n", "fetch", fetchThreadCount, frontier.size(), peakFrontierSize.get(), fetchedCount.sum()));
+        for (PipelineStage<CrawlTask> stage : List.of(parseStage, expandStage))
+            statistics.append(String.format("%-8s %8d %8d %8d %10d%n", stage.getName(), stage.getThreadCount(),
+                    stage.getQueueDepth(), stage.getPeakQueueDepth(), stage.getProcessedCount()));
+        return statistics.toString();
+    }
+
+    public PipelineStage<CrawlTask> getParseStage() {
+        return parseStage;
+    }
+
+    public PipelineStage<CrawlTask> getExpandStage() {
+        return expandStage;
+    }
+
+    /**
+     * Waits until the crawl is finished or the time budget ran out and the loading pages are drained.
+     *
+     * @throws InterruptedException when interrupted
+     */
+    private void awaitCrawl() throws InterruptedException {
+        long remainingNanos = budget.getRemainingNanos();
+        if (remainingNanos == CrawlBudget.UNLIMITED) {
+            crawlFinished.await();
+            return;
+        }
+
+        if (!crawlFinished.await(remainingNanos, TimeUnit.NANOSECONDS) && budget.isExhausted())
+            finishIfDrained();
+        crawlFinished.await();
+    }
+
+    /**
+     * Fetch loop, downloads pages from the frontier until the pool is shut down.
+     * Pages that were filtered or failed skip the parse stage,
+     * once the budget is exhausted tasks are dropped without downloading their page. <br>
+     * A page whose download failed with a transient error is pushed to the frontier again after its backoff,
+     * it only counts towards the page budget once. <br>
+     * An exception while fetching a page is reported and finishes its task, the thread keeps taking tasks.
+     */
+    private void fetchFromFrontier() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                CrawlTask task;
+                try {
+                    task = frontier.take();
+                } catch (RuntimeException e) {
+                    System.err.println("Taking a page from the frontier failed: " + e);
+                    continue;
+                }
+                // counted before asking the budget, so a drain can't be missed by a page that is about to load
+                loadingTasks.incrementAndGet();
+
+                boolean handedOn;
+                try {
+                    handedOn = fetchAndHandOn(task);
+                } catch (RuntimeException e) {
+                    System.err.println("Fetching " + task.getPage().getPageURI() + " failed: " + e);
+                    handedOn = false;
+                }
+                if (!handedOn)
+                    finish(task);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fetches the page of the task and hands the task to the parse or expand stage.
+     *
+     * @param task  the task taken from the frontier
+     * @return      false if the task wasn't handed on and has to be finished by the caller
+     * @throws InterruptedException when interrupted while waiting for a full stage
+     */
+    private boolean fetchAndHandOn(CrawlTask task) throws InterruptedException {
+        if (!startWithinBudget(task))
+            return false;
+
+        boolean downloaded = fetch(task);
+        fetchedCount.increment();
+
+        if (downloaded)
+            parseStage.submit(task);
+        else if (retryLater(task))
+            return false;
+        else
+            expandStage.submit(task);
+        return true;
+    }
+
+    /**
+     * Downloads the page of the task, a page on the last depth level is only checked with a link checker.
+     *
+     * @return  true if the page was downloaded and should be parsed
+     */
+    private static boolean fetch(CrawlTask task) {
+        if (!task.isLinkCheck())
+            return task.getPage().fetchPage();
+
+        task.getPage().checkLink(task.getParent());
+        return false;
+    }
+
+    /**
+     * Parses the page of the task and hands the task to the expand stage,
+     * also if parsing failed, since only the expand stage finishes it.
+     */
+    private void parse(CrawlTask task) throws InterruptedException {
+        try {
+            task.getPage().analyzePage();
+        } finally {
+            expandStage.submit(task);
+        }
+    }
+
+    /**
+     * Schedules the children of the task and marks it as finished.
+     * The children are counted before, so the amount of pending tasks only reaches zero once the whole crawl is done.
+     *
+     * @param task  the task to finish
+     */
+    private void expand(CrawlTask task) {
+        try {
+            Webpage page = task.getPage();
+            page.expandChildren();
+            budget.recordBytes(page.getPageSize());
+            observer.pageProcessed(task);
+            // copied, since the frontier may release children while they are scheduled
+            for (Webpage child : new ArrayList<>(page.getChildren()))
+                schedule(new CrawlTask(child, task.getRemainingDepth() - 1, page));
+        } finally {
+            finish(task);
+        }
+    }
+
+    /**
+     * Schedules the next attempt of the task if its page failed transiently.
+     * The attempt is counted as pending right away, so the crawl doesn't finish while it waits.
+     *
+     * @param task  the task whose page failed to download
+     * @return      true if the task will be retried
+     */
+    private boolean retryLater(CrawlTask task) {
+        pendingTasks.incrementAndGet();
+        try {
+            if (retries.retryLater(task, frontier::push))
+                return true;
+        } catch (RuntimeException e) {
+            pendingTasks.decrementAndGet();
+            throw e;
+        }
+
+        pendingTasks.decrementAndGet();
+        return false;
+    }
+
+    private void finish(CrawlTask task) {
+        loadingTasks.decrementAndGet();
+        frontier.complete(task);
+        if (pendingTasks.decrementAndGet() == 0)
+            crawlFinished.countDown();
+        else if (budget.isExhausted())
+            finishIfDrained();
+    }
+
+    /**
+     * Decides whether the page of a task is loaded. The first attempt is taken from the budget
+     * only after the filters of the page passed, a page rejected by a filter isn't downloaded, so it doesn't use up the budget.
+     * Retries were taken from the budget with their first attempt already. <br>
+     * Once the budget is exhausted, tasks are dropped without checking the filters.
+     *
+     * @param task  the task that is about to be processed
+     * @return      false if the task should be dropped
+     */
+    private boolean startWithinBudget(CrawlTask task) {
+        if (budget.isExhausted())
+            return false;
+        if (task.getAttempt() > 1 || !task.getPage().passesLoadFilters())
+            return true;
+        return budget.tryStartPage();
+    }
+
+    /**
+     * Finishes the crawl once no page is in the stages anymore,
+     * the tasks left in the frontier are dropped.
+     */
+    private void finishIfDrained() {
+        if (loadingTasks.get() == 0)
+            crawlFinished.countDown();
+    }
+
+    private void schedule(CrawlTask task) {
+        if (task.getRemainingDepth() < 1 || budget.isExhausted() || !observer.shouldSchedule(task))
+            return;
+
+        pendingTasks.incrementAndGet();
+        try {
+            frontier.push(task);
+        } catch (RuntimeException e) {
+            // the task never reaches the frontier, so it won't be finished either
+            if (pendingTasks.decrementAndGet() == 0)
+                crawlFinished.countDown();
+            throw e;
+        }
+        peakFrontierSize.accumulateAndGet(frontier.size(), Math::max);
+    }
+}
@@ -1,40 +1,61 @@
 package crawler.webpage;
 
 import crawler.util.Util;
+import crawler.webpage.analysis.AnalysisMode;
+import crawler.webpage.analysis.DocumentAnalyzer;
+import crawler.webpage.analysis.StreamingAnalyzer;
+import crawler.webpage.fetcher.AsyncFetcher;
 import crawler.webpage.fetcher.Fetcher;
 import crawler.webpage.fetcher.JsoupFetcher;
+import crawler.webpage.fetcher.NonHtmlContentException;
+import crawler.webpage.fetcher.RawResponse;
 import crawler.webpage.filter.WebpageLoadFilter;
+import crawler.webpage.linkcheck.LinkChecker;
+import crawler.webpage.linkcheck.LinkStatus;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.jsoup.HttpStatusException;
 import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class Webpage {
     private String userAgent = "Java/" + System.getProperty("java.version");
     private int maxChildrenPerPage = Integer.MAX_VALUE;
 
     private Fetcher fetcher = new JsoupFetcher();
+    private AnalysisMode analysisMode = AnalysisMode.DOM;
 
     private final URI pageURI;
 
     private Elements links, images, videos;
-    private int wordCount;
-    private boolean loadAttempted, loadPreventedByFilter;
+    private List<String> linkTargets;
+    private int linkCount, imageCount, videoCount, wordCount, loadAttempts;
+    private boolean loadAttempted, filtersChecked, loadPreventedByFilter, truncated;
     private long pageSize, loadTimeInNanos;
     private String pageTitle;
     private byte[] pageHash;
+    private RawResponse rawResponse;
+    private LinkChecker linkChecker;
+    private LinkStatus linkStatus;
 
     private Exception error;
 
     private final ArrayList<Webpage> children = new ArrayList<>();
+    // indexes among all children of the children removed with releaseChild(), created on the first release
+    private TreeSet<Integer> releasedChildIndexes;
     private final ArrayList<WebpageLoadFilter> loadFilters ;
 
     /**
@@ -77,11 +98,18 @@ public class Webpage {
     /**
      * Returns a JSONObject that contains:
      * URL, Title, Link count, Image count, Video count, Word count, Page Size in bytes,
-     * Load time in nanoseconds, Page hash (MD5 using the whole page).
+     * Load time in nanoseconds, Page hash (MD5 using the whole page as received),
+     * truncated if the page was cut off at the max body size.
      *
      * If and Exception occurred while loading the page:
      * URL, Error
      *
+     * If the page isn't an HTML document:
+     * URL, nonHtml, Content type
+     *
+     * If the link to the page was only checked:
+     * URL, Status or Error
+     *
      * @return  a JSONObject representing the Information gathered from the Website
      * @see     JSONObject
      */
@@ -96,31 +124,65 @@ public class Webpage {
         return thisAsJSON;
     }
 
+    /**
+     * Returns the same JSONObject as asJSONObject() without the children,
+     * e.g. to assemble the tree elsewhere.
+     *
+     * @return  a JSONObject representing the Information gathered from the Website
+     * @see     Webpage#asJSONObject()
+     */
+    public JSONObject asJSONObjectWithoutChildren() {
+        JSONObject thisAsJSON = Util.makeJSONObjectWithOrderedKeys();
+        fillJSONObjectWithPageContent(thisAsJSON);
+        return thisAsJSON;
+    }
+
     /**
      * Fills the given JSONObject. <br>
      * with error <br>
      * - url, error <br>
+     * not an HTML document <br>
+     * - url, nonHtml, contentType <br>
+     * link only checked <br>
+     * - url, status or error <br>
      * without error <br>
-     * - url, title, lnkCount, imageCount, videoCount, wordCount, pageSize, nanoLoadTime, pageHash
+     * - url, title, lnkCount, imageCount, videoCount, wordCount, pageSize, nanoLoadTime, pageHash <br>
+     * - truncated, only if the page was cut off
      *
      * @param jsonToFill Webpage as JSONObject to be filled
      */
     private void fillJSONObjectWithPageContent(JSONObject jsonToFill) {
         jsonToFill.put("url", pageURI.toString());
 
+        if (linkStatus != null) {
+            if (linkStatus.getError() == null)
+                jsonToFill.put("status", linkStatus.getStatusCode());
+            else
+                jsonToFill.put("error", linkStatus.getError());
+            return;
+        }
+
+        if (isNonHtml()) {
+            jsonToFill.put("nonHtml", true);
+            jsonToFill.put("contentType", String.valueOf(((NonHtmlContentException) error).getMimeType()));
+            return;
+        }
+
         if (error != null) {
             jsonToFill.put("error", error.getMessage());
             return;
         }
 
         jsonToFill.put("title", pageTitle);
-        jsonToFill.put("linkCount", links.size());
-        jsonToFill.put("imageCount", images.size());
-        jsonToFill.put("videoCount", videos.size());
+        jsonToFill.put("linkCount", linkCount);
+        jsonToFill.put("imageCount", imageCount);
+        jsonToFill.put("videoCount", videoCount);
         jsonToFill.put("wordCount", wordCount);
         jsonToFill.put("pageSize", pageSize);
         jsonToFill.put("nanoLoadTime", loadTimeInNanos);
         jsonToFill.put("pageHash", getPageHashString());
+        if (truncated)
+            jsonToFill.put("truncated", true);
     }
 
     /**
@@ -144,43 +206,245 @@ public class Webpage {
      * This method may block for an extended amount of time.
      */
     public void loadPage() {
-        loadAttempted = true;
+        if (!startLoadAttempt())
+            return;
+
+        loadWebpageValuesIntoVariables();
+
+        if (error == null)
+            initializeChildren();
+    }
+
+    /**
+     * First step of loading the page in separate steps: <br>
+     * Checks the filters and downloads the page without parsing it.
+     * This method may block for an extended amount of time.
+     *
+     * @return  true if the page was downloaded and should be analyzed with analyzePage()
+     */
+    public boolean fetchPage() {
+        if (!startLoadAttempt())
+            return false;
+
+        try {
+            long startTime = System.nanoTime();
+            rawResponse = fetcher.fetchRaw(pageURI.toString(), userAgent);
+            loadTimeInNanos = System.nanoTime() - startTime;
+        } catch (Exception e) {
+            error = e;
+        }
+
+        recordLinkStatus(rawResponse, error);
+        return error == null;
+    }
+
+    /**
+     * First step of loading the page in separate steps without blocking: <br>
+     * Checks the filters on the calling thread and starts downloading the page without parsing it.
+     *
+     * @param asyncFetcher  sends the request, usually the fetcher of this page adapted with {@link AsyncFetcher#of}
+     * @return              completes with true if the page was downloaded and should be analyzed with analyzePage(),
+     *                      never completes exceptionally, a failed download is kept as the error of the page
+     */
+    public CompletableFuture<Boolean> fetchPageAsync(AsyncFetcher asyncFetcher) {
+        if (!startLoadAttempt())
+            return CompletableFuture.completedFuture(false);
+
+        long startTime = System.nanoTime();
+        return asyncFetcher.fetchRawAsync(pageURI.toString(), userAgent).handle((response, e) -> {
+            if (e == null) {
+                rawResponse = response;
+                loadTimeInNanos = System.nanoTime() - startTime;
+            } else {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                error = cause instanceof Exception ? (Exception) cause : new Exception(cause);
+            }
+            recordLinkStatus(response, error);
+            return error == null;
+        });
+    }
+
+    /**
+     * Checks the link to this page with the link checker instead of loading it, e.g. on the last depth level of a crawl. <br>
+     * The referrer is remembered before the filters are checked,
+     * so a page rejected as a duplicate still shows up as referrer of the target checked for the first page.
+     * The page gets no statistics and no children.
+     * This method may block for an extended amount of time.
+     *
+     * @param referrer  the page linking to this page, null for a root page
+     * @throws IllegalStateException if no link checker is set
+     */
+    public void checkLink(Webpage referrer) {
+        if (linkChecker == null)
+            throw new IllegalStateException("No link checker set for " + pageURI);
+
+        linkChecker.addReferrer(pageURI, referrer == null ? null : referrer.getPageURI());
+        if (!startLoadAttempt())
+            return;
+
+        long startTime = System.nanoTime();
+        linkStatus = linkChecker.check(pageURI, fetcher, userAgent);
+        loadTimeInNanos = System.nanoTime() - startTime;
+    }
+
+    /**
+     * Second step of loading the page in separate steps: <br>
+     * Parses the page downloaded by fetchPage() and analyzes it.
+     * The downloaded body is released afterwards.
+     */
+    public void analyzePage() {
+        try {
+            analyzeResponse(rawResponse);
+        } catch (Exception e) {
+            error = e;
+        } finally {
+            rawResponse = null;
+        }
+    }
+
+    /**
+     * Last step of loading the page in separate steps: <br>
+     * Creates the children of the page, given it was analyzed without errors.
+     */
+    public void expandChildren() {
+        if (loadAttempted && !loadPreventedByFilter && error == null && linkTargets != null)
+            initializeChildren();
+    }
+
+    /**
+     * Checks the filters of this page, only the first call checks them,
+     * since e.g. a duplicate filter would reject the page it already accepted. <br>
+     * Loaders call this before taking the page from their budget, so a page that won't be loaded doesn't use up the budget.
+     * Loading the page checks the filters as well if this wasn't called before.
+     * This method may block for an extended amount of time, e.g. while robots.txt is loaded.
+     *
+     * @return  false if a filter rejected the page
+     */
+    public boolean passesLoadFilters() {
+        if (filtersChecked)
+            return !loadPreventedByFilter;
+        filtersChecked = true;
 
         for (WebpageLoadFilter filter : loadFilters) {
             if (!filter.webpageShouldBeLoaded(pageURI)) {
                 loadPreventedByFilter = true;
-                return;
+                return false;
             }
         }
 
-        loadWebpageValuesIntoVariables();
+        return true;
+    }
 
-        if (error == null)
-            initializeChildren();
+    /**
+     * Marks the load as attempted and checks the filters. <br>
+     * When the page is loaded again after an error, the previous error is cleared.
+     *
+     * @return  false if a filter rejected the page
+     */
+    private boolean startLoadAttempt() {
+        loadAttempted = true;
+        if (loadAttempts++ > 0) {
+            error = null;
+            loadTimeInNanos = 0;
+        }
+        return passesLoadFilters();
     }
 
     /**
      * Queries Values from the url of this Webpage and loads them into the corresponding variables
      */
     private void loadWebpageValuesIntoVariables(){
+        RawResponse response;
         try {
             long startTime = System.nanoTime();
-            Document pageDocument = fetcher.fetchDocument(pageURI.toString(), userAgent);
+            response = fetcher.fetchRaw(pageURI.toString(), userAgent);
             loadTimeInNanos = System.nanoTime() - startTime;
+        } catch (Exception e) {
+            error = e;
+            recordLinkStatus(null, e);
+            return;
+        }
 
-            pageTitle = pageDocument.title();
-            links = pageDocument.select("a[href]");
-            images = pageDocument.select("img[src~=(?i)\\.(png|jpe?g|gif|svg)]");
-            videos = pageDocument.select("video");
-            wordCount = pageDocument.body().text().split(" ").length;
-            pageSize = pageDocument.html().getBytes(StandardCharsets.UTF_8).length;
-
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            pageHash = md.digest(pageDocument.html().getBytes(StandardCharsets.UTF_8));
+        recordLinkStatus(response, null);
+        try {
+            analyzeResponse(response);
         } catch (Exception e) {
             error = e;
         }
+    }
+
+    /**
+     * Records the outcome of downloading this page in the link checker, if there is one,
+     * so a broken page above the last depth level shows up in the broken-link report as well.
+     * A resource that isn't HTML was answered, so it isn't broken, but its exact status is unknown.
+     *
+     * @param response      the downloaded page, null if the download failed
+     * @param fetchError    why the download failed, null if it didn't
+     */
+    private void recordLinkStatus(RawResponse response, Exception fetchError) {
+        if (linkChecker == null || fetchError instanceof NonHtmlContentException)
+            return;
+
+        if (fetchError == null)
+            linkChecker.record(pageURI, LinkStatus.of(response.getStatusCode()));
+        else if (fetchError instanceof HttpStatusException)
+            linkChecker.record(pageURI, LinkStatus.of(((HttpStatusException) fetchError).getStatusCode()));
+        else
+            linkChecker.record(pageURI, LinkStatus.failed(fetchError.getMessage()));
+    }
+
+    /**
+     * Parses the response and gathers its statistics into the corresponding variables.
+     * The size and hash are those of the body as received, not of the parsed document serialized again.
+     *
+     * @param response  the downloaded page
+     * @throws IOException if the body can't be decoded
+     * @throws NoSuchAlgorithmException if MD5 isn't available
+     */
+    private void analyzeResponse(RawResponse response) throws IOException, NoSuchAlgorithmException {
+        if (analysisMode == AnalysisMode.STREAMING)
+            analyzeStream(response);
+        else
+            analyzeDocument(response.parseDocument());
+        pageSize = response.getBody().length;
+        pageHash = response.getBodyHash();
+        truncated = response.isTruncated();
+    }
 
+    /**
+     * Gathers the statistics of a document into the corresponding variables,
+     * in a single traversal of the document with a {@link DocumentAnalyzer}
+     *
+     * @param pageDocument  the parsed page
+     */
+    private void analyzeDocument(Document pageDocument) {
+        DocumentAnalyzer analyzer = DocumentAnalyzer.analyze(pageDocument);
+        pageTitle = analyzer.getTitle();
+        links = analyzer.getLinks();
+        images = analyzer.getImages();
+        videos = analyzer.getVideos();
+        linkTargets = links.eachAttr("href");
+        linkCount = links.size();
+        imageCount = images.size();
+        videoCount = videos.size();
+        wordCount = analyzer.getWordCount();
+    }
+
+    /**
+     * Gathers the statistics of the body into the corresponding variables
+     * while it is tokenized with a {@link StreamingAnalyzer}, without building a document
+     *
+     * @param response  the downloaded page
+     * @throws IOException if the body can't be decoded
+     */
+    private void analyzeStream(RawResponse response) throws IOException {
+        StreamingAnalyzer analyzer = StreamingAnalyzer.analyze(new ByteArrayInputStream(response.getBody()), response.getCharset());
+        pageTitle = analyzer.getTitle();
+        linkTargets = analyzer.getLinkTargets();
+        linkCount = analyzer.getLinkCount();
+        imageCount = analyzer.getImageCount();
+        videoCount = analyzer.getVideoCount();
+        wordCount = analyzer.getWordCount();
     }
 
     /**
@@ -189,10 +453,10 @@ public class Webpage {
      * Only creates a certain amount of children if setMaxChildrenPerPage() was used.
      */
     private void initializeChildren() {
-        for (Element link : links) {
+        for (String linkTarget : linkTargets) {
             URI rawURI;
             try {
-                rawURI = new URI(link.attr("href"));
+                rawURI = new URI(linkTarget);
             } catch (URISyntaxException e) {
                 continue;
             }
@@ -203,17 +467,164 @@ public class Webpage {
             if (!Util.isValidHttpUrl(resolvedChildURI))
                 continue;
 
-            Webpage child = new Webpage(resolvedChildURI, loadFilters);
-            child.setRequestUserAgent(this.userAgent);
-            child.setMaxChildrenPerPage(this.maxChildrenPerPage);
-            child.setFetcher(this.fetcher);
-            children.add(child);
+            children.add(createChild(resolvedChildURI));
+            if (linkChecker != null)
+                linkChecker.addReferrer(resolvedChildURI, pageURI);
 
             if (children.size() >= maxChildrenPerPage)
                 break;
         }
     }
 
+    /**
+     * Creates a page with the same filters, user agent, links per page, fetcher, analysis mode and link checker as this Webpage,
+     * which isn't part of its children.
+     *
+     * @param pageURI   the URI of the new page
+     * @return          the new page
+     */
+    public Webpage createPageWithSameSettings(URI pageURI) {
+        Webpage page = new Webpage(pageURI, loadFilters);
+        page.setRequestUserAgent(this.userAgent);
+        page.setMaxChildrenPerPage(this.maxChildrenPerPage);
+        page.setFetcher(this.fetcher);
+        page.setAnalysisMode(this.analysisMode);
+        page.setLinkChecker(this.linkChecker);
+        return page;
+    }
+
+    /**
+     * Creates a child with the same settings as this Webpage.
+     *
+     * @param childURI  the URI of the child
+     * @return          the new child
+     */
+    private Webpage createChild(URI childURI) {
+        return createPageWithSameSettings(childURI);
+    }
+
+    /**
+     * Removes a child that wasn't loaded yet, so it can be garbage collected
+     * while only its URI and index are kept elsewhere, e.g. on disk.
+     *
+     * @param child the child to remove
+     * @return      the index of the child among all children, including the ones released before, -1 if it isn't a child
+     */
+    public synchronized int releaseChild(Webpage child) {
+        int position = children.indexOf(child);
+        if (position < 0)
+            return -1;
+        children.remove(position);
+
+        if (releasedChildIndexes == null)
+            releasedChildIndexes = new TreeSet<>();
+        int childIndex = position;
+        for (int releasedIndex : releasedChildIndexes) {
+            if (releasedIndex > childIndex)
+                break;
+            childIndex++;
+        }
+        releasedChildIndexes.add(childIndex);
+        return childIndex;
+    }
+
+    /**
+     * Recreates a child previously removed with releaseChild() at its former index,
+     * so the children keep the order of the links.
+     *
+     * @param childURI      the URI of the removed child
+     * @param childIndex    the index returned by releaseChild()
+     * @return              the recreated child
+     */
+    public synchronized Webpage restoreChild(URI childURI, int childIndex) {
+        Webpage child = createChild(childURI);
+        if (releasedChildIndexes == null || !releasedChildIndexes.remove(childIndex)) {
+            children.add(child);
+            return child;
+        }
+
+        children.add(childIndex - releasedChildIndexes.headSet(childIndex).size(), child);
+        if (releasedChildIndexes.isEmpty())
+            releasedChildIndexes = null;
+        return child;
+    }
+
+    /**
+     * Returns the state of this page for a checkpoint. <br>
+     * Contains whether it was filtered, the error or the gathered statistics,
+     * and the URLs of the children in order.
+     *
+     * @return  the state of this page as JSONObject
+     * @see     Webpage#restoreFromCheckpointRecord(JSONObject)
+     */
+    public synchronized JSONObject asCheckpointRecord() {
+        JSONObject record = new JSONObject();
+        record.put("filtered", loadPreventedByFilter);
+
+        if (linkStatus != null) {
+            record.put("linkStatus", linkStatus.getStatusCode());
+            if (linkStatus.getError() != null)
+                record.put("linkError", linkStatus.getError());
+        } else if (isNonHtml()) {
+            record.put("nonHtml", String.valueOf(((NonHtmlContentException) error).getMimeType()));
+        } else if (error != null) {
+            record.put("error", String.valueOf(error.getMessage()));
+        } else if (!loadPreventedByFilter) {
+            record.put("title", pageTitle == null ? JSONObject.NULL : pageTitle);
+            record.put("linkCount", linkCount);
+            record.put("imageCount", imageCount);
+            record.put("videoCount", videoCount);
+            record.put("wordCount", wordCount);
+            record.put("pageSize", pageSize);
+            record.put("nanoLoadTime", loadTimeInNanos);
+            record.put("pageHash", Base64.getEncoder().encodeToString(pageHash));
+            record.put("truncated", truncated);
+        }
+
+        JSONArray childURIs = new JSONArray();
+        for (Webpage child : children)
+            childURIs.put(child.pageURI.toString());
+        record.put("children", childURIs);
+
+        return record;
+    }
+
+    /**
+     * Restores a page that was loaded before from its checkpoint record,
+     * the children are recreated without being loaded.
+     *
+     * @param record    the record created by asCheckpointRecord()
+     */
+    public synchronized void restoreFromCheckpointRecord(JSONObject record) {
+        loadAttempted = true;
+        filtersChecked = true;
+        loadPreventedByFilter = record.getBoolean("filtered");
+
+        if (record.has("linkStatus")) {
+            linkStatus = record.has("linkError") ? LinkStatus.failed(record.getString("linkError")) : LinkStatus.of(record.getInt("linkStatus"));
+        } else if (record.has("nonHtml")) {
+            error = new NonHtmlContentException(record.getString("nonHtml"), pageURI.toString());
+        } else if (record.has("error")) {
+            error = new Exception(record.getString("error"));
+        } else if (!loadPreventedByFilter) {
+            pageTitle = record.isNull("title") ? null : record.getString("title");
+            linkCount = record.getInt("linkCount");
+            imageCount = record.getInt("imageCount");
+            videoCount = record.getInt("videoCount");
+            wordCount = record.getInt("wordCount");
+            pageSize = record.getLong("pageSize");
+            loadTimeInNanos = record.getLong("nanoLoadTime");
+            pageHash = Base64.getDecoder().decode(record.getString("pageHash"));
+            truncated = record.optBoolean("truncated");
+        }
+
+        children.clear();
+        releasedChildIndexes = null;
+        JSONArray childURIs = record.getJSONArray("children");
+        for (int i = 0; i < childURIs.length(); i++)
+            children.add(createChild(URI.create(childURIs.getString(i))));
+    }
+
     /**
      * Returns true if the loadPage() method of this object was called.
      *
@@ -223,6 +634,13 @@ public class Webpage {
         return loadAttempted;
     }
 
+    /**
+     * @return  how often loadPage() or fetchPage() was called, more than once if the page was retried
+     */
+    public int getLoadAttempts() {
+        return loadAttempts;
+    }
+
     /**
      * Returns true if loadPage() was called
      * and was then aborted because the Webpage was rejected by a filter.
@@ -268,6 +686,48 @@ public class Webpage {
         fetcher = newFetcher;
     }
 
+    public Fetcher getFetcher() {
+        return fetcher;
+    }
+
+    /**
+     * Sets how the pages are analyzed, it is passed on to the children.
+     *
+     * @param mode  {@link AnalysisMode#DOM} to parse the pages into a document (default),
+     *              {@link AnalysisMode#STREAMING} to tokenize them without one
+     */
+    public void setAnalysisMode(AnalysisMode mode) {
+        analysisMode = mode;
+    }
+
+    public AnalysisMode getAnalysisMode() {
+        return analysisMode;
+    }
+
+    /**
+     * Sets the checker used by checkLink(), it is passed on to the children.
+     *
+     * @param newLinkChecker    the checker shared by all pages of the crawl, null to load every page
+     */
+    public void setLinkChecker(LinkChecker newLinkChecker) {
+        linkChecker = newLinkChecker;
+    }
+
+    public LinkChecker getLinkChecker() {
+        return linkChecker;
+    }
+
+    /**
+     * @return  the status of the link to this page if it was only checked, null if it was loaded or not at all
+     */
+    public LinkStatus getLinkStatus() {
+        return linkStatus;
+    }
+
+    public URI getPageURI() {
+        return pageURI;
+    }
+
     public ArrayList<Webpage> getChildren() {
         return children;
     }
@@ -284,10 +744,23 @@ public class Webpage {
         return pageSize;
     }
 
+    /**
+     * @return  true if the page was cut off at the max body size of its fetcher
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return  the links of the page, null if it was analyzed with {@link AnalysisMode#STREAMING}
+     */
     public Elements getLinks() {
         return links;
     }
 
+    /**
+     * @return  the images of the page, null if it was analyzed with {@link AnalysisMode#STREAMING}
+     */
     public Elements getImages() {
         return images;
     }
@@ -304,5 +777,27 @@ public class Webpage {
         return loadFilters;
     }
 
+    /**
+     * @return  true if the page wasn't downloaded since it isn't an HTML document, this isn't reported as error
+     */
+    public boolean isNonHtml() {
+        return error instanceof NonHtmlContentException;
+    }
+
+    /**
+     * @return  the exception that occurred while loading, null if there was none,
+     *          a {@link NonHtmlContentException} if the page isn't an HTML document
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * @return  how long fetching the page took, 0 if it wasn't fetched successfully
+     */
+    public long getLoadTimeInNanos() {
+        return loadTimeInNanos;
+    }
+
 
 }
@@ -0,0 +1,45 @@
+package crawler.webpage;
+
+import crawler.webpage.frontier.CrawlTask;
+
+import java.util.List;
+
+public interface WebpageLoader {
+    /**
+     * Loads the root pages and their children up to the configured depth.
+     * This method blocks until the recursive loading process is finished.
+     *
+     * @throws InterruptedException when interrupted
+     */
+    void loadPagesRecursivelyAndBlock() throws InterruptedException;
+
+    /**
+     * Sets the tasks to start with instead of the root pages, e.g. when resuming a crawl.
+     * Must be called before loading.
+     *
+     * @param startTasks    the tasks to load first
+     */
+    void setStartTasks(List<CrawlTask> startTasks);
+
+    /**
+     * Sets the observer that is notified about every processed page, must be called before loading.
+     *
+     * @param observer  the observer to notify
+     */
+    void setCrawlObserver(CrawlObserver observer);
+
+    /**
+     * Sets the limits of the crawl, must be called before loading.
+     * A budget which is already started keeps its deadline, so it can span several loaders.
+     *
+     * @param budget    the budget to use
+     */
+    void setBudget(CrawlBudget budget);
+
+    /**
+     * @return  statistics about the finished crawl for diagnostics, empty if the loader collects none
+     */
+    default String getStatistics() {
+        return "";
+    }
+}
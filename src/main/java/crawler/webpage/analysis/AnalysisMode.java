@@ -0,0 +1,23 @@
+package crawler.webpage.analysis;
+
+public enum AnalysisMode {
+    /**
+     * Parses every page into a jsoup DOM and walks it once, see {@link DocumentAnalyzer}.
+     */
+    DOM,
+    /**
+     * Tokenizes the body of every page as it is read without building a DOM, see {@link StreamingAnalyzer}.
+     */
+    STREAMING;
+
+    /**
+     * Case insensitive lookup of an analysis mode by its name.
+     *
+     * @param name  the name of the analysis mode
+     * @return      the analysis mode with that name
+     * @throws IllegalArgumentException if no analysis mode has that name
+     */
+    public static AnalysisMode fromName(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
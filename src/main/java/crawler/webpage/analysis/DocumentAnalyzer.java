@@ -0,0 +1,145 @@
+package crawler.webpage.analysis;
+
+import org.jsoup.internal.StringUtil;
+import org.jsoup.nodes.CDataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Elements;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.regex.Pattern;
+
+/**
+ * Gathers the statistics of a parsed page in a single traversal of its DOM: <br>
+ * the title, the links (a[href]), the images (img with a png, jpeg, gif or svg src), the videos and the words of the body. <br>
+ * The results are the same as those of the selectors and of splitting body().text() at spaces,
+ * but the document is walked once and the text of the body isn't built, a {@link WordCounter} counts the words instead.
+ */
+public class DocumentAnalyzer implements NodeVisitor {
+
+    static final Pattern IMAGE_SOURCE = Pattern.compile("(?i)\\.(png|jpe?g|gif|svg)");
+
+    /**
+     * {@link Element#text()} keeps the whitespace of text up to this many levels below an element like pre.
+     */
+    private static final int PRESERVE_WHITESPACE_LEVELS = 6;
+
+    private final Elements links = new Elements(), images = new Elements(), videos = new Elements();
+    private Element titleElement, body;
+    private boolean inBody;
+    private final WordCounter words = new WordCounter();
+
+    private DocumentAnalyzer() {}
+
+    /**
+     * @param document  the parsed page
+     * @return          the statistics of the page
+     */
+    public static DocumentAnalyzer analyze(Document document) {
+        DocumentAnalyzer analyzer = new DocumentAnalyzer();
+        NodeTraversor.traverse(analyzer, document);
+        return analyzer;
+    }
+
+    @Override
+    public void head(Node node, int depth) {
+        if (node instanceof TextNode) {
+            if (inBody)
+                appendText((TextNode) node);
+            return;
+        }
+        if (!(node instanceof Element))
+            return;
+
+        Element element = (Element) node;
+        switch (element.normalName()) {
+            case "a":
+                if (element.hasAttr("href"))
+                    links.add(element);
+                break;
+            case "img":
+                if (element.hasAttr("src") && IMAGE_SOURCE.matcher(element.attr("src")).find())
+                    images.add(element);
+                break;
+            case "video":
+                videos.add(element);
+                break;
+            case "title":
+                if (titleElement == null)
+                    titleElement = element;
+                break;
+            case "body":
+                if (body == null) {
+                    body = element;
+                    inBody = true;
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+
+        if (inBody && (element.isBlock() || element.tagName().equals("br")))
+            words.blockStart();
+    }
+
+    @Override
+    public void tail(Node node, int depth) {
+        if (node == body) {
+            inBody = false;
+            return;
+        }
+
+        if (inBody && node instanceof Element && ((Element) node).isBlock() && node.nextSibling() instanceof TextNode)
+            words.blockEnd();
+    }
+
+    /**
+     * @return  the normalised text of the first title element, an empty String if there is none
+     */
+    public String getTitle() {
+        return titleElement == null ? "" : StringUtil.normaliseWhitespace(titleElement.text()).trim();
+    }
+
+    public Elements getLinks() {
+        return links;
+    }
+
+    public Elements getImages() {
+        return images;
+    }
+
+    public Elements getVideos() {
+        return videos;
+    }
+
+    /**
+     * @return  the amount of words in the text of the body, 1 if it has no text like splitting an empty String
+     */
+    public int getWordCount() {
+        return words.getWordCount();
+    }
+
+    private void appendText(TextNode textNode) {
+        String text = textNode.getWholeText();
+        words.startText(textNode instanceof CDataNode || preservesWhitespace(textNode.parent()));
+        for (int i = 0, c; i < text.length(); i += Character.charCount(c)) {
+            c = text.codePointAt(i);
+            words.text(c);
+        }
+    }
+
+    private static boolean preservesWhitespace(Node node) {
+        if (!(node instanceof Element))
+            return false;
+
+        Element element = (Element) node;
+        for (int level = 0; level < PRESERVE_WHITESPACE_LEVELS && element != null; level++, element = element.parent())
+            if (element.tag().preserveWhitespace())
+                return true;
+        return false;
+    }
+}
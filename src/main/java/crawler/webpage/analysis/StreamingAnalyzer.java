@@ -0,0 +1,556 @@
+package crawler.webpage.analysis;
+
+import org.jsoup.internal.StringUtil;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.Tag;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gathers the same statistics as the {@link DocumentAnalyzer} without building a DOM: <br>
+ * the body is decoded and tokenized as it is read, the tags, attributes and text are handled as they are found and then forgotten.
+ * The memory needed stays the same for every page, apart from the link targets:
+ * a buffer of decoded characters and the title, tag names and the values of href and src, which are cut off at a max length. <br>
+ * The words are counted like the text of the body the HTML parser would build, with the body opened by the first tag or text
+ * that doesn't belong into the head. Markup the parser would restructure, like misnested or unclosed block elements,
+ * may separate a few words differently than the DOM.
+ */
+public class StreamingAnalyzer {
+
+    /**
+     * Max length of a tag name, title or href and src value, longer values are cut off,
+     * links with a longer target are counted but not followed.
+     */
+    public static final int MAX_VALUE_LENGTH = 8 * 1024;
+
+    private static final int BUFFER_CHARS = 8 * 1024;
+    private static final int MAX_CHARACTER_REFERENCE_LENGTH = 32;
+    private static final int CHARSET_SNIFF_BYTES = 5 * 1024;
+    private static final Pattern META_CHARSET = Pattern.compile("(?i)<meta[^>]+charset\\s*=\\s*[\"']?\\s*([a-z0-9_.:-]+)");
+
+    /**
+     * Elements whose content isn't parsed and doesn't count as text.
+     */
+    private static final Set<String> RAW_TEXT = Set.of("script", "style", "xmp", "iframe", "noembed", "noframes");
+    /**
+     * Elements whose content isn't parsed but counts as text, with character references decoded.
+     */
+    private static final Set<String> ESCAPABLE_RAW_TEXT = Set.of("title", "textarea");
+    /**
+     * Elements that don't open the body when they are found before it.
+     */
+    private static final Set<String> OUTSIDE_BODY = Set.of("html", "head", "title", "meta", "link", "script", "style", "base",
+            "basefont", "bgsound", "noscript", "template", "noframes", "frameset", "frame");
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_CHARS];
+    private int position, limit, pushedBack = -1;
+
+    private final StringBuilder tagName = new StringBuilder(), attributeName = new StringBuilder(), attributeValue = new StringBuilder();
+    private final StringBuilder characterReference = new StringBuilder(), title = new StringBuilder();
+    private String elementName, href, src;
+    private boolean hrefTooLong;
+
+    private final List<String> linkTargets = new ArrayList<>();
+    private int linkCount, imageCount, videoCount;
+    private boolean titleFound;
+
+    private final WordCounter words = new WordCounter();
+    private boolean inBody, inText, blockEnded;
+    private int preserveWhitespaceDepth;
+
+    private StreamingAnalyzer(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the body once and gathers its statistics.
+     *
+     * @param body      the unparsed body, it isn't closed
+     * @param charset   the charset of the body, null to detect it from a byte order mark or a meta tag, UTF-8 otherwise
+     * @return          the statistics of the page
+     * @throws IOException if the body can't be read or the charset isn't supported
+     */
+    public static StreamingAnalyzer analyze(InputStream body, String charset) throws IOException {
+        BufferedInputStream input = new BufferedInputStream(body, CHARSET_SNIFF_BYTES);
+        Charset decodeAs = detectCharset(input, charset);
+
+        StreamingAnalyzer analyzer = new StreamingAnalyzer(new InputStreamReader(input, decodeAs));
+        analyzer.tokenize();
+        return analyzer;
+    }
+
+    /**
+     * @return  the normalised text of the first title element, an empty String if there is none
+     */
+    public String getTitle() {
+        return titleFound ? StringUtil.normaliseWhitespace(title.toString()).trim() : "";
+    }
+
+    /**
+     * @return  the amount of a elements with an href attribute
+     */
+    public int getLinkCount() {
+        return linkCount;
+    }
+
+    /**
+     * @return  the href values of the links in order, without those longer than {@link StreamingAnalyzer#MAX_VALUE_LENGTH}
+     */
+    public List<String> getLinkTargets() {
+        return linkTargets;
+    }
+
+    /**
+     * @return  the amount of img elements with a png, jpeg, gif or svg src
+     */
+    public int getImageCount() {
+        return imageCount;
+    }
+
+    public int getVideoCount() {
+        return videoCount;
+    }
+
+    /**
+     * @return  the amount of words in the text of the body, 1 if it has no text like splitting an empty String
+     */
+    public int getWordCount() {
+        return words.getWordCount();
+    }
+
+    private static Charset detectCharset(BufferedInputStream input, String charset) throws IOException {
+        input.mark(CHARSET_SNIFF_BYTES);
+        byte[] start = new byte[CHARSET_SNIFF_BYTES];
+        int length = input.readNBytes(start, 0, start.length);
+        input.reset();
+
+        if (length >= 3 && (start[0] & 0xFF) == 0xEF && (start[1] & 0xFF) == 0xBB && (start[2] & 0xFF) == 0xBF) {
+            input.skip(3);
+            return StandardCharsets.UTF_8;
+        }
+        if (length >= 2 && (start[0] & 0xFF) == 0xFE && (start[1] & 0xFF) == 0xFF) {
+            input.skip(2);
+            return StandardCharsets.UTF_16BE;
+        }
+        if (length >= 2 && (start[0] & 0xFF) == 0xFF && (start[1] & 0xFF) == 0xFE) {
+            input.skip(2);
+            return StandardCharsets.UTF_16LE;
+        }
+
+        if (charset == null) {
+            Matcher meta = META_CHARSET.matcher(new String(start, 0, length, StandardCharsets.ISO_8859_1));
+            if (meta.find() && isSupported(meta.group(1)))
+                charset = meta.group(1);
+        }
+        try {
+            return charset == null ? StandardCharsets.UTF_8 : Charset.forName(charset);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unsupported charset " + charset, e);
+        }
+    }
+
+    private static boolean isSupported(String charset) {
+        try {
+            return Charset.isSupported(charset);
+        } catch (IllegalCharsetNameException e) {
+            return false;
+        }
+    }
+
+    private void tokenize() throws IOException {
+        for (int c = read(); c != -1; c = read()) {
+            if (c == '<') {
+                int next = read();
+                if (isAsciiLetter(next) || next == '/' || next == '!' || next == '?') {
+                    readMarkup(next);
+                    continue;
+                }
+                unread(next);
+                text(c);
+            } else if (c == '&') {
+                String decoded = readCharacterReference(false);
+                for (int i = 0; i < decoded.length(); i++)
+                    text(decoded.charAt(i));
+            } else {
+                text(c);
+                readTextRun();
+            }
+        }
+    }
+
+    /**
+     * Counts the characters of the text up to the next markup or character reference straight from the buffer,
+     * most of the characters of a page are handled here instead of one {@link StreamingAnalyzer#read()} at a time.
+     */
+    private void readTextRun() {
+        if (!inText)
+            return;
+        while (position < limit) {
+            char c = buffer[position];
+            if (c == '<' || c == '&')
+                return;
+            words.text(c);
+            position++;
+        }
+    }
+
+    /**
+     * Counts a character of a text node outside of raw text elements,
+     * whitespace before the body is dropped like the parser does.
+     */
+    private void text(int c) {
+        if (!inBody) {
+            if (StringUtil.isActuallyWhitespace(c))
+                return;
+            inBody = true;
+        }
+
+        if (!inText) {
+            if (blockEnded)
+                words.blockEnd();
+            words.startText(preserveWhitespaceDepth > 0);
+            inText = true;
+        }
+        words.text(c);
+    }
+
+    private void readMarkup(int first) throws IOException {
+        inText = false;
+        boolean afterBlock = blockEnded;
+        blockEnded = false;
+        elementName = "";
+
+        if (first == '!') {
+            readDeclarationOrComment();
+        } else if (first == '?') {
+            skipPast('>');
+        } else if (first == '/') {
+            int c = read();
+            if (!isAsciiLetter(c)) {
+                // </> is dropped, anything else is a bogus comment
+                if (c != '>')
+                    skipPast('>');
+                blockEnded = afterBlock && c == '>';
+                return;
+            }
+            readTagName(c);
+            skipPast('>');
+            endTag(elementName);
+        } else {
+            readTagName(first);
+            readAttributes();
+            startTag(elementName);
+        }
+
+        // the parser merges these into the existing elements, they don't end the text after a block element
+        if (elementName.equals("html") || elementName.equals("head") || elementName.equals("body"))
+            blockEnded = afterBlock;
+    }
+
+    private void readDeclarationOrComment() throws IOException {
+        int first = read();
+        if (first != '-') {
+            unread(first);
+            skipPast('>');
+            return;
+        }
+        int second = read();
+        if (second != '-') {
+            unread(second);
+            skipPast('>');
+            return;
+        }
+
+        // skip until -->, an empty comment <!--> or <!---> is closed right away
+        int dashes = 2;
+        for (int c = read(); c != -1; c = read()) {
+            if (c == '>' && dashes >= 2)
+                return;
+            dashes = c == '-' ? dashes + 1 : 0;
+        }
+    }
+
+    private void readTagName(int first) throws IOException {
+        tagName.setLength(0);
+        tagName.append(Character.toLowerCase((char) first));
+        for (int c = read(); c != -1; c = read()) {
+            if (isWhitespace(c) || c == '/' || c == '>') {
+                unread(c);
+                break;
+            }
+            if (tagName.length() < MAX_VALUE_LENGTH)
+                tagName.append(Character.toLowerCase((char) c));
+        }
+        elementName = tagName.toString();
+    }
+
+    /**
+     * Reads the attributes up to the end of the tag, only href of a and src of img are kept,
+     * the first of attributes with the same name wins.
+     */
+    private void readAttributes() throws IOException {
+        href = null;
+        src = null;
+        hrefTooLong = false;
+        boolean keepHref = elementName.equals("a"), keepSrc = elementName.equals("img");
+
+        for (int c = read(); c != -1 && c != '>'; c = read()) {
+            if (isWhitespace(c) || c == '/')
+                continue;
+
+            attributeName.setLength(0);
+            attributeValue.setLength(0);
+            for (; c != -1 && !isWhitespace(c) && c != '/' && c != '>' && (c != '=' || attributeName.length() == 0); c = read())
+                if (attributeName.length() < MAX_VALUE_LENGTH)
+                    attributeName.append(Character.toLowerCase((char) c));
+            while (isWhitespace(c))
+                c = read();
+
+            boolean keep = keepHref && href == null && !hrefTooLong && isAttribute("href") || keepSrc && src == null && isAttribute("src");
+            String value = "";
+            if (c == '=') {
+                value = readAttributeValue(keep);
+            } else {
+                unread(c);
+            }
+
+            if (keep && keepHref) {
+                if (attributeValue.length() > MAX_VALUE_LENGTH)
+                    hrefTooLong = true;
+                else
+                    href = value;
+            } else if (keep) {
+                src = value;
+            }
+        }
+    }
+
+    /**
+     * @param keep  true if the value is needed, it is then returned with the character references decoded
+     * @return      the value or an empty String if it isn't kept
+     */
+    private String readAttributeValue(boolean keep) throws IOException {
+        attributeValue.setLength(0);
+        int c = read();
+        while (isWhitespace(c))
+            c = read();
+
+        int quote = c == '"' || c == '\'' ? c : -1;
+        if (quote == -1)
+            unread(c);
+
+        for (c = read(); c != -1; c = read()) {
+            if (quote == -1 ? isWhitespace(c) || c == '>' : c == quote) {
+                if (quote == -1)
+                    unread(c);
+                break;
+            }
+            // one character more than the max marks a value that is too long
+            if (keep && attributeValue.length() <= MAX_VALUE_LENGTH)
+                attributeValue.append((char) c);
+        }
+
+        if (!keep)
+            return "";
+        String value = attributeValue.length() > MAX_VALUE_LENGTH ? attributeValue.substring(0, MAX_VALUE_LENGTH) : attributeValue.toString();
+        return value.indexOf('&') < 0 ? value : Parser.unescapeEntities(value, true);
+    }
+
+    private void startTag(String name) throws IOException {
+        if (!inBody && (name.equals("body") || !OUTSIDE_BODY.contains(name)))
+            inBody = true;
+
+        switch (name) {
+            case "a":
+                if (href != null || hrefTooLong) {
+                    linkCount++;
+                    if (!hrefTooLong)
+                        linkTargets.add(href);
+                }
+                break;
+            case "img":
+                if (src != null && DocumentAnalyzer.IMAGE_SOURCE.matcher(src).find())
+                    imageCount++;
+                break;
+            case "video":
+                videoCount++;
+                break;
+            default:
+                break;
+        }
+
+        Tag tag = Tag.valueOf(name);
+        boolean countsAsBlock = inBody && !name.equals("body") && !name.equals("html") && tag.isBlock();
+        if (inBody && (countsAsBlock || name.equals("br")))
+            words.blockStart();
+
+        if (RAW_TEXT.contains(name)) {
+            readRawText(name, false);
+            endTag(name);
+        } else if (ESCAPABLE_RAW_TEXT.contains(name)) {
+            readRawText(name, true);
+            endTag(name);
+        } else if (tag.isEmpty()) {
+            // void elements end right away, the next text node is their sibling
+            blockEnded = countsAsBlock;
+        } else if (tag.preserveWhitespace()) {
+            preserveWhitespaceDepth++;
+        }
+    }
+
+    private void endTag(String name) {
+        Tag tag = Tag.valueOf(name);
+        if (tag.preserveWhitespace() && !ESCAPABLE_RAW_TEXT.contains(name) && preserveWhitespaceDepth > 0)
+            preserveWhitespaceDepth--;
+
+        if (inBody && name.equals("br"))
+            words.blockStart();
+        blockEnded = inBody && !name.equals("body") && !name.equals("html") && tag.isBlock();
+    }
+
+    /**
+     * Reads the content of a raw text element up to its end tag, which is consumed.
+     * The content of title and textarea is text, the first title is kept as title of the page.
+     *
+     * @param name      the name of the element
+     * @param isText    true if the content is text with character references, otherwise it is skipped
+     */
+    private void readRawText(String name, boolean isText) throws IOException {
+        boolean isTitle = name.equals("title") && !titleFound;
+        if (isTitle)
+            titleFound = true;
+        if (isText && inBody)
+            words.startText(true);
+
+        for (int c = read(); c != -1; c = read()) {
+            if (c == '<') {
+                int consumed = readEndTagOf(name);
+                if (consumed < 0)
+                    return;
+                if (isText) {
+                    rawText('<', isTitle);
+                    for (int i = 0; i < consumed; i++)
+                        rawText(i == 0 ? '/' : name.charAt(i - 1), isTitle);
+                }
+            } else if (isText && c == '&') {
+                String decoded = readCharacterReference(false);
+                for (int i = 0; i < decoded.length(); i++)
+                    rawText(decoded.charAt(i), isTitle);
+            } else if (isText) {
+                rawText(c, isTitle);
+            }
+        }
+    }
+
+    private void rawText(int c, boolean isTitle) {
+        if (isTitle && title.length() < MAX_VALUE_LENGTH)
+            title.append((char) c);
+        if (inBody)
+            words.text(c);
+    }
+
+    /**
+     * Called after a {@code <} in raw text, consumes the end tag of the element if it follows.
+     *
+     * @return  -1 if the end tag was consumed, otherwise how many characters of the slash and the name were consumed
+     */
+    private int readEndTagOf(String name) throws IOException {
+        int c = read();
+        if (c != '/') {
+            unread(c);
+            return 0;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            c = read();
+            if (Character.toLowerCase((char) c) != name.charAt(i)) {
+                unread(c);
+                return i + 1;
+            }
+        }
+        c = read();
+        if (!isWhitespace(c) && c != '/' && c != '>') {
+            unread(c);
+            return name.length() + 1;
+        }
+        if (c != '>')
+            skipPast('>');
+        return -1;
+    }
+
+    /**
+     * Called after an {@code &}, reads and decodes a character reference like the HTML parser does.
+     *
+     * @param inAttribute   true in an attribute value, where references without semicolon are decoded less often
+     * @return              the decoded characters, {@code &} and the characters read if they aren't a reference
+     */
+    private String readCharacterReference(boolean inAttribute) throws IOException {
+        characterReference.setLength(0);
+        characterReference.append('&');
+        while (characterReference.length() < MAX_CHARACTER_REFERENCE_LENGTH) {
+            int c = read();
+            if (isAsciiLetter(c) || (c >= '0' && c <= '9') || c == '#') {
+                characterReference.append((char) c);
+            } else {
+                if (c == ';')
+                    characterReference.append(';');
+                else
+                    unread(c);
+                break;
+            }
+        }
+        return characterReference.length() == 1 ? "&" : Parser.unescapeEntities(characterReference.toString(), inAttribute);
+    }
+
+    private boolean isAttribute(String name) {
+        return attributeName.length() == name.length() && attributeName.indexOf(name) == 0;
+    }
+
+    private void skipPast(int end) throws IOException {
+        for (int c = read(); c != -1 && c != end; c = read()) ;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * @param c the character to return with the next read, only one character can be unread at a time
+     */
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    private static boolean isAsciiLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r';
+    }
+}
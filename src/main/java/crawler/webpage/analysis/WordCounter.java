@@ -0,0 +1,87 @@
+package crawler.webpage.analysis;
+
+import org.jsoup.internal.StringUtil;
+
+/**
+ * Counts the words of the text of an element as if {@link org.jsoup.nodes.Element#text()} was split at spaces,
+ * without building the text: the characters are fed in one at a time and the whitespace is normalised like jsoup does it. <br>
+ * Splitting the trimmed text at spaces finds one word more than it has spaces, so only the spaces between
+ * the first and the last character that isn't whitespace are counted.
+ */
+class WordCounter {
+
+    // state of the text as if it was built: whether anything was appended and if the last character was a space
+    private boolean textStarted, lastCharIsSpace;
+    // state of the current text node
+    private boolean preserveWhitespace, stripLeading, lastWasWhite, reachedNonWhite;
+
+    private boolean wordSeen;
+    private int spaces, pendingSpaces;
+
+    /**
+     * Starts a text node, its characters are then fed with {@link WordCounter#text(int)}.
+     *
+     * @param preserveWhitespace    true if the node is in an element like pre, its whitespace is kept as is
+     */
+    void startText(boolean preserveWhitespace) {
+        this.preserveWhitespace = preserveWhitespace;
+        stripLeading = lastCharIsSpace;
+        lastWasWhite = false;
+        reachedNonWhite = false;
+    }
+
+    /**
+     * @param c a code point of the current text node
+     */
+    void text(int c) {
+        if (preserveWhitespace) {
+            append(c);
+        } else if (StringUtil.isActuallyWhitespace(c)) {
+            if ((stripLeading && !reachedNonWhite) || lastWasWhite)
+                return;
+            append(' ');
+            lastWasWhite = true;
+        } else if (!StringUtil.isInvisibleChar(c)) {
+            append(c);
+            lastWasWhite = false;
+            reachedNonWhite = true;
+        }
+    }
+
+    /**
+     * Separates a block element or br from the text before it.
+     */
+    void blockStart() {
+        if (textStarted && !lastCharIsSpace)
+            append(' ');
+    }
+
+    /**
+     * Separates a block element from the text node following it.
+     */
+    void blockEnd() {
+        if (!lastCharIsSpace)
+            append(' ');
+    }
+
+    /**
+     * @return  the amount of words, 1 if there is no text like splitting an empty String
+     */
+    int getWordCount() {
+        return spaces + 1;
+    }
+
+    private void append(int c) {
+        textStarted = true;
+        lastCharIsSpace = c == ' ';
+
+        if (c > ' ') {
+            if (wordSeen)
+                spaces += pendingSpaces;
+            pendingSpaces = 0;
+            wordSeen = true;
+        } else if (c == ' ' && wordSeen) {
+            pendingSpaces++;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package crawler.webpage.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the response records of a directory of WARC files, e.g. the ones written by the {@link WarcWriter}. <br>
+ * The files are memory-mapped, a record is read by decompressing only its own gzip member, straight from the mapped file.
+ * The offsets of the response records are taken from the index next to every file,
+ * files without an index are scanned once when the reader is opened. <br>
+ * Only compressed files with one record per gzip member can be read, files are limited to 2 GB each.
+ * If a URL was captured more than once, the first capture is read.
+ */
+public class WarcReader {
+
+    private static final int FEXTRA = 4, FNAME = 8, FCOMMENT = 16, FHCRC = 2;
+    private static final int GZIP_HEADER_LENGTH = 10;
+
+    private final List<MappedByteBuffer> files = new ArrayList<>();
+    private final Map<String, Location> responses = new HashMap<>();
+
+    /**
+     * Maps every {@link WarcWriter#FILE_EXTENSION} file of the directory and indexes its response records.
+     *
+     * @param directory the directory containing the WARC files
+     * @throws IOException if a file can't be mapped or has an invalid index or record
+     */
+    public WarcReader(Path directory) throws IOException {
+        List<Path> warcFiles;
+        try (Stream<Path> list = Files.list(directory)) {
+            warcFiles = list.filter(file -> file.getFileName().toString().endsWith(WarcWriter.FILE_EXTENSION))
+                    .sorted().collect(Collectors.toList());
+        }
+
+        for (Path warcFile : warcFiles) {
+            MappedByteBuffer file = map(warcFile);
+            files.add(file);
+
+            Path index = Path.of(warcFile + WarcWriter.INDEX_EXTENSION);
+            if (Files.exists(index))
+                readIndex(index, files.size() - 1);
+            else
+                scan(file, files.size() - 1);
+        }
+    }
+
+    /**
+     * @param targetUri the WARC-Target-URI of the response, compared exactly
+     * @return          the response record of the URL, null if it wasn't captured
+     * @throws IOException if the record can't be decompressed or parsed
+     */
+    public WarcRecord read(String targetUri) throws IOException {
+        Location location = responses.get(targetUri);
+        if (location == null)
+            return null;
+
+        ByteBuffer member = files.get(location.file).slice(location.offset, location.length);
+        return WarcRecord.parse(inflate(member, location.offset).bytes);
+    }
+
+    /**
+     * @return  the WARC-Target-URIs of all response records
+     */
+    public Set<String> getTargetUris() {
+        return Collections.unmodifiableSet(responses.keySet());
+    }
+
+    /**
+     * @return  how many files were mapped
+     */
+    public int getFileCount() {
+        return files.size();
+    }
+
+    /**
+     * @return  how many URLs have a response record
+     */
+    public int getResponseCount() {
+        return responses.size();
+    }
+
+    /**
+     * The channel is closed right away, the mapping stays valid until the buffer is garbage collected.
+     */
+    private static MappedByteBuffer map(Path warcFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(warcFile)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException(String.format("%s is too large to be mapped, write smaller files with --warc-size", warcFile));
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Reads the lines of a {@link WarcWriter} index: offset, compressed length, WARC-Type, WARC-Date and WARC-Target-URI.
+     */
+    private void readIndex(Path index, int file) throws IOException {
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(" ");
+            if (fields.length != 5)
+                throw new IOException(String.format("Invalid line in %s: %s", index, line));
+
+            if (fields[2].equals("response") && !fields[4].equals("-"))
+                responses.putIfAbsent(fields[4], new Location(file, Integer.parseInt(fields[0]), Integer.parseInt(fields[1])));
+        }
+    }
+
+    /**
+     * Decompresses every gzip member of the file to find the response records and their offsets.
+     */
+    private void scan(MappedByteBuffer buffer, int file) throws IOException {
+        int offset = 0;
+        while (offset < buffer.limit()) {
+            Member member = inflate(buffer.slice(offset, buffer.limit() - offset), offset);
+            WarcRecord record = WarcRecord.parse(member.bytes);
+
+            String targetUri = record.getField("WARC-Target-URI");
+            if (record.getType().equals("response") && targetUri != null)
+                responses.putIfAbsent(targetUri, new Location(file, offset, member.length));
+            offset += member.length;
+        }
+    }
+
+    /**
+     * Decompresses the gzip member at the start of the buffer, checking its CRC.
+     *
+     * @param buffer    starts with the member, may continue after it
+     * @param offset    the offset of the member in its file, for the error messages
+     * @return          the decompressed bytes and the compressed length of the member
+     */
+    private static Member inflate(ByteBuffer buffer, int offset) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            skipHeader(buffer, offset);
+            inflater.setInput(buffer);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+            byte[] chunk = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(chunk);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    throw new IOException("Truncated gzip member at offset " + offset);
+                bytes.write(chunk, 0, length);
+            }
+
+            byte[] decompressed = bytes.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(decompressed);
+            if (buffer.getInt() != (int) crc.getValue() || buffer.getInt() != decompressed.length)
+                throw new IOException("Corrupt gzip member at offset " + offset);
+
+            return new Member(decompressed, buffer.position());
+        } catch (DataFormatException | BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Invalid gzip member at offset " + offset, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Moves the buffer behind the gzip header, including its optional fields.
+     */
+    private static void skipHeader(ByteBuffer buffer, int offset) throws IOException {
+        if (buffer.get(0) != (byte) 0x1f || buffer.get(1) != (byte) 0x8b || buffer.get(2) != 8)
+            throw new IOException("No gzip member at offset " + offset);
+
+        int flags = buffer.get(3);
+        buffer.position(GZIP_HEADER_LENGTH);
+        if ((flags & FEXTRA) != 0) {
+            int extraLength = Short.toUnsignedInt(buffer.getShort());
+            buffer.position(buffer.position() + extraLength);
+        }
+        if ((flags & FNAME) != 0)
+            while (buffer.get() != 0);
+        if ((flags & FCOMMENT) != 0)
+            while (buffer.get() != 0);
+        if ((flags & FHCRC) != 0)
+            buffer.position(buffer.position() + 2);
+    }
+
+    private static class Location {
+        private final int file, offset, length;
+
+        private Location(int file, int offset, int length) {
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static class Member {
+        private final byte[] bytes;
+        private final int length;
+
+        private Member(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+    }
+}
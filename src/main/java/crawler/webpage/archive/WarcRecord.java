@@ -0,0 +1,146 @@
+package crawler.webpage.archive;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A record of a WARC file: the named fields of its header and its content block. <br>
+ * The WARC-Type, WARC-Record-ID, WARC-Date and Content-Length fields are always set,
+ * the others depend on the type of the record.
+ */
+public class WarcRecord {
+
+    public static final String VERSION = "WARC/1.1";
+
+    private final String type;
+    private final Map<String, String> fields = new LinkedHashMap<>();
+    private final byte[] block;
+
+    /**
+     * @param type          the WARC-Type, e.g. request or response
+     * @param date          when the content was captured, written with second precision
+     * @param contentType   the type of the block
+     * @param block         the content of the record
+     */
+    public WarcRecord(String type, Instant date, String contentType, byte[] block) {
+        this.type = type;
+        this.block = block;
+        fields.put("WARC-Type", type);
+        fields.put("WARC-Record-ID", "<urn:uuid:" + UUID.randomUUID() + ">");
+        fields.put("WARC-Date", date.truncatedTo(ChronoUnit.SECONDS).toString());
+        fields.put("Content-Type", contentType);
+    }
+
+    private WarcRecord(String type, Map<String, String> fields, byte[] block) {
+        this.type = type;
+        this.fields.putAll(fields);
+        this.block = block;
+    }
+
+    /**
+     * Parses a record as written by {@link WarcRecord#toBytes()}, the Content-Length field is only used to find the end of the block.
+     *
+     * @param bytes the version line, the header and the block of the record, anything after the block is ignored
+     * @return      the parsed record
+     * @throws IOException if the bytes don't start with a WARC record
+     */
+    public static WarcRecord parse(byte[] bytes) throws IOException {
+        int headerEnd = indexOfEmptyLine(bytes);
+        if (headerEnd < 0)
+            throw new IOException("The WARC record has no end of header");
+
+        String[] lines = new String(bytes, 0, headerEnd, StandardCharsets.UTF_8).split("\r\n");
+        if (!lines[0].startsWith("WARC/"))
+            throw new IOException("Not a WARC record: " + lines[0]);
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        long contentLength = -1;
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon < 1)
+                throw new IOException("Invalid WARC header line: " + lines[i]);
+
+            String name = lines[i].substring(0, colon), value = lines[i].substring(colon + 1).trim();
+            if (name.equalsIgnoreCase("Content-Length"))
+                contentLength = Long.parseLong(value);
+            else
+                fields.put(name, value);
+        }
+
+        int blockStart = headerEnd + 4;
+        if (contentLength < 0 || contentLength > bytes.length - blockStart)
+            throw new IOException("The WARC record has an invalid Content-Length: " + contentLength);
+        if (!fields.containsKey("WARC-Type"))
+            throw new IOException("The WARC record has no WARC-Type");
+
+        return new WarcRecord(fields.get("WARC-Type"), fields, Arrays.copyOfRange(bytes, blockStart, blockStart + (int) contentLength));
+    }
+
+    /**
+     * Adds a field to the header, a field with the same name is replaced.
+     *
+     * @param name  the name of the field
+     * @param value the value of the field, must not contain line breaks
+     * @return      this record
+     */
+    public WarcRecord setField(String name, String value) {
+        fields.put(name, value);
+        return this;
+    }
+
+    /**
+     * @param name  the name of the field
+     * @return      the value of the field, null if it isn't set
+     */
+    public String getField(String name) {
+        return fields.get(name);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getRecordId() {
+        return fields.get("WARC-Record-ID");
+    }
+
+    public byte[] getBlock() {
+        return block;
+    }
+
+    /**
+     * @return  the version line, the header fields, the Content-Length of the block, an empty line,
+     *          the block and the two line breaks ending the record
+     */
+    public byte[] toBytes() {
+        StringBuilder header = new StringBuilder(VERSION).append("\r\n");
+        fields.forEach((name, value) -> header.append(name).append(": ").append(value).append("\r\n"));
+        header.append("Content-Length: ").append(block.length).append("\r\n\r\n");
+
+        byte[] headerBytes = header.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[headerBytes.length + block.length + 4];
+        System.arraycopy(headerBytes, 0, bytes, 0, headerBytes.length);
+        System.arraycopy(block, 0, bytes, headerBytes.length, block.length);
+        bytes[bytes.length - 4] = '\r';
+        bytes[bytes.length - 3] = '\n';
+        bytes[bytes.length - 2] = '\r';
+        bytes[bytes.length - 1] = '\n';
+        return bytes;
+    }
+
+    /**
+     * @return  the index of the CRLF CRLF ending the header, -1 if there is none
+     */
+    private static int indexOfEmptyLine(byte[] bytes) {
+        for (int i = 0; i + 3 < bytes.length; i++)
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n' && bytes[i + 2] == '\r' && bytes[i + 3] == '\n')
+                return i;
+        return -1;
+    }
+}
@@ -0,0 +1,239 @@
+package crawler.webpage.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes WARC records into rotating files on a dedicated writer thread, so archiving doesn't slow down the threads loading pages. <br>
+ * Every record is a gzip member of its own, so a record can be read by seeking to its offset without decompressing the file before it.
+ * The offsets are kept in a sidecar index next to every WARC file, one line per record: <br>
+ * offset, compressed length, WARC-Type, WARC-Date and WARC-Target-URI (- if there is none), separated by spaces. <br>
+ * A new file is started once the current one reached the max file size, the records of one write() call always end up in the same file.
+ */
+public class WarcWriter implements Closeable {
+
+    public static final String FILE_EXTENSION = ".warc.gz";
+    public static final String INDEX_EXTENSION = ".idx";
+    public static final int QUEUE_CAPACITY = 1024;
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+    private final String prefix;
+    private final long maxFileBytes;
+    private final BlockingQueue<List<WarcRecord>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final List<WarcRecord> endOfRecords = new ArrayList<>();
+    private final Thread writerThread;
+    private final AtomicLong recordCount = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong fileCount = new AtomicLong();
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    // only used by the writer thread
+    private OutputStream file;
+    private Writer index;
+    private long fileOffset;
+
+    /**
+     * @param directory     the directory to write the files into, it is created if it doesn't exist
+     * @param prefix        the start of the file names, followed by the time the file was started and its sequence number
+     * @param maxFileBytes  the compressed size after which a new file is started
+     * @throws IOException if the directory can't be created
+     */
+    public WarcWriter(Path directory, String prefix, long maxFileBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.prefix = prefix;
+        this.maxFileBytes = maxFileBytes;
+        this.writerThread = new Thread(this::writeRecords, "warc-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues the records to be written in order into the same file. <br>
+     * Returns right away, unless {@link WarcWriter#QUEUE_CAPACITY} calls are still waiting because the disk can't keep up.
+     * After the writer failed, records are dropped and close() throws the failure.
+     *
+     * @param records   the records to write, e.g. a request and its response
+     * @throws IllegalStateException if the writer is closed
+     */
+    public void write(WarcRecord... records) {
+        if (closed)
+            throw new IllegalStateException("The WARC writer is closed");
+        if (records.length == 0)
+            return;
+
+        try {
+            queue.put(Arrays.asList(records));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return  how many records were written, including the warcinfo record starting every file
+     */
+    public long getRecordCount() {
+        return recordCount.get();
+    }
+
+    /**
+     * @return  the compressed size of all files
+     */
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * @return  how many files were started
+     */
+    public long getFileCount() {
+        return fileCount.get();
+    }
+
+    /**
+     * Writes the queued records and closes the current file, records written afterwards are rejected.
+     *
+     * @throws IOException if writing a record failed at any time
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+
+        closed = true;
+        try {
+            queue.put(endOfRecords);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the WARC writer", e);
+        }
+
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Writer loop, writes the queued records until close() was called.
+     * The files are flushed whenever the queue runs empty, so a crash loses at most the records of a burst.
+     */
+    private void writeRecords() {
+        try {
+            while (true) {
+                List<WarcRecord> records = queue.take();
+                if (records == endOfRecords)
+                    break;
+                if (failure != null)
+                    continue;
+
+                try {
+                    append(records);
+                    if (queue.isEmpty())
+                        flush();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                closeFile();
+            } catch (IOException e) {
+                if (failure == null)
+                    failure = e;
+            }
+        }
+    }
+
+    private void append(List<WarcRecord> records) throws IOException {
+        if (file == null || fileOffset >= maxFileBytes)
+            startNextFile();
+
+        for (WarcRecord record : records)
+            appendToFile(record);
+    }
+
+    /**
+     * Closes the current file and starts the next one with a warcinfo record.
+     */
+    private void startNextFile() throws IOException {
+        closeFile();
+
+        String fileName = String.format("%s-%s-%05d%s", prefix, FILE_TIMESTAMP.format(Instant.now()), fileCount.get(), FILE_EXTENSION);
+        file = new BufferedOutputStream(Files.newOutputStream(directory.resolve(fileName)));
+        index = Files.newBufferedWriter(directory.resolve(fileName + INDEX_EXTENSION), StandardCharsets.UTF_8);
+        fileOffset = 0;
+        fileCount.incrementAndGet();
+
+        byte[] info = ("software: aau-cc-webcrawler\r\nformat: WARC File Format 1.1\r\n").getBytes(StandardCharsets.UTF_8);
+        appendToFile(new WarcRecord("warcinfo", Instant.now(), "application/warc-fields", info).setField("WARC-Filename", fileName));
+    }
+
+    private void appendToFile(WarcRecord record) throws IOException {
+        byte[] member = compress(record.toBytes());
+        file.write(member);
+
+        String targetUri = record.getField("WARC-Target-URI");
+        index.write(String.format("%d %d %s %s %s%n", fileOffset, member.length, record.getType(),
+                record.getField("WARC-Date"), targetUri == null ? "-" : targetUri));
+
+        fileOffset += member.length;
+        bytesWritten.addAndGet(member.length);
+        recordCount.incrementAndGet();
+    }
+
+    private void flush() throws IOException {
+        if (file == null)
+            return;
+
+        file.flush();
+        index.flush();
+    }
+
+    private void closeFile() throws IOException {
+        if (file == null)
+            return;
+
+        OutputStream closedFile = file;
+        Writer closedIndex = index;
+        file = null;
+        index = null;
+        try {
+            closedFile.close();
+        } finally {
+            closedIndex.close();
+        }
+    }
+
+    /**
+     * @return  the bytes as a complete gzip member
+     */
+    private static byte[] compress(byte[] bytes) throws IOException {
+        ByteArrayOutputStream member = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(member)) {
+            gzip.write(bytes);
+        }
+        return member.toByteArray();
+    }
+}
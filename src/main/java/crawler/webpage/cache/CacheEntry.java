@@ -0,0 +1,91 @@
+package crawler.webpage.cache;
+
+import crawler.webpage.fetcher.RawResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A cached response: its validators, the headers needed to use the body again and where the body is stored.
+ * Missing headers are empty Strings.
+ */
+public class CacheEntry {
+
+    private final long id;
+    private final String location, etag, lastModified, contentType, charset;
+    private final long size;
+
+    /**
+     * @param id            the name of the body file
+     * @param location      the URL the body was loaded from after redirects
+     * @param etag          the ETag of the response
+     * @param lastModified  the Last-Modified date of the response
+     * @param contentType   the Content-Type of the response
+     * @param charset       the charset of the body
+     * @param size          the size of the body in bytes
+     */
+    CacheEntry(long id, String location, String etag, String lastModified, String contentType, String charset, long size) {
+        this.id = id;
+        this.location = location;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.contentType = contentType;
+        this.charset = charset;
+        this.size = size;
+    }
+
+    /**
+     * @return  the headers of a conditional request, which the server answers with 304 if the cached body is still valid
+     */
+    public Map<String, String> getValidators() {
+        HashMap<String, String> validators = new HashMap<>();
+        if (!etag.isEmpty())
+            validators.put("If-None-Match", etag);
+        if (!lastModified.isEmpty())
+            validators.put("If-Modified-Since", lastModified);
+        return validators;
+    }
+
+    /**
+     * @param body  the cached body
+     * @return      the cached response as if it was loaded again
+     */
+    public RawResponse toResponse(byte[] body) {
+        HashMap<String, String> headers = new HashMap<>();
+        if (!etag.isEmpty())
+            headers.put("ETag", etag);
+        if (!lastModified.isEmpty())
+            headers.put("Last-Modified", lastModified);
+        if (!contentType.isEmpty())
+            headers.put("Content-Type", contentType);
+        return new RawResponse(location, 200, headers, charset.isEmpty() ? null : charset, body);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getCharset() {
+        return charset;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,300 @@
+package crawler.webpage.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * On-disk cache of response bodies and their validators, so a repeated crawl only downloads pages that changed. <br>
+ * Every body is stored in its own file, the entries are kept in memory in least recently used order
+ * and logged to a binary index. Once the bodies are larger than the size limit, the least recently used ones are evicted. <br>
+ * The index is replayed and rewritten when the cache is opened and whenever it holds twice as many records as entries,
+ * a partially written last record is cut off.
+ */
+public class HttpCache implements Closeable {
+
+    public static final String INDEX_FILE_NAME = "index.bin";
+    public static final String BODY_DIRECTORY_NAME = "bodies";
+
+    private static final int INDEX_MAGIC = 0x48434931;
+    private static final byte PUT = 1, TOUCH = 2, REMOVE = 3;
+    private static final int MIN_RECORDS_BEFORE_COMPACTION = 1024;
+
+    private final Path indexFile, bodyDirectory;
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private DataOutputStream index;
+    private long totalBytes, nextId, indexRecordCount;
+
+    /**
+     * Opens the cache in the directory, it is created if it doesn't exist.
+     *
+     * @param directory where to store the index and the bodies
+     * @param maxBytes  how many bytes the bodies may take up
+     * @throws IOException if the directory or the index can't be read or written
+     */
+    public HttpCache(Path directory, long maxBytes) throws IOException {
+        this.indexFile = Files.createDirectories(directory).resolve(INDEX_FILE_NAME);
+        this.bodyDirectory = Files.createDirectories(directory.resolve(BODY_DIRECTORY_NAME));
+        this.maxBytes = maxBytes;
+
+        loadIndex();
+        deleteUnindexedBodies();
+        evictWhileTooLarge();
+        compactIndex();
+    }
+
+    /**
+     * Looks up the cached response of a URL and marks it as recently used.
+     *
+     * @param url   the requested URL
+     * @return      the entry of the URL or null if it isn't cached
+     */
+    public synchronized CacheEntry get(String url) {
+        CacheEntry entry = entries.get(url);
+        if (entry != null)
+            appendRecord(TOUCH, url, null);
+        return entry;
+    }
+
+    /**
+     * @param entry the entry to read
+     * @return      the cached body
+     * @throws NoSuchFileException if the entry was evicted in the meantime
+     * @throws IOException if the body can't be read
+     */
+    public byte[] readBody(CacheEntry entry) throws IOException {
+        return Files.readAllBytes(getBodyFile(entry.getId()));
+    }
+
+    /**
+     * Stores a response, replacing a previous one of the URL. Bodies larger than the whole cache aren't stored.
+     *
+     * @param url           the requested URL
+     * @param location      the URL the body was loaded from after redirects
+     * @param etag          the ETag of the response, may be null
+     * @param lastModified  the Last-Modified date of the response, may be null
+     * @param contentType   the Content-Type of the response, may be null
+     * @param charset       the charset of the body, may be null
+     * @param body          the body to store
+     * @throws IOException if the body can't be written
+     */
+    public void put(String url, String location, String etag, String lastModified, String contentType, String charset, byte[] body) throws IOException {
+        if (body.length > maxBytes)
+            return;
+
+        long id;
+        synchronized (this) {
+            id = nextId++;
+        }
+        // written completely before it is indexed, so a crash can't index a partial body
+        Path temporaryFile = bodyDirectory.resolve(id + ".tmp");
+        Files.write(temporaryFile, body);
+        Files.move(temporaryFile, getBodyFile(id), StandardCopyOption.ATOMIC_MOVE);
+
+        CacheEntry entry = new CacheEntry(id, location, emptyIfNull(etag), emptyIfNull(lastModified),
+                emptyIfNull(contentType), emptyIfNull(charset), body.length);
+        synchronized (this) {
+            deleteBody(entries.put(url, entry));
+            totalBytes += entry.getSize();
+            appendRecord(PUT, url, entry);
+            evictWhileTooLarge();
+            compactIndexIfBloated();
+        }
+    }
+
+    /**
+     * Removes the response of a URL, e.g. because its body is missing.
+     *
+     * @param url   the requested URL
+     */
+    public synchronized void remove(String url) {
+        CacheEntry entry = entries.remove(url);
+        if (entry == null)
+            return;
+
+        deleteBody(entry);
+        appendRecord(REMOVE, url, null);
+    }
+
+    /**
+     * @return  how many responses are cached
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return  how many bytes the cached bodies take up
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (index != null) {
+            index.close();
+            index = null;
+        }
+    }
+
+    /**
+     * Replays the index, a record that was only partially written ends it.
+     */
+    private void loadIndex() throws IOException {
+        if (!Files.exists(indexFile))
+            return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC)
+                return;
+
+            while (true) {
+                byte type = in.readByte();
+                String url = in.readUTF();
+                if (type == PUT) {
+                    CacheEntry entry = new CacheEntry(in.readLong(), in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readLong());
+                    CacheEntry replaced = entries.put(url, entry);
+                    if (replaced != null)
+                        totalBytes -= replaced.getSize();
+                    totalBytes += entry.getSize();
+                    nextId = Math.max(nextId, entry.getId() + 1);
+                } else if (type == TOUCH) {
+                    entries.get(url);
+                } else if (type == REMOVE) {
+                    CacheEntry removed = entries.remove(url);
+                    if (removed != null)
+                        totalBytes -= removed.getSize();
+                } else {
+                    break;
+                }
+            }
+        } catch (EOFException | UTFDataFormatException e) {
+            // the end of the index or a partially written last record
+        }
+    }
+
+    /**
+     * Deletes the bodies that aren't indexed, e.g. of an entry that was replaced before a crash.
+     */
+    private void deleteUnindexedBodies() throws IOException {
+        HashSet<String> indexedFiles = new HashSet<>();
+        for (CacheEntry entry : entries.values())
+            indexedFiles.add(Long.toString(entry.getId()));
+
+        try (DirectoryStream<Path> bodyFiles = Files.newDirectoryStream(bodyDirectory)) {
+            for (Path bodyFile : bodyFiles)
+                if (!indexedFiles.contains(bodyFile.getFileName().toString()))
+                    Files.deleteIfExists(bodyFile);
+        }
+    }
+
+    private void evictWhileTooLarge() {
+        Iterator<Map.Entry<String, CacheEntry>> leastRecentlyUsed = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+            Map.Entry<String, CacheEntry> evicted = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            deleteBody(evicted.getValue());
+            if (index != null)
+                appendRecord(REMOVE, evicted.getKey(), null);
+        }
+    }
+
+    private void compactIndexIfBloated() {
+        if (indexRecordCount < MIN_RECORDS_BEFORE_COMPACTION || indexRecordCount < 2L * entries.size())
+            return;
+
+        try {
+            compactIndex();
+        } catch (IOException e) {
+            // the bloated index is still valid
+        }
+    }
+
+    /**
+     * Rewrites the index with one record per entry in least recently used order and continues appending to it.
+     */
+    private void compactIndex() throws IOException {
+        close();
+
+        Path temporaryFile = indexFile.resolveSibling(INDEX_FILE_NAME + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            out.writeInt(INDEX_MAGIC);
+            for (Map.Entry<String, CacheEntry> entry : entries.entrySet())
+                writeRecord(out, PUT, entry.getKey(), entry.getValue());
+        }
+        Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        indexRecordCount = entries.size();
+        index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile, StandardOpenOption.APPEND)));
+    }
+
+    /**
+     * Appends a record to the index and flushes it. An entry whose record can't be written
+     * is only known until the cache is closed.
+     */
+    private void appendRecord(byte type, String url, CacheEntry entry) {
+        if (index == null)
+            return;
+
+        try {
+            writeRecord(index, type, url, entry);
+            index.flush();
+            indexRecordCount++;
+        } catch (IOException e) {
+            // e.g. a URL too long for the index
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, byte type, String url, CacheEntry entry) throws IOException {
+        out.writeByte(type);
+        out.writeUTF(url);
+        if (type != PUT)
+            return;
+
+        out.writeLong(entry.getId());
+        out.writeUTF(entry.getLocation());
+        out.writeUTF(entry.getEtag());
+        out.writeUTF(entry.getLastModified());
+        out.writeUTF(entry.getContentType());
+        out.writeUTF(entry.getCharset());
+        out.writeLong(entry.getSize());
+    }
+
+    private void deleteBody(CacheEntry entry) {
+        if (entry == null)
+            return;
+
+        totalBytes -= entry.getSize();
+        try {
+            Files.deleteIfExists(getBodyFile(entry.getId()));
+        } catch (IOException e) {
+            // deleted when the cache is opened the next time
+        }
+    }
+
+    private Path getBodyFile(long id) {
+        return bodyDirectory.resolve(Long.toString(id));
+    }
+
+    private static String emptyIfNull(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,300 @@
+package crawler.webpage.checkpoint;
+
+import crawler.webpage.CrawlObserver;
+import crawler.webpage.Webpage;
+import crawler.webpage.filter.DuplicateLoadFilter;
+import crawler.webpage.filter.RobotsLoadFilter;
+import crawler.webpage.frontier.CrawlTask;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only journal of a crawl, from which an interrupted crawl can be resumed. <br>
+ * Every processed page is appended as one JSON line with its statistics and the URLs of its children,
+ * together with the robots.txt files loaded so far.
+ * The frontier isn't stored, it consists of the children of the journaled pages which have no record of their own. <br>
+ * Workers only hand the records to a queue, a writer thread appends them
+ * and forces them to disk once per checkpoint interval.
+ */
+public class CheckpointJournal implements CrawlObserver, Closeable {
+
+    public static final String JOURNAL_FILE_NAME = "journal.jsonl";
+
+    private static final String END_OF_JOURNAL = "";
+    private static final long ROOT_PARENT_ID = -1;
+
+    private final Path journalFile;
+    private final long checkpointIntervalNanos;
+
+    private final ConcurrentHashMap<Webpage, Long> pageIds = new ConcurrentHashMap<>();
+    private final AtomicLong nextPageId = new AtomicLong();
+    private final LinkedBlockingQueue<String> pendingRecords = new LinkedBlockingQueue<>();
+    private final Set<String> writtenRobotsHosts = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private boolean resumed;
+    private Thread writerThread;
+    private FileChannel journalChannel;
+    private volatile IOException writeError;
+    private volatile long checkpointCount;
+
+    /**
+     * @param directory                 where to store the journal, it is created if it doesn't exist
+     * @param checkpointIntervalMillis  how often the journal is forced to disk
+     * @throws IOException if the directory can't be created
+     */
+    public CheckpointJournal(Path directory, long checkpointIntervalMillis) throws IOException {
+        this.journalFile = Files.createDirectories(directory).resolve(JOURNAL_FILE_NAME);
+        this.checkpointIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkpointIntervalMillis);
+    }
+
+    /**
+     * Restores the pages of the journal into the tree of the root pages, must be called before start(). <br>
+     * Journaled pages aren't loaded again, their URLs are marked as seen in the {@link DuplicateLoadFilter}
+     * and the journaled robots.txt files are put into the cache of the {@link RobotsLoadFilter}.
+     * A partially written last line is cut off.
+     *
+     * @param rootPages the root pages of the crawl, the same as in the interrupted crawl
+     * @param depth     the depth of the crawl
+     * @return          the tasks to continue the crawl with
+     * @throws IOException if the journal can't be read
+     */
+    public List<CrawlTask> restore(ArrayList<Webpage> rootPages, int depth) throws IOException {
+        resumed = true;
+
+        HashMap<Long, Webpage> restoredPages = new HashMap<>();
+        IdentityHashMap<Webpage, Integer> remainingDepths = new IdentityHashMap<>();
+        ArrayList<Webpage> restoreOrder = new ArrayList<>();
+
+        if (Files.exists(journalFile)) {
+            long validLength = 0;
+            try (InputStream journal = new BufferedInputStream(Files.newInputStream(journalFile))) {
+                String line;
+                while ((line = readLine(journal)) != null) {
+                    JSONObject record;
+                    try {
+                        record = new JSONObject(line);
+                    } catch (JSONException e) {
+                        break;
+                    }
+                    validLength += line.getBytes(StandardCharsets.UTF_8).length + 1;
+
+                    if ("robots".equals(record.getString("type"))) {
+                        RobotsLoadFilter.restoreRobotsTxt(record.getString("host"), record.getString("source"));
+                        writtenRobotsHosts.add(record.getString("host"));
+                        continue;
+                    }
+
+                    Webpage parent = record.getLong("parent") == ROOT_PARENT_ID ? null : restoredPages.get(record.getLong("parent"));
+                    List<Webpage> candidates = parent == null ? rootPages : parent.getChildren();
+                    if (parent == null && record.getLong("parent") != ROOT_PARENT_ID)
+                        continue;
+
+                    Webpage page = findUnrestored(candidates, record.getString("url"), remainingDepths);
+                    if (page == null)
+                        continue;
+
+                    page.restoreFromCheckpointRecord(record.getJSONObject("page"));
+                    if (!page.loadingWasPreventedByFilter())
+                        DuplicateLoadFilter.markAsSeen(page.getPageURI());
+
+                    long id = record.getLong("id");
+                    restoredPages.put(id, page);
+                    pageIds.put(page, id);
+                    nextPageId.set(Math.max(nextPageId.get(), id + 1));
+                    remainingDepths.put(page, record.getInt("depth"));
+                    restoreOrder.add(page);
+                }
+            }
+
+            try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+
+        ArrayList<CrawlTask> startTasks = new ArrayList<>();
+        for (Webpage rootPage : rootPages)
+            if (!remainingDepths.containsKey(rootPage))
+                startTasks.add(new CrawlTask(rootPage, depth));
+
+        for (Webpage page : restoreOrder) {
+            int childDepth = remainingDepths.get(page) - 1;
+            if (childDepth < 1)
+                continue;
+            for (Webpage child : page.getChildren())
+                if (!remainingDepths.containsKey(child))
+                    startTasks.add(new CrawlTask(child, childDepth, page));
+        }
+
+        return startTasks;
+    }
+
+    /**
+     * Opens the journal and starts the writer thread.
+     * The journal is continued after restore() and started over otherwise.
+     *
+     * @throws IOException if the journal can't be opened
+     */
+    public void start() throws IOException {
+        journalChannel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                resumed ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+
+        writerThread = new Thread(this::writeRecords, "checkpoint-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queues a record of the page, pages whose parent isn't journaled are skipped
+     * since they couldn't be placed in the tree.
+     *
+     * @param task  the processed task
+     */
+    @Override
+    public void pageProcessed(CrawlTask task) {
+        if (writeError != null)
+            return;
+
+        long parentId = ROOT_PARENT_ID;
+        if (task.getParent() != null) {
+            Long journaledParentId = pageIds.get(task.getParent());
+            if (journaledParentId == null)
+                return;
+            parentId = journaledParentId;
+        }
+
+        long id = nextPageId.getAndIncrement();
+        pageIds.put(task.getPage(), id);
+
+        JSONObject record = new JSONObject();
+        record.put("type", "page");
+        record.put("id", id);
+        record.put("parent", parentId);
+        record.put("depth", task.getRemainingDepth());
+        record.put("url", task.getPage().getPageURI().toString());
+        record.put("page", task.getPage().asCheckpointRecord());
+        pendingRecords.add(record.toString());
+    }
+
+    /**
+     * Writes the remaining records, forces them to disk and stops the writer thread.
+     *
+     * @throws IOException if writing the journal failed at any point
+     */
+    @Override
+    public void close() throws IOException {
+        if (writerThread != null) {
+            pendingRecords.add(END_OF_JOURNAL);
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            journalChannel.close();
+        }
+
+        if (writeError != null)
+            throw writeError;
+    }
+
+    /**
+     * @return  how many times the journal was forced to disk so far
+     */
+    public long getCheckpointCount() {
+        return checkpointCount;
+    }
+
+    public Path getJournalFile() {
+        return journalFile;
+    }
+
+    private void writeRecords() {
+        Writer writer = Channels.newWriter(journalChannel, StandardCharsets.UTF_8);
+        try {
+            long nextCheckpoint = System.nanoTime() + checkpointIntervalNanos;
+            while (true) {
+                String record = pendingRecords.poll(Math.max(0, nextCheckpoint - System.nanoTime()), TimeUnit.NANOSECONDS);
+                // compared by identity, no record is empty
+                if (record == END_OF_JOURNAL)
+                    break;
+                if (record != null)
+                    writer.write(record + "\n");
+
+                if (System.nanoTime() - nextCheckpoint >= 0) {
+                    checkpoint(writer);
+                    nextCheckpoint = System.nanoTime() + checkpointIntervalNanos;
+                }
+            }
+            checkpoint(writer);
+        } catch (IOException e) {
+            writeError = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Appends the robots.txt files which were loaded since the last checkpoint and forces the journal to disk.
+     */
+    private void checkpoint(Writer writer) throws IOException {
+        for (Map.Entry<String, String> robotsTxt : RobotsLoadFilter.getRobotsTxtSources().entrySet()) {
+            if (!writtenRobotsHosts.add(robotsTxt.getKey()))
+                continue;
+
+            JSONObject record = new JSONObject();
+            record.put("type", "robots");
+            record.put("host", robotsTxt.getKey());
+            record.put("source", robotsTxt.getValue());
+            writer.write(record + "\n");
+        }
+
+        writer.flush();
+        journalChannel.force(false);
+        checkpointCount++;
+    }
+
+    private static Webpage findUnrestored(List<Webpage> candidates, String url, IdentityHashMap<Webpage, Integer> restored) {
+        for (Webpage candidate : candidates)
+            if (!restored.containsKey(candidate) && candidate.getPageURI().toString().equals(url))
+                return candidate;
+        return null;
+    }
+
+    /**
+     * @return  the next line without the line break, null at the end of the stream or for an unterminated last line
+     */
+    private static String readLine(InputStream input) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int nextByte;
+        while ((nextByte = input.read()) != -1) {
+            if (nextByte == '\n')
+                return line.toString(StandardCharsets.UTF_8);
+            line.write(nextByte);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,262 @@
+package crawler.webpage.concurrency;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adapts how many pages load at once, globally and per host, with additive increase and multiplicative decrease (AIMD). <br>
+ * Every successful fetch raises a limit by 1/limit, so by about one per round of requests.
+ * A limit is cut when its scope is congested: by half for 429/503 responses of a host or too many timeouts,
+ * and by {@link AdaptiveConcurrencyController#LATENCY_DECREASE_FACTOR} when the median or the 90th percentile latency of a host
+ * exceeds {@link AdaptiveConcurrencyController#LATENCY_TOLERANCE} times the lowest one seen since its last latency cut. <br>
+ * A limit is cut at most once per round of requests, so a burst of errors caused by one limit only counts once.
+ * Overloaded and slow hosts only lower their own limit, timeouts lower the global limit as well.
+ * The latencies of different hosts aren't comparable, so the global limit doesn't react to them.
+ */
+public class AdaptiveConcurrencyController {
+
+    public static final String GLOBAL_SCOPE = "*";
+    public static final double DECREASE_FACTOR = 0.5;
+    public static final double LATENCY_DECREASE_FACTOR = 0.9;
+    public static final double LATENCY_TOLERANCE = 2.0;
+    public static final double MAX_TIMEOUT_RATE = 0.1;
+    public static final int WINDOW_SIZE = 64;
+    public static final int MIN_SAMPLES = 16;
+
+    private static final int MAX_HOST_STATISTICS = 10;
+
+    private final int maxLimit, maxPerHost;
+    private final long startTime = System.nanoTime();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private final Limit globalLimit;
+    private final HashMap<String, Limit> hostLimits = new HashMap<>();
+    private int inFlight;
+
+    private ConcurrencyListener listener = decision -> { };
+
+    /**
+     * @param initialLimit  how many pages may load at once in the beginning
+     * @param maxLimit      how many pages may load at once at most
+     * @param maxPerHost    how many pages of the same host may load at once at most, each host starts with this limit
+     */
+    public AdaptiveConcurrencyController(int initialLimit, int maxLimit, int maxPerHost) {
+        this.maxLimit = maxLimit;
+        this.maxPerHost = maxPerHost;
+        this.globalLimit = new Limit(GLOBAL_SCOPE, Math.min(initialLimit, maxLimit), maxLimit);
+    }
+
+    /**
+     * Waits until less pages are loading than the global limit allows and takes a slot.
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= globalLimit.getLimit())
+                slotFreed.await();
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees a slot taken with acquire().
+     */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adapts the limits of the host and the global limit to the outcome of a fetch.
+     *
+     * @param host          the host of the fetched page
+     * @param latencyNanos  how long the fetch took
+     * @param outcome       the outcome of the fetch
+     */
+    public void record(String host, long latencyNanos, FetchOutcome outcome) {
+        ArrayList<ConcurrencyDecision> decisions = new ArrayList<>();
+
+        lock.lock();
+        try {
+            Limit hostLimit = hostLimits.computeIfAbsent(host, scope -> new Limit(scope, maxPerHost, maxPerHost));
+            hostLimit.adapt(latencyNanos, outcome, decisions);
+            globalLimit.adapt(latencyNanos, outcome == FetchOutcome.OVERLOADED ? FetchOutcome.ERROR : outcome, decisions);
+
+            if (globalLimit.getLimit() > inFlight)
+                slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        for (ConcurrencyDecision decision : decisions)
+            listener.limitChanged(decision);
+    }
+
+    /**
+     * @return  how many pages may load at once at the moment
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return globalLimit.getLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param host  the host to look up
+     * @return      how many pages of the host may load at once at the moment
+     */
+    public int getHostLimit(String host) {
+        lock.lock();
+        try {
+            Limit hostLimit = hostLimits.get(host);
+            return hostLimit == null ? maxPerHost : hostLimit.getLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Sets the listener that is notified about every change of a limit.
+     *
+     * @param newListener   the listener to notify
+     */
+    public void setListener(ConcurrencyListener newListener) {
+        listener = newListener;
+    }
+
+    /**
+     * @return  the limits and how often they were changed for which reason,
+     *          for the global limit and the hosts which were cut most often
+     */
+    public String getStatistics() {
+        lock.lock();
+        try {
+            List<Limit> hosts = new ArrayList<>(hostLimits.values());
+            hosts.sort(Comparator.comparingInt(Limit::getDecreaseCount).reversed().thenComparing(limit -> limit.scope));
+
+            StringBuilder statistics = new StringBuilder(String.format("%-32s %6s %6s %9s %9s %9s %9s%n",
+                    "scope", "limit", "max", "increase", "overload", "timeouts", "latency"));
+            statistics.append(globalLimit.asStatisticsRow());
+            for (Limit hostLimit : hosts.subList(0, Math.min(MAX_HOST_STATISTICS, hosts.size())))
+                statistics.append(hostLimit.asStatisticsRow());
+            return statistics.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The limit of one scope, guarded by the lock of the controller.
+     */
+    private class Limit {
+        private final String scope;
+        private final int max;
+        private final LatencyWindow window = new LatencyWindow(WINDOW_SIZE);
+        private final EnumMap<ConcurrencyDecision.Reason, Integer> decisionCounts = new EnumMap<>(ConcurrencyDecision.Reason.class);
+        private double limit;
+        private int samplesSinceDecrease;
+        private long lowestMedianNanos = Long.MAX_VALUE, lowestP90Nanos = Long.MAX_VALUE;
+
+        private Limit(String scope, int initial, int max) {
+            this.scope = scope;
+            this.limit = initial;
+            this.max = max;
+            // the first congestion is always reacted to
+            this.samplesSinceDecrease = max;
+        }
+
+        private void adapt(long latencyNanos, FetchOutcome outcome, List<ConcurrencyDecision> decisions) {
+            window.add(latencyNanos, outcome);
+            // capped, since more than max samples are never needed
+            samplesSinceDecrease = Math.min(samplesSinceDecrease + 1, max);
+
+            int previousLimit = getLimit();
+            ConcurrencyDecision.Reason reason = findCongestion(outcome);
+            if (reason != null) {
+                if (samplesSinceDecrease < limit)
+                    return;
+                limit = Math.max(1, limit * (reason == ConcurrencyDecision.Reason.LATENCY ? LATENCY_DECREASE_FACTOR : DECREASE_FACTOR));
+                samplesSinceDecrease = 0;
+            } else if (outcome == FetchOutcome.SUCCESS) {
+                limit = Math.min(max, limit + 1 / limit);
+                reason = ConcurrencyDecision.Reason.INCREASE;
+            } else {
+                return;
+            }
+
+            if (getLimit() == previousLimit)
+                return;
+
+            decisionCounts.merge(reason, 1, Integer::sum);
+            decisions.add(new ConcurrencyDecision(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), scope,
+                    previousLimit, getLimit(), reason, window.percentile(0.5), window.percentile(0.9), window.timeoutRate()));
+            // the samples were taken with the old limit
+            if (reason != ConcurrencyDecision.Reason.INCREASE)
+                window.clear();
+            // the host may just have become slower, so the reference is learned again with the new limit
+            if (reason == ConcurrencyDecision.Reason.LATENCY)
+                lowestMedianNanos = lowestP90Nanos = Long.MAX_VALUE;
+        }
+
+        /**
+         * @return  why this scope is congested, null if it isn't
+         */
+        private ConcurrencyDecision.Reason findCongestion(FetchOutcome outcome) {
+            if (outcome == FetchOutcome.OVERLOADED)
+                return ConcurrencyDecision.Reason.OVERLOAD;
+
+            if (window.size() >= MIN_SAMPLES && window.timeoutRate() > MAX_TIMEOUT_RATE)
+                return ConcurrencyDecision.Reason.TIMEOUTS;
+
+            if (!scope.equals(GLOBAL_SCOPE) && outcome == FetchOutcome.SUCCESS && window.getLatencyCount() >= MIN_SAMPLES) {
+                long medianNanos = window.percentile(0.5), p90Nanos = window.percentile(0.9);
+                lowestMedianNanos = Math.min(lowestMedianNanos, medianNanos);
+                lowestP90Nanos = Math.min(lowestP90Nanos, p90Nanos);
+                if (medianNanos > LATENCY_TOLERANCE * lowestMedianNanos || p90Nanos > LATENCY_TOLERANCE * lowestP90Nanos)
+                    return ConcurrencyDecision.Reason.LATENCY;
+            }
+            return null;
+        }
+
+        private int getLimit() {
+            return (int) limit;
+        }
+
+        private int getDecreaseCount() {
+            return decisionCounts.getOrDefault(ConcurrencyDecision.Reason.OVERLOAD, 0)
+                    + decisionCounts.getOrDefault(ConcurrencyDecision.Reason.TIMEOUTS, 0)
+                    + decisionCounts.getOrDefault(ConcurrencyDecision.Reason.LATENCY, 0);
+        }
+
+        private String asStatisticsRow() {
+            return String.format("%-32s %6d %6d %9d %9d %9d %9d%n", scope, getLimit(), max,
+                    decisionCounts.getOrDefault(ConcurrencyDecision.Reason.INCREASE, 0),
+                    decisionCounts.getOrDefault(ConcurrencyDecision.Reason.OVERLOAD, 0),
+                    decisionCounts.getOrDefault(ConcurrencyDecision.Reason.TIMEOUTS, 0),
+                    decisionCounts.getOrDefault(ConcurrencyDecision.Reason.LATENCY, 0));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package crawler.webpage.concurrency;
+
+import crawler.util.Util;
+import org.json.JSONObject;
+
+/**
+ * A change of a concurrency limit made by the {@link AdaptiveConcurrencyController}.
+ */
+public class ConcurrencyDecision {
+
+    public enum Reason {
+        INCREASE,
+        OVERLOAD,
+        TIMEOUTS,
+        LATENCY
+    }
+
+    private final long elapsedMillis;
+    private final String scope;
+    private final int previousLimit, newLimit;
+    private final Reason reason;
+    private final long p50Nanos, p90Nanos;
+    private final double timeoutRate;
+
+    /**
+     * @param elapsedMillis     milliseconds since the controller was created
+     * @param scope             the host whose limit changed, {@link AdaptiveConcurrencyController#GLOBAL_SCOPE} for the global limit
+     * @param previousLimit     the limit before the decision
+     * @param newLimit          the limit after the decision
+     * @param reason            why the limit changed
+     * @param p50Nanos          the median latency of the scope when deciding
+     * @param p90Nanos          the 90th percentile latency of the scope when deciding
+     * @param timeoutRate       the share of timeouts of the scope when deciding
+     */
+    public ConcurrencyDecision(long elapsedMillis, String scope, int previousLimit, int newLimit, Reason reason,
+                               long p50Nanos, long p90Nanos, double timeoutRate) {
+        this.elapsedMillis = elapsedMillis;
+        this.scope = scope;
+        this.previousLimit = previousLimit;
+        this.newLimit = newLimit;
+        this.reason = reason;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.timeoutRate = timeoutRate;
+    }
+
+    public JSONObject asJSONObject() {
+        JSONObject decision = Util.makeJSONObjectWithOrderedKeys();
+        decision.put("elapsedMillis", elapsedMillis);
+        decision.put("scope", scope);
+        decision.put("previousLimit", previousLimit);
+        decision.put("newLimit", newLimit);
+        decision.put("reason", reason.name().toLowerCase());
+        decision.put("p50Nanos", p50Nanos);
+        decision.put("p90Nanos", p90Nanos);
+        decision.put("timeoutRate", timeoutRate);
+        return decision;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public int getPreviousLimit() {
+        return previousLimit;
+    }
+
+    public int getNewLimit() {
+        return newLimit;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public double getTimeoutRate() {
+        return timeoutRate;
+    }
+}
@@ -0,0 +1,10 @@
+package crawler.webpage.concurrency;
+
+public interface ConcurrencyListener {
+    /**
+     * Called outside of any lock whenever a concurrency limit changed.
+     *
+     * @param decision  the change of the limit
+     */
+    void limitChanged(ConcurrencyDecision decision);
+}
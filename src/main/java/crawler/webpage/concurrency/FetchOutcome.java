@@ -0,0 +1,35 @@
+package crawler.webpage.concurrency;
+
+import crawler.webpage.fetcher.NonHtmlContentException;
+import org.jsoup.HttpStatusException;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+
+public enum FetchOutcome {
+    SUCCESS,
+    TIMEOUT,
+    OVERLOADED,
+    ERROR;
+
+    /**
+     * Classifies the error of a fetch, 429 (Too Many Requests) and 503 (Service Unavailable) mean the server is overloaded.
+     * Other errors, e.g. 404, say nothing about the load of the server.
+     * A resource that isn't HTML was answered like any other and counts as success.
+     *
+     * @param error the error of the fetch, null if it succeeded
+     * @return      the outcome of the fetch
+     */
+    public static FetchOutcome of(Exception error) {
+        if (error == null || error instanceof NonHtmlContentException)
+            return SUCCESS;
+        if (error instanceof SocketTimeoutException || error instanceof HttpTimeoutException)
+            return TIMEOUT;
+        if (error instanceof HttpStatusException) {
+            int statusCode = ((HttpStatusException) error).getStatusCode();
+            if (statusCode == 429 || statusCode == 503)
+                return OVERLOADED;
+        }
+        return ERROR;
+    }
+}
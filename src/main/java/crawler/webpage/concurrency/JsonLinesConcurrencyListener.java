@@ -0,0 +1,47 @@
+package crawler.webpage.concurrency;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes every decision as one JSON line into a file, so the controller can be tuned afterwards.
+ */
+public class JsonLinesConcurrencyListener implements ConcurrencyListener, Closeable {
+
+    private final BufferedWriter writer;
+    private IOException writeError;
+
+    /**
+     * @param metricsFile   the file to write, it is replaced if it exists
+     * @throws IOException if the file can't be opened
+     */
+    public JsonLinesConcurrencyListener(Path metricsFile) throws IOException {
+        this.writer = Files.newBufferedWriter(metricsFile, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void limitChanged(ConcurrencyDecision decision) {
+        if (writeError != null)
+            return;
+
+        try {
+            writer.write(decision.asJSONObject() + "\n");
+        } catch (IOException e) {
+            writeError = e;
+        }
+    }
+
+    /**
+     * @throws IOException if writing a decision failed at any point
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+        if (writeError != null)
+            throw writeError;
+    }
+}
@@ -0,0 +1,77 @@
+package crawler.webpage.concurrency;
+
+import java.util.Arrays;
+
+/**
+ * The outcomes and latencies of the last fetches, older ones are overwritten.
+ * Not thread safe.
+ */
+public class LatencyWindow {
+
+    private final long[] latencies;
+    private final boolean[] timeouts;
+    private int size, next, latencyCount, timeoutCount;
+
+    /**
+     * @param capacity  how many fetches are kept
+     */
+    public LatencyWindow(int capacity) {
+        this.latencies = new long[capacity];
+        this.timeouts = new boolean[capacity];
+    }
+
+    /**
+     * @param latencyNanos  how long the fetch took, only successful fetches count towards the percentiles
+     * @param outcome       the outcome of the fetch
+     */
+    public void add(long latencyNanos, FetchOutcome outcome) {
+        if (size == latencies.length) {
+            if (latencies[next] >= 0)
+                latencyCount--;
+            if (timeouts[next])
+                timeoutCount--;
+        } else {
+            size++;
+        }
+
+        latencies[next] = outcome == FetchOutcome.SUCCESS ? latencyNanos : -1;
+        timeouts[next] = outcome == FetchOutcome.TIMEOUT;
+        if (latencies[next] >= 0)
+            latencyCount++;
+        if (timeouts[next])
+            timeoutCount++;
+        next = (next + 1) % latencies.length;
+    }
+
+    /**
+     * @param quantile  between 0 and 1, e.g. 0.9 for the 90th percentile
+     * @return          the latency below which the quantile of the successful fetches lie, 0 if there are none
+     */
+    public long percentile(double quantile) {
+        if (latencyCount == 0)
+            return 0;
+
+        long[] sortedLatencies = Arrays.stream(latencies, 0, size).filter(latency -> latency >= 0).sorted().toArray();
+        int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+    }
+
+    /**
+     * @return  the share of timeouts among the kept fetches
+     */
+    public double timeoutRate() {
+        return size == 0 ? 0 : (double) timeoutCount / size;
+    }
+
+    public void clear() {
+        size = next = latencyCount = timeoutCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getLatencyCount() {
+        return latencyCount;
+    }
+}
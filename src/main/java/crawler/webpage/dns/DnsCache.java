@@ -0,0 +1,239 @@
+package crawler.webpage.dns;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Security;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the addresses of hosts for a TTL and hosts that can't be resolved for a shorter negative TTL,
+ * concurrent lookups of the same host share one request to the resolver. <br>
+ * New hosts can be resolved ahead of time by prefetch threads, so the lookup is off the critical path
+ * by the time a page of the host is loaded. <br>
+ * The fetchers resolve hosts through the JVM, whose cache can't be replaced before Java 18.
+ * With the system resolver a prefetch warms that cache as well, {@link DnsCache#applyToJvmCache()} aligns its TTLs with these.
+ */
+public class DnsCache {
+
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(60);
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofSeconds(10);
+
+    private final HostResolver resolver;
+    private final Duration ttl, negativeTtl;
+    private final ExecutorService prefetchThreads;
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder lookupCount = new LongAdder();
+    private final LongAdder prefetchCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private LongSupplier clock = System::nanoTime;
+
+    /**
+     * @param resolver              resolves the hosts that aren't cached
+     * @param ttl                   how long addresses are cached
+     * @param negativeTtl           how long hosts that can't be resolved are cached
+     * @param prefetchThreadCount   how many hosts may be prefetched at once, 0 to not prefetch
+     */
+    public DnsCache(HostResolver resolver, Duration ttl, Duration negativeTtl, int prefetchThreadCount) {
+        this.resolver = resolver;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.prefetchThreads = prefetchThreadCount < 1 ? null : Executors.newFixedThreadPool(prefetchThreadCount, runnable -> {
+            Thread thread = new Thread(runnable, "dns-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the cached addresses of the host, resolving it on the calling thread if they aren't cached or expired.
+     * If the host is being prefetched, the prefetch is waited for.
+     *
+     * @param host  the host name to resolve
+     * @return      all addresses of the host
+     * @throws UnknownHostException if the host can't be resolved, also while it is cached as unresolvable
+     */
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        requestCount.increment();
+        Entry entry;
+        do {
+            entry = lookup(host, Runnable::run, false).join();
+        } while (entry == Entry.DROPPED);
+        if (entry.addresses == null)
+            throw new UnknownHostException(host);
+        return entry.addresses.clone();
+    }
+
+    /**
+     * @param host  the host name to resolve
+     * @return      the first address of the host, the host name itself if it can't be resolved
+     */
+    public String resolveAddress(String host) {
+        try {
+            InetAddress[] addresses = resolve(host);
+            return addresses.length == 0 ? host : addresses[0].getHostAddress();
+        } catch (UnknownHostException e) {
+            return host;
+        }
+    }
+
+    /**
+     * Returns the first address of the host without blocking, an uncached or expired host is looked up on a prefetch thread,
+     * or on the common fork-join pool if there are no prefetch threads.
+     *
+     * @param host  the host name to resolve
+     * @return      completes with the first address of the host, the host name itself if it can't be resolved
+     */
+    public CompletableFuture<String> resolveAddressAsync(String host) {
+        requestCount.increment();
+        return lookup(host, prefetchThreads == null ? ForkJoinPool.commonPool() : prefetchThreads, false).thenApply(entry ->
+                entry.addresses == null || entry.addresses.length == 0 ? host : entry.addresses[0].getHostAddress());
+    }
+
+    /**
+     * Starts resolving the host on a prefetch thread, unless it is cached or already being resolved. Never blocks.
+     *
+     * @param host  the host name to resolve
+     */
+    public void prefetch(String host) {
+        if (prefetchThreads != null && host != null && !host.isEmpty())
+            lookup(host, prefetchThreads, true);
+    }
+
+    /**
+     * Sets the TTLs of the JVM's own cache, which the fetchers resolve through, to the ones of this cache.
+     * Only takes effect if no host was resolved by the JVM yet.
+     */
+    public void applyToJvmCache() {
+        Security.setProperty("networkaddress.cache.ttl", Long.toString(Math.max(1, ttl.getSeconds())));
+        Security.setProperty("networkaddress.cache.negative.ttl", Long.toString(negativeTtl.getSeconds()));
+    }
+
+    /**
+     * Sets the clock the TTLs are measured with, e.g. a fake clock in tests.
+     * Defaults to {@link System#nanoTime()}.
+     *
+     * @param newClock  supplies the current time in nanoseconds
+     */
+    public void setClock(LongSupplier newClock) {
+        clock = newClock;
+    }
+
+    /**
+     * Stops the prefetch threads, prefetches that didn't finish yet are dropped.
+     */
+    public void shutdown() {
+        if (prefetchThreads == null)
+            return;
+
+        // dropped before the threads are interrupted, so an interrupted lookup can't cache the host as unresolvable
+        entries.forEach((host, entry) -> {
+            if (entry.complete(Entry.DROPPED))
+                entries.remove(host, entry);
+        });
+        prefetchThreads.shutdownNow();
+    }
+
+    /**
+     * @return  how often resolve() was called
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * @return  how many hosts were sent to the resolver, including prefetches
+     */
+    public long getLookupCount() {
+        return lookupCount.sum();
+    }
+
+    /**
+     * @return  how many lookups were started by prefetch()
+     */
+    public long getPrefetchCount() {
+        return prefetchCount.sum();
+    }
+
+    /**
+     * @return  how many lookups failed
+     */
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    /**
+     * @return  a line with the requests, lookups, prefetches and failures
+     */
+    public String getStatistics() {
+        return String.format("DNS: %d requests, %d lookups, %d prefetched, %d failed%n",
+                getRequestCount(), getLookupCount(), getPrefetchCount(), getFailureCount());
+    }
+
+    /**
+     * Returns the entry of the host, starting a lookup on the executor if there is none or it expired.
+     * An entry that is still being resolved never expires, so every host has at most one lookup in flight.
+     */
+    private CompletableFuture<Entry> lookup(String host, Executor executor, boolean prefetch) {
+        String key = host.toLowerCase(Locale.ROOT);
+        while (true) {
+            CompletableFuture<Entry> cached = entries.get(key);
+            if (cached != null && !isExpired(cached))
+                return cached;
+
+            CompletableFuture<Entry> created = new CompletableFuture<>();
+            boolean replaced = cached == null ? entries.putIfAbsent(key, created) == null : entries.replace(key, cached, created);
+            if (!replaced)
+                continue;
+
+            try {
+                executor.execute(() -> created.complete(resolveNow(key)));
+            } catch (RejectedExecutionException e) {
+                // shut down, the next resolve() looks the host up itself
+                entries.remove(key, created);
+                created.complete(Entry.DROPPED);
+                return created;
+            }
+
+            lookupCount.increment();
+            if (prefetch)
+                prefetchCount.increment();
+            return created;
+        }
+    }
+
+    private boolean isExpired(CompletableFuture<Entry> entry) {
+        return entry.isDone() && entry.join().expiryTime - clock.getAsLong() <= 0;
+    }
+
+    private Entry resolveNow(String host) {
+        try {
+            return new Entry(resolver.resolve(host), clock.getAsLong() + ttl.toNanos());
+        } catch (UnknownHostException | RuntimeException e) {
+            failureCount.increment();
+            return new Entry(null, clock.getAsLong() + negativeTtl.toNanos());
+        }
+    }
+
+    private static class Entry {
+        private static final Entry DROPPED = new Entry(null, 0);
+
+        private final InetAddress[] addresses;
+        private final long expiryTime;
+
+        private Entry(InetAddress[] addresses, long expiryTime) {
+            this.addresses = addresses;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
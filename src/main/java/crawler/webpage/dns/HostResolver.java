@@ -0,0 +1,25 @@
+package crawler.webpage.dns;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Resolves host names to addresses, e.g. the system resolver or a stub in tests.
+ */
+@FunctionalInterface
+public interface HostResolver {
+
+    /**
+     * @param host  the host name to resolve
+     * @return      all addresses of the host
+     * @throws UnknownHostException if the host can't be resolved
+     */
+    InetAddress[] resolve(String host) throws UnknownHostException;
+
+    /**
+     * @return  the resolver of the JVM, which asks the operating system
+     */
+    static HostResolver system() {
+        return InetAddress::getAllByName;
+    }
+}
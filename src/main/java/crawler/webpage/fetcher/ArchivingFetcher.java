@@ -0,0 +1,180 @@
+package crawler.webpage.fetcher;
+
+import crawler.webpage.archive.WarcRecord;
+import crawler.webpage.archive.WarcWriter;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Archives every response of the delegate as a request and a response record with the {@link WarcWriter},
+ * so the crawl can be analyzed again without loading the pages again. Error responses are archived without their body,
+ * resources rejected by their Content-Type are archived with their headers only, those rejected by their extension weren't requested. <br>
+ * The records are rebuilt from what the fetchers keep: the final URL after redirects, the status, the headers and the body as received.
+ * Bodies are archived decoded, so Content-Encoding and Transfer-Encoding are left out and the Content-Length is the one of the archived body.
+ * A body cut off at the max body size is marked with WARC-Truncated. <br>
+ * Every response records how long it took to fetch in {@link ArchivingFetcher#FETCH_MILLIS_FIELD}, so a replay can reproduce the latencies.
+ * A redirected request is archived with an additional 302 response for the requested URL pointing to the final one,
+ * the fetchers follow redirects on their own and don't keep the original redirect response.
+ */
+public class ArchivingFetcher implements Fetcher {
+
+    /**
+     * The WARC field of a response record holding the milliseconds from sending the request until the body was received.
+     */
+    public static final String FETCH_MILLIS_FIELD = "WARC-X-Fetch-Millis";
+
+    /**
+     * Headers describing the encoding on the wire, which doesn't apply to the archived body.
+     */
+    private static final Set<String> WIRE_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        WIRE_HEADERS.add("Content-Encoding");
+        WIRE_HEADERS.add("Transfer-Encoding");
+        WIRE_HEADERS.add("Content-Length");
+    }
+
+    private final Fetcher delegate;
+    private final WarcWriter writer;
+    private final LongAdder archivedCount = new LongAdder();
+
+    /**
+     * @param delegate  the fetcher sending the requests
+     * @param writer    writes the records, may be shared with other fetchers
+     */
+    public ArchivingFetcher(Fetcher delegate, WarcWriter writer) {
+        this.delegate = delegate;
+        this.writer = writer;
+    }
+
+    @Override
+    public Document fetchDocument(String location, String userAgent) throws IOException {
+        return fetchRaw(location, userAgent).parseDocument();
+    }
+
+    @Override
+    public RawResponse fetchRaw(String location, String userAgent) throws IOException {
+        return fetchArchived(location, userAgent, Collections.emptyMap(), () -> delegate.fetchRaw(location, userAgent));
+    }
+
+    @Override
+    public RawResponse fetchRaw(String location, String userAgent, Map<String, String> requestHeaders) throws IOException {
+        return fetchArchived(location, userAgent, requestHeaders, () -> delegate.fetchRaw(location, userAgent, requestHeaders));
+    }
+
+    /**
+     * Status requests aren't archived, they have no body.
+     */
+    @Override
+    public int fetchStatus(String location, String userAgent) throws IOException {
+        return delegate.fetchStatus(location, userAgent);
+    }
+
+    /**
+     * @return  how many responses were handed to the writer
+     */
+    public long getArchivedCount() {
+        return archivedCount.sum();
+    }
+
+    public WarcWriter getWriter() {
+        return writer;
+    }
+
+    private RawResponse fetchArchived(String location, String userAgent, Map<String, String> requestHeaders, Request request) throws IOException {
+        Instant date = Instant.now();
+        long startTime = System.nanoTime();
+        RawResponse response;
+        try {
+            response = request.send();
+        } catch (HttpResponseException e) {
+            archive(date, elapsedMillis(startTime), location, location, userAgent, requestHeaders,
+                    e.getStatusCode(), e.getHeaders(), new byte[0], false);
+            throw e;
+        } catch (NonHtmlContentException e) {
+            if (ContentTypes.guessNonHtmlType(location) == null)
+                archive(date, elapsedMillis(startTime), location, e.getUrl(), userAgent, requestHeaders,
+                        200, Collections.singletonMap("Content-Type", e.getMimeType()), new byte[0], false);
+            throw e;
+        }
+
+        archive(date, elapsedMillis(startTime), location, response.getLocation(), userAgent, requestHeaders,
+                response.getStatusCode(), response.getHeaders(), response.getBody(), response.isTruncated());
+        return response;
+    }
+
+    private void archive(Instant date, long fetchMillis, String requestedLocation, String location, String userAgent,
+                         Map<String, String> requestHeaders, int statusCode, Map<String, String> headers, byte[] body, boolean truncated) {
+        WarcRecord response = new WarcRecord("response", date, "application/http;msgtype=response",
+                toResponseBlock(statusCode, headers, body))
+                .setField("WARC-Target-URI", location)
+                .setField(FETCH_MILLIS_FIELD, Long.toString(fetchMillis));
+        if (truncated)
+            response.setField("WARC-Truncated", "length");
+
+        WarcRecord request = new WarcRecord("request", date, "application/http;msgtype=request",
+                toRequestBlock(location, userAgent, requestHeaders))
+                .setField("WARC-Target-URI", location)
+                .setField("WARC-Concurrent-To", response.getRecordId());
+
+        if (requestedLocation.equals(location)) {
+            writer.write(request, response);
+        } else {
+            WarcRecord redirect = new WarcRecord("response", date, "application/http;msgtype=response",
+                    toResponseBlock(302, Collections.singletonMap("Location", location), new byte[0]))
+                    .setField("WARC-Target-URI", requestedLocation);
+            writer.write(redirect, request, response);
+        }
+        archivedCount.increment();
+    }
+
+    private static long elapsedMillis(long startTime) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    private static byte[] toRequestBlock(String location, String userAgent, Map<String, String> requestHeaders) {
+        URI uri = URI.create(location);
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        if (uri.getRawQuery() != null)
+            path += "?" + uri.getRawQuery();
+
+        StringBuilder block = new StringBuilder("GET ").append(path).append(" HTTP/1.1\r\n");
+        block.append("Host: ").append(uri.getRawAuthority()).append("\r\n");
+        block.append("User-Agent: ").append(userAgent).append("\r\n");
+        requestHeaders.forEach((name, value) -> block.append(name).append(": ").append(value).append("\r\n"));
+        return block.append("\r\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The status line has no reason phrase, the fetchers don't keep it.
+     */
+    private static byte[] toResponseBlock(int statusCode, Map<String, String> headers, byte[] body) {
+        StringBuilder head = new StringBuilder("HTTP/1.1 ").append(statusCode).append(" \r\n");
+        headers.forEach((name, value) -> {
+            if (name != null && !WIRE_HEADERS.contains(name))
+                head.append(name).append(": ").append(value).append("\r\n");
+        });
+        head.append("Content-Length: ").append(body.length).append("\r\n\r\n");
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream(head.length() + body.length);
+        block.writeBytes(head.toString().getBytes(StandardCharsets.UTF_8));
+        block.writeBytes(body);
+        return block.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        RawResponse send() throws IOException;
+    }
+}
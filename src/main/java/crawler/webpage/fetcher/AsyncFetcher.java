@@ -0,0 +1,33 @@
+package crawler.webpage.fetcher;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A fetcher that sends requests without blocking the calling thread,
+ * so a few threads can keep thousands of requests in flight.
+ */
+public interface AsyncFetcher {
+
+    /**
+     * Starts downloading a page without parsing it.
+     *
+     * @param location  the URL to load
+     * @param userAgent the UserAgent to send
+     * @return          the unparsed response, completed exceptionally with the IOException a {@link Fetcher} would throw
+     */
+    CompletableFuture<RawResponse> fetchRawAsync(String location, String userAgent);
+
+    /**
+     * Makes any fetcher usable where an async one is expected.
+     *
+     * @param fetcher           the fetcher to adapt
+     * @param blockingExecutor  runs the requests of fetchers that block, one thread per request in flight
+     * @return                  the fetcher itself if it is async, a {@link BlockingFetcherAdapter} otherwise
+     */
+    static AsyncFetcher of(Fetcher fetcher, Executor blockingExecutor) {
+        if (fetcher instanceof AsyncFetcher)
+            return (AsyncFetcher) fetcher;
+        return new BlockingFetcherAdapter(fetcher, blockingExecutor);
+    }
+}
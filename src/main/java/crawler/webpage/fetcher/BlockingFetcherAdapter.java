@@ -0,0 +1,40 @@
+package crawler.webpage.fetcher;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs a blocking {@link Fetcher} on an executor, so it can be used as an {@link AsyncFetcher}. <br>
+ * The requests still block a thread each, only the caller is freed.
+ */
+public class BlockingFetcherAdapter implements AsyncFetcher {
+
+    private final Fetcher fetcher;
+    private final Executor blockingExecutor;
+
+    /**
+     * @param fetcher           the fetcher sending the requests
+     * @param blockingExecutor  the threads blocking on the requests
+     */
+    public BlockingFetcherAdapter(Fetcher fetcher, Executor blockingExecutor) {
+        this.fetcher = fetcher;
+        this.blockingExecutor = blockingExecutor;
+    }
+
+    @Override
+    public CompletableFuture<RawResponse> fetchRawAsync(String location, String userAgent) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return fetcher.fetchRaw(location, userAgent);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, blockingExecutor);
+    }
+
+    public Fetcher getFetcher() {
+        return fetcher;
+    }
+}
@@ -0,0 +1,146 @@
+package crawler.webpage.fetcher;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects a response body as it arrives from the socket, hashing every chunk with MD5 on the way. <br>
+ * Once the body exceeds the max size, the rest isn't read: the subscription is cancelled,
+ * which closes the connection, and the body is completed cut off at the max size. <br>
+ * The timeout of a request only covers the response headers, so the body fails with a {@link HttpTimeoutException}
+ * once no data arrived for the idle timeout, a server trickling the body can't hold a fetch forever.
+ */
+class BoundedBodySubscriber implements HttpResponse.BodySubscriber<BoundedBodySubscriber.Body> {
+
+    /**
+     * A body collected by the subscriber.
+     */
+    static class Body {
+        final byte[] bytes, hash;
+        final boolean truncated;
+
+        private Body(byte[] bytes, byte[] hash, boolean truncated) {
+            this.bytes = bytes;
+            this.hash = hash;
+            this.truncated = truncated;
+        }
+    }
+
+    private final int maxBytes;
+    private final long idleTimeoutNanos;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final MessageDigest digest;
+    private final CompletableFuture<Body> body = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private volatile long lastReceivedNanos;
+
+    /**
+     * @param maxBytes      the max size of the body, larger bodies are cut off, 0 to cancel the body without reading it
+     * @param idleTimeout   how long the body may go without data arriving
+     */
+    BoundedBodySubscriber(int maxBytes, Duration idleTimeout) {
+        this.maxBytes = maxBytes;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.digest = createDigest();
+    }
+
+    @Override
+    public CompletionStage<Body> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription newSubscription) {
+        subscription = newSubscription;
+        if (maxBytes > 0) {
+            lastReceivedNanos = System.nanoTime();
+            checkIdleAfter(idleTimeoutNanos);
+            subscription.request(1);
+            return;
+        }
+
+        subscription.cancel();
+        complete(true);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        if (body.isDone())
+            return;
+        lastReceivedNanos = System.nanoTime();
+
+        for (ByteBuffer buffer : buffers) {
+            int length = Math.min(buffer.remaining(), maxBytes - bytes.size());
+            byte[] chunk = new byte[length];
+            buffer.get(chunk);
+            append(chunk);
+
+            if (buffer.hasRemaining()) {
+                subscription.cancel();
+                complete(true);
+                return;
+            }
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        body.completeExceptionally(error);
+    }
+
+    @Override
+    public void onComplete() {
+        complete(false);
+    }
+
+    /**
+     * Checks on the shared timer thread instead of scheduling a check for every chunk,
+     * a check that finds data arrived in the meantime schedules the next one for the rest of the idle timeout.
+     */
+    private void checkIdleAfter(long delayNanos) {
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, Runnable::run).execute(() -> {
+            if (body.isDone())
+                return;
+
+            long idleNanos = System.nanoTime() - lastReceivedNanos;
+            if (idleNanos < idleTimeoutNanos) {
+                checkIdleAfter(idleTimeoutNanos - idleNanos);
+                return;
+            }
+            subscription.cancel();
+            body.completeExceptionally(new HttpTimeoutException("No data of the body received for " + TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos) + " ms"));
+        });
+    }
+
+    private void append(byte[] chunk) {
+        bytes.write(chunk, 0, chunk.length);
+        if (digest != null)
+            digest.update(chunk);
+    }
+
+    private void complete(boolean truncated) {
+        body.complete(new Body(bytes.toByteArray(), digest == null ? null : digest.digest(), truncated));
+    }
+
+    /**
+     * @return  a MD5 digest, null to hash the body later if MD5 isn't available
+     */
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package crawler.webpage.fetcher;
+
+import crawler.webpage.cache.CacheEntry;
+import crawler.webpage.cache.HttpCache;
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Revalidates pages that are in the {@link HttpCache} with a conditional request instead of downloading them again. <br>
+ * If the server answers 304 Not Modified, the cached body is used, otherwise the new response replaces the cached one.
+ * Only responses with an ETag or a Last-Modified date are cached, since others can't be revalidated. <br>
+ * Errors of the cache never fail a page, it is downloaded without the cache instead.
+ */
+public class CachingFetcher implements Fetcher {
+
+    private final Fetcher delegate;
+    private final HttpCache cache;
+    private final LongAdder revalidatedCount = new LongAdder();
+    private final LongAdder storedCount = new LongAdder();
+
+    /**
+     * @param delegate  the fetcher sending the requests, it has to send the validators for conditional requests
+     * @param cache     the cache to use, may be shared with other fetchers
+     */
+    public CachingFetcher(Fetcher delegate, HttpCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Document fetchDocument(String location, String userAgent) throws IOException {
+        return fetchRaw(location, userAgent).parseDocument();
+    }
+
+    @Override
+    public RawResponse fetchRaw(String location, String userAgent) throws IOException {
+        CacheEntry entry = cache.get(location);
+        if (entry == null)
+            return fetchAndStore(location, userAgent);
+
+        RawResponse response = delegate.fetchRaw(location, userAgent, entry.getValidators());
+        if (response.getStatusCode() != 304) {
+            store(location, response);
+            return response;
+        }
+
+        try {
+            RawResponse cachedResponse = entry.toResponse(cache.readBody(entry));
+            revalidatedCount.increment();
+            return cachedResponse;
+        } catch (IOException e) {
+            // e.g. evicted while revalidating
+            cache.remove(location);
+            return fetchAndStore(location, userAgent);
+        }
+    }
+
+    /**
+     * Requests with own headers bypass the cache, their response may depend on the headers.
+     */
+    @Override
+    public RawResponse fetchRaw(String location, String userAgent, Map<String, String> requestHeaders) throws IOException {
+        return delegate.fetchRaw(location, userAgent, requestHeaders);
+    }
+
+    /**
+     * Status requests bypass the cache, a cached body doesn't tell whether the resource still exists.
+     */
+    @Override
+    public int fetchStatus(String location, String userAgent) throws IOException {
+        return delegate.fetchStatus(location, userAgent);
+    }
+
+    /**
+     * @return  how many pages were answered with 304 Not Modified and loaded from the cache
+     */
+    public long getRevalidatedCount() {
+        return revalidatedCount.sum();
+    }
+
+    /**
+     * @return  how many responses were stored in the cache
+     */
+    public long getStoredCount() {
+        return storedCount.sum();
+    }
+
+    public HttpCache getCache() {
+        return cache;
+    }
+
+    private RawResponse fetchAndStore(String location, String userAgent) throws IOException {
+        RawResponse response = delegate.fetchRaw(location, userAgent);
+        store(location, response);
+        return response;
+    }
+
+    private void store(String location, RawResponse response) {
+        if (!isCacheable(response))
+            return;
+
+        try {
+            cache.put(location, response.getLocation(), response.getHeader("ETag"), response.getHeader("Last-Modified"),
+                    response.getHeader("Content-Type"), response.getCharset(), response.getBody());
+            storedCount.increment();
+        } catch (IOException e) {
+            // the page is loaded again next time
+        }
+    }
+
+    /**
+     * @param response  a response of the delegate
+     * @return          true if the whole response can be revalidated and the server allows to store it
+     */
+    static boolean isCacheable(RawResponse response) {
+        if (response.getStatusCode() != 200 || response.isTruncated())
+            return false;
+        if (response.getHeader("ETag") == null && response.getHeader("Last-Modified") == null)
+            return false;
+
+        String cacheControl = response.getHeader("Cache-Control");
+        return cacheControl == null || !cacheControl.toLowerCase().contains("no-store");
+    }
+}
@@ -0,0 +1,131 @@
+package crawler.webpage.fetcher;
+
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which resources are worth downloading: only HTML, XHTML and XML documents are,
+ * links to archives, images, media and office documents are recognized by their extension before they are requested,
+ * other resources by the Content-Type of the response before its body is read.
+ */
+public final class ContentTypes {
+
+    /**
+     * The Accept header sent with every request, so servers that negotiate the content prefer HTML.
+     */
+    public static final String ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9";
+
+    private static final Pattern CHARSET = Pattern.compile("(?i)charset=\"?([^\\s;\"]+)");
+    private static final Pattern XML_MEDIA_TYPE = Pattern.compile("(application|text)/([\\w.-]+\\+)?xml");
+
+    private static final Map<String, String> NON_HTML_EXTENSIONS = Map.ofEntries(
+            Map.entry("pdf", "application/pdf"),
+            Map.entry("zip", "application/zip"),
+            Map.entry("gz", "application/gzip"),
+            Map.entry("tgz", "application/gzip"),
+            Map.entry("tar", "application/x-tar"),
+            Map.entry("7z", "application/x-7z-compressed"),
+            Map.entry("rar", "application/vnd.rar"),
+            Map.entry("exe", "application/octet-stream"),
+            Map.entry("dmg", "application/octet-stream"),
+            Map.entry("iso", "application/octet-stream"),
+            Map.entry("jar", "application/java-archive"),
+            Map.entry("doc", "application/msword"),
+            Map.entry("docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document"),
+            Map.entry("xls", "application/vnd.ms-excel"),
+            Map.entry("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+            Map.entry("ppt", "application/vnd.ms-powerpoint"),
+            Map.entry("pptx", "application/vnd.openxmlformats-officedocument.presentationml.presentation"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("mp3", "audio/mpeg"),
+            Map.entry("wav", "audio/wav"),
+            Map.entry("ogg", "audio/ogg"),
+            Map.entry("mp4", "video/mp4"),
+            Map.entry("webm", "video/webm"),
+            Map.entry("avi", "video/x-msvideo"),
+            Map.entry("mov", "video/quicktime"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("ttf", "font/ttf"));
+
+    private ContentTypes() {}
+
+    /**
+     * Media types are compared case-insensitively, parameters like the charset are ignored.
+     * Other text, e.g. text/plain, text/css or text/javascript, has no links to follow.
+     *
+     * @param contentType   the Content-Type of a response, may be null
+     * @return              true for HTML, XHTML and XML, responses without a type are tried as well
+     */
+    public static boolean isParsable(String contentType) {
+        if (contentType == null || contentType.isBlank())
+            return true;
+
+        int parametersStart = contentType.indexOf(';');
+        String mediaType = (parametersStart < 0 ? contentType : contentType.substring(0, parametersStart)).trim().toLowerCase(Locale.ROOT);
+        return mediaType.equals("text/html") || XML_MEDIA_TYPE.matcher(mediaType).matches();
+    }
+
+    /**
+     * @param contentType   the Content-Type of a response, may be null
+     * @return              the charset given in the Content-Type, null to let jsoup detect it if there is none or it isn't supported
+     */
+    public static String getCharset(String contentType) {
+        if (contentType == null)
+            return null;
+
+        Matcher charset = CHARSET.matcher(contentType);
+        if (!charset.find())
+            return null;
+
+        try {
+            return Charset.isSupported(charset.group(1)) ? charset.group(1) : null;
+        } catch (IllegalCharsetNameException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Guesses the type of a resource from the extension of its path, only extensions of resources jsoup can't parse are known.
+     *
+     * @param location  the URL of the resource
+     * @return          the type of a resource jsoup can't parse, null if the resource may be a document
+     */
+    public static String guessNonHtmlType(String location) {
+        String path;
+        try {
+            path = URI.create(location).getPath();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (path == null)
+            return null;
+
+        int extensionStart = path.lastIndexOf('.');
+        if (extensionStart < 0 || extensionStart < path.lastIndexOf('/'))
+            return null;
+        return NON_HTML_EXTENSIONS.get(path.substring(extensionStart + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Throws if the extension of the URL shows that the resource isn't worth requesting.
+     *
+     * @param location  the URL of the resource
+     * @throws NonHtmlContentException if the resource can't be parsed by jsoup
+     */
+    public static void checkExtension(String location) throws NonHtmlContentException {
+        String guessedType = guessNonHtmlType(location);
+        if (guessedType != null)
+            throw new NonHtmlContentException(guessedType, location);
+    }
+}
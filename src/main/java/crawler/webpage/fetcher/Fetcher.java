@@ -1,9 +1,63 @@
 package crawler.webpage.fetcher;
 
+import org.jsoup.HttpStatusException;
 import org.jsoup.nodes.Document;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
 
 public interface Fetcher {
     Document fetchDocument(String location, String userAgent) throws IOException;
+
+    /**
+     * Downloads a page without parsing it. <br>
+     * Fetchers that can only produce documents get this for free,
+     * the document is serialized as the body.
+     *
+     * @param location  the URL to load
+     * @param userAgent the UserAgent to send
+     * @return          the unparsed response
+     * @throws IOException if the page can't be loaded
+     */
+    default RawResponse fetchRaw(String location, String userAgent) throws IOException {
+        Document document = fetchDocument(location, userAgent);
+        return new RawResponse(location, 200, Collections.singletonMap("Content-Type", "text/html; charset=UTF-8"),
+                StandardCharsets.UTF_8.name(), document.outerHtml().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Downloads a page with additional request headers, e.g. the validators of a conditional request. <br>
+     * Fetchers that can't send headers ignore them and download the page unconditionally.
+     *
+     * @param location          the URL to load
+     * @param userAgent         the UserAgent to send
+     * @param requestHeaders    the headers to send in addition
+     * @return                  the unparsed response, status 304 if a conditional request found the page unchanged
+     * @throws IOException if the page can't be loaded
+     */
+    default RawResponse fetchRaw(String location, String userAgent, Map<String, String> requestHeaders) throws IOException {
+        return fetchRaw(location, userAgent);
+    }
+
+    /**
+     * Requests only the status of a resource without downloading it, e.g. to check whether a link is broken. <br>
+     * Fetchers that can't send a HEAD request download the first byte of the resource instead,
+     * a resource that isn't a document counts as found.
+     *
+     * @param location  the URL to check
+     * @param userAgent the UserAgent to send
+     * @return          the status of the final response after redirects, error statuses are returned instead of thrown
+     * @throws IOException if no response was received
+     */
+    default int fetchStatus(String location, String userAgent) throws IOException {
+        try {
+            return fetchRaw(location, userAgent, Collections.singletonMap("Range", StatusRequests.FIRST_BYTE_RANGE)).getStatusCode();
+        } catch (NonHtmlContentException e) {
+            return 200;
+        } catch (HttpStatusException e) {
+            return e.getStatusCode();
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package crawler.webpage.fetcher;
+
+public enum FetcherType {
+    /**
+     * A jsoup connection per page, idle connections are kept by HttpURLConnection, see {@link JsoupFetcher}.
+     */
+    JSOUP,
+    /**
+     * One JDK HttpClient shared by all pages, with pooled connections and HTTP/2, see {@link HttpClientFetcher}.
+     */
+    HTTP_CLIENT;
+
+    /**
+     * Case insensitive lookup of a fetcher type by its name.
+     *
+     * @param name  the name of the fetcher type
+     * @return      the fetcher type with that name
+     * @throws IllegalArgumentException if no fetcher type has that name
+     */
+    public static FetcherType fromName(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
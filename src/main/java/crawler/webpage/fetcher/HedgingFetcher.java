@@ -0,0 +1,188 @@
+package crawler.webpage.fetcher;
+
+import crawler.webpage.concurrency.FetchOutcome;
+import crawler.webpage.concurrency.LatencyWindow;
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends a second request for a page if the first one takes longer than the {@link HedgingFetcher#HEDGE_QUANTILE}
+ * of the latencies of its host, whichever response arrives first is used and the other request is cancelled. <br>
+ * This cuts the tail latency caused by single slow requests for about 5% more requests.
+ * A host is only hedged once it has {@link HedgingFetcher#MIN_SAMPLES} successful fetches to estimate its latency. <br>
+ * Only use it with idempotent requests, every page may be requested twice.
+ */
+public class HedgingFetcher implements Fetcher {
+
+    public static final double HEDGE_QUANTILE = 0.95;
+    public static final int WINDOW_SIZE = 64;
+    public static final int MIN_SAMPLES = 16;
+
+    private final Fetcher delegate;
+    private final ExecutorService requestThreads = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "hedged-request");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HashMap<String, LatencyWindow> hostLatencies = new HashMap<>();
+    private final LongAdder hedgedCount = new LongAdder();
+    private final LongAdder hedgeWinCount = new LongAdder();
+
+    /**
+     * @param delegate  the fetcher sending the requests
+     */
+    public HedgingFetcher(Fetcher delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Document fetchDocument(String location, String userAgent) throws IOException {
+        return fetchHedged(location, () -> delegate.fetchDocument(location, userAgent));
+    }
+
+    @Override
+    public RawResponse fetchRaw(String location, String userAgent) throws IOException {
+        return fetchHedged(location, () -> delegate.fetchRaw(location, userAgent));
+    }
+
+    @Override
+    public RawResponse fetchRaw(String location, String userAgent, Map<String, String> requestHeaders) throws IOException {
+        return fetchHedged(location, () -> delegate.fetchRaw(location, userAgent, requestHeaders));
+    }
+
+    /**
+     * Status requests aren't hedged, their latency would lower the percentile the downloads are hedged at.
+     */
+    @Override
+    public int fetchStatus(String location, String userAgent) throws IOException {
+        return delegate.fetchStatus(location, userAgent);
+    }
+
+    /**
+     * @param host  the host to look up
+     * @return      how long a request to the host may take before it is hedged, 0 if the host isn't hedged yet
+     */
+    public synchronized long getHedgeDelayNanos(String host) {
+        LatencyWindow latencies = hostLatencies.get(host);
+        if (latencies == null || latencies.getLatencyCount() < MIN_SAMPLES)
+            return 0;
+        return latencies.percentile(HEDGE_QUANTILE);
+    }
+
+    /**
+     * @return  how many requests were hedged so far
+     */
+    public long getHedgedCount() {
+        return hedgedCount.sum();
+    }
+
+    /**
+     * @return  how many hedged requests answered before the request they hedged
+     */
+    public long getHedgeWinCount() {
+        return hedgeWinCount.sum();
+    }
+
+    /**
+     * Sends the request and a hedge once the hedge delay of the host passed without a response.
+     * If one of them fails, the other one is still waited for.
+     * The latency is measured from the first request, so hedging doesn't lower the percentile it relies on.
+     */
+    private <T> T fetchHedged(String location, Callable<T> request) throws IOException {
+        String host = getHost(location);
+        long hedgeDelayNanos = getHedgeDelayNanos(host);
+        long startTime = System.nanoTime();
+
+        if (hedgeDelayNanos == 0) {
+            try {
+                T response = call(request);
+                record(host, System.nanoTime() - startTime, FetchOutcome.SUCCESS);
+                return response;
+            } catch (IOException e) {
+                record(host, System.nanoTime() - startTime, FetchOutcome.of(e));
+                throw e;
+            }
+        }
+
+        ExecutorCompletionService<T> responses = new ExecutorCompletionService<>(requestThreads);
+        List<Future<T>> requests = new ArrayList<>();
+        requests.add(responses.submit(request));
+        try {
+            Future<T> response = responses.poll(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            if (response == null) {
+                requests.add(responses.submit(request));
+                hedgedCount.increment();
+            }
+
+            IOException error = null;
+            for (int remaining = requests.size(); remaining > 0; remaining--) {
+                if (response == null)
+                    response = responses.take();
+                try {
+                    T result = response.get();
+                    if (requests.size() > 1 && response == requests.get(1))
+                        hedgeWinCount.increment();
+                    record(host, System.nanoTime() - startTime, FetchOutcome.SUCCESS);
+                    return result;
+                } catch (ExecutionException e) {
+                    error = toIOException(e.getCause());
+                    response = null;
+                }
+            }
+            record(host, System.nanoTime() - startTime, FetchOutcome.of(error));
+            throw error;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + location);
+        } finally {
+            for (Future<T> pendingRequest : requests)
+                pendingRequest.cancel(true);
+        }
+    }
+
+    private synchronized void record(String host, long latencyNanos, FetchOutcome outcome) {
+        hostLatencies.computeIfAbsent(host, key -> new LatencyWindow(WINDOW_SIZE)).add(latencyNanos, outcome);
+    }
+
+    private static <T> T call(Callable<T> request) throws IOException {
+        try {
+            return request.call();
+        } catch (Exception e) {
+            throw toIOException(e);
+        }
+    }
+
+    private static IOException toIOException(Throwable cause) {
+        if (cause instanceof IOException)
+            return (IOException) cause;
+        if (cause instanceof RuntimeException)
+            throw (RuntimeException) cause;
+        if (cause instanceof Error)
+            throw (Error) cause;
+        return new IOException(cause);
+    }
+
+    private static String getHost(String location) {
+        try {
+            String host = URI.create(location).getHost();
+            return host == null ? "" : host.toLowerCase();
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
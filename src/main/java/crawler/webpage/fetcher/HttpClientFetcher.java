@@ -0,0 +1,202 @@
+package crawler.webpage.fetcher;
+
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Loads pages with one JDK {@link HttpClient} for all pages it is set on. <br>
+ * The client keeps connections to every host open and reuses them, so TLS handshakes are only paid once per connection,
+ * and speaks HTTP/2 where the server supports it, multiplexing concurrent requests to a host over one connection.
+ * Plain HTTP stays at HTTP/1.1 with keep-alive, since not every server handles the upgrade to cleartext HTTP/2. <br>
+ * The body is parsed by jsoup, responses are checked the same way as by the {@link JsoupFetcher}.
+ */
+public class HttpClientFetcher implements Fetcher, AsyncFetcher {
+
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofMillis(JsoupFetcher.DEFAULT_TIMEOUT_MILLIS);
+
+
+    private final HttpClient client;
+    private final Duration readTimeout;
+    private final int maxBodyBytes;
+
+    public HttpClientFetcher() {
+        this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * @param connectTimeout    how long establishing a connection may take
+     * @param readTimeout       how long it may take until the response headers arrive once the request is sent,
+     *                          and how long the body may go without data arriving
+     */
+    public HttpClientFetcher(Duration connectTimeout, Duration readTimeout) {
+        this(connectTimeout, readTimeout, JsoupFetcher.DEFAULT_MAX_BODY_BYTES);
+    }
+
+    /**
+     * @param connectTimeout    how long establishing a connection may take
+     * @param readTimeout       how long it may take until the response headers arrive once the request is sent,
+     *                          and how long the body may go without data arriving
+     * @param maxBodyBytes      how many bytes of a body are read, larger bodies are cut off and marked as truncated
+     */
+    public HttpClientFetcher(Duration connectTimeout, Duration readTimeout, int maxBodyBytes) {
+        this.readTimeout = readTimeout;
+        this.maxBodyBytes = maxBodyBytes;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    @Override
+    public Document fetchDocument(String location, String userAgent) throws IOException {
+        return fetchRaw(location, userAgent).parseDocument();
+    }
+
+    @Override
+    public RawResponse fetchRaw(String location, String userAgent) throws IOException {
+        return fetchRaw(location, userAgent, Collections.emptyMap());
+    }
+
+    @Override
+    public RawResponse fetchRaw(String location, String userAgent, Map<String, String> requestHeaders) throws IOException {
+        try {
+            return toRawResponse(client.send(createRequest(location, userAgent, requestHeaders), this::createBodySubscriber));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading " + location);
+        }
+    }
+
+    /**
+     * Sends a HEAD request, and a GET of the first byte if the server rejects HEAD.
+     * Redirects are followed, the extension of the resource isn't checked and no body is read.
+     */
+    @Override
+    public int fetchStatus(String location, String userAgent) throws IOException {
+        int statusCode = sendForStatus(newRequest(location, userAgent).method("HEAD", HttpRequest.BodyPublishers.noBody()).build());
+        if (!StatusRequests.isHeadRejected(statusCode))
+            return statusCode;
+        return sendForStatus(newRequest(location, userAgent).header("Range", StatusRequests.FIRST_BYTE_RANGE).GET().build());
+    }
+
+    private int sendForStatus(HttpRequest request) throws IOException {
+        try {
+            return client.send(request, responseInfo -> new BoundedBodySubscriber(0, readTimeout)).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while checking " + request.uri());
+        }
+    }
+
+    /**
+     * Sends the request without blocking the calling thread,
+     * the client completes the future once the whole body arrived or it was cut off.
+     *
+     * @param location  the URL to load
+     * @param userAgent the UserAgent to send
+     * @return          the unparsed response, completed exceptionally with the same errors fetchRaw() throws
+     */
+    @Override
+    public CompletableFuture<RawResponse> fetchRawAsync(String location, String userAgent) {
+        HttpRequest request;
+        try {
+            request = createRequest(location, userAgent, Collections.emptyMap());
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return client.sendAsync(request, this::createBodySubscriber).thenApply(response -> {
+            try {
+                return toRawResponse(response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    public HttpClient getClient() {
+        return client;
+    }
+
+    private HttpRequest createRequest(String location, String userAgent, Map<String, String> headers) throws IOException {
+        ContentTypes.checkExtension(location);
+        HttpRequest.Builder request = newRequest(location, userAgent).header("Accept", ContentTypes.ACCEPT);
+        try {
+            headers.forEach(request::header);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid request header for " + location, e);
+        }
+        return request.GET().build();
+    }
+
+    private HttpRequest.Builder newRequest(String location, String userAgent) throws IOException {
+        try {
+            URI uri = URI.create(location);
+            return HttpRequest.newBuilder(uri)
+                    .version("https".equalsIgnoreCase(uri.getScheme()) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                    .timeout(readTimeout)
+                    .header("User-Agent", userAgent);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed URL: " + location, e);
+        }
+    }
+
+    /**
+     * The body of a resource that isn't a document is cancelled right away, toRawResponse() rejects it by its headers.
+     */
+    private HttpResponse.BodySubscriber<BoundedBodySubscriber.Body> createBodySubscriber(HttpResponse.ResponseInfo responseInfo) {
+        if (isSuccessful(responseInfo.statusCode()) && !ContentTypes.isParsable(responseInfo.headers().firstValue("Content-Type").orElse(null)))
+            return new BoundedBodySubscriber(0, readTimeout);
+        return new BoundedBodySubscriber(maxBodyBytes, readTimeout);
+    }
+
+    /**
+     * Checks the status before the content type like the {@link JsoupFetcher},
+     * a 304 Not Modified has no body whose type could be checked.
+     */
+    private static RawResponse toRawResponse(HttpResponse<BoundedBodySubscriber.Body> response) throws IOException {
+        String location = response.uri().toString();
+        Map<String, String> headers = toSingleValues(response.headers());
+
+        if (response.statusCode() < 200 || response.statusCode() >= 400)
+            throw new HttpResponseException(response.statusCode(), location, headers);
+
+        String contentType = response.headers().firstValue("Content-Type").orElse(null);
+        if (isSuccessful(response.statusCode()) && !ContentTypes.isParsable(contentType))
+            throw new NonHtmlContentException(contentType, location);
+
+        BoundedBodySubscriber.Body body = response.body();
+        return new RawResponse(location, response.statusCode(), headers, ContentTypes.getCharset(contentType), body.bytes, body.truncated, body.hash);
+    }
+
+    /**
+     * @return  true for a status with a body whose type can be checked, 304 Not Modified has none
+     */
+    private static boolean isSuccessful(int statusCode) {
+        return statusCode >= 200 && statusCode < 400 && statusCode != 304;
+    }
+
+    private static Map<String, String> toSingleValues(HttpHeaders headers) {
+        HashMap<String, String> singleValues = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : headers.map().entrySet())
+            if (!header.getValue().isEmpty())
+                singleValues.put(header.getKey(), String.join(", ", header.getValue()));
+        return singleValues;
+    }
+}
@@ -0,0 +1,42 @@
+package crawler.webpage.fetcher;
+
+import org.jsoup.HttpStatusException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An error response that keeps its headers, e.g. to honour Retry-After.
+ * It is still an {@link HttpStatusException}, so it can be handled like the errors thrown by jsoup.
+ */
+public class HttpResponseException extends HttpStatusException {
+
+    private final Map<String, String> headers;
+
+    /**
+     * @param statusCode    the HTTP status code
+     * @param url           the URL that was requested
+     * @param headers       the response headers, names are matched case insensitive
+     */
+    public HttpResponseException(int statusCode, String url, Map<String, String> headers) {
+        super("HTTP error fetching URL", statusCode, url);
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.headers.putAll(headers);
+    }
+
+    /**
+     * @param name  the name of the header, case insensitive
+     * @return      the value of the header or null if it is missing
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    /**
+     * @return  all response headers, names are matched case insensitive
+     */
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+}
@@ -1,15 +1,133 @@
 package crawler.webpage.fetcher;
 
+import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 
 public class JsoupFetcher implements Fetcher {
 
+    public static final int DEFAULT_TIMEOUT_MILLIS = 30000;
+    public static final int DEFAULT_MAX_BODY_BYTES = 2 * 1024 * 1024;
+
+    private final int timeoutMillis, maxBodyBytes;
+
+    public JsoupFetcher() {
+        this(DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param timeoutMillis how long connecting and every read may take, jsoup uses the same timeout for both
+     */
+    public JsoupFetcher(int timeoutMillis) {
+        this(timeoutMillis, DEFAULT_MAX_BODY_BYTES);
+    }
+
+    /**
+     * @param timeoutMillis how long connecting and every read may take, jsoup uses the same timeout for both
+     * @param maxBodyBytes  how many bytes of a body are read, larger bodies are cut off and marked as truncated
+     */
+    public JsoupFetcher(int timeoutMillis, int maxBodyBytes) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
     @Override
     public Document fetchDocument(String pageURI, String userAgent) throws IOException {
-        return Jsoup.connect(pageURI).userAgent(userAgent).get();
+        return fetchRaw(pageURI, userAgent).parseDocument();
+    }
+
+    @Override
+    public RawResponse fetchRaw(String pageURI, String userAgent) throws IOException {
+        return fetchRaw(pageURI, userAgent, Collections.emptyMap());
     }
 
+    @Override
+    public RawResponse fetchRaw(String pageURI, String userAgent, Map<String, String> requestHeaders) throws IOException {
+        Connection.Response response = execute(pageURI, userAgent, requestHeaders);
+        Map<String, String> headers = response.headers();
+
+        // jsoup stops reading one byte after the max, so a cut off body can be told apart from one of exactly the max size
+        byte[] body = response.bodyAsBytes();
+        boolean truncated = body.length > maxBodyBytes;
+        if (truncated)
+            body = Arrays.copyOf(body, maxBodyBytes);
+        return new RawResponse(response.url().toString(), response.statusCode(), headers, response.charset(), body, truncated, null);
+    }
+
+    /**
+     * Sends a HEAD request, and a GET of the first byte if the server rejects HEAD.
+     * Redirects are followed, the extension of the resource isn't checked.
+     */
+    @Override
+    public int fetchStatus(String pageURI, String userAgent) throws IOException {
+        int statusCode = executeForStatus(pageURI, userAgent, Connection.Method.HEAD);
+        if (!StatusRequests.isHeadRejected(statusCode))
+            return statusCode;
+        return executeForStatus(pageURI, userAgent, Connection.Method.GET);
+    }
+
+    /**
+     * @return  the status of the response, a GET only asks for the first byte and its body is discarded unread
+     */
+    private int executeForStatus(String pageURI, String userAgent, Connection.Method method) throws IOException {
+        Connection connection = Jsoup.connect(pageURI)
+                .method(method)
+                .userAgent(userAgent)
+                .timeout(timeoutMillis)
+                .ignoreHttpErrors(true)
+                .ignoreContentType(true);
+        if (method == Connection.Method.HEAD)
+            return connection.execute().statusCode();
+
+        Connection.Response response = connection
+                .header("Range", StatusRequests.FIRST_BYTE_RANGE)
+                .maxBodySize(1)
+                .execute();
+        response.bodyStream().close();
+        return response.statusCode();
+    }
+
+    /**
+     * Executes the request with the same checks as jsoup,
+     * except that error responses are thrown as {@link HttpResponseException} with their headers.
+     * The status is checked before the content type, so an overloaded server answering with JSON is still recognized.
+     * A 304 Not Modified has no body whose type could be checked.
+     * Resources whose extension shows they aren't documents aren't requested at all.
+     *
+     * @param pageURI   the URL to load
+     * @param userAgent the UserAgent to send
+     * @param headers   the headers to send in addition
+     * @return          the successful response, its body isn't read yet, the body of a rejected response is discarded unread
+     * @throws NonHtmlContentException if the resource isn't a document
+     * @throws IOException if the page can't be loaded
+     */
+    private Connection.Response execute(String pageURI, String userAgent, Map<String, String> headers) throws IOException {
+        ContentTypes.checkExtension(pageURI);
+        Connection.Response response = Jsoup.connect(pageURI)
+                .userAgent(userAgent)
+                .header("Accept", ContentTypes.ACCEPT)
+                .headers(headers)
+                .timeout(timeoutMillis)
+                .maxBodySize(maxBodyBytes + 1)
+                .ignoreHttpErrors(true)
+                .ignoreContentType(true)
+                .execute();
+
+        if (response.statusCode() < 200 || response.statusCode() >= 400) {
+            response.bodyStream().close();
+            throw new HttpResponseException(response.statusCode(), pageURI, response.headers());
+        }
+
+        if (response.statusCode() != 304 && !ContentTypes.isParsable(response.contentType())) {
+            response.bodyStream().close();
+            throw new NonHtmlContentException(response.contentType(), pageURI);
+        }
+
+        return response;
+    }
 }
@@ -0,0 +1,19 @@
+package crawler.webpage.fetcher;
+
+import org.jsoup.UnsupportedMimeTypeException;
+
+/**
+ * A resource that isn't a document jsoup can parse, recognized by its extension or Content-Type before its body was downloaded. <br>
+ * It is still an {@link UnsupportedMimeTypeException}, so it can be handled like the error thrown by jsoup,
+ * but pages report it as a non-html result instead of an error.
+ */
+public class NonHtmlContentException extends UnsupportedMimeTypeException {
+
+    /**
+     * @param mimeType  the Content-Type of the resource, or the type guessed from its extension
+     * @param url       the URL of the resource
+     */
+    public NonHtmlContentException(String mimeType, String url) {
+        super("Not an HTML document", mimeType, url);
+    }
+}
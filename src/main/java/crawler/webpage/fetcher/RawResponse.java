@@ -0,0 +1,109 @@
+package crawler.webpage.fetcher;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class RawResponse {
+
+    private final String location;
+    private final int statusCode;
+    private final Map<String, String> headers;
+    private final String charset;
+    private final byte[] body;
+    private final boolean truncated;
+    private byte[] bodyHash;
+
+    /**
+     * @param location      the URL the body was loaded from
+     * @param statusCode    the HTTP status code
+     * @param headers       the response headers, names are matched case insensitive
+     * @param charset       the charset of the body, null to detect it while parsing
+     * @param body          the unparsed body
+     */
+    public RawResponse(String location, int statusCode, Map<String, String> headers, String charset, byte[] body) {
+        this(location, statusCode, headers, charset, body, false, null);
+    }
+
+    /**
+     * @param location      the URL the body was loaded from
+     * @param statusCode    the HTTP status code
+     * @param headers       the response headers, names are matched case insensitive
+     * @param charset       the charset of the body, null to detect it while parsing
+     * @param body          the unparsed body
+     * @param truncated     true if the body was cut off at the max body size of the fetcher
+     * @param bodyHash      the MD5 hash of the body if it was computed while streaming, null to compute it when needed
+     */
+    public RawResponse(String location, int statusCode, Map<String, String> headers, String charset, byte[] body, boolean truncated, byte[] bodyHash) {
+        this.location = location;
+        this.statusCode = statusCode;
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.headers.putAll(headers);
+        this.charset = charset;
+        this.body = body;
+        this.truncated = truncated;
+        this.bodyHash = bodyHash;
+    }
+
+    /**
+     * Parses the body as HTML, relative links are resolved against the location.
+     *
+     * @return  the parsed body
+     * @throws IOException if the body can't be decoded
+     */
+    public Document parseDocument() throws IOException {
+        return Jsoup.parse(new ByteArrayInputStream(body), charset, location);
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @param name  the name of the header, case insensitive
+     * @return      the value of the header or null if it is missing
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    public String getCharset() {
+        return charset;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return  true if the body was cut off at the max body size of the fetcher
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return  the MD5 hash of the body as received
+     * @throws NoSuchAlgorithmException if MD5 isn't available
+     */
+    public byte[] getBodyHash() throws NoSuchAlgorithmException {
+        if (bodyHash == null)
+            bodyHash = MessageDigest.getInstance("MD5").digest(body);
+        return bodyHash;
+    }
+}
@@ -0,0 +1,205 @@
+package crawler.webpage.fetcher;
+
+import crawler.webpage.archive.WarcReader;
+import crawler.webpage.archive.WarcRecord;
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves the responses of a recorded crawl from WARC files instead of the network,
+ * so engines, frontiers and parsers can be compared on the same pages without network noise. <br>
+ * Redirects are followed through the recorded 3xx responses, recorded error responses are thrown like the other fetchers do
+ * and URLs that weren't recorded are answered with 404. <br>
+ * Resources that aren't documents are rejected like the other fetchers do, by their extension before a record is read
+ * and by the recorded Content-Type otherwise. <br>
+ * The recorded latency of every response ({@link ArchivingFetcher#FETCH_MILLIS_FIELD}) can be injected, scaled by a percentage.
+ * Async fetches are completed after the latency without blocking a thread, blocking fetches sleep.
+ */
+public class ReplayFetcher implements Fetcher, AsyncFetcher {
+
+    public static final int MAX_REDIRECTS = 10;
+
+    private final WarcReader reader;
+    private final int latencyPercent;
+    private final LongAdder replayedCount = new LongAdder();
+    private final LongAdder missingCount = new LongAdder();
+
+    /**
+     * @param reader            reads the recorded responses
+     * @param latencyPercent    how much of the recorded latency is injected, 0 to serve every response right away
+     */
+    public ReplayFetcher(WarcReader reader, int latencyPercent) {
+        this.reader = reader;
+        this.latencyPercent = latencyPercent;
+    }
+
+    @Override
+    public Document fetchDocument(String location, String userAgent) throws IOException {
+        return fetchRaw(location, userAgent).parseDocument();
+    }
+
+    @Override
+    public RawResponse fetchRaw(String location, String userAgent) throws IOException {
+        ContentTypes.checkExtension(location);
+        Replay replay = replay(location);
+        if (replay.delayMillis > 0) {
+            try {
+                Thread.sleep(replay.delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while injecting the latency of " + location);
+            }
+        }
+        return replay.toResponse();
+    }
+
+    @Override
+    public CompletableFuture<RawResponse> fetchRawAsync(String location, String userAgent) {
+        Replay replay;
+        try {
+            ContentTypes.checkExtension(location);
+            replay = replay(location);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        Executor afterLatency = CompletableFuture.delayedExecutor(replay.delayMillis, TimeUnit.MILLISECONDS);
+        CompletableFuture<RawResponse> response = new CompletableFuture<>();
+        afterLatency.execute(() -> {
+            try {
+                response.complete(replay.toResponse());
+            } catch (IOException e) {
+                response.completeExceptionally(e);
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Status requests aren't archived, the status of the recorded response is returned without latency.
+     */
+    @Override
+    public int fetchStatus(String location, String userAgent) throws IOException {
+        return replay(location).statusCode;
+    }
+
+    /**
+     * @return  how many requests were answered with a recorded response
+     */
+    public long getReplayedCount() {
+        return replayedCount.sum();
+    }
+
+    /**
+     * @return  how many requests were answered with 404 because their URL wasn't recorded
+     */
+    public long getMissingCount() {
+        return missingCount.sum();
+    }
+
+    public WarcReader getReader() {
+        return reader;
+    }
+
+    /**
+     * Reads the recorded response of the location, following recorded redirects.
+     */
+    private Replay replay(String location) throws IOException {
+        String target = location;
+        for (int redirects = 0; ; redirects++) {
+            WarcRecord record = reader.read(target);
+            if (record == null) {
+                missingCount.increment();
+                return new Replay(location, 404, Collections.emptyMap(), new byte[0], false, 0);
+            }
+
+            Replay replay = parseResponse(target, record);
+            String redirectLocation = replay.headers.get("Location");
+            if (replay.statusCode < 300 || replay.statusCode > 399 || redirectLocation == null || redirects == MAX_REDIRECTS) {
+                replayedCount.increment();
+                return replay;
+            }
+            target = URI.create(target).resolve(redirectLocation).toString();
+        }
+    }
+
+    private Replay parseResponse(String location, WarcRecord record) throws IOException {
+        byte[] block = record.getBlock();
+        int headerEnd = indexOfEmptyLine(block);
+        if (headerEnd < 0)
+            throw new IOException("The recorded response of " + location + " has no end of header");
+
+        String[] lines = new String(block, 0, headerEnd, StandardCharsets.ISO_8859_1).split("\r\n");
+        String[] statusLine = lines[0].split(" ", 3);
+        if (statusLine.length < 2 || !statusLine[0].startsWith("HTTP/"))
+            throw new IOException("The recorded response of " + location + " has no status line: " + lines[0]);
+
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0)
+                headers.merge(lines[i].substring(0, colon).trim(), lines[i].substring(colon + 1).trim(), (first, next) -> first + ", " + next);
+        }
+
+        String fetchMillis = record.getField(ArchivingFetcher.FETCH_MILLIS_FIELD);
+        try {
+            long delayMillis = fetchMillis == null ? 0 : Long.parseLong(fetchMillis) * latencyPercent / 100;
+            return new Replay(location, Integer.parseInt(statusLine[1]), headers,
+                    Arrays.copyOfRange(block, headerEnd + 4, block.length), record.getField("WARC-Truncated") != null, delayMillis);
+        } catch (NumberFormatException e) {
+            throw new IOException("The recorded response of " + location + " has an invalid status or latency: " + lines[0], e);
+        }
+    }
+
+    private static int indexOfEmptyLine(byte[] bytes) {
+        for (int i = 0; i + 3 < bytes.length; i++)
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n' && bytes[i + 2] == '\r' && bytes[i + 3] == '\n')
+                return i;
+        return -1;
+    }
+
+    private static class Replay {
+        private final String location;
+        private final int statusCode;
+        private final Map<String, String> headers;
+        private final byte[] body;
+        private final boolean truncated;
+        private final long delayMillis;
+
+        private Replay(String location, int statusCode, Map<String, String> headers, byte[] body, boolean truncated, long delayMillis) {
+            this.location = location;
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+            this.truncated = truncated;
+            this.delayMillis = delayMillis;
+        }
+
+        /**
+         * @return  the recorded response
+         * @throws HttpResponseException if an error response was recorded
+         * @throws NonHtmlContentException if the recorded response isn't a document
+         */
+        private RawResponse toResponse() throws IOException {
+            if (statusCode >= 400)
+                throw new HttpResponseException(statusCode, location, headers);
+            String contentType = headers.get("Content-Type");
+            if (statusCode >= 200 && statusCode < 300 && !ContentTypes.isParsable(contentType))
+                throw new NonHtmlContentException(contentType, location);
+
+            return new RawResponse(location, statusCode, headers, ContentTypes.getCharset(contentType), body, truncated, null);
+        }
+    }
+}
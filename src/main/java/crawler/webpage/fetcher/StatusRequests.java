@@ -0,0 +1,23 @@
+package crawler.webpage.fetcher;
+
+/**
+ * What the fetchers share to request only the status of a resource:
+ * a HEAD request, and a GET of the first byte if the server doesn't implement HEAD for the resource.
+ */
+public final class StatusRequests {
+
+    /**
+     * The Range header of the GET sent when HEAD is rejected, servers supporting ranges send at most one byte of the body.
+     */
+    public static final String FIRST_BYTE_RANGE = "bytes=0-0";
+
+    private StatusRequests() {}
+
+    /**
+     * @param statusCode    the status of a HEAD request
+     * @return              true for 405 Method Not Allowed and 501 Not Implemented, the status says nothing about the resource then
+     */
+    public static boolean isHeadRejected(int statusCode) {
+        return statusCode == 405 || statusCode == 501;
+    }
+}
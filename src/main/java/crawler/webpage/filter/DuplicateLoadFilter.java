@@ -1,30 +1,41 @@
 package crawler.webpage.filter;
 
 import java.net.URI;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DuplicateLoadFilter implements WebpageLoadFilter {
 
-    private static final CopyOnWriteArrayList<String> urlLog = new CopyOnWriteArrayList<>();
+    private static final Set<String> urlLog = ConcurrentHashMap.newKeySet();
 
     /**
      * Checks if a this URI was already checked by this filter.
      * The first check for each URI returns true every check after that returns false.
      * URI don't have to match exactly, ignored is the protocol and trailing "/", "#" and "/#".
+     * Checking and adding is one step, so of concurrent checks of the same URI only one returns true.
      *
      * @param uri   the URI to check against the list
      * @return      returns true only on the first check for each URI
      */
     @Override
     public boolean webpageShouldBeLoaded(URI uri) {
-        String dupeCompUri = asCompareUriString(uri);
-        if (urlLog.contains(dupeCompUri))
-            return false;
-        else
-            urlLog.add(dupeCompUri);
+        return urlLog.add(asCompareUriString(uri));
+    }
 
-        return true;
+    /**
+     * Marks the URI as checked without checking it, e.g. for pages restored from a checkpoint.
+     *
+     * @param uri   the URI to add to the list
+     */
+    public static void markAsSeen(URI uri) {
+        urlLog.add(asCompareUriString(uri));
+    }
 
+    /**
+     * Forgets every checked URI, e.g. between crawls running in the same JVM.
+     */
+    public static void forgetSeenUris() {
+        urlLog.clear();
     }
 
     /**
@@ -33,11 +44,12 @@ public class DuplicateLoadFilter implements WebpageLoadFilter {
      * @param uri   the URI to strip
      * @return      the striped URI
      */
-    private String asCompareUriString(URI uri) {
+    private static String asCompareUriString(URI uri) {
         StringBuilder sb = new StringBuilder(uri.toString());
 
         //Strip URI Scheme
-        sb.delete(0, uri.getScheme().length() + 3);
+        if (uri.getScheme() != null)
+            sb.delete(0, uri.getScheme().length() + 3);
 
         //Remove trailing "#", "/", or "/#"
         if (sb.charAt(sb.length() - 1) == '#')
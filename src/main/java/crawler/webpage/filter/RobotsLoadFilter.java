@@ -2,14 +2,20 @@ package crawler.webpage.filter;
 
 import com.panforge.robotstxt.RobotsTxt;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class RobotsLoadFilter implements WebpageLoadFilter{
 
     private static final ConcurrentHashMap<String, RobotsTxt> hostRobotsMap = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, String> hostRobotsSources = new ConcurrentHashMap<>();
 
     /**
      * Checks if the URI should be loaded according to the severs /robots.txt file.
@@ -29,6 +35,51 @@ public class RobotsLoadFilter implements WebpageLoadFilter{
         return hostRobotsMap.get(uri.getHost()).query(null, uri.getPath());
     }
 
+    /**
+     * Returns the Crawl-delay of a host from its cached /robots.txt.
+     * Hosts which weren't checked yet or don't specify a delay have a delay of 0.
+     *
+     * @param host  the host to look up
+     * @return      the Crawl-delay in milliseconds
+     */
+    public static long getCrawlDelayMillis(String host) {
+        if (host == null)
+            return 0;
+
+        RobotsTxt robotsTxt = hostRobotsMap.get(host);
+        if (robotsTxt == null)
+            return 0;
+
+        Integer crawlDelay = robotsTxt.ask(null, "/").getCrawlDelay();
+        return crawlDelay == null ? 0 : crawlDelay * 1000L;
+    }
+
+    /**
+     * @return  the unparsed /robots.txt of every cached host, e.g. to store them in a checkpoint
+     */
+    public static Map<String, String> getRobotsTxtSources() {
+        return Collections.unmodifiableMap(hostRobotsSources);
+    }
+
+    /**
+     * Puts a previously loaded /robots.txt into the cache, so it isn't loaded again.
+     *
+     * @param host      the host the /robots.txt belongs to
+     * @param source    the unparsed /robots.txt
+     */
+    public static void restoreRobotsTxt(String host, String source) {
+        try {
+            cacheRobotsTxt(host, source);
+        } catch (IOException e) {
+            // not cached, it is loaded again when the host is checked
+        }
+    }
+
+    private static void cacheRobotsTxt(String host, String source) throws IOException {
+        hostRobotsMap.put(host, RobotsTxt.read(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8))));
+        hostRobotsSources.put(host, source);
+    }
+
     /**
      * Load the /robots.txt from a specified host into the cache.
      * Returns true if /robots.txt was loaded.
@@ -39,7 +90,9 @@ public class RobotsLoadFilter implements WebpageLoadFilter{
     private boolean loadRobotsTxtForHost(String host) {
         try {
             URL robotsUrl = new URL("http://" + host + "/robots.txt");
-            hostRobotsMap.put(host, RobotsTxt.read(robotsUrl.openStream()));
+            try (InputStream robotsStream = robotsUrl.openStream()) {
+                cacheRobotsTxt(host, new String(robotsStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
             return true;
         } catch (IOException e) {
             return false;
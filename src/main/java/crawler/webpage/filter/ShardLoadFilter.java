@@ -0,0 +1,34 @@
+package crawler.webpage.filter;
+
+import crawler.webpage.shard.ShardPartitioner;
+
+import java.net.URI;
+
+public class ShardLoadFilter implements WebpageLoadFilter {
+
+    private final ShardPartitioner partitioner;
+    private final int shardIndex;
+
+    /**
+     * @param partitioner   assigns the hosts to shards
+     * @param shardIndex    the shard of this process
+     */
+    public ShardLoadFilter(ShardPartitioner partitioner, int shardIndex) {
+        this.partitioner = partitioner;
+        this.shardIndex = shardIndex;
+    }
+
+    /**
+     * Checks if the host of the URI belongs to the shard of this process,
+     * pages of other hosts are forwarded to their shard instead. <br>
+     * The loaders of a {@link crawler.webpage.shard.ShardedCrawl} don't schedule the pages of other shards in the first place,
+     * this filter keeps them from being loaded if they are scheduled some other way.
+     *
+     * @param uri   the URI to check
+     * @return      true if this shard owns the host
+     */
+    @Override
+    public boolean webpageShouldBeLoaded(URI uri) {
+        return partitioner.shardOf(uri) == shardIndex;
+    }
+}
@@ -0,0 +1,30 @@
+package crawler.webpage.frontier;
+
+public interface CrawlFrontier {
+    /**
+     * Adds a task to the frontier, this must never block.
+     *
+     * @param task  the task to schedule
+     */
+    void push(CrawlTask task);
+
+    /**
+     * Removes the next task from the frontier, waiting until one is available.
+     *
+     * @return  the next task to process
+     * @throws InterruptedException when interrupted while waiting
+     */
+    CrawlTask take() throws InterruptedException;
+
+    /**
+     * Marks a task previously returned by {@link CrawlFrontier#take()} as finished.
+     *
+     * @param task  the finished task
+     */
+    void complete(CrawlTask task);
+
+    /**
+     * @return  the amount of tasks waiting in the frontier
+     */
+    int size();
+}
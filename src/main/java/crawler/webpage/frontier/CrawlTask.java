@@ -0,0 +1,72 @@
+package crawler.webpage.frontier;
+
+import crawler.webpage.Webpage;
+
+public class CrawlTask {
+
+    private final Webpage page, parent;
+    private final int remainingDepth, attempt;
+
+    /**
+     * @param page              the page to load
+     * @param remainingDepth    the remaining depth for loading, including this page
+     */
+    public CrawlTask(Webpage page, int remainingDepth) {
+        this(page, remainingDepth, null);
+    }
+
+    /**
+     * @param page              the page to load
+     * @param remainingDepth    the remaining depth for loading, including this page
+     * @param parent            the page that links to this page, null for root pages
+     */
+    public CrawlTask(Webpage page, int remainingDepth, Webpage parent) {
+        this(page, remainingDepth, parent, 1);
+    }
+
+    private CrawlTask(Webpage page, int remainingDepth, Webpage parent, int attempt) {
+        this.page = page;
+        this.remainingDepth = remainingDepth;
+        this.parent = parent;
+        this.attempt = attempt;
+    }
+
+    /**
+     * @return  a task to load the same page again, e.g. after a transient error
+     */
+    public CrawlTask nextAttempt() {
+        return new CrawlTask(page, remainingDepth, parent, attempt + 1);
+    }
+
+    public Webpage getPage() {
+        return page;
+    }
+
+    public Webpage getParent() {
+        return parent;
+    }
+
+    public int getRemainingDepth() {
+        return remainingDepth;
+    }
+
+    /**
+     * @return  true if the page is on the last depth level and has a link checker,
+     *          its link is only checked instead of loading it, since its children wouldn't be loaded anyway
+     */
+    public boolean isLinkCheck() {
+        return remainingDepth == 1 && page.getLinkChecker() != null;
+    }
+
+    /**
+     * @return  how often the page is loaded with this task, starting at 1
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    @Override
+    public String toString() {
+        return page.getPageURI() + " (remaining depth " + remainingDepth + ", attempt " + attempt + ")";
+    }
+}
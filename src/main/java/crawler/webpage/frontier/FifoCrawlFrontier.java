@@ -0,0 +1,35 @@
+package crawler.webpage.frontier;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class FifoCrawlFrontier implements CrawlFrontier {
+
+    private final LinkedBlockingQueue<CrawlTask> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * Adds the task to the end of the queue.
+     * Since children are always pushed after their parent was taken,
+     * pages are processed in breadth-first order.
+     *
+     * @param task  the task to schedule
+     */
+    @Override
+    public void push(CrawlTask task) {
+        queue.add(task);
+    }
+
+    @Override
+    public CrawlTask take() throws InterruptedException {
+        return queue.take();
+    }
+
+    @Override
+    public void complete(CrawlTask task) {
+        // nothing is tracked per task
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,27 @@
+package crawler.webpage.frontier;
+
+public enum FrontierType {
+    /**
+     * Breadth-first in discovery order, see {@link FifoCrawlFrontier}.
+     */
+    FIFO,
+    /**
+     * Per host queues with concurrency limits and delays, see {@link PoliteCrawlFrontier}.
+     */
+    POLITE,
+    /**
+     * Best-first by score, see {@link PriorityCrawlFrontier}.
+     */
+    PRIORITY;
+
+    /**
+     * Case insensitive lookup of a frontier type by its name.
+     *
+     * @param name  the name of the frontier type
+     * @return      the frontier type with that name
+     * @throws IllegalArgumentException if no frontier type has that name
+     */
+    public static FrontierType fromName(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,162 @@
+package crawler.webpage.frontier;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+
+/**
+ * Append-only FIFO queue of spilled tasks, stored in memory-mapped segment files. <br>
+ * Segments are deleted as soon as they have been read completely.
+ * This class is not thread safe.
+ */
+public class MappedSpillQueue {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    private static final int RECORD_HEADER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private long segmentCount, size;
+
+    /**
+     * @param directory     the directory to create the segment files in
+     * @param segmentSize   the size of a segment file in bytes
+     */
+    public MappedSpillQueue(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Appends a record to the last segment, creating a new segment if it is full.
+     *
+     * @param parentId          the id of the parent of the task
+     * @param childIndex        the index of the page of the task among the children of its parent
+     * @param remainingDepth    the remaining depth of the task
+     * @param url               the URL of the task
+     * @throws UncheckedIOException if the segment file can't be created
+     */
+    public void append(long parentId, int childIndex, int remainingDepth, String url) {
+        byte[] urlBytes = url.getBytes(StandardCharsets.UTF_8);
+        int recordSize = RECORD_HEADER_SIZE + urlBytes.length;
+
+        Segment segment = segments.peekLast();
+        if (segment == null || segment.buffer.capacity() - segment.writeOffset < recordSize) {
+            segment = createSegment(Math.max(segmentSize, recordSize));
+            segments.add(segment);
+        }
+
+        segment.buffer.position(segment.writeOffset);
+        segment.buffer.putLong(parentId).putInt(childIndex).putInt(remainingDepth).putInt(urlBytes.length).put(urlBytes);
+        segment.writeOffset += recordSize;
+        size++;
+    }
+
+    /**
+     * Removes the oldest record.
+     *
+     * @return  the oldest record or null if the queue is empty
+     */
+    public SpilledTask poll() {
+        while (segments.size() > 1 && segments.peekFirst().readOffset == segments.peekFirst().writeOffset)
+            deleteSegment(segments.poll());
+
+        Segment segment = segments.peekFirst();
+        if (segment == null || segment.readOffset == segment.writeOffset)
+            return null;
+
+        segment.buffer.position(segment.readOffset);
+        long parentId = segment.buffer.getLong();
+        int childIndex = segment.buffer.getInt();
+        int remainingDepth = segment.buffer.getInt();
+        byte[] urlBytes = new byte[segment.buffer.getInt()];
+        segment.buffer.get(urlBytes);
+        segment.readOffset = segment.buffer.position();
+        size--;
+
+        return new SpilledTask(parentId, childIndex, remainingDepth, new String(urlBytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return  the amount of records in the queue
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return  the amount of segment files currently on disk
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    private Segment createSegment(int capacity) {
+        Path file = directory.resolve(String.format("frontier-%06d.spill", segmentCount++));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            file.toFile().deleteOnExit();
+            return new Segment(file, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't create spill segment " + file, e);
+        }
+    }
+
+    private static void deleteSegment(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            // the file stays until exit, deleteOnExit was requested on creation
+        }
+    }
+
+    public static class SpilledTask {
+        private final long parentId;
+        private final int childIndex;
+        private final int remainingDepth;
+        private final String url;
+
+        private SpilledTask(long parentId, int childIndex, int remainingDepth, String url) {
+            this.parentId = parentId;
+            this.childIndex = childIndex;
+            this.remainingDepth = remainingDepth;
+            this.url = url;
+        }
+
+        public long getParentId() {
+            return parentId;
+        }
+
+        public int getChildIndex() {
+            return childIndex;
+        }
+
+        public int getRemainingDepth() {
+            return remainingDepth;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+    }
+
+    private static class Segment {
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private int writeOffset, readOffset;
+
+        private Segment(Path file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package crawler.webpage.frontier;
+
+import crawler.webpage.dns.DnsCache;
+import crawler.webpage.dns.HostResolver;
+import crawler.webpage.filter.RobotsLoadFilter;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+public class PoliteCrawlFrontier implements CrawlFrontier {
+
+    private final int maxPerHost, maxPerAddress;
+    private final long minDelayMillis;
+
+    private Function<String, CompletableFuture<String>> addressResolver =
+            new DnsCache(HostResolver.system(), DnsCache.DEFAULT_TTL, DnsCache.DEFAULT_NEGATIVE_TTL, 0)::resolveAddressAsync;
+    private ToLongFunction<String> crawlDelayLookup = RobotsLoadFilter::getCrawlDelayMillis;
+    private ToIntFunction<String> hostLimitLookup;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hostMayBeReady = lock.newCondition();
+    private final HashMap<String, HostQueue> hostQueues = new HashMap<>();
+    private final HashMap<String, Integer> addressInFlight = new HashMap<>();
+    private final IdentityHashMap<CrawlTask, String> takenAddresses = new IdentityHashMap<>();
+    private final ArrayDeque<HostQueue> activeHosts = new ArrayDeque<>();
+    private int size;
+
+    /**
+     * @param maxPerHost        how many pages of the same host may load at once
+     * @param maxPerAddress     how many pages of the same resolved IP address may load at once
+     * @param minDelayMillis    minimal time between two requests to the same host,
+     *                          a longer Crawl-delay from the hosts robots.txt takes precedence
+     */
+    public PoliteCrawlFrontier(int maxPerHost, int maxPerAddress, long minDelayMillis) {
+        this.maxPerHost = maxPerHost;
+        this.maxPerAddress = maxPerAddress;
+        this.minDelayMillis = minDelayMillis;
+        this.hostLimitLookup = host -> maxPerHost;
+    }
+
+    /**
+     * Adds the task to the queue of its host, the address of a new host starts resolving without waiting for it.
+     *
+     * @param task  the task to schedule
+     */
+    @Override
+    public void push(CrawlTask task) {
+        String host = hostOf(task);
+
+        lock.lock();
+        try {
+            HostQueue hostQueue = hostQueues.get(host);
+            if (hostQueue == null) {
+                hostQueue = new HostQueue(host);
+                hostQueues.put(host, hostQueue);
+                resolvedAddress(hostQueue);
+            }
+            if (hostQueue.tasks.isEmpty())
+                activeHosts.add(hostQueue);
+            hostQueue.tasks.add(task);
+            size++;
+            hostMayBeReady.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a task of the first host in round-robin order which is ready,
+     * meaning its address is resolved, it is below its host and address limits and its delay has passed.
+     * Waits until the next host becomes ready if none is.
+     *
+     * @return  the next task to process
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Override
+    public CrawlTask take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                long nextReadyTime = Long.MAX_VALUE;
+
+                for (Iterator<HostQueue> iterator = activeHosts.iterator(); iterator.hasNext(); ) {
+                    HostQueue hostQueue = iterator.next();
+                    if (!hasFreeHostSlot(hostQueue))
+                        continue;
+                    String address = resolvedAddress(hostQueue);
+                    if (address == null || addressInFlight.getOrDefault(address, 0) >= maxPerAddress)
+                        continue;
+                    if (hostQueue.nextFetchTime - now > 0) {
+                        nextReadyTime = Math.min(nextReadyTime, hostQueue.nextFetchTime);
+                        continue;
+                    }
+
+                    iterator.remove();
+                    return takeFrom(hostQueue, address, now);
+                }
+
+                if (nextReadyTime == Long.MAX_VALUE)
+                    hostMayBeReady.await();
+                else
+                    hostMayBeReady.awaitNanos(nextReadyTime - now);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the host and address slot of the task.
+     *
+     * @param task  the finished task
+     */
+    @Override
+    public void complete(CrawlTask task) {
+        lock.lock();
+        try {
+            HostQueue hostQueue = hostQueues.get(hostOf(task));
+            hostQueue.inFlight--;
+            // the address the task was counted for, the address of the host may have changed since
+            addressInFlight.merge(takenAddresses.remove(task), -1, Integer::sum);
+            hostMayBeReady.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets how hosts are mapped to addresses for the per address limit, the resolver must not block.
+     * It is asked again whenever a host is about to be taken, so it decides how long an address is kept.
+     * Defaults to a {@link DnsCache} without prefetch threads, which falls back to the host name if it can't be resolved.
+     *
+     * @param resolver  function from host name to its address, completed once it is resolved
+     */
+    public void setAddressResolver(Function<String, CompletableFuture<String>> resolver) {
+        addressResolver = resolver;
+    }
+
+    /**
+     * Sets where the Crawl-delay of a host is looked up.
+     * Defaults to the robots.txt cache of {@link RobotsLoadFilter}.
+     *
+     * @param lookup    function from host name to delay in milliseconds
+     */
+    public void setCrawlDelayLookup(ToLongFunction<String> lookup) {
+        crawlDelayLookup = lookup;
+    }
+
+    /**
+     * Sets where the current limit of a host is looked up, e.g. an adaptive controller.
+     * The limit never exceeds maxPerHost. Defaults to maxPerHost for every host.
+     *
+     * @param lookup    function from host name to how many of its pages may load at once
+     */
+    public void setHostLimitLookup(ToIntFunction<String> lookup) {
+        hostLimitLookup = lookup;
+    }
+
+    private CrawlTask takeFrom(HostQueue hostQueue, String address, long now) {
+        CrawlTask task = hostQueue.tasks.poll();
+        size--;
+
+        hostQueue.inFlight++;
+        addressInFlight.merge(address, 1, Integer::sum);
+        takenAddresses.put(task, address);
+
+        long delayMillis = Math.max(minDelayMillis, crawlDelayLookup.applyAsLong(hostQueue.host));
+        hostQueue.nextFetchTime = now + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+
+        // move the host to the back, so other hosts get their turn first
+        if (!hostQueue.tasks.isEmpty())
+            activeHosts.add(hostQueue);
+
+        return task;
+    }
+
+    private boolean hasFreeHostSlot(HostQueue hostQueue) {
+        return hostQueue.inFlight < Math.min(maxPerHost, hostLimitLookup.applyAsInt(hostQueue.host));
+    }
+
+    /**
+     * Asks the resolver for the address of the host, unless an earlier lookup is still running.
+     * A lookup that doesn't complete right away wakes up the waiting takers once it does.
+     *
+     * @return  the address of the host, null while it is being resolved
+     */
+    private String resolvedAddress(HostQueue hostQueue) {
+        if (hostQueue.pendingAddress == null) {
+            CompletableFuture<String> address = addressResolver.apply(hostQueue.host).exceptionally(error -> hostQueue.host);
+            if (address.isDone())
+                return address.join();
+
+            hostQueue.pendingAddress = address;
+            address.thenRun(this::signalHosts);
+            return null;
+        }
+
+        if (!hostQueue.pendingAddress.isDone())
+            return null;
+        String address = hostQueue.pendingAddress.join();
+        hostQueue.pendingAddress = null;
+        return address;
+    }
+
+    private void signalHosts() {
+        lock.lock();
+        try {
+            hostMayBeReady.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String hostOf(CrawlTask task) {
+        String host = task.getPage().getPageURI().getHost();
+        return host == null ? "" : host;
+    }
+
+    private static class HostQueue {
+        private final String host;
+        private final ArrayDeque<CrawlTask> tasks = new ArrayDeque<>();
+        private CompletableFuture<String> pendingAddress;
+        private int inFlight;
+        private long nextFetchTime = System.nanoTime();
+
+        private HostQueue(String host) {
+            this.host = host;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package crawler.webpage.frontier;
+
+import crawler.webpage.dns.DnsCache;
+
+/**
+ * Starts resolving the host of every task as it enters the frontier,
+ * so the host is resolved by the time a worker takes the task.
+ * Wrap it inside a {@link SpillingCrawlFrontier}, so spilled tasks are only resolved once they are paged back in.
+ */
+public class PrefetchingCrawlFrontier implements CrawlFrontier {
+
+    private final CrawlFrontier delegate;
+    private final DnsCache dnsCache;
+
+    /**
+     * @param delegate  the frontier holding the tasks
+     * @param dnsCache  resolves the hosts, it only looks up hosts that aren't cached
+     */
+    public PrefetchingCrawlFrontier(CrawlFrontier delegate, DnsCache dnsCache) {
+        this.delegate = delegate;
+        this.dnsCache = dnsCache;
+    }
+
+    @Override
+    public void push(CrawlTask task) {
+        dnsCache.prefetch(task.getPage().getPageURI().getHost());
+        delegate.push(task);
+    }
+
+    @Override
+    public CrawlTask take() throws InterruptedException {
+        return delegate.take();
+    }
+
+    @Override
+    public void complete(CrawlTask task) {
+        delegate.complete(task);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+}
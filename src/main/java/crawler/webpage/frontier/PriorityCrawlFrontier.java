@@ -0,0 +1,75 @@
+package crawler.webpage.frontier;
+
+import crawler.webpage.frontier.scorer.UrlScorer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PriorityCrawlFrontier implements CrawlFrontier {
+
+    private final UrlScorer scorer;
+
+    private final ConcurrentSkipListMap<RankKey, CrawlTask> rankedTasks = new ConcurrentSkipListMap<>();
+    private final Semaphore availableTasks = new Semaphore(0);
+    private final AtomicLong pushCount = new AtomicLong();
+
+    /**
+     * @param scorer    rates the tasks, the highest rated task is taken first
+     */
+    public PriorityCrawlFrontier(UrlScorer scorer) {
+        this.scorer = scorer;
+    }
+
+    /**
+     * Scores the task and inserts it by rank.
+     * The skip list is lock free, so concurrent pushes and takes don't block each other.
+     *
+     * @param task  the task to schedule
+     */
+    @Override
+    public void push(CrawlTask task) {
+        rankedTasks.put(new RankKey(scorer.score(task), pushCount.getAndIncrement()), task);
+        availableTasks.release();
+    }
+
+    /**
+     * Takes the task with the highest score, tasks with equal scores are taken in the order they were pushed.
+     *
+     * @return  the next task to process
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Override
+    public CrawlTask take() throws InterruptedException {
+        availableTasks.acquire();
+        Map.Entry<RankKey, CrawlTask> best = rankedTasks.pollFirstEntry();
+        return best.getValue();
+    }
+
+    @Override
+    public void complete(CrawlTask task) {
+        // nothing is tracked per task
+    }
+
+    @Override
+    public int size() {
+        return availableTasks.availablePermits();
+    }
+
+    private static class RankKey implements Comparable<RankKey> {
+        private final double score;
+        private final long sequence;
+
+        private RankKey(double score, long sequence) {
+            this.score = score;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(RankKey other) {
+            int byScore = Double.compare(other.score, score);
+            return byScore != 0 ? byScore : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package crawler.webpage.frontier;
+
+import crawler.webpage.Webpage;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+public class SpillingCrawlFrontier implements CrawlFrontier {
+
+    private final CrawlFrontier delegate;
+    private final int memoryLimit, refillThreshold;
+    private final MappedSpillQueue spillQueue;
+
+    private final IdentityHashMap<Webpage, Long> parentIds = new IdentityHashMap<>();
+    private final HashMap<Long, SpilledParent> spilledParents = new HashMap<>();
+    private long nextParentId;
+    private volatile long spilledCount;
+
+    /**
+     * @param delegate        the frontier holding the tasks in memory
+     * @param memoryLimit     how many tasks the delegate may hold before new tasks are spilled to disk
+     * @param spillDirectory  where to store the spilled tasks
+     */
+    public SpillingCrawlFrontier(CrawlFrontier delegate, int memoryLimit, Path spillDirectory) {
+        this(delegate, memoryLimit, new MappedSpillQueue(spillDirectory, MappedSpillQueue.DEFAULT_SEGMENT_SIZE));
+    }
+
+    /**
+     * @param delegate      the frontier holding the tasks in memory
+     * @param memoryLimit   how many tasks the delegate may hold before new tasks are spilled to disk
+     * @param spillQueue    where to store the spilled tasks
+     */
+    public SpillingCrawlFrontier(CrawlFrontier delegate, int memoryLimit, MappedSpillQueue spillQueue) {
+        this.delegate = delegate;
+        this.memoryLimit = memoryLimit;
+        this.refillThreshold = Math.max(1, memoryLimit / 2);
+        this.spillQueue = spillQueue;
+    }
+
+    /**
+     * Pushes the task to the delegate while it is below the memory limit.
+     * Otherwise only the URL, depth and index of the child are written to disk and the child is released by its parent,
+     * so it doesn't occupy the heap until it is paged back in at the same index.
+     * Once tasks are spilled, new tasks are spilled as well to keep their order.
+     * Root pages and retries are never spilled, a recreated page would lose its attempts.
+     *
+     * @param task  the task to schedule
+     */
+    @Override
+    public void push(CrawlTask task) {
+        synchronized (this) {
+            boolean spill = spilledCount > 0 || delegate.size() >= memoryLimit;
+            if (spill && task.getParent() != null && task.getAttempt() == 1) {
+                spillToDisk(task);
+                return;
+            }
+        }
+        delegate.push(task);
+    }
+
+    /**
+     * Pages spilled tasks back in if the delegate is running low, then takes from the delegate.
+     *
+     * @return  the next task to process
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Override
+    public CrawlTask take() throws InterruptedException {
+        refill();
+        return delegate.take();
+    }
+
+    /**
+     * Completes the task in the delegate and pages spilled tasks back in if it is running low,
+     * so no worker waits for the delegate while tasks are on disk.
+     *
+     * @param task  the finished task
+     */
+    @Override
+    public void complete(CrawlTask task) {
+        delegate.complete(task);
+        refill();
+    }
+
+    /**
+     * @return  the amount of tasks in memory and on disk
+     */
+    @Override
+    public synchronized int size() {
+        return (int) Math.min(Integer.MAX_VALUE, delegate.size() + spillQueue.size());
+    }
+
+    /**
+     * @return  the amount of tasks on disk
+     */
+    public long spilledSize() {
+        return spilledCount;
+    }
+
+    private void spillToDisk(CrawlTask task) {
+        Webpage parent = task.getParent();
+        Long parentId = parentIds.get(parent);
+        if (parentId == null) {
+            parentId = nextParentId++;
+            parentIds.put(parent, parentId);
+            spilledParents.put(parentId, new SpilledParent(parent));
+        }
+        spilledParents.get(parentId).spilledChildren++;
+
+        int childIndex = parent.releaseChild(task.getPage());
+        spillQueue.append(parentId, childIndex, task.getRemainingDepth(), task.getPage().getPageURI().toString());
+        spilledCount = spillQueue.size();
+    }
+
+    private void refill() {
+        // checked without the lock first, since nothing is spilled most of the time
+        if (spilledCount == 0)
+            return;
+
+        synchronized (this) {
+            while (spilledCount > 0 && delegate.size() < refillThreshold)
+                restoreFromDisk();
+        }
+    }
+
+    private void restoreFromDisk() {
+        MappedSpillQueue.SpilledTask spilledTask = spillQueue.poll();
+        spilledCount = spillQueue.size();
+
+        SpilledParent spilledParent = spilledParents.get(spilledTask.getParentId());
+        if (--spilledParent.spilledChildren == 0) {
+            spilledParents.remove(spilledTask.getParentId());
+            parentIds.remove(spilledParent.page);
+        }
+
+        Webpage child = spilledParent.page.restoreChild(URI.create(spilledTask.getUrl()), spilledTask.getChildIndex());
+        delegate.push(new CrawlTask(child, spilledTask.getRemainingDepth(), spilledParent.page));
+    }
+
+    private static class SpilledParent {
+        private final Webpage page;
+        private int spilledChildren;
+
+        private SpilledParent(Webpage page) {
+            this.page = page;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package crawler.webpage.frontier.scorer;
+
+import crawler.webpage.frontier.CrawlTask;
+
+public class DepthScorer implements UrlScorer {
+
+    /**
+     * Scores shallow pages higher, which have more depth remaining.
+     *
+     * @param task  the task to rate
+     * @return      the remaining depth of the task
+     */
+    @Override
+    public double score(CrawlTask task) {
+        return task.getRemainingDepth();
+    }
+}
@@ -0,0 +1,25 @@
+package crawler.webpage.frontier.scorer;
+
+import crawler.webpage.frontier.CrawlTask;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class InLinkCountScorer implements UrlScorer {
+
+    private final ConcurrentHashMap<String, LongAdder> inLinkCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Counts every scored task as a link to its page,
+     * so pages which were linked more often so far score higher.
+     *
+     * @param task  the task to rate
+     * @return      how often the page was linked including this link
+     */
+    @Override
+    public double score(CrawlTask task) {
+        LongAdder count = inLinkCounts.computeIfAbsent(task.getPage().getPageURI().toString(), key -> new LongAdder());
+        count.increment();
+        return count.sum();
+    }
+}
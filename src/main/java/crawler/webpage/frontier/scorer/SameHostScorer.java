@@ -0,0 +1,28 @@
+package crawler.webpage.frontier.scorer;
+
+import crawler.webpage.frontier.CrawlTask;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+public class SameHostScorer implements UrlScorer {
+
+    private final Set<String> preferredHosts;
+
+    /**
+     * @param preferredHosts    the hosts to prefer, usually the hosts of the root pages
+     */
+    public SameHostScorer(Collection<String> preferredHosts) {
+        this.preferredHosts = new HashSet<>(preferredHosts);
+    }
+
+    /**
+     * @param task  the task to rate
+     * @return      1 if the page is on one of the preferred hosts, 0 otherwise
+     */
+    @Override
+    public double score(CrawlTask task) {
+        return preferredHosts.contains(task.getPage().getPageURI().getHost()) ? 1 : 0;
+    }
+}
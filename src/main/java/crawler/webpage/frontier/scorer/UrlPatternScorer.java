@@ -0,0 +1,39 @@
+package crawler.webpage.frontier.scorer;
+
+import crawler.webpage.frontier.CrawlTask;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public class UrlPatternScorer implements UrlScorer {
+
+    private final LinkedHashMap<Pattern, Double> patternWeights = new LinkedHashMap<>();
+
+    /**
+     * Adds a weight for all URLs that contain a match of the regex.
+     *
+     * @param regex     the regex to search in the URL
+     * @param weight    the weight to add for matching URLs, may be negative
+     * @return          this scorer
+     */
+    public UrlPatternScorer addPattern(String regex, double weight) {
+        patternWeights.put(Pattern.compile(regex), weight);
+        return this;
+    }
+
+    /**
+     * @param task  the task to rate
+     * @return      the sum of the weights of all patterns found in the URL
+     */
+    @Override
+    public double score(CrawlTask task) {
+        String url = task.getPage().getPageURI().toString();
+
+        double score = 0;
+        for (Map.Entry<Pattern, Double> patternWeight : patternWeights.entrySet())
+            if (patternWeight.getKey().matcher(url).find())
+                score += patternWeight.getValue();
+        return score;
+    }
+}
@@ -0,0 +1,14 @@
+package crawler.webpage.frontier.scorer;
+
+import crawler.webpage.frontier.CrawlTask;
+
+public interface UrlScorer {
+    /**
+     * Rates how valuable it is to load the page of a task, higher scores are loaded first.
+     * May be called concurrently.
+     *
+     * @param task  the task to rate
+     * @return      the score of the task
+     */
+    double score(CrawlTask task);
+}
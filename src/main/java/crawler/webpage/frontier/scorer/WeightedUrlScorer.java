@@ -0,0 +1,36 @@
+package crawler.webpage.frontier.scorer;
+
+import crawler.webpage.frontier.CrawlTask;
+
+import java.util.ArrayList;
+
+public class WeightedUrlScorer implements UrlScorer {
+
+    private final ArrayList<UrlScorer> scorers = new ArrayList<>();
+    private final ArrayList<Double> weights = new ArrayList<>();
+
+    /**
+     * Adds a scorer whose score is multiplied by the weight.
+     *
+     * @param scorer    the scorer to add
+     * @param weight    the factor for its score
+     * @return          this scorer
+     */
+    public WeightedUrlScorer add(UrlScorer scorer, double weight) {
+        scorers.add(scorer);
+        weights.add(weight);
+        return this;
+    }
+
+    /**
+     * @param task  the task to rate
+     * @return      the weighted sum of all added scorers
+     */
+    @Override
+    public double score(CrawlTask task) {
+        double score = 0;
+        for (int i = 0; i < scorers.size(); i++)
+            score += scorers.get(i).score(task) * weights.get(i);
+        return score;
+    }
+}
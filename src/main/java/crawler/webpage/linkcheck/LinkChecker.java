@@ -0,0 +1,147 @@
+package crawler.webpage.linkcheck;
+
+import crawler.util.Util;
+import crawler.webpage.fetcher.Fetcher;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks link targets with status requests instead of loading them, every target only once across the whole crawl. <br>
+ * Links to the same target that only differ in their fragment are the same target.
+ * Every page linking to a target is kept, so the report lists all pages referring to a broken link.
+ * Targets that were loaded in full are recorded with the status of their download, so the report covers every level of the crawl.
+ */
+public class LinkChecker {
+
+    private final ConcurrentHashMap<URI, CompletableFuture<LinkStatus>> statuses = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<URI, Set<String>> referrers = new ConcurrentHashMap<>();
+    private final LongAdder requestCount = new LongAdder();
+
+    /**
+     * Remembers that a page links to the target, also if the target is never checked, e.g. since a filter rejects it.
+     *
+     * @param target    the linked URI
+     * @param referrer  the URI of the page containing the link, null for a root page
+     */
+    public void addReferrer(URI target, URI referrer) {
+        Set<String> targetReferrers = referrers.computeIfAbsent(withoutFragment(target), uri -> ConcurrentHashMap.newKeySet());
+        if (referrer != null)
+            targetReferrers.add(referrer.toString());
+    }
+
+    /**
+     * Returns the status of the target, requesting it on the calling thread if it wasn't checked yet.
+     * If another thread is checking the target right now, its result is waited for.
+     *
+     * @param target    the URI to check
+     * @param fetcher   sends the status request
+     * @param userAgent the UserAgent to send
+     * @return          the status of the target
+     */
+    public LinkStatus check(URI target, Fetcher fetcher, String userAgent) {
+        CompletableFuture<LinkStatus> created = new CompletableFuture<>();
+        CompletableFuture<LinkStatus> existing = statuses.putIfAbsent(withoutFragment(target), created);
+        if (existing != null)
+            return existing.join();
+
+        requestCount.increment();
+        try {
+            created.complete(LinkStatus.of(fetcher.fetchStatus(target.toString(), userAgent)));
+        } catch (IOException | RuntimeException e) {
+            created.complete(LinkStatus.failed(e.getMessage()));
+        }
+        return created.join();
+    }
+
+    /**
+     * Records the status of a target that was loaded in full instead of checked.
+     * A later check of the target returns the recorded status without a request,
+     * a later record replaces it, e.g. when the page is loaded again after a transient error.
+     *
+     * @param target    the loaded URI
+     * @param status    the status of its download
+     */
+    public void record(URI target, LinkStatus status) {
+        statuses.put(withoutFragment(target), CompletableFuture.completedFuture(status));
+    }
+
+    /**
+     * @return  how many targets were requested with a status request
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * @return  the checked targets that are broken with their status, ordered by URI
+     */
+    public Map<URI, LinkStatus> getBrokenLinks() {
+        TreeMap<URI, LinkStatus> brokenLinks = new TreeMap<>();
+        statuses.forEach((target, status) -> {
+            LinkStatus result = status.getNow(null);
+            if (result != null && result.isBroken())
+                brokenLinks.put(target, result);
+        });
+        return brokenLinks;
+    }
+
+    /**
+     * @param target    a linked URI
+     * @return          the URIs of all pages linking to the target, ordered
+     */
+    public List<String> getReferrers(URI target) {
+        Set<String> targetReferrers = referrers.get(withoutFragment(target));
+        return targetReferrers == null ? Collections.emptyList() : new ArrayList<>(new TreeSet<>(targetReferrers));
+    }
+
+    /**
+     * Returns a JSONObject that contains: <br>
+     * - checkedLinks, how many targets were requested with a status request <br>
+     * - brokenLinks, for every broken target the url, the status or error and the referring pages
+     *
+     * @return  the broken-link report
+     */
+    public JSONObject asReport() {
+        JSONArray brokenLinks = new JSONArray();
+        getBrokenLinks().forEach((target, status) -> {
+            JSONObject brokenLink = Util.makeJSONObjectWithOrderedKeys();
+            brokenLink.put("url", target.toString());
+            if (status.getError() == null)
+                brokenLink.put("status", status.getStatusCode());
+            else
+                brokenLink.put("error", status.getError());
+            brokenLink.put("referrers", new JSONArray(getReferrers(target)));
+            brokenLinks.put(brokenLink);
+        });
+
+        JSONObject report = Util.makeJSONObjectWithOrderedKeys();
+        report.put("checkedLinks", getRequestCount());
+        report.put("brokenLinks", brokenLinks);
+        return report;
+    }
+
+    private static URI withoutFragment(URI uri) {
+        if (uri.getFragment() == null)
+            return uri;
+
+        try {
+            return new URI(uri.getScheme(), uri.getSchemeSpecificPart(), null);
+        } catch (URISyntaxException e) {
+            return uri;
+        }
+    }
+}
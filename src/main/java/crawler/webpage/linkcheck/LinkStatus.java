@@ -0,0 +1,52 @@
+package crawler.webpage.linkcheck;
+
+/**
+ * The result of checking a link: the status of the response, or why no response was received.
+ */
+public class LinkStatus {
+
+    private final int statusCode;
+    private final String error;
+
+    private LinkStatus(int statusCode, String error) {
+        this.statusCode = statusCode;
+        this.error = error;
+    }
+
+    /**
+     * @param statusCode    the status of the response
+     * @return              the status of a link that was answered
+     */
+    public static LinkStatus of(int statusCode) {
+        return new LinkStatus(statusCode, null);
+    }
+
+    /**
+     * @param error the reason no response was received, e.g. the message of a timeout
+     * @return      the status of a link that wasn't answered
+     */
+    public static LinkStatus failed(String error) {
+        return new LinkStatus(0, String.valueOf(error));
+    }
+
+    /**
+     * @return  true if the link wasn't answered or answered with a status of 400 or above
+     */
+    public boolean isBroken() {
+        return error != null || statusCode >= 400;
+    }
+
+    /**
+     * @return  the status of the response, 0 if none was received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return  why no response was received, null if one was
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,114 @@
+package crawler.webpage.pipeline;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PipelineStage<T> {
+
+    private final String name;
+    private final int threadCount;
+    private final StageHandler<T> handler;
+
+    private final ArrayBlockingQueue<T> queue;
+    private final ExecutorService threadPool;
+
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+    private final LongAdder processedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * @param name          the name of the stage for reports
+     * @param threadCount   how many threads process items of this stage
+     * @param queueCapacity how many items may wait for this stage before submit() blocks
+     * @param handler       processes the items
+     */
+    public PipelineStage(String name, int threadCount, int queueCapacity, StageHandler<T> handler) {
+        this.name = name;
+        this.threadCount = threadCount;
+        this.handler = handler;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.threadPool = Executors.newFixedThreadPool(threadCount);
+    }
+
+    /**
+     * Starts the threads of this stage.
+     */
+    public void start() {
+        for (int i = 0; i < threadCount; i++)
+            threadPool.execute(this::processQueue);
+    }
+
+    /**
+     * Stops the threads of this stage, items still waiting are dropped.
+     */
+    public void shutdown() {
+        threadPool.shutdownNow();
+    }
+
+    /**
+     * Hands an item to this stage, blocking while the queue of this stage is full.
+     * This is how a slow stage applies backpressure to the stages before it.
+     *
+     * @param item  the item to process
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public void submit(T item) throws InterruptedException {
+        queue.put(item);
+        peakQueueDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    /**
+     * Processing loop of a thread of this stage. An exception of the handler is reported and only drops its item,
+     * the thread keeps taking items, so a stage with a single thread can't stop the pipeline.
+     */
+    private void processQueue() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                T item = queue.take();
+                // counted first, the last handler may finish the crawl before it returns
+                processedCount.increment();
+                try {
+                    handler.handle(item);
+                } catch (RuntimeException e) {
+                    failedCount.increment();
+                    System.err.println("The " + name + " stage failed to process " + item + ": " + e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getPeakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+
+    /**
+     * @return  how many items the threads of this stage have taken from the queue
+     */
+    public long getProcessedCount() {
+        return processedCount.sum();
+    }
+
+    /**
+     * @return  how many items the handler threw an exception for, they are counted as processed as well
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+}
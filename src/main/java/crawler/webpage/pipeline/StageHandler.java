@@ -0,0 +1,11 @@
+package crawler.webpage.pipeline;
+
+public interface StageHandler<T> {
+    /**
+     * Processes an item of a {@link PipelineStage}.
+     *
+     * @param item  the item to process
+     * @throws InterruptedException when interrupted while handing the item to the next stage
+     */
+    void handle(T item) throws InterruptedException;
+}
@@ -0,0 +1,121 @@
+package crawler.webpage.retry;
+
+import crawler.webpage.fetcher.HttpResponseException;
+import org.jsoup.HttpStatusException;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether a failed fetch is retried and how long to wait before. <br>
+ * Only transient errors are retried: timeouts, refused or reset connections and the {@link RetryPolicy#RETRYABLE_STATUS_CODES}.
+ * The delay doubles with every attempt up to the max delay and a random half of it is jittered away,
+ * so the retries of many pages don't hit a recovering host at the same time. <br>
+ * A Retry-After header is honoured, a retry that would have to wait longer than the max delay is dropped.
+ */
+public class RetryPolicy {
+
+    public static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(408, 425, 429, 500, 502, 503, 504);
+    public static final long NO_RETRY_AFTER = -1;
+
+    private final int maxRetries;
+    private final long baseDelayMillis, maxDelayMillis;
+
+    /**
+     * @param maxRetries        how often a page is retried at most, 0 to never retry
+     * @param baseDelayMillis   the delay before the first retry, without jitter
+     * @param maxDelayMillis    the longest delay before a retry
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * @return  a policy which never retries
+     */
+    public static RetryPolicy none() {
+        return new RetryPolicy(0, 0, 0);
+    }
+
+    /**
+     * @param error     the error of the failed attempt, null if it succeeded
+     * @param attempt   the number of the failed attempt, starting at 1
+     * @return          true if the page should be loaded again
+     */
+    public boolean shouldRetry(Exception error, int attempt) {
+        if (attempt > maxRetries || !isTransient(error))
+            return false;
+
+        return getRetryAfterMillis(error, System.currentTimeMillis()) <= maxDelayMillis;
+    }
+
+    /**
+     * @param error     the error of the failed attempt
+     * @param attempt   the number of the failed attempt, starting at 1
+     * @return          how long to wait before the next attempt,
+     *                  between half and the whole backoff but at least as long as the Retry-After of the error
+     */
+    public long getDelayMillis(Exception error, int attempt) {
+        long backoffMillis = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        long jitteredMillis = backoffMillis / 2 + ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1);
+        return Math.max(jitteredMillis, getRetryAfterMillis(error, System.currentTimeMillis()));
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Errors that say nothing about the page itself, so a later attempt may succeed.
+     *
+     * @param error the error of a fetch, null if it succeeded
+     * @return      true if the error is transient
+     */
+    public static boolean isTransient(Exception error) {
+        if (error instanceof SocketTimeoutException || error instanceof HttpTimeoutException || error instanceof SocketException)
+            return true;
+        if (error instanceof HttpStatusException)
+            return RETRYABLE_STATUS_CODES.contains(((HttpStatusException) error).getStatusCode());
+        return false;
+    }
+
+    /**
+     * Parses the value of a Retry-After header, which is either a delay in seconds or an HTTP date.
+     *
+     * @param value     the value of the header, may be null
+     * @param nowMillis the current time to compare a date to
+     * @return          how long to wait in milliseconds, 0 for dates in the past,
+     *                  {@link RetryPolicy#NO_RETRY_AFTER} if the value is missing or invalid
+     */
+    public static long parseRetryAfterMillis(String value, long nowMillis) {
+        if (value == null || value.isBlank())
+            return NO_RETRY_AFTER;
+
+        String trimmedValue = value.trim();
+        if (trimmedValue.matches("\\d{1,9}"))
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(trimmedValue));
+
+        try {
+            long dateMillis = ZonedDateTime.parse(trimmedValue, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, dateMillis - nowMillis);
+        } catch (DateTimeParseException e) {
+            return NO_RETRY_AFTER;
+        }
+    }
+
+    private static long getRetryAfterMillis(Exception error, long nowMillis) {
+        if (!(error instanceof HttpResponseException))
+            return NO_RETRY_AFTER;
+
+        return parseRetryAfterMillis(((HttpResponseException) error).getHeader("Retry-After"), nowMillis);
+    }
+}
@@ -0,0 +1,80 @@
+package crawler.webpage.retry;
+
+import crawler.webpage.frontier.CrawlTask;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Hands failed tasks back to a loader once their backoff is over,
+ * so no worker thread sleeps while a page waits for its retry. <br>
+ * A single daemon thread waits for all delays, it is started with the first retry.
+ */
+public class RetryScheduler {
+
+    private final RetryPolicy policy;
+    private final LongAdder retryCount = new LongAdder();
+    private ScheduledExecutorService timer;
+    private boolean shutDown;
+
+    /**
+     * @param policy    decides which tasks are retried and when
+     */
+    public RetryScheduler(RetryPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Schedules the next attempt of the task if its page failed with an error the policy retries.
+     *
+     * @param task          the task whose page was just loaded
+     * @param reschedule    called with the next attempt once the delay is over, e.g. to push it to the frontier
+     * @return              true if the task will be retried, the caller mustn't treat it as finished then
+     */
+    public boolean retryLater(CrawlTask task, Consumer<CrawlTask> reschedule) {
+        Exception error = task.getPage().getError();
+        if (!policy.shouldRetry(error, task.getAttempt()))
+            return false;
+
+        long delayMillis = policy.getDelayMillis(error, task.getAttempt());
+        CrawlTask nextAttempt = task.nextAttempt();
+        synchronized (this) {
+            if (shutDown)
+                return false;
+            getTimer().schedule(() -> reschedule.accept(nextAttempt), delayMillis, TimeUnit.MILLISECONDS);
+        }
+        retryCount.increment();
+        return true;
+    }
+
+    /**
+     * Drops the retries that are still waiting, e.g. because the budget ran out.
+     * Tasks failing afterwards aren't retried anymore.
+     */
+    public synchronized void shutdown() {
+        shutDown = true;
+        if (timer != null)
+            timer.shutdownNow();
+    }
+
+    /**
+     * @return  how many retries were scheduled so far
+     */
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    private ScheduledExecutorService getTimer() {
+        if (timer == null) {
+            timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "retry-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return timer;
+    }
+}
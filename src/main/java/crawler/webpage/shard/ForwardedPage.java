@@ -0,0 +1,62 @@
+package crawler.webpage.shard;
+
+import org.json.JSONObject;
+
+/**
+ * A page discovered by one shard whose host belongs to another shard.
+ */
+public class ForwardedPage {
+    private final String url;
+    private final int remainingDepth, parentShard, index;
+    private final long parentId;
+
+    /**
+     * @param url               the URL of the page
+     * @param remainingDepth    the remaining depth of the page
+     * @param parentShard       the shard that loaded the parent
+     * @param parentId          the id of the parent within its shard
+     * @param index             the position of the page in the children of the parent
+     */
+    public ForwardedPage(String url, int remainingDepth, int parentShard, long parentId, int index) {
+        this.url = url;
+        this.remainingDepth = remainingDepth;
+        this.parentShard = parentShard;
+        this.parentId = parentId;
+        this.index = index;
+    }
+
+    public static ForwardedPage fromJSONObject(JSONObject json) {
+        return new ForwardedPage(json.getString("url"), json.getInt("depth"),
+                json.getInt("parentShard"), json.getLong("parentId"), json.getInt("index"));
+    }
+
+    public JSONObject asJSONObject() {
+        JSONObject json = new JSONObject();
+        json.put("url", url);
+        json.put("depth", remainingDepth);
+        json.put("parentShard", parentShard);
+        json.put("parentId", parentId);
+        json.put("index", index);
+        return json;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getRemainingDepth() {
+        return remainingDepth;
+    }
+
+    public int getParentShard() {
+        return parentShard;
+    }
+
+    public long getParentId() {
+        return parentId;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+}
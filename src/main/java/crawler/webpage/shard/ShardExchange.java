@@ -0,0 +1,278 @@
+package crawler.webpage.shard;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exchanges forwarded pages, status and results between the shards of one crawl through a shared directory,
+ * so the shards only need a common file system. <br>
+ * Every shard appends the pages for another shard as JSON lines to its own file in the inbox of that shard
+ * and reads its inbox from the offsets it reached so far, so there is exactly one writer per file. <br>
+ * The status files are replaced atomically and contain how many pages a shard sent to and received from every other shard,
+ * which is used to detect when the whole crawl is finished.
+ */
+public class ShardExchange implements Closeable {
+
+    private final Path directory;
+    private final int shardIndex, shardCount;
+
+    private final BufferedWriter[] outboxes;
+    private final long[] sentPages, receivedPages, inboxOffsets;
+
+    /**
+     * @param directory     the directory shared by all shards, it is created if it doesn't exist
+     * @param shardIndex    the shard of this process
+     * @param shardCount    the amount of shards
+     * @throws IOException if the directory can't be created
+     */
+    public ShardExchange(Path directory, int shardIndex, int shardCount) throws IOException {
+        this.directory = directory;
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+        this.outboxes = new BufferedWriter[shardCount];
+        this.sentPages = new long[shardCount];
+        this.receivedPages = new long[shardCount];
+        this.inboxOffsets = new long[shardCount];
+
+        Files.createDirectories(getInbox(shardIndex));
+    }
+
+    /**
+     * Deletes the files of a previous crawl from the directory, must be called before any shard is started.
+     *
+     * @param directory the directory shared by all shards
+     * @throws IOException if a file can't be deleted
+     */
+    public static void clear(Path directory) throws IOException {
+        if (!Files.isDirectory(directory))
+            return;
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<Path> exchangeFiles = files
+                    .filter(file -> !file.equals(directory))
+                    .filter(file -> directory.relativize(file).getName(0).toString().matches("(inbox|status|result)-.*"))
+                    .sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList());
+            for (Path file : exchangeFiles)
+                Files.delete(file);
+        }
+    }
+
+    /**
+     * Appends the page to the inbox of the target shard, it's visible to the target after the next flush().
+     *
+     * @param targetShard   the shard owning the host of the page
+     * @param page          the page to forward
+     * @throws IOException if the page can't be written
+     */
+    public synchronized void forward(int targetShard, ForwardedPage page) throws IOException {
+        if (outboxes[targetShard] == null) {
+            Files.createDirectories(getInbox(targetShard));
+            outboxes[targetShard] = Files.newBufferedWriter(getInbox(targetShard).resolve("from-" + shardIndex + ".jsonl"),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        outboxes[targetShard].write(page.asJSONObject() + "\n");
+        sentPages[targetShard]++;
+    }
+
+    /**
+     * Writes all forwarded pages to their inboxes.
+     *
+     * @throws IOException if the pages can't be written
+     */
+    public synchronized void flush() throws IOException {
+        for (BufferedWriter outbox : outboxes)
+            if (outbox != null)
+                outbox.flush();
+    }
+
+    /**
+     * Reads the pages other shards forwarded to this shard since the last call,
+     * lines which aren't completely written yet are read by a later call.
+     *
+     * @return  the newly forwarded pages
+     * @throws IOException if the inbox can't be read
+     */
+    public synchronized List<ForwardedPage> receive() throws IOException {
+        ArrayList<ForwardedPage> pages = new ArrayList<>();
+
+        for (int sourceShard = 0; sourceShard < shardCount; sourceShard++) {
+            Path inboxFile = getInbox(shardIndex).resolve("from-" + sourceShard + ".jsonl");
+            if (sourceShard == shardIndex || !Files.exists(inboxFile))
+                continue;
+
+            byte[] newBytes;
+            try (FileChannel channel = FileChannel.open(inboxFile, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) (channel.size() - inboxOffsets[sourceShard]));
+                while (buffer.hasRemaining() && channel.read(buffer, inboxOffsets[sourceShard] + buffer.position()) > 0);
+                newBytes = Arrays.copyOf(buffer.array(), buffer.position());
+            }
+
+            int lineStart = 0;
+            for (int i = 0; i < newBytes.length; i++) {
+                if (newBytes[i] != '\n')
+                    continue;
+
+                String line = new String(newBytes, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                pages.add(ForwardedPage.fromJSONObject(new JSONObject(line)));
+                receivedPages[sourceShard]++;
+                lineStart = i + 1;
+            }
+            inboxOffsets[sourceShard] += lineStart;
+        }
+
+        return pages;
+    }
+
+    /**
+     * Replaces the status of this shard, forwarded pages have to be flushed before.
+     *
+     * @param idle  whether this shard has nothing to load at the moment
+     * @throws IOException if the status can't be written
+     */
+    public synchronized void publishStatus(boolean idle) throws IOException {
+        JSONObject status = new JSONObject();
+        status.put("idle", idle);
+        status.put("sent", new JSONArray(sentPages));
+        status.put("received", new JSONArray(receivedPages));
+
+        replaceAtomically(getStatusFile(shardIndex), status.toString());
+    }
+
+    /**
+     * Checks if every shard is idle and every forwarded page has been received. <br>
+     * The status files are read twice and have to be equal, a shard which became busy in between
+     * must have received a page, which would change its status.
+     *
+     * @return  true once no shard will load any more pages
+     * @throws IOException if a status can't be read
+     */
+    public boolean allShardsFinished() throws IOException {
+        long[][][] firstSnapshot = readStatuses();
+        if (firstSnapshot == null || !isFinished(firstSnapshot))
+            return false;
+
+        return Arrays.deepEquals(firstSnapshot, readStatuses());
+    }
+
+    /**
+     * Replaces the result of this shard.
+     *
+     * @param result    the pages this shard loaded
+     * @throws IOException if the result can't be written
+     */
+    public void publishResult(JSONObject result) throws IOException {
+        replaceAtomically(getResultFile(shardIndex), result.toString());
+    }
+
+    /**
+     * Waits until every shard published its result.
+     *
+     * @param pollIntervalMillis    how long to wait between checks
+     * @return                      the results ordered by shard
+     * @throws IOException if a result can't be read
+     * @throws InterruptedException when interrupted
+     */
+    public List<JSONObject> awaitResults(long pollIntervalMillis) throws IOException, InterruptedException {
+        ArrayList<JSONObject> results = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            while (!Files.exists(getResultFile(shard)))
+                Thread.sleep(pollIntervalMillis);
+            results.add(new JSONObject(Files.readString(getResultFile(shard))));
+        }
+        return results;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (BufferedWriter outbox : outboxes)
+            if (outbox != null)
+                outbox.close();
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return  per shard its idle flag, sent and received counts, null if a shard has no status yet
+     */
+    private long[][][] readStatuses() throws IOException {
+        long[][][] statuses = new long[shardCount][][];
+        for (int shard = 0; shard < shardCount; shard++) {
+            JSONObject status;
+            try {
+                status = new JSONObject(Files.readString(getStatusFile(shard)));
+            } catch (NoSuchFileException | JSONException e) {
+                return null;
+            }
+
+            statuses[shard] = new long[][] {
+                    { status.getBoolean("idle") ? 1 : 0 },
+                    toLongArray(status.getJSONArray("sent")),
+                    toLongArray(status.getJSONArray("received"))
+            };
+        }
+        return statuses;
+    }
+
+    private boolean isFinished(long[][][] statuses) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (statuses[shard][0][0] == 0)
+                return false;
+            for (int target = 0; target < shardCount; target++)
+                if (statuses[shard][1][target] != statuses[target][2][shard])
+                    return false;
+        }
+        return true;
+    }
+
+    private void replaceAtomically(Path file, String content) throws IOException {
+        Path tempFile = directory.resolve(file.getFileName() + ".tmp");
+        Files.writeString(tempFile, content);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long[] toLongArray(JSONArray array) {
+        long[] values = new long[array.length()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = array.getLong(i);
+        return values;
+    }
+
+    private Path getInbox(int shard) {
+        return directory.resolve("inbox-" + shard);
+    }
+
+    private Path getStatusFile(int shard) {
+        return directory.resolve("status-" + shard + ".json");
+    }
+
+    private Path getResultFile(int shard) {
+        return directory.resolve("result-" + shard + ".json");
+    }
+}
@@ -0,0 +1,37 @@
+package crawler.webpage.shard;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Assigns every host to one shard by the hash of its name,
+ * so all pages of a host are loaded by the same process.
+ */
+public class ShardPartitioner {
+
+    private final int shardCount;
+
+    /**
+     * @param shardCount    amount of shards the hosts are distributed over
+     */
+    public ShardPartitioner(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * {@link String#hashCode()} is specified, so every process assigns a host to the same shard.
+     *
+     * @param uri   the URI to assign
+     * @return      the index of the shard owning the host of the URI
+     */
+    public int shardOf(URI uri) {
+        String host = uri.getHost();
+        if (host == null)
+            return 0;
+        return Math.floorMod(host.toLowerCase(Locale.ROOT).hashCode(), shardCount);
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+}
@@ -0,0 +1,99 @@
+package crawler.webpage.shard;
+
+import crawler.util.Util;
+import crawler.webpage.Webpage;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Assembles the results of all shards into the same JSON tree a crawl in a single process produces.
+ */
+public class ShardResultMerger {
+
+    private final HashMap<String, JSONObject> pages = new HashMap<>();
+    private final HashMap<String, ArrayList<JSONObject>> childRecords = new HashMap<>();
+    private final HashMap<Integer, String> rootPageKeys = new HashMap<>();
+
+    private ShardResultMerger() {}
+
+    /**
+     * Root pages which no shard loaded, e.g. because the budget ran out, are taken from the given root pages.
+     *
+     * @param results   the results of all shards as published by {@link ShardedCrawl}
+     * @param rootPages the root pages of the crawl
+     * @return          a JSONObject containing the root pages and their children under "webpages"
+     */
+    public static JSONObject merge(List<JSONObject> results, List<Webpage> rootPages) {
+        ShardResultMerger merger = new ShardResultMerger();
+        for (JSONObject result : results)
+            merger.addResult(result);
+
+        JSONArray rootPagesJSONArray = new JSONArray();
+        for (int i = 0; i < rootPages.size(); i++) {
+            String key = merger.rootPageKeys.get(i);
+            rootPagesJSONArray.put(key == null ? rootPages.get(i).asJSONObject() : merger.assemble(key));
+        }
+
+        JSONObject rootPagesAsJSON = new JSONObject();
+        rootPagesAsJSON.put("webpages", rootPagesJSONArray);
+        return rootPagesAsJSON;
+    }
+
+    private void addResult(JSONObject result) {
+        int shard = result.getInt("shard");
+        JSONArray records = result.getJSONArray("pages");
+
+        for (int i = 0; i < records.length(); i++) {
+            JSONObject record = records.getJSONObject(i);
+            String key = toKey(shard, record.getLong("id"));
+            pages.put(key, withOrderedKeys(record.getJSONObject("page"), record.getJSONArray("keys")));
+
+            if (record.has("root"))
+                rootPageKeys.put(record.getInt("root"), key);
+            else
+                childRecords.computeIfAbsent(toKey(record.getInt("parentShard"), record.getLong("parentId")), parent -> new ArrayList<>())
+                        .add(withKey(record, key));
+        }
+    }
+
+    /**
+     * Puts the children below the page the same way as {@link Webpage#asJSONObject()}.
+     */
+    private JSONObject assemble(String key) {
+        JSONObject page = pages.get(key);
+        if (page.has("error") || !childRecords.containsKey(key))
+            return page;
+
+        ArrayList<JSONObject> children = childRecords.get(key);
+        children.sort(Comparator.comparingInt(child -> child.getInt("index")));
+
+        JSONArray childrenArr = new JSONArray();
+        for (JSONObject child : children)
+            childrenArr.put(assemble(child.getString("key")));
+        page.put("children", childrenArr);
+        return page;
+    }
+
+    private static JSONObject withOrderedKeys(JSONObject page, JSONArray keys) {
+        JSONObject orderedPage = Util.makeJSONObjectWithOrderedKeys();
+        for (int i = 0; i < keys.length(); i++)
+            orderedPage.put(keys.getString(i), page.get(keys.getString(i)));
+        return orderedPage;
+    }
+
+    private static JSONObject withKey(JSONObject record, String key) {
+        JSONObject child = new JSONObject();
+        child.put("index", record.getInt("index"));
+        child.put("key", key);
+        return child;
+    }
+
+    private static String toKey(int shard, long id) {
+        return shard + ":" + id;
+    }
+}
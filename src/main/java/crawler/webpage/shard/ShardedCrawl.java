@@ -0,0 +1,216 @@
+package crawler.webpage.shard;
+
+import crawler.webpage.CrawlBudget;
+import crawler.webpage.CrawlObserver;
+import crawler.webpage.Webpage;
+import crawler.webpage.WebpageLoader;
+import crawler.webpage.frontier.CrawlTask;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Crawls the hosts of one shard in rounds. <br>
+ * Every round loads the pages forwarded to this shard with a new loader and forwards the children of other hosts
+ * to their shards, until all shards are idle and every forwarded page was received.
+ * Afterwards the loaded pages are published as a flat list, which {@link ShardResultMerger} turns back into the tree.
+ */
+public class ShardedCrawl implements CrawlObserver {
+
+    public static final long POLL_INTERVAL_MILLIS = 50;
+
+    /**
+     * Creates the loader for every round, the start tasks, observer and budget are set by the ShardedCrawl.
+     */
+    public interface LoaderFactory {
+        WebpageLoader createLoader() throws IOException;
+    }
+
+    private final ShardExchange exchange;
+    private final ShardPartitioner partitioner;
+    private final LoaderFactory loaderFactory;
+    private CrawlBudget budget = CrawlBudget.unlimited();
+
+    private final ConcurrentHashMap<Webpage, Long> pageIds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Webpage, JSONObject> placements = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<CrawlTask> processedTasks = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextPageId = new AtomicLong();
+    private volatile IOException forwardError;
+
+    /**
+     * @param exchange          the exchange shared with the other shards
+     * @param loaderFactory     creates the loader for every round
+     */
+    public ShardedCrawl(ShardExchange exchange, LoaderFactory loaderFactory) {
+        this.exchange = exchange;
+        this.partitioner = new ShardPartitioner(exchange.getShardCount());
+        this.loaderFactory = loaderFactory;
+    }
+
+    /**
+     * Crawls until every shard is finished and publishes the result of this shard. <br>
+     * Every shard has to be started with the same root pages,
+     * pages forwarded from other shards get the settings of the first root page.
+     *
+     * @param rootPages the root pages of the crawl, this shard only loads those of its hosts
+     * @param depth     the depth of the crawl
+     * @throws IOException if the exchange fails
+     * @throws InterruptedException when interrupted
+     */
+    public void crawl(ArrayList<Webpage> rootPages, int depth) throws IOException, InterruptedException {
+        ArrayList<CrawlTask> tasks = new ArrayList<>();
+        for (int i = 0; i < rootPages.size(); i++) {
+            Webpage rootPage = rootPages.get(i);
+            if (partitioner.shardOf(rootPage.getPageURI()) != exchange.getShardIndex())
+                continue;
+
+            JSONObject placement = new JSONObject();
+            placement.put("root", i);
+            placements.put(rootPage, placement);
+            tasks.add(new CrawlTask(rootPage, depth));
+        }
+
+        while (true) {
+            if (!tasks.isEmpty()) {
+                WebpageLoader loader = loaderFactory.createLoader();
+                loader.setStartTasks(tasks);
+                loader.setCrawlObserver(this);
+                loader.setBudget(budget);
+                loader.loadPagesRecursivelyAndBlock();
+
+                if (forwardError != null)
+                    throw forwardError;
+                exchange.flush();
+            }
+
+            tasks = receiveTasks(rootPages.get(0));
+            if (tasks.isEmpty()) {
+                exchange.publishStatus(true);
+                if (exchange.allShardsFinished())
+                    break;
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+        }
+
+        exchange.publishResult(getResult());
+    }
+
+    /**
+     * Numbers the page and forwards its children which belong to other shards,
+     * the loader leaves them out through {@link ShardedCrawl#shouldSchedule(CrawlTask)}.
+     *
+     * @param task  the processed task
+     */
+    @Override
+    public void pageProcessed(CrawlTask task) {
+        long id = nextPageId.getAndIncrement();
+        pageIds.put(task.getPage(), id);
+        processedTasks.add(task);
+
+        int childDepth = task.getRemainingDepth() - 1;
+        if (childDepth < 1)
+            return;
+
+        List<Webpage> children = task.getPage().getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            URI childURI = children.get(i).getPageURI();
+            int owner = partitioner.shardOf(childURI);
+            if (owner == exchange.getShardIndex())
+                continue;
+
+            try {
+                exchange.forward(owner, new ForwardedPage(childURI.toString(), childDepth, exchange.getShardIndex(), id, i));
+            } catch (IOException e) {
+                forwardError = e;
+            }
+        }
+    }
+
+    /**
+     * Leaves out the pages of other shards, they are forwarded by {@link ShardedCrawl#pageProcessed(CrawlTask)} instead,
+     * so they don't take a place in the frontier, a DNS lookup or a page of the budget of this shard.
+     *
+     * @param task  the task about to be scheduled
+     * @return      true if this shard owns the host of the page
+     */
+    @Override
+    public boolean shouldSchedule(CrawlTask task) {
+        return partitioner.shardOf(task.getPage().getPageURI()) == exchange.getShardIndex();
+    }
+
+    /**
+     * Sets the limits of this shard, it spans all rounds.
+     * Defaults to {@link CrawlBudget#unlimited()}.
+     *
+     * @param newBudget the budget to use
+     */
+    public void setBudget(CrawlBudget newBudget) {
+        budget = newBudget;
+    }
+
+    /**
+     * Returns the pages this shard loaded, each with its id and its place in the tree:
+     * the index of the root page, or the shard and id of its parent and its index among the children. <br>
+     * The keys of the page are listed separately, since parsing the result doesn't keep their order.
+     *
+     * @return  the result of this shard as JSONObject
+     */
+    public JSONObject getResult() {
+        JSONArray pages = new JSONArray();
+        for (CrawlTask task : processedTasks) {
+            Webpage page = task.getPage();
+            if (page.loadingWasPreventedByFilter())
+                continue;
+
+            JSONObject record = placements.containsKey(page) ? placements.get(page) : getLocalPlacement(task);
+            if (record == null)
+                continue;
+
+            JSONObject content = page.asJSONObjectWithoutChildren();
+            record.put("id", pageIds.get(page));
+            record.put("keys", new JSONArray(content.keySet()));
+            record.put("page", content);
+            pages.put(record);
+        }
+
+        JSONObject result = new JSONObject();
+        result.put("shard", exchange.getShardIndex());
+        result.put("pages", pages);
+        return result;
+    }
+
+    private JSONObject getLocalPlacement(CrawlTask task) {
+        Long parentId = pageIds.get(task.getParent());
+        int index = task.getParent().getChildren().indexOf(task.getPage());
+        if (parentId == null || index < 0)
+            return null;
+
+        JSONObject placement = new JSONObject();
+        placement.put("parentShard", exchange.getShardIndex());
+        placement.put("parentId", parentId);
+        placement.put("index", index);
+        return placement;
+    }
+
+    private ArrayList<CrawlTask> receiveTasks(Webpage settingsPage) throws IOException {
+        ArrayList<CrawlTask> tasks = new ArrayList<>();
+        for (ForwardedPage forwardedPage : exchange.receive()) {
+            Webpage page = settingsPage.createPageWithSameSettings(URI.create(forwardedPage.getUrl()));
+
+            JSONObject placement = new JSONObject();
+            placement.put("parentShard", forwardedPage.getParentShard());
+            placement.put("parentId", forwardedPage.getParentId());
+            placement.put("index", forwardedPage.getIndex());
+            placements.put(page, placement);
+            tasks.add(new CrawlTask(page, forwardedPage.getRemainingDepth()));
+        }
+        return tasks;
+    }
+}
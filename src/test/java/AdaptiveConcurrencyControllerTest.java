@@ -0,0 +1,193 @@
+import crawler.webpage.concurrency.AdaptiveConcurrencyController;
+import crawler.webpage.concurrency.ConcurrencyDecision;
+import crawler.webpage.concurrency.FetchOutcome;
+import crawler.webpage.concurrency.LatencyWindow;
+import org.jsoup.HttpStatusException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyControllerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10), SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    @DisplayName("Test if the limit grows by about one per round of successful fetches up to the max")
+    void testAdditiveIncrease() {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(2, 5, 4);
+
+        // 2 + 1/2 + 1/2.5 + 1/2.9
+        record(controller, 3, FAST, FetchOutcome.SUCCESS);
+        assertEquals(3, controller.getLimit());
+
+        record(controller, 100, FAST, FetchOutcome.SUCCESS);
+        assertEquals(5, controller.getLimit());
+        assertEquals(4, controller.getHostLimit("a.test"));
+    }
+
+    @Test
+    @DisplayName("Test if an overloaded host halves only its own limit, once per round of requests")
+    void testOverload() {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(8, 8, 8);
+
+        controller.record("a.test", FAST, FetchOutcome.OVERLOADED);
+        controller.record("a.test", FAST, FetchOutcome.OVERLOADED);
+
+        assertEquals(4, controller.getHostLimit("a.test"));
+        assertEquals(8, controller.getHostLimit("b.test"));
+        assertEquals(8, controller.getLimit());
+
+        record(controller, 4, FAST, FetchOutcome.OVERLOADED);
+        assertEquals(2, controller.getHostLimit("a.test"));
+    }
+
+    @Test
+    @DisplayName("Test if too many timeouts halve the host and the global limit")
+    void testTimeouts() {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(8, 8, 8);
+        ArrayList<ConcurrencyDecision> decisions = new ArrayList<>();
+        controller.setListener(decisions::add);
+
+        record(controller, 12, FAST, FetchOutcome.ERROR);
+        record(controller, 4, FAST, FetchOutcome.TIMEOUT);
+
+        assertEquals(4, controller.getLimit());
+        assertEquals(4, controller.getHostLimit("a.test"));
+        assertEquals(2, decisions.size());
+        for (ConcurrencyDecision decision : decisions) {
+            assertEquals(ConcurrencyDecision.Reason.TIMEOUTS, decision.getReason());
+            assertEquals(8, decision.getPreviousLimit());
+            assertEquals(4, decision.getNewLimit());
+        }
+    }
+
+    @Test
+    @DisplayName("Test if a rising 90th percentile latency lowers the limit of the host before the median rises")
+    void testLatency() {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(20, 20, 20);
+        ArrayList<ConcurrencyDecision> decisions = new ArrayList<>();
+        controller.setListener(decisions::add);
+
+        record(controller, AdaptiveConcurrencyController.WINDOW_SIZE, FAST, FetchOutcome.SUCCESS);
+        assertEquals(20, controller.getHostLimit("a.test"));
+
+        // the 90th percentile turns slow once more than a tenth of the window is slow
+        record(controller, AdaptiveConcurrencyController.WINDOW_SIZE / 10 + 1, SLOW, FetchOutcome.SUCCESS);
+
+        assertEquals(18, controller.getHostLimit("a.test"));
+        assertEquals(20, controller.getLimit());
+        assertEquals(1, decisions.size());
+        ConcurrencyDecision hostDecision = decisions.get(0);
+        assertEquals("a.test", hostDecision.getScope());
+        assertEquals(ConcurrencyDecision.Reason.LATENCY, hostDecision.getReason());
+        assertEquals(FAST, hostDecision.getP50Nanos());
+        assertEquals(SLOW, hostDecision.getP90Nanos());
+        assertEquals("latency", hostDecision.asJSONObject().getString("reason"));
+    }
+
+    @Test
+    @DisplayName("Test if a host that stays slow after a latency cut isn't cut again")
+    void testLatencyReferenceReset() {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(20, 20, 20);
+        ArrayList<ConcurrencyDecision> decisions = new ArrayList<>();
+        controller.setListener(decisions::add);
+
+        record(controller, AdaptiveConcurrencyController.WINDOW_SIZE, FAST, FetchOutcome.SUCCESS);
+        record(controller, 4 * AdaptiveConcurrencyController.WINDOW_SIZE, SLOW, FetchOutcome.SUCCESS);
+
+        assertEquals(1, decisions.stream().filter(decision -> decision.getReason() == ConcurrencyDecision.Reason.LATENCY).count());
+        assertEquals(20, controller.getHostLimit("a.test"));
+    }
+
+    @Test
+    @DisplayName("Test if the global limit isn't lowered when a slow host joins fast ones")
+    void testMixedHostLatency() {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(20, 20, 20);
+
+        for (int i = 0; i < AdaptiveConcurrencyController.WINDOW_SIZE; i++)
+            controller.record("fast.test", FAST, FetchOutcome.SUCCESS);
+        // the slow host was always this slow, so neither limit is congested
+        for (int i = 0; i < AdaptiveConcurrencyController.WINDOW_SIZE; i++)
+            controller.record("slow.test", SLOW, FetchOutcome.SUCCESS);
+
+        assertEquals(20, controller.getLimit());
+        assertEquals(20, controller.getHostLimit("fast.test"));
+        assertEquals(20, controller.getHostLimit("slow.test"));
+    }
+
+    @Test
+    @DisplayName("Test if no more slots than the limit can be acquired until one is released")
+    void testAcquire() throws InterruptedException {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(1, 2, 1);
+        controller.acquire();
+
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            try {
+                controller.acquire();
+                acquired.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        waiter.join(100);
+        assertFalse(acquired.get());
+
+        controller.release();
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> waiter.join());
+        assertTrue(acquired.get());
+    }
+
+    @Test
+    @DisplayName("Test if the percentiles and the timeout rate only cover the last fetches")
+    void testLatencyWindow() {
+        LatencyWindow window = new LatencyWindow(4);
+        window.add(40, FetchOutcome.SUCCESS);
+        window.add(10, FetchOutcome.SUCCESS);
+        window.add(0, FetchOutcome.TIMEOUT);
+        window.add(30, FetchOutcome.SUCCESS);
+
+        assertEquals(30, window.percentile(0.5));
+        assertEquals(40, window.percentile(0.9));
+        assertEquals(0.25, window.timeoutRate());
+
+        window.add(20, FetchOutcome.SUCCESS);
+        window.add(20, FetchOutcome.SUCCESS);
+        window.add(20, FetchOutcome.SUCCESS);
+
+        assertEquals(20, window.percentile(0.5));
+        assertEquals(30, window.percentile(0.9));
+        assertEquals(0, window.timeoutRate());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if fetch errors are classified by their congestion signal")
+    @CsvSource({
+            "429, OVERLOADED",
+            "503, OVERLOADED",
+            "404, ERROR",
+            "500, ERROR"
+    })
+    void testFetchOutcome(int statusCode, FetchOutcome expectedOutcome) {
+        assertEquals(expectedOutcome, FetchOutcome.of(new HttpStatusException("HTTP error", statusCode, "https://a.test")));
+        assertEquals(FetchOutcome.TIMEOUT, FetchOutcome.of(new SocketTimeoutException()));
+        assertEquals(FetchOutcome.ERROR, FetchOutcome.of(new IOException()));
+        assertEquals(FetchOutcome.SUCCESS, FetchOutcome.of(null));
+    }
+
+    private static void record(AdaptiveConcurrencyController controller, int times, long latencyNanos, FetchOutcome outcome) {
+        for (int i = 0; i < times; i++)
+            controller.record("a.test", latencyNanos, outcome);
+    }
+}
@@ -0,0 +1,138 @@
+import crawler.webpage.AsyncWebpageLoader;
+import crawler.webpage.CrawlBudget;
+import crawler.webpage.Webpage;
+import crawler.webpage.checkpoint.CheckpointJournal;
+import crawler.webpage.filter.RobotsLoadFilter;
+import crawler.webpage.frontier.CrawlTask;
+import mocks.LocalFileFetcher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointJournalTest {
+
+    @TempDir
+    Path checkpointDirectory;
+
+    @Test
+    @DisplayName("Test if a finished crawl is restored completely without loading anything")
+    void testRestoreFinishedCrawl() throws Exception {
+        ArrayList<Webpage> crawledRootPages = crawl(CrawlBudget.unlimited());
+
+        ArrayList<Webpage> restoredRootPages = newRootPages();
+        CheckpointJournal journal = new CheckpointJournal(checkpointDirectory, 1000);
+        List<CrawlTask> startTasks = journal.restore(restoredRootPages, 2);
+
+        assertTrue(startTasks.isEmpty());
+        assertEquals(crawledRootPages.get(0).asJSONObject().toString(), restoredRootPages.get(0).asJSONObject().toString());
+    }
+
+    @Test
+    @DisplayName("Test if an interrupted crawl continues with the pages which weren't journaled")
+    void testResumeInterruptedCrawl() throws Exception {
+        ArrayList<Webpage> completeRootPages = newRootPages();
+        new AsyncWebpageLoader(completeRootPages, 2, 1).loadPagesRecursivelyAndBlock();
+
+        // only the root page gets loaded and journaled
+        crawl(new CrawlBudget(1, CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED));
+
+        ArrayList<Webpage> resumedRootPages = newRootPages();
+        CheckpointJournal journal = new CheckpointJournal(checkpointDirectory, 1000);
+        List<CrawlTask> startTasks = journal.restore(resumedRootPages, 2);
+        assertEquals(3, startTasks.size());
+
+        AsyncWebpageLoader loader = new AsyncWebpageLoader(resumedRootPages, 2, 1);
+        loader.setStartTasks(startTasks);
+        loader.setCrawlObserver(journal);
+        journal.start();
+        loader.loadPagesRecursivelyAndBlock();
+        journal.close();
+
+        assertEquals(withoutLoadTimes(completeRootPages.get(0)), withoutLoadTimes(resumedRootPages.get(0)));
+        assertEquals(4, Files.readAllLines(journal.getJournalFile()).size());
+    }
+
+    @Test
+    @DisplayName("Test if a partially written last record is cut off when restoring")
+    void testPartialRecord() throws Exception {
+        crawl(CrawlBudget.unlimited());
+        Path journalFile = checkpointDirectory.resolve(CheckpointJournal.JOURNAL_FILE_NAME);
+        long validLength = Files.size(journalFile);
+        Files.write(journalFile, "{\"type\":\"page\",\"id\":".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        CheckpointJournal journal = new CheckpointJournal(checkpointDirectory, 1000);
+        List<CrawlTask> startTasks = journal.restore(newRootPages(), 2);
+
+        assertTrue(startTasks.isEmpty());
+        assertEquals(validLength, Files.size(journalFile));
+    }
+
+    @Test
+    @DisplayName("Test if the journal starts over when the crawl isn't resumed")
+    void testStartOver() throws Exception {
+        crawl(CrawlBudget.unlimited());
+        crawl(new CrawlBudget(1, CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED));
+
+        Path journalFile = checkpointDirectory.resolve(CheckpointJournal.JOURNAL_FILE_NAME);
+        assertEquals(1, Files.readAllLines(journalFile).size());
+    }
+
+    @Test
+    @DisplayName("Test if journaled robots.txt files are put into the cache")
+    void testRestoreRobotsTxt() throws IOException, URISyntaxException {
+        Files.write(checkpointDirectory.resolve(CheckpointJournal.JOURNAL_FILE_NAME),
+                "{\"type\":\"robots\",\"host\":\"restored.test\",\"source\":\"User-agent: *\\nDisallow: /\"}\n".getBytes(StandardCharsets.UTF_8));
+
+        new CheckpointJournal(checkpointDirectory, 1000).restore(newRootPages(), 2);
+
+        assertEquals("User-agent: *\nDisallow: /", RobotsLoadFilter.getRobotsTxtSources().get("restored.test"));
+    }
+
+    @Test
+    @DisplayName("Test if the root pages are the start tasks when there is no journal")
+    void testRestoreWithoutJournal() throws IOException, URISyntaxException {
+        ArrayList<Webpage> rootPages = newRootPages();
+
+        List<CrawlTask> startTasks = new CheckpointJournal(checkpointDirectory, 1000).restore(rootPages, 2);
+
+        assertEquals(1, startTasks.size());
+        assertSame(rootPages.get(0), startTasks.get(0).getPage());
+        assertEquals(2, startTasks.get(0).getRemainingDepth());
+    }
+
+    private ArrayList<Webpage> crawl(CrawlBudget budget) throws Exception {
+        ArrayList<Webpage> rootPages = newRootPages();
+
+        CheckpointJournal journal = new CheckpointJournal(checkpointDirectory, 1000);
+        AsyncWebpageLoader loader = new AsyncWebpageLoader(rootPages, 2, 1);
+        loader.setCrawlObserver(journal);
+        loader.setBudget(budget);
+        journal.start();
+        loader.loadPagesRecursivelyAndBlock();
+        journal.close();
+
+        return rootPages;
+    }
+
+    private static ArrayList<Webpage> newRootPages() throws URISyntaxException {
+        Webpage rootPage = new Webpage("3-children");
+        rootPage.setFetcher(new LocalFileFetcher());
+        return new ArrayList<>(Collections.singletonList(rootPage));
+    }
+
+    private static String withoutLoadTimes(Webpage page) {
+        return page.asJSONObject().toString().replaceAll("\"nanoLoadTime\":\\d+", "");
+    }
+}
@@ -0,0 +1,97 @@
+import crawler.webpage.CrawlBudget;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CrawlBudgetTest {
+
+    @Test
+    @DisplayName("Test if an unlimited budget never runs out")
+    void testUnlimited() {
+        CrawlBudget budget = CrawlBudget.unlimited();
+        budget.start();
+
+        for (int i = 0; i < 1000; i++)
+            assertTrue(budget.tryStartPage());
+        budget.recordBytes(Long.MAX_VALUE / 2);
+
+        assertFalse(budget.isExhausted());
+        assertNull(budget.getExhaustedBy());
+        assertEquals(CrawlBudget.UNLIMITED, budget.getRemainingNanos());
+    }
+
+    @Test
+    @DisplayName("Test if no more pages than the page limit can be started")
+    void testPageLimit() {
+        CrawlBudget budget = new CrawlBudget(3, CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED);
+        budget.start();
+
+        assertTrue(budget.tryStartPage());
+        assertTrue(budget.tryStartPage());
+        assertTrue(budget.tryStartPage());
+        assertFalse(budget.tryStartPage());
+
+        assertTrue(budget.isExhausted());
+        assertEquals("pages", budget.getExhaustedBy());
+        assertEquals(3, budget.getStartedPages());
+    }
+
+    @Test
+    @DisplayName("Test if the page limit holds when many threads start pages at once")
+    void testPageLimitConcurrently() throws Exception {
+        CrawlBudget budget = new CrawlBudget(500, CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED);
+        budget.start();
+        AtomicInteger startedPages = new AtomicInteger();
+
+        ExecutorService threadPool = Executors.newFixedThreadPool(8);
+        ArrayList<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            workers.add(threadPool.submit(() -> {
+                for (int page = 0; page < 1000; page++)
+                    if (budget.tryStartPage())
+                        startedPages.incrementAndGet();
+            }));
+        for (Future<?> worker : workers)
+            worker.get();
+        threadPool.shutdown();
+
+        assertEquals(500, startedPages.get());
+        assertEquals(500, budget.getStartedPages());
+    }
+
+    @Test
+    @DisplayName("Test if the budget is exhausted once the byte limit is reached")
+    void testByteLimit() {
+        CrawlBudget budget = new CrawlBudget(CrawlBudget.UNLIMITED, 100, CrawlBudget.UNLIMITED);
+        budget.start();
+
+        budget.recordBytes(60);
+        assertTrue(budget.tryStartPage());
+
+        budget.recordBytes(60);
+        assertFalse(budget.tryStartPage());
+        assertEquals("bytes", budget.getExhaustedBy());
+        assertEquals(120, budget.getLoadedBytes());
+    }
+
+    @Test
+    @DisplayName("Test if the budget is exhausted once the time limit is reached")
+    void testTimeLimit() throws InterruptedException {
+        CrawlBudget budget = new CrawlBudget(CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED, 20);
+        budget.start();
+
+        assertTrue(budget.tryStartPage());
+        Thread.sleep(50);
+
+        assertFalse(budget.tryStartPage());
+        assertEquals("time", budget.getExhaustedBy());
+        assertEquals(0, budget.getRemainingNanos());
+    }
+}
@@ -0,0 +1,43 @@
+import crawler.webpage.Webpage;
+import crawler.webpage.frontier.CrawlTask;
+import crawler.webpage.frontier.FifoCrawlFrontier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URISyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CrawlFrontierTest {
+
+    FifoCrawlFrontier frontier;
+
+    @BeforeEach
+    void setup() {
+        frontier = new FifoCrawlFrontier();
+    }
+
+    @Test
+    @DisplayName("Test if tasks are taken in the order they were pushed")
+    void testFifoOrder() throws URISyntaxException, InterruptedException {
+        CrawlTask first = new CrawlTask(new Webpage("first"), 2);
+        CrawlTask second = new CrawlTask(new Webpage("second"), 1);
+
+        frontier.push(first);
+        frontier.push(second);
+
+        assertSame(first, frontier.take());
+        assertSame(second, frontier.take());
+    }
+
+    @Test
+    @DisplayName("Test if the size reflects the waiting tasks")
+    void testSize() throws URISyntaxException, InterruptedException {
+        frontier.push(new CrawlTask(new Webpage("first"), 1));
+        frontier.push(new CrawlTask(new Webpage("second"), 1));
+        frontier.take();
+
+        assertEquals(1, frontier.size());
+    }
+}
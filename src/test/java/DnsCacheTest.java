@@ -0,0 +1,198 @@
+import crawler.webpage.Webpage;
+import crawler.webpage.dns.DnsCache;
+import crawler.webpage.dns.HostResolver;
+import crawler.webpage.frontier.CrawlTask;
+import crawler.webpage.frontier.FifoCrawlFrontier;
+import crawler.webpage.frontier.PrefetchingCrawlFrontier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DnsCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(60), NEGATIVE_TTL = Duration.ofSeconds(10);
+
+    private final AtomicInteger resolverCalls = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Test if addresses are cached until their TTL expires")
+    void testTtl() throws UnknownHostException {
+        DnsCache cache = createCache(countingResolver(), 0);
+
+        assertEquals("10.0.0.1", cache.resolve("example.test")[0].getHostAddress());
+        assertEquals("10.0.0.1", cache.resolve("EXAMPLE.test")[0].getHostAddress());
+        assertEquals(1, resolverCalls.get());
+
+        now.addAndGet(TTL.toNanos());
+        cache.resolve("example.test");
+
+        assertEquals(2, resolverCalls.get());
+        assertEquals(3, cache.getRequestCount());
+        assertEquals(2, cache.getLookupCount());
+    }
+
+    @Test
+    @DisplayName("Test if hosts that can't be resolved are cached for the negative TTL")
+    void testNegativeTtl() {
+        DnsCache cache = createCache(host -> {
+            resolverCalls.incrementAndGet();
+            throw new UnknownHostException(host);
+        }, 0);
+
+        assertThrows(UnknownHostException.class, () -> cache.resolve("missing.test"));
+        assertThrows(UnknownHostException.class, () -> cache.resolve("missing.test"));
+        assertEquals("missing.test", cache.resolveAddress("missing.test"));
+        assertEquals(1, resolverCalls.get());
+
+        now.addAndGet(NEGATIVE_TTL.toNanos());
+        assertThrows(UnknownHostException.class, () -> cache.resolve("missing.test"));
+
+        assertEquals(2, resolverCalls.get());
+        assertEquals(2, cache.getFailureCount());
+    }
+
+    @Test
+    @DisplayName("Test if concurrent lookups of the same host share one request to the resolver")
+    void testConcurrentLookups() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        HostResolver resolver = countingResolver();
+        DnsCache cache = createCache(host -> {
+            await(release);
+            return resolver.resolve(host);
+        }, 0);
+
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        List<Future<InetAddress[]>> lookups = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            lookups.add(threads.submit(() -> cache.resolve("example.test")));
+
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<InetAddress[]> lookup : lookups)
+            assertEquals("10.0.0.1", lookup.get(5, TimeUnit.SECONDS)[0].getHostAddress());
+        threads.shutdown();
+
+        assertEquals(1, resolverCalls.get());
+        assertEquals(4, cache.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Test if a prefetched host is resolved on a prefetch thread and served from the cache")
+    void testPrefetch() throws Exception {
+        CountDownLatch resolved = new CountDownLatch(1);
+        List<String> resolvingThreads = new ArrayList<>();
+        HostResolver resolver = countingResolver();
+        DnsCache cache = createCache(host -> {
+            resolvingThreads.add(Thread.currentThread().getName());
+            InetAddress[] addresses = resolver.resolve(host);
+            resolved.countDown();
+            return addresses;
+        }, 1);
+
+        cache.prefetch("example.test");
+        cache.prefetch("example.test");
+        assertTrue(resolved.await(5, TimeUnit.SECONDS));
+        cache.resolve("example.test");
+
+        assertEquals(1, resolverCalls.get());
+        assertEquals(1, cache.getPrefetchCount());
+        assertEquals(List.of("dns-prefetch"), resolvingThreads);
+        cache.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test if prefetch() does nothing without prefetch threads")
+    void testPrefetchDisabled() {
+        DnsCache cache = createCache(countingResolver(), 0);
+
+        cache.prefetch("example.test");
+
+        assertEquals(0, resolverCalls.get());
+        assertEquals(0, cache.getLookupCount());
+    }
+
+    @Test
+    @DisplayName("Test if a host whose prefetch was dropped by shutdown() is resolved on the calling thread")
+    void testShutdownDropsPrefetch() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        HostResolver resolver = countingResolver();
+        DnsCache cache = createCache(host -> {
+            if (Thread.currentThread().getName().equals("dns-prefetch")) {
+                started.countDown();
+                await(new CountDownLatch(1));
+            }
+            return resolver.resolve(host);
+        }, 1);
+
+        cache.prefetch("example.test");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        cache.shutdown();
+
+        assertEquals("10.0.0.1", cache.resolveAddress("example.test"));
+        assertEquals(1, resolverCalls.get());
+    }
+
+    @Test
+    @DisplayName("Test if the frontier prefetches the host of every pushed task once")
+    void testPrefetchingFrontier() throws URISyntaxException, InterruptedException {
+        CountDownLatch resolved = new CountDownLatch(2);
+        HostResolver resolver = countingResolver();
+        DnsCache cache = createCache(host -> {
+            InetAddress[] addresses = resolver.resolve(host);
+            resolved.countDown();
+            return addresses;
+        }, 2);
+        PrefetchingCrawlFrontier frontier = new PrefetchingCrawlFrontier(new FifoCrawlFrontier(), cache);
+
+        frontier.push(new CrawlTask(new Webpage("https://a.test/1"), 1));
+        frontier.push(new CrawlTask(new Webpage("https://a.test/2"), 1));
+        frontier.push(new CrawlTask(new Webpage("https://b.test/"), 1));
+
+        assertTrue(resolved.await(5, TimeUnit.SECONDS));
+        assertEquals(3, frontier.size());
+        assertEquals("https://a.test/1", frontier.take().getPage().getPageURI().toString());
+        assertEquals(2, cache.getPrefetchCount());
+        assertEquals(2, resolverCalls.get());
+        cache.shutdown();
+    }
+
+    private DnsCache createCache(HostResolver resolver, int prefetchThreadCount) {
+        DnsCache cache = new DnsCache(resolver, TTL, NEGATIVE_TTL, prefetchThreadCount);
+        cache.setClock(now::get);
+        return cache;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return  a resolver that counts its calls and resolves every host to 10.0.0.1
+     */
+    private HostResolver countingResolver() {
+        return host -> {
+            resolverCalls.incrementAndGet();
+            return new InetAddress[]{InetAddress.getByAddress(host, new byte[]{10, 0, 0, 1})};
+        };
+    }
+}
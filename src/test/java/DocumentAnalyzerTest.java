@@ -0,0 +1,62 @@
+import crawler.webpage.analysis.DocumentAnalyzer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentAnalyzerTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"10-symbols", "3-children", "4-images", "4-links", "55-words-hyphen", "55-words-numbers", "55-words",
+            "big-pagesize", "invalid-url", "link-to-self", "no-pagetitle", "not-a-http-url", "pagetitle-missing"})
+    @DisplayName("Test if the test sites get the same statistics as with the selectors and the body text")
+    void testTestSites(String site) throws IOException {
+        assertSameAsSelectors(Jsoup.parse(new File(String.format("src/test/java/mocks/test-sites/%s.html", site)), null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "<body>   </body>",
+            "<p>One</p>Two<div>Three<br>Four</div><span>Five</span> <span>Six</span>",
+            "<p>  leading and   trailing  </p>  <p></p>\n\n<div> </div>tail",
+            "<pre>  preserved   spaces\n\tand lines  </pre> after <textarea> a  b </textarea>",
+            "<p>no&nbsp;break&#160;spaces and zero&#8203;width&shy;chars</p>",
+            "<title>  The\n  Title </title><title>Second</title><a href=x>A</a><a>no href</a><A HREF=y>B</A>",
+            "<img src=a.PNG><img src=b.jpg?x=1><img src=c.webp><img alt=none><video></video><video src=v.mp4></video>",
+            "<svg><title>Inside svg</title></svg><p>Text</p>",
+            "<ul><li>one<li>two</ul><table><tr><td>three<td>four</table>",
+    })
+    @DisplayName("Test if whitespace, blocks, preserved text and selector edge cases give the same statistics as with the selectors")
+    void testEdgeCases(String html) {
+        assertSameAsSelectors(Jsoup.parse(html));
+    }
+
+    @Test
+    @DisplayName("Test if a page without a body counts no words instead of failing")
+    void testFrameset() {
+        Document document = Jsoup.parse("<html><head><title>Frames</title></head><frameset><frame src=a.html></frameset></html>");
+        assertNull(document.body());
+
+        DocumentAnalyzer analyzer = DocumentAnalyzer.analyze(document);
+        assertEquals("Frames", analyzer.getTitle());
+        assertEquals(1, analyzer.getWordCount());
+    }
+
+    private static void assertSameAsSelectors(Document document) {
+        DocumentAnalyzer analyzer = DocumentAnalyzer.analyze(document);
+
+        assertEquals(document.title(), analyzer.getTitle());
+        assertEquals(document.select("a[href]").toString(), analyzer.getLinks().toString());
+        assertEquals(document.select("img[src~=(?i)\\.(png|jpe?g|gif|svg)]").toString(), analyzer.getImages().toString());
+        assertEquals(document.select("video").size(), analyzer.getVideos().size());
+        assertEquals(document.body().text().split(" ").length, analyzer.getWordCount());
+    }
+}
@@ -1,11 +1,18 @@
 import crawler.webpage.filter.DuplicateLoadFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,4 +56,32 @@ public class DuplicateFilterTest {
         assertTrue(filter.webpageShouldBeLoaded(new URI(url)));
     }
 
+    @Test
+    @DisplayName("Test if only one of many concurrent checks of the same URL lets it through")
+    void testConcurrentChecks() throws Exception {
+        URI uri = new URI("https://concurrent.test/page");
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> checks = new ArrayList<>();
+        for (int i = 0; i < 64; i++)
+            checks.add(threads.submit(() -> filter.webpageShouldBeLoaded(uri)));
+
+        int letThrough = 0;
+        for (Future<Boolean> check : checks)
+            if (check.get(5, TimeUnit.SECONDS))
+                letThrough++;
+        threads.shutdown();
+
+        assertEquals(1, letThrough);
+    }
+
+    @Test
+    @DisplayName("Test if forgotten URLs are let through again")
+    void testForgetSeenUris() throws URISyntaxException {
+        URI uri = new URI("https://forgotten.test/page");
+        filter.webpageShouldBeLoaded(uri);
+
+        DuplicateLoadFilter.forgetSeenUris();
+
+        assertTrue(filter.webpageShouldBeLoaded(uri));
+    }
 }
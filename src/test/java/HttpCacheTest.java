@@ -0,0 +1,217 @@
+import crawler.webpage.cache.CacheEntry;
+import crawler.webpage.cache.HttpCache;
+import crawler.webpage.fetcher.CachingFetcher;
+import crawler.webpage.fetcher.FetcherType;
+import crawler.webpage.fetcher.HttpClientFetcher;
+import crawler.webpage.fetcher.JsoupFetcher;
+import crawler.webpage.fetcher.RawResponse;
+import mocks.LoopbackServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpCacheTest {
+
+    private static final String PAGE = "<title>Cached</title><a href=\"/child\">child</a>";
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+    @TempDir
+    Path cacheDirectory;
+
+    LoopbackServer server;
+    AtomicInteger sentBodies, notModified;
+
+    @BeforeEach
+    void setup() throws IOException {
+        sentBodies = new AtomicInteger();
+        notModified = new AtomicInteger();
+        server = new LoopbackServer();
+        server.handle("/etag", exchange -> {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                LoopbackServer.respond(exchange, 304, Map.of("ETag", "\"v1\""), new byte[0]);
+                return;
+            }
+            sentBodies.incrementAndGet();
+            LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "text/html; charset=UTF-8", "ETag", "\"v1\""), PAGE.getBytes(StandardCharsets.UTF_8));
+        });
+        server.handle("/last-modified", exchange -> {
+            if (LAST_MODIFIED.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"))) {
+                notModified.incrementAndGet();
+                LoopbackServer.respond(exchange, 304, Map.of(), new byte[0]);
+                return;
+            }
+            sentBodies.incrementAndGet();
+            LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "text/html", "Last-Modified", LAST_MODIFIED), PAGE.getBytes(StandardCharsets.UTF_8));
+        });
+        server.handle("/no-store", exchange -> {
+            sentBodies.incrementAndGet();
+            LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "text/html", "ETag", "\"v1\"", "Cache-Control", "no-store"), PAGE.getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    @AfterEach
+    void teardown() {
+        server.close();
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if a page with an ETag is revalidated on the next crawl and its body is loaded from the cache")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testRevalidateWithETag(FetcherType fetcherType) throws IOException {
+        String location = server.getUrl("/etag");
+        try (HttpCache cache = new HttpCache(cacheDirectory, 1 << 20)) {
+            CachingFetcher fetcher = createFetcher(fetcherType, cache);
+            fetcher.fetchRaw(location, "Crawler");
+        }
+
+        try (HttpCache cache = new HttpCache(cacheDirectory, 1 << 20)) {
+            CachingFetcher fetcher = createFetcher(fetcherType, cache);
+            RawResponse response = fetcher.fetchRaw(location, "Crawler");
+
+            assertEquals(200, response.getStatusCode());
+            assertEquals(PAGE, new String(response.getBody(), StandardCharsets.UTF_8));
+            assertEquals("Cached", fetcher.fetchDocument(location, "Crawler").title());
+            assertEquals(2, fetcher.getRevalidatedCount());
+        }
+
+        assertEquals(1, sentBodies.get());
+        assertEquals(2, notModified.get());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if a page with only a Last-Modified date is revalidated with If-Modified-Since")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testRevalidateWithLastModified(FetcherType fetcherType) throws IOException {
+        try (HttpCache cache = new HttpCache(cacheDirectory, 1 << 20)) {
+            CachingFetcher fetcher = createFetcher(fetcherType, cache);
+            fetcher.fetchRaw(server.getUrl("/last-modified"), "Crawler");
+            RawResponse response = fetcher.fetchRaw(server.getUrl("/last-modified"), "Crawler");
+
+            assertEquals(PAGE, new String(response.getBody(), StandardCharsets.UTF_8));
+            assertEquals(LAST_MODIFIED, response.getHeader("Last-Modified"));
+        }
+
+        assertEquals(1, sentBodies.get());
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    @DisplayName("Test if responses the server doesn't allow to store aren't cached")
+    void testNoStore() throws IOException {
+        try (HttpCache cache = new HttpCache(cacheDirectory, 1 << 20)) {
+            CachingFetcher fetcher = createFetcher(FetcherType.HTTP_CLIENT, cache);
+            fetcher.fetchRaw(server.getUrl("/no-store"), "Crawler");
+            fetcher.fetchRaw(server.getUrl("/no-store"), "Crawler");
+
+            assertEquals(0, cache.size());
+            assertEquals(0, fetcher.getStoredCount());
+        }
+
+        assertEquals(2, sentBodies.get());
+    }
+
+    @Test
+    @DisplayName("Test if a missing body is loaded again unconditionally")
+    void testMissingBody() throws IOException {
+        String location = server.getUrl("/etag");
+        try (HttpCache cache = new HttpCache(cacheDirectory, 1 << 20)) {
+            CachingFetcher fetcher = createFetcher(FetcherType.HTTP_CLIENT, cache);
+            fetcher.fetchRaw(location, "Crawler");
+            Files.delete(cacheDirectory.resolve(HttpCache.BODY_DIRECTORY_NAME).resolve(cache.get(location).getId() + ""));
+
+            assertEquals(PAGE, new String(fetcher.fetchRaw(location, "Crawler").getBody(), StandardCharsets.UTF_8));
+        }
+
+        assertEquals(2, sentBodies.get());
+    }
+
+    @Test
+    @DisplayName("Test if the least recently used bodies are evicted once the cache is full")
+    void testEviction() throws IOException {
+        try (HttpCache cache = new HttpCache(cacheDirectory, 300)) {
+            cache.put("a", "a", "\"a\"", null, "text/html", null, new byte[100]);
+            cache.put("b", "b", "\"b\"", null, "text/html", null, new byte[100]);
+            cache.put("c", "c", "\"c\"", null, "text/html", null, new byte[100]);
+            cache.get("a");
+            cache.put("d", "d", "\"d\"", null, "text/html", null, new byte[100]);
+            cache.put("too large", "too large", "\"e\"", null, "text/html", null, new byte[301]);
+
+            assertNull(cache.get("b"));
+            assertNotNull(cache.get("a"));
+            assertNull(cache.get("too large"));
+            assertEquals(3, cache.size());
+            assertEquals(300, cache.getTotalBytes());
+            assertEquals(3, Files.list(cacheDirectory.resolve(HttpCache.BODY_DIRECTORY_NAME)).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Test if the entries and their order are restored from the index")
+    void testReopen() throws IOException {
+        try (HttpCache cache = new HttpCache(cacheDirectory, 300)) {
+            cache.put("a", "a", "\"a\"", null, "text/html", "UTF-8", "body a".getBytes(StandardCharsets.UTF_8));
+            cache.put("b", "b", null, LAST_MODIFIED, "text/html", null, "body b".getBytes(StandardCharsets.UTF_8));
+            cache.put("c", "c", "\"c\"", null, "text/html", null, "body c".getBytes(StandardCharsets.UTF_8));
+            cache.remove("c");
+            cache.get("a");
+        }
+
+        try (HttpCache cache = new HttpCache(cacheDirectory, 11)) {
+            assertEquals(1, cache.size());
+            assertNull(cache.get("b"));
+
+            CacheEntry entry = cache.get("a");
+            assertEquals("\"a\"", entry.getEtag());
+            assertEquals("UTF-8", entry.getCharset());
+            assertEquals("body a", new String(cache.readBody(entry), StandardCharsets.UTF_8));
+
+            Map<String, String> expectedValidators = new HashMap<>();
+            expectedValidators.put("If-None-Match", "\"a\"");
+            assertEquals(expectedValidators, entry.getValidators());
+        }
+    }
+
+    @Test
+    @DisplayName("Test if a partially written last record of the index is cut off")
+    void testTruncatedIndex() throws IOException {
+        try (HttpCache cache = new HttpCache(cacheDirectory, 300)) {
+            cache.put("a", "a", "\"a\"", null, "text/html", null, new byte[10]);
+            cache.put("b", "b", "\"b\"", null, "text/html", null, new byte[10]);
+        }
+
+        Path index = cacheDirectory.resolve(HttpCache.INDEX_FILE_NAME);
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        try (HttpCache cache = new HttpCache(cacheDirectory, 300)) {
+            assertNotNull(cache.get("a"));
+            assertNull(cache.get("b"));
+            assertEquals(10, cache.getTotalBytes());
+            assertEquals(1, Files.list(cacheDirectory.resolve(HttpCache.BODY_DIRECTORY_NAME)).count());
+        }
+    }
+
+    private static CachingFetcher createFetcher(FetcherType fetcherType, HttpCache cache) {
+        if (fetcherType == FetcherType.HTTP_CLIENT)
+            return new CachingFetcher(new HttpClientFetcher(), cache);
+        return new CachingFetcher(new JsoupFetcher(), cache);
+    }
+}
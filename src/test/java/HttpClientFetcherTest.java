@@ -0,0 +1,288 @@
+import crawler.webpage.fetcher.ContentTypes;
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.fetcher.FetcherType;
+import crawler.webpage.fetcher.HttpClientFetcher;
+import crawler.webpage.fetcher.HttpResponseException;
+import crawler.webpage.fetcher.JsoupFetcher;
+import crawler.webpage.fetcher.NonHtmlContentException;
+import crawler.webpage.fetcher.RawResponse;
+import crawler.webpage.retry.RetryPolicy;
+import mocks.LoopbackServer;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpClientFetcherTest {
+
+    LoopbackServer server;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = new LoopbackServer();
+        server.handle("/page", exchange -> {
+            String userAgent = exchange.getRequestHeaders().getFirst("User-Agent");
+            byte[] body = ("<title>" + userAgent + "</title><a href=\"/child\">child</a>").getBytes(StandardCharsets.UTF_8);
+            LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "text/html; charset=UTF-8"), body);
+        });
+    }
+
+    @AfterEach
+    void teardown() {
+        server.close();
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if a page is loaded with the user agent and its links are resolved against its URL")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testFetchDocument(FetcherType fetcherType) throws IOException {
+        Document document = createFetcher(fetcherType, 5_000).fetchDocument(server.getUrl("/page"), "Crawler");
+
+        assertEquals("Crawler", document.title());
+        assertEquals(server.getUrl("/child"), document.select("a").first().absUrl("href"));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if an error status is thrown with its headers before the content type is checked")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testErrorStatus(FetcherType fetcherType) {
+        server.handle("/overloaded", exchange -> LoopbackServer.respond(exchange, 503,
+                Map.of("Content-Type", "application/json", "Retry-After", "7"), "{}".getBytes(StandardCharsets.UTF_8)));
+
+        HttpResponseException error = assertThrows(HttpResponseException.class,
+                () -> createFetcher(fetcherType, 5_000).fetchRaw(server.getUrl("/overloaded"), "Crawler"));
+
+        assertEquals(503, error.getStatusCode());
+        assertEquals("7", error.getHeader("retry-after"));
+        assertTrue(RetryPolicy.isTransient(error));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if a response that isn't text is rejected")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testUnsupportedContentType(FetcherType fetcherType) {
+        server.handle("/image.png", 200, "image/png", "not really a png");
+
+        assertThrows(UnsupportedMimeTypeException.class,
+                () -> createFetcher(fetcherType, 5_000).fetchDocument(server.getUrl("/image.png"), "Crawler"));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if a resource that isn't HTML is reported as non-html by its Content-Type and a document is asked for with Accept")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testNonHtmlContentType(FetcherType fetcherType) {
+        List<String> acceptHeaders = new ArrayList<>();
+        server.handle("/download", exchange -> {
+            acceptHeaders.add(exchange.getRequestHeaders().getFirst("Accept"));
+            LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "application/octet-stream"), new byte[1024 * 1024]);
+        });
+
+        NonHtmlContentException error = assertThrows(NonHtmlContentException.class,
+                () -> createFetcher(fetcherType, 5_000).fetchRaw(server.getUrl("/download"), "Crawler"));
+
+        assertEquals("application/octet-stream", error.getMimeType());
+        assertEquals(List.of(ContentTypes.ACCEPT), acceptHeaders);
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if a link whose extension shows it isn't HTML isn't requested at all")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testNonHtmlExtension(FetcherType fetcherType) {
+        AtomicInteger requests = new AtomicInteger();
+        server.handle("/files", exchange -> {
+            requests.incrementAndGet();
+            LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "application/pdf"), new byte[1024]);
+        });
+
+        NonHtmlContentException error = assertThrows(NonHtmlContentException.class,
+                () -> createFetcher(fetcherType, 5_000).fetchRaw(server.getUrl("/files/report.PDF?download=1"), "Crawler"));
+
+        assertEquals("application/pdf", error.getMimeType());
+        assertEquals(0, requests.get());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if only extensions of resources that aren't HTML are recognized")
+    @CsvSource({
+            "https://example.com/archive.zip,           application/zip",
+            "https://example.com/a/photo.JPG?size=large, image/jpeg",
+            "https://example.com/index.html,            ''",
+            "https://example.com/v1.2/docs,             ''",
+            "https://example.com/,                      ''",
+            "https://example.com/page.php,              ''"
+    })
+    void testGuessNonHtmlType(String location, String expectedType) {
+        assertEquals(expectedType.isEmpty() ? null : expectedType, ContentTypes.guessNonHtmlType(location));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if only HTML, XHTML and XML are parsed, regardless of the case of the Content-Type")
+    @CsvSource({
+            "text/html,                         true",
+            "Text/HTML; Charset=UTF-8,          true",
+            "application/xhtml+xml,             true",
+            "APPLICATION/XML,                   true",
+            "application/rss+xml; charset=utf-8, true",
+            "text/plain,                        false",
+            "text/css,                          false",
+            "text/javascript,                   false",
+            "application/json,                  false",
+            "image/svg+xml,                     false"
+    })
+    void testIsParsable(String contentType, boolean expectedParsable) {
+        assertEquals(expectedParsable, ContentTypes.isParsable(contentType));
+        assertTrue(ContentTypes.isParsable(null));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if redirects are followed and the response has the final URL")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testRedirect(FetcherType fetcherType) throws IOException {
+        server.handle("/moved", exchange -> LoopbackServer.respond(exchange, 301, Map.of("Location", server.getUrl("/page")), new byte[0]));
+
+        RawResponse response = createFetcher(fetcherType, 5_000).fetchRaw(server.getUrl("/moved"), "Crawler");
+
+        assertEquals(server.getUrl("/page"), response.getLocation());
+        assertEquals("Crawler", response.parseDocument().title());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if a response slower than the read timeout fails with a transient error")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testReadTimeout(FetcherType fetcherType) {
+        server.handle("/slow", exchange -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                return;
+            }
+            LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "text/html"), new byte[0]);
+        });
+
+        IOException error = assertThrows(IOException.class,
+                () -> createFetcher(fetcherType, 200).fetchDocument(server.getUrl("/slow"), "Crawler"));
+
+        assertTrue(RetryPolicy.isTransient(error), error.toString());
+        if (fetcherType == FetcherType.HTTP_CLIENT)
+            assertTrue(error instanceof HttpTimeoutException, error.toString());
+    }
+
+    @Test
+    @DisplayName("Test if a body that stops arriving after the headers fails with a timeout once the read timeout passes without data")
+    void testStalledBody() {
+        server.handle("/stalled", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/html");
+            exchange.sendResponseHeaders(200, 0);
+            exchange.getResponseBody().write("<title>".getBytes(StandardCharsets.UTF_8));
+            exchange.getResponseBody().flush();
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                return;
+            }
+            exchange.close();
+        });
+
+        IOException error = assertTimeoutPreemptively(Duration.ofSeconds(3), () -> assertThrows(IOException.class,
+                () -> createFetcher(FetcherType.HTTP_CLIENT, 200).fetchDocument(server.getUrl("/stalled"), "Crawler")));
+
+        assertTrue(error instanceof HttpTimeoutException, error.toString());
+        assertTrue(RetryPolicy.isTransient(error), error.toString());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if a body larger than the max body size is cut off and marked as truncated, one of exactly the max size isn't")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testMaxBodySize(FetcherType fetcherType) throws Exception {
+        byte[] largeBody = new byte[256 * 1024];
+        Arrays.fill(largeBody, (byte) 'a');
+        server.handle("/large", exchange -> LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "text/html"), largeBody));
+        Fetcher fetcher = createFetcher(fetcherType, 5_000, 1000);
+
+        RawResponse truncated = fetcher.fetchRaw(server.getUrl("/large"), "Crawler");
+        assertTrue(truncated.isTruncated());
+        assertArrayEquals(Arrays.copyOf(largeBody, 1000), truncated.getBody());
+        assertArrayEquals(MessageDigest.getInstance("MD5").digest(truncated.getBody()), truncated.getBodyHash());
+
+        server.handle("/exact", exchange -> LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "text/html"), Arrays.copyOf(largeBody, 1000)));
+        RawResponse exact = fetcher.fetchRaw(server.getUrl("/exact"), "Crawler");
+        assertFalse(exact.isTruncated());
+        assertEquals(1000, exact.getBody().length);
+    }
+
+    @Test
+    @DisplayName("Test if the charset of the Content-Type is used to decode the body")
+    void testCharset() throws IOException {
+        server.handle("/latin1", exchange -> LoopbackServer.respond(exchange, 200,
+                Map.of("Content-Type", "text/html; charset=ISO-8859-1"), "<title>K\u00e4se</title>".getBytes(StandardCharsets.ISO_8859_1)));
+
+        RawResponse response = new HttpClientFetcher().fetchRaw(server.getUrl("/latin1"), "Crawler");
+
+        assertEquals("ISO-8859-1", response.getCharset());
+        assertEquals("K\u00e4se", response.parseDocument().title());
+    }
+
+    @Test
+    @DisplayName("Test if sequential requests to a host reuse one connection")
+    void testConnectionReuse() throws IOException {
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        server.handle("/pooled", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "text/html"), "<title>Pooled</title>".getBytes(StandardCharsets.UTF_8));
+        });
+
+        HttpClientFetcher fetcher = new HttpClientFetcher();
+        for (int i = 0; i < 10; i++)
+            assertEquals("Pooled", fetcher.fetchDocument(server.getUrl("/pooled"), "Crawler").title());
+
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    @DisplayName("Test if async requests complete with the response or the same errors as sync requests")
+    void testFetchRawAsync() {
+        server.handle("/missing", 404, "text/html", "Not found");
+        HttpClientFetcher fetcher = new HttpClientFetcher();
+
+        List<CompletableFuture<RawResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            responses.add(fetcher.fetchRawAsync(server.getUrl("/page?" + i), "Crawler"));
+        for (CompletableFuture<RawResponse> response : responses)
+            assertEquals(200, response.join().getStatusCode());
+
+        Throwable error = assertThrows(Exception.class, () -> fetcher.fetchRawAsync(server.getUrl("/missing"), "Crawler").join());
+        assertTrue(error.getCause() instanceof HttpResponseException, error.toString());
+        assertTrue(fetcher.fetchRawAsync("not a url", "Crawler").isCompletedExceptionally());
+    }
+
+    private static Fetcher createFetcher(FetcherType fetcherType, int timeoutMillis) {
+        return createFetcher(fetcherType, timeoutMillis, JsoupFetcher.DEFAULT_MAX_BODY_BYTES);
+    }
+
+    private static Fetcher createFetcher(FetcherType fetcherType, int timeoutMillis, int maxBodyBytes) {
+        if (fetcherType == FetcherType.HTTP_CLIENT)
+            return new HttpClientFetcher(Duration.ofMillis(timeoutMillis), Duration.ofMillis(timeoutMillis), maxBodyBytes);
+        return new JsoupFetcher(timeoutMillis, maxBodyBytes);
+    }
+}
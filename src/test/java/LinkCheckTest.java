@@ -0,0 +1,221 @@
+import crawler.webpage.AsyncWebpageLoader;
+import crawler.webpage.CrawlEngine;
+import crawler.webpage.ForkJoinWebpageLoader;
+import crawler.webpage.NonBlockingWebpageLoader;
+import crawler.webpage.PipelinedWebpageLoader;
+import crawler.webpage.Webpage;
+import crawler.webpage.WebpageLoader;
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.fetcher.FetcherType;
+import crawler.webpage.fetcher.HttpClientFetcher;
+import crawler.webpage.fetcher.JsoupFetcher;
+import crawler.webpage.linkcheck.LinkChecker;
+import mocks.LoopbackServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkCheckTest {
+
+    LoopbackServer server;
+    ConcurrentHashMap<String, AtomicInteger> requests;
+    List<String> ranges;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = new LoopbackServer();
+        requests = new ConcurrentHashMap<>();
+        ranges = new ArrayList<>();
+
+        servePage("/", "<a href=\"/a\">a</a><a href=\"/b\">b</a>");
+        servePage("/a", "<a href=\"/missing\">missing</a><a href=\"/ok#top\">ok</a>");
+        servePage("/b", "<a href=\"/missing#section\">missing</a><a href=\"/ok\">ok</a>");
+        server.handle("/missing", exchange -> {
+            count(exchange.getRequestMethod() + " /missing");
+            LoopbackServer.respond(exchange, 404, Map.of("Content-Type", "text/html"), new byte[0]);
+        });
+        // rejects HEAD like some servers do, ranges are supported
+        server.handle("/ok", exchange -> {
+            count(exchange.getRequestMethod() + " /ok");
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                LoopbackServer.respond(exchange, 405, Map.of("Allow", "GET"), new byte[0]);
+                return;
+            }
+            synchronized (ranges) {
+                ranges.add(exchange.getRequestHeaders().getFirst("Range"));
+            }
+            LoopbackServer.respond(exchange, 206, Map.of("Content-Type", "text/html"), "<".getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    @AfterEach
+    void teardown() {
+        server.close();
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if fetchStatus() sends HEAD and returns error statuses instead of throwing")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testFetchStatus(FetcherType fetcherType) throws IOException {
+        Fetcher fetcher = createFetcher(fetcherType);
+
+        assertEquals(404, fetcher.fetchStatus(server.getUrl("/missing"), "Crawler"));
+        assertEquals(200, fetcher.fetchStatus(server.getUrl("/"), "Crawler"));
+
+        assertEquals(1, requests.get("HEAD /missing").get());
+        assertNull(requests.get("GET /missing"));
+        assertNull(requests.get("GET /"));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if fetchStatus() falls back to a GET of the first byte when HEAD is rejected")
+    @ValueSource(strings = {"JSOUP", "HTTP_CLIENT"})
+    void testFetchStatusFallback(FetcherType fetcherType) throws IOException {
+        assertEquals(206, createFetcher(fetcherType).fetchStatus(server.getUrl("/ok"), "Crawler"));
+
+        assertEquals(1, requests.get("HEAD /ok").get());
+        assertEquals(1, requests.get("GET /ok").get());
+        assertEquals(List.of("bytes=0-0"), ranges);
+    }
+
+    @Test
+    @DisplayName("Test if every target is checked once and the report lists all pages referring to a broken link")
+    void testLinkChecker() throws URISyntaxException {
+        LinkChecker checker = new LinkChecker();
+        Fetcher fetcher = new JsoupFetcher();
+        URI missing = new URI(server.getUrl("/missing"));
+
+        checker.addReferrer(missing, new URI(server.getUrl("/b")));
+        checker.addReferrer(new URI(server.getUrl("/missing#section")), new URI(server.getUrl("/a")));
+        assertEquals(404, checker.check(missing, fetcher, "Crawler").getStatusCode());
+        assertTrue(checker.check(new URI(server.getUrl("/missing#section")), fetcher, "Crawler").isBroken());
+        assertFalse(checker.check(new URI(server.getUrl("/ok")), fetcher, "Crawler").isBroken());
+
+        assertEquals(1, requests.get("HEAD /missing").get());
+        assertEquals(2, checker.getRequestCount());
+
+        JSONObject report = checker.asReport();
+        assertEquals(2, report.getLong("checkedLinks"));
+        JSONArray brokenLinks = report.getJSONArray("brokenLinks");
+        assertEquals(1, brokenLinks.length());
+        assertEquals(server.getUrl("/missing"), brokenLinks.getJSONObject(0).getString("url"));
+        assertEquals(404, brokenLinks.getJSONObject(0).getInt("status"));
+        assertEquals(List.of(server.getUrl("/a"), server.getUrl("/b")), brokenLinks.getJSONObject(0).getJSONArray("referrers").toList());
+    }
+
+    @Test
+    @DisplayName("Test if a link that can't be connected to is reported with its error")
+    void testUnreachableLink() throws URISyntaxException {
+        LinkChecker checker = new LinkChecker();
+        URI unreachable = new URI("http://127.0.0.1:1/");
+
+        assertTrue(checker.check(unreachable, new JsoupFetcher(1000), "Crawler").isBroken());
+
+        JSONObject brokenLink = checker.asReport().getJSONArray("brokenLinks").getJSONObject(0);
+        assertEquals(unreachable.toString(), brokenLink.getString("url"));
+        assertTrue(brokenLink.has("error"));
+        assertFalse(brokenLink.has("status"));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if the pages of the last depth level are only checked by every engine")
+    @ValueSource(strings = {"POOL", "FORK_JOIN", "PIPELINE", "ASYNC"})
+    void testCrawlChecksLastLevel(CrawlEngine engine) throws URISyntaxException, InterruptedException {
+        LinkChecker checker = new LinkChecker();
+        Webpage rootPage = new Webpage(server.getUrl("/"));
+        rootPage.setLinkChecker(checker);
+
+        createLoader(engine, rootPage, 3).loadPagesRecursivelyAndBlock();
+
+        assertEquals(1, requests.get("GET /a").get());
+        assertEquals(1, requests.get("GET /b").get());
+        assertEquals(1, requests.get("HEAD /missing").get());
+        assertNull(requests.get("GET /missing"));
+        assertEquals(1, requests.get("GET /ok").get());
+        assertEquals(2, checker.getRequestCount());
+
+        JSONArray brokenLinks = checker.asReport().getJSONArray("brokenLinks");
+        assertEquals(1, brokenLinks.length());
+        assertEquals(List.of(server.getUrl("/a"), server.getUrl("/b")), brokenLinks.getJSONObject(0).getJSONArray("referrers").toList());
+
+        JSONArray checkedPages = rootPage.asJSONObject().getJSONArray("children").getJSONObject(0).getJSONArray("children");
+        assertEquals(404, checkedPages.getJSONObject(0).getInt("status"));
+        assertEquals(206, checkedPages.getJSONObject(1).getInt("status"));
+        assertFalse(checkedPages.getJSONObject(1).has("title"));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if broken pages above the last depth level are reported with all their referrers by every engine")
+    @ValueSource(strings = {"POOL", "FORK_JOIN", "PIPELINE", "ASYNC"})
+    void testCrawlReportsLoadedPages(CrawlEngine engine) throws URISyntaxException, InterruptedException {
+        LinkChecker checker = new LinkChecker();
+        Webpage rootPage = new Webpage(server.getUrl("/"));
+        rootPage.setLinkChecker(checker);
+
+        // /missing and /ok are on the third of four levels, so they are loaded instead of checked
+        createLoader(engine, rootPage, 4).loadPagesRecursivelyAndBlock();
+
+        assertNull(requests.get("HEAD /missing"));
+        assertNotNull(requests.get("GET /missing"));
+        assertEquals(0, checker.getRequestCount());
+
+        JSONArray brokenLinks = checker.asReport().getJSONArray("brokenLinks");
+        assertEquals(1, brokenLinks.length());
+        assertEquals(server.getUrl("/missing"), brokenLinks.getJSONObject(0).getString("url"));
+        assertEquals(404, brokenLinks.getJSONObject(0).getInt("status"));
+        assertEquals(List.of(server.getUrl("/a"), server.getUrl("/b")), brokenLinks.getJSONObject(0).getJSONArray("referrers").toList());
+    }
+
+    private void servePage(String path, String body) {
+        server.handle(path, exchange -> {
+            if (!exchange.getRequestURI().getPath().equals(path)) {
+                LoopbackServer.respond(exchange, 404, Map.of(), new byte[0]);
+                return;
+            }
+            count(exchange.getRequestMethod() + " " + path);
+            byte[] responseBody = exchange.getRequestMethod().equals("HEAD") ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+            LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "text/html; charset=UTF-8"), responseBody);
+        });
+    }
+
+    private void count(String request) {
+        requests.computeIfAbsent(request, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private static Fetcher createFetcher(FetcherType fetcherType) {
+        if (fetcherType == FetcherType.HTTP_CLIENT)
+            return new HttpClientFetcher(Duration.ofSeconds(5), Duration.ofSeconds(5));
+        return new JsoupFetcher(5_000);
+    }
+
+    private static WebpageLoader createLoader(CrawlEngine engine, Webpage rootPage, int depth) {
+        switch (engine) {
+            case FORK_JOIN:
+                return new ForkJoinWebpageLoader(rootPage, depth, 4);
+            case PIPELINE:
+                return new PipelinedWebpageLoader(rootPage, depth, 4, 2);
+            case ASYNC:
+                return new NonBlockingWebpageLoader(rootPage, depth, 4, 2);
+            default:
+                return new AsyncWebpageLoader(rootPage, depth, 4);
+        }
+    }
+}
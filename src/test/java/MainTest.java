@@ -1,16 +1,37 @@
 import com.github.stefanbirkner.systemlambda.SystemLambda;
 import crawler.Main;
+import crawler.webpage.CrawlBudget;
+import crawler.webpage.CrawlEngine;
 import crawler.webpage.Webpage;
+import crawler.webpage.cache.HttpCache;
+import crawler.webpage.checkpoint.CheckpointJournal;
+import crawler.webpage.concurrency.AdaptiveConcurrencyController;
+import crawler.webpage.concurrency.FetchOutcome;
+import crawler.webpage.concurrency.JsonLinesConcurrencyListener;
+import crawler.webpage.fetcher.ArchivingFetcher;
+import crawler.webpage.fetcher.CachingFetcher;
+import crawler.webpage.fetcher.FetcherType;
+import crawler.webpage.fetcher.ReplayFetcher;
 import crawler.webpage.filter.DuplicateLoadFilter;
 import crawler.webpage.filter.RobotsLoadFilter;
+import crawler.webpage.filter.ShardLoadFilter;
+import crawler.webpage.frontier.FrontierType;
+import crawler.webpage.retry.RetryPolicy;
+import crawler.webpage.shard.ShardPartitioner;
 import mocks.DummyParser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +48,12 @@ public class MainTest {
         parser = new DummyParser();
         Main.parser = parser;
         Main.rootPages = new ArrayList<>();
+        Main.concurrencyController = null;
+        Main.cachingFetcher = null;
+        Main.dnsCache = null;
+        Main.linkChecker = null;
+        Main.archivingFetcher = null;
+        Main.replayFetcher = null;
     }
 
     @ParameterizedTest
@@ -95,6 +122,20 @@ public class MainTest {
         assertNotEquals(0, Main.rootPages.size());
     }
 
+    @Test
+    @DisplayName("Test if the root pages share a link checker and its report is written when --broken-links is set")
+    void testBrokenLinkReport(@TempDir Path directory) throws IOException {
+        Path reportFile = directory.resolve("broken-links.json");
+        parser.setRootUrls(urls);
+        parser.setBrokenLinkReportFile(reportFile.toString());
+
+        Main.initializeRootPages();
+        Main.writeBrokenLinkReport();
+
+        assertSame(Main.linkChecker, Main.rootPages.get(0).getLinkChecker());
+        assertEquals("{\n  \"checkedLinks\": 0,\n  \"brokenLinks\": []\n}", Files.readString(reportFile));
+    }
+
     @Test
     @DisplayName("Test if the robots gets set correctly")
     void testRobotsFilter() {
@@ -144,4 +185,249 @@ public class MainTest {
 
         assertEquals(Main.BROWSER_USER_AGENT, Main.rootPages.get(0).getUserAgent());
     }
+
+    @ParameterizedTest
+    @DisplayName("Test if the frontier selected by the parser gets created")
+    @CsvSource({
+            "FIFO,     FifoCrawlFrontier",
+            "POLITE,   PoliteCrawlFrontier",
+            "PRIORITY, PriorityCrawlFrontier"
+    })
+    void testCreateFrontier(FrontierType frontierType, String expectedClassName) {
+        parser.setParseSuccess(true);
+        parser.setRootUrls(urls);
+        parser.setFrontierType(frontierType);
+
+        Main.initializeRootPages();
+
+        assertEquals(expectedClassName, Main.createFrontier().getClass().getSimpleName());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if the loader of the engine selected by the parser gets created")
+    @CsvSource({
+            "POOL,      AsyncWebpageLoader",
+            "VIRTUAL,   AsyncWebpageLoader",
+            "FORK_JOIN, ForkJoinWebpageLoader",
+            "PIPELINE,  PipelinedWebpageLoader",
+            "ASYNC,     NonBlockingWebpageLoader"
+    })
+    void testCreateLoader(CrawlEngine engine, String expectedClassName) throws IOException {
+        parser.setParseSuccess(true);
+        parser.setRootUrls(urls);
+        parser.setThreadCount(1);
+        parser.setMaxFrontierMemory(1);
+        parser.setParseThreadCount(1);
+        parser.setEngine(engine);
+
+        Main.initializeRootPages();
+
+        assertEquals(expectedClassName, Main.createLoader().getClass().getSimpleName());
+    }
+
+    @Test
+    @DisplayName("Test if limits which aren't set give an unlimited budget")
+    void testCreateUnlimitedBudget() {
+        CrawlBudget budget = Main.createBudget();
+        budget.start();
+
+        assertEquals(CrawlBudget.UNLIMITED, budget.getRemainingNanos());
+        assertTrue(budget.tryStartPage());
+    }
+
+    @Test
+    @DisplayName("Test if the page limit of the parser is used for the budget")
+    void testCreateBudget() {
+        parser.setMaxPages(1);
+        parser.setMaxTimeSeconds(60);
+
+        CrawlBudget budget = Main.createBudget();
+        budget.start();
+
+        assertTrue(budget.getRemainingNanos() > 0);
+        assertTrue(budget.tryStartPage());
+        assertFalse(budget.tryStartPage());
+        assertEquals("pages", budget.getExhaustedBy());
+    }
+
+    @Test
+    @DisplayName("Test if no journal is started without a checkpoint directory")
+    void testNoCheckpointing() throws IOException {
+        parser.setRootUrls(urls);
+        parser.setThreadCount(1);
+        parser.setMaxFrontierMemory(1);
+        Main.initializeRootPages();
+
+        assertNull(Main.startCheckpointing(Main.createLoader()));
+    }
+
+    @Test
+    @DisplayName("Test if the journal is started in the checkpoint directory")
+    void testCheckpointing(@TempDir Path checkpointDirectory) throws IOException {
+        parser.setRootUrls(urls);
+        parser.setThreadCount(1);
+        parser.setMaxFrontierMemory(1);
+        parser.setCheckpointDirectory(checkpointDirectory.toString());
+        parser.setCheckpointIntervalSeconds(1);
+        Main.initializeRootPages();
+
+        CheckpointJournal journal = Main.startCheckpointing(Main.createLoader());
+        journal.close();
+
+        assertEquals(checkpointDirectory.resolve(CheckpointJournal.JOURNAL_FILE_NAME), journal.getJournalFile());
+        assertTrue(Files.exists(journal.getJournalFile()));
+    }
+
+    @Test
+    @DisplayName("Test if other shards are launched with the same arguments, their index and the shard directory")
+    void testCreateShardCommand(@TempDir Path shardDirectory) {
+        String[] args = {"-u", "https://55-words", "--shards", "2"};
+
+        List<String> command = Main.createShardCommand(args, 1, shardDirectory);
+
+        assertTrue(command.get(0).endsWith("java"));
+        assertEquals(Main.class.getName(), command.get(3));
+        assertEquals(List.of("-u", "https://55-words", "--shards", "2", "--shard-index", "1", "--shard-dir", shardDirectory.toString()),
+                command.subList(4, command.size()));
+    }
+
+    @Test
+    @DisplayName("Test if only pages of the own shard pass the filters of a sharded crawl")
+    void testShardLoadFilter() {
+        parser.setRootUrls(urls);
+        parser.setShardCount(2);
+        parser.setShardIndex(1);
+        Main.initializeRootPages();
+
+        Webpage rootPage = Main.rootPages.get(0);
+        assertTrue(rootPage.getLoadFilters().get(0) instanceof ShardLoadFilter);
+        assertEquals(new ShardPartitioner(2).shardOf(rootPage.getPageURI()) == 1,
+                rootPage.getLoadFilters().get(0).webpageShouldBeLoaded(rootPage.getPageURI()));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if only the pool and virtual engines get a concurrency controller with --adaptive")
+    @CsvSource({
+            "POOL, true",
+            "VIRTUAL, true",
+            "FORK_JOIN, false",
+            "PIPELINE, false"
+    })
+    void testCreateConcurrencyController(CrawlEngine engine, boolean expectController) {
+        parser.setAdaptiveConcurrency(true);
+        parser.setEngine(engine);
+        parser.setThreadCount(2);
+        parser.setMaxConcurrency(8);
+        parser.setMaxPerHost(4);
+
+        AdaptiveConcurrencyController controller = Main.createConcurrencyController();
+
+        assertEquals(expectController, controller != null);
+        if (expectController) {
+            assertEquals(2, controller.getLimit());
+            assertEquals(8, controller.getMaxLimit());
+            assertEquals(4, controller.getHostLimit("a.test"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test if the concurrency decisions are written into the metrics file")
+    void testConcurrencyMetrics(@TempDir Path metricsDirectory) throws IOException {
+        parser.setAdaptiveConcurrency(true);
+        parser.setThreadCount(1);
+        parser.setMaxConcurrency(2);
+        parser.setMaxPerHost(1);
+        parser.setConcurrencyMetricsFile(metricsDirectory.resolve("metrics.jsonl").toString());
+        Main.concurrencyController = Main.createConcurrencyController();
+
+        JsonLinesConcurrencyListener metrics = Main.startConcurrencyMetrics();
+        Main.concurrencyController.record("a.test", 1000, FetchOutcome.SUCCESS);
+        metrics.close();
+
+        List<String> decisions = Files.readAllLines(metricsDirectory.resolve("metrics.jsonl"));
+        assertEquals(1, decisions.size());
+        assertTrue(decisions.get(0).contains("\"reason\":\"increase\""));
+    }
+
+    @Test
+    @DisplayName("Test if the retry policy uses the retries of the parser")
+    void testCreateRetryPolicy() {
+        parser.setMaxRetries(2);
+        parser.setRetryDelayMillis(100);
+
+        RetryPolicy policy = Main.createRetryPolicy();
+
+        assertTrue(policy.shouldRetry(new SocketTimeoutException(), 2));
+        assertFalse(policy.shouldRetry(new SocketTimeoutException(), 3));
+        assertTrue(policy.getDelayMillis(new SocketTimeoutException(), 1) <= 100);
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if all root pages share a hedging fetcher only with --hedge")
+    @CsvSource({"true, HedgingFetcher", "false, JsoupFetcher"})
+    void testHedgingFetcher(boolean hedgeRequests, String fetcherName) {
+        urls.add("https://4-links");
+        parser.setRootUrls(urls);
+        parser.setHedgeRequests(hedgeRequests);
+
+        Main.initializeRootPages();
+
+        assertEquals(fetcherName, Main.rootPages.get(0).getFetcher().getClass().getSimpleName());
+        if (hedgeRequests)
+            assertSame(Main.rootPages.get(0).getFetcher(), Main.rootPages.get(1).getFetcher());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if the fetcher of --fetcher is created and hedged with --hedge")
+    @CsvSource({"JSOUP, false, JsoupFetcher", "HTTP_CLIENT, false, HttpClientFetcher", "HTTP_CLIENT, true, HedgingFetcher"})
+    void testCreateFetcher(FetcherType fetcherType, boolean hedgeRequests, String fetcherName) {
+        urls.add("https://4-links");
+        parser.setRootUrls(urls);
+        parser.setFetcherType(fetcherType);
+        parser.setHedgeRequests(hedgeRequests);
+
+        Main.initializeRootPages();
+
+        assertEquals(fetcherName, Main.rootPages.get(0).getFetcher().getClass().getSimpleName());
+        assertSame(Main.rootPages.get(0).getFetcher(), Main.rootPages.get(1).getFetcher());
+    }
+
+    @Test
+    @DisplayName("Test if the fetcher revalidates cached pages once a cache directory is set, every shard with its own cache")
+    void testCreateCachingFetcher(@TempDir Path cacheDirectory) throws IOException {
+        parser.setCacheDirectory(cacheDirectory.toString());
+        parser.setShardCount(2);
+        parser.setShardIndex(1);
+
+        assertTrue(Main.createFetcher() instanceof CachingFetcher);
+        assertTrue(Files.exists(cacheDirectory.resolve("shard-1").resolve(HttpCache.INDEX_FILE_NAME)));
+
+        Main.cachingFetcher.getCache().close();
+    }
+
+    @Test
+    @DisplayName("Test if the archiving fetcher wraps the caching fetcher and writes its files when closed")
+    void testCreateArchivingFetcher(@TempDir Path directory) throws IOException {
+        parser.setCacheDirectory(directory.resolve("cache").toString());
+        parser.setWarcDirectory(directory.resolve("warc").toString());
+
+        assertTrue(Main.createFetcher() instanceof ArchivingFetcher);
+        assertNotNull(Main.cachingFetcher);
+        Main.closeArchive();
+        Main.closeCache();
+
+        assertEquals(0, Main.archivingFetcher.getWriter().getFileCount());
+        assertTrue(Files.isDirectory(directory.resolve("warc")));
+    }
+
+    @Test
+    @DisplayName("Test if the replay fetcher replaces the fetcher type and the DNS cache resolves no hosts while replaying")
+    void testCreateReplayFetcher(@TempDir Path directory) throws IOException {
+        parser.setReplayDirectory(directory.toString());
+        parser.setFetcherType(FetcherType.HTTP_CLIENT);
+
+        assertTrue(Main.createFetcher() instanceof ReplayFetcher);
+        assertEquals(0, Main.replayFetcher.getReader().getFileCount());
+        assertEquals("example.test", Main.createDnsCache().resolveAddress("example.test"));
+    }
 }
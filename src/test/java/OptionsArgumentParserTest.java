@@ -1,12 +1,20 @@
+import crawler.argumentparser.ArgumentParser;
 import crawler.argumentparser.OptionsArgumentParser;
+import crawler.util.Util;
+import crawler.webpage.CrawlEngine;
+import crawler.webpage.analysis.AnalysisMode;
+import crawler.webpage.fetcher.FetcherType;
+import crawler.webpage.frontier.FrontierType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,7 +37,7 @@ public class OptionsArgumentParserTest {
 
     @ParameterizedTest
     @DisplayName("Test if the error message for missing arguments is correct")
-    @ValueSource(strings={"t", "d", "l", "o"})
+    @ValueSource(strings={"t", "d", "l", "o", "e", "f", "p", "i", "w", "m"})
     void testErrorMessagesMissingArgumentForOption(String option) {
         defaultArgs.add("-" + option);
 
@@ -62,7 +70,7 @@ public class OptionsArgumentParserTest {
 
     @ParameterizedTest
     @DisplayName("Test if parseArgs() returns false when the argument is negative")
-    @ValueSource(strings={"t", "d", "l"})
+    @ValueSource(strings={"t", "d", "l", "p", "i", "w", "m"})
     void testNegativeArgumentForOption(String option) {
         defaultArgs.add("-" + option);
         defaultArgs.add("-10");
@@ -72,7 +80,7 @@ public class OptionsArgumentParserTest {
 
     @ParameterizedTest
     @DisplayName("Test if parseArgs() returns false when the argument is 0")
-    @ValueSource(strings={"t", "d", "l"})
+    @ValueSource(strings={"t", "d", "l", "p", "i", "m"})
     void testZeroForOption(String option) {
         defaultArgs.add("-" + option);
         defaultArgs.add("0");
@@ -85,7 +93,11 @@ public class OptionsArgumentParserTest {
     @CsvSource({
             "t, 10, getThreadCount",
             "d, 5,  getMaxDepth",
-            "l, 5,  getMaxLinksPerPage"
+            "l, 5,  getMaxLinksPerPage",
+            "p, 3,  getMaxPerHost",
+            "i, 6,  getMaxPerIp",
+            "w, 500, getCrawlDelayMillis",
+            "m, 1000, getMaxFrontierMemory"
     })
     void testSettingArgumentForOption(String option, int arg, String method) throws Exception {
         defaultArgs.add("-" + option);
@@ -252,6 +264,614 @@ public class OptionsArgumentParserTest {
         assertEquals("file.txt", parser.getOutputFile());
     }
 
+    @Test
+    @DisplayName("Test if setting a spill directory works")
+    void testSpillDirectory() {
+        defaultArgs.add("--spill-dir");
+        defaultArgs.add("spill");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals("spill", parser.getSpillDirectory());
+    }
+
+    @Test
+    @DisplayName("Test if setting the parse threads works")
+    void testParseThreadCount() {
+        defaultArgs.add("-e");
+        defaultArgs.add("pipeline");
+        defaultArgs.add("--parse-threads");
+        defaultArgs.add("3");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(3, parser.getParseThreadCount());
+        assertEquals("", parser.getWarnings());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if parseArgs() returns false for an invalid amount of parse threads")
+    @ValueSource(strings = {"0", "-1", "1025"})
+    void testInvalidParseThreadCount(String parseThreads) {
+        defaultArgs.add("--parse-threads");
+        defaultArgs.add(parseThreads);
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if the async engine uses the parse threads")
+    void testParseThreadCountAsync() {
+        defaultArgs.add("-e");
+        defaultArgs.add("async");
+        defaultArgs.add("--parse-threads");
+        defaultArgs.add("3");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(3, parser.getParseThreadCount());
+        assertEquals("", parser.getWarnings());
+    }
+
+    @Test
+    @DisplayName("Test if a warning is given when the parse threads are set without the pipeline engine")
+    void testParseThreadCountWithoutPipeline() {
+        defaultArgs.add("--parse-threads");
+        defaultArgs.add("3");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertTrue(parser.getWarnings().contains("--parse-threads"));
+    }
+
+    @Test
+    @DisplayName("Test if the budget limits are unlimited when they aren't set")
+    void testDefaultBudget() {
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(ArgumentParser.UNLIMITED_BUDGET, parser.getMaxPages());
+        assertEquals(ArgumentParser.UNLIMITED_BUDGET, parser.getMaxBytes());
+        assertEquals(ArgumentParser.UNLIMITED_BUDGET, parser.getMaxTimeSeconds());
+    }
+
+    @Test
+    @DisplayName("Test if setting the budget limits works")
+    void testBudget() {
+        defaultArgs.add("--max-pages");
+        defaultArgs.add("1000");
+        defaultArgs.add("--max-bytes");
+        defaultArgs.add("10000000000");
+        defaultArgs.add("--max-time");
+        defaultArgs.add("60");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(1000, parser.getMaxPages());
+        assertEquals(10000000000L, parser.getMaxBytes());
+        assertEquals(60, parser.getMaxTimeSeconds());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if parseArgs() returns false for a negative budget limit")
+    @ValueSource(strings = {"--max-pages", "--max-bytes", "--max-time"})
+    void testNegativeBudget(String option) {
+        defaultArgs.add(option);
+        defaultArgs.add("-1");
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if checkpointing is off and the default interval is used when nothing is set")
+    void testDefaultCheckpoint() {
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals("", parser.getCheckpointDirectory());
+        assertEquals(ArgumentParser.DEFAULT_CHECKPOINT_INTERVAL_SECONDS, parser.getCheckpointIntervalSeconds());
+        assertFalse(parser.resumeRequested());
+    }
+
+    @Test
+    @DisplayName("Test if resuming from a checkpoint directory works")
+    void testResume() {
+        defaultArgs.add("--checkpoint-dir");
+        defaultArgs.add("checkpoints");
+        defaultArgs.add("--checkpoint-interval");
+        defaultArgs.add("30");
+        defaultArgs.add("--resume");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals("checkpoints", parser.getCheckpointDirectory());
+        assertEquals(30, parser.getCheckpointIntervalSeconds());
+        assertTrue(parser.resumeRequested());
+    }
+
+    @Test
+    @DisplayName("Test if parseArgs() returns false when resuming without a checkpoint directory")
+    void testResumeWithoutCheckpointDirectory() {
+        defaultArgs.add("--resume");
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if parseArgs() returns false for a checkpoint interval < 1")
+    void testInvalidCheckpointInterval() {
+        defaultArgs.add("--checkpoint-dir");
+        defaultArgs.add("checkpoints");
+        defaultArgs.add("--checkpoint-interval");
+        defaultArgs.add("0");
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if a single process without a shard index is used when nothing is set")
+    void testDefaultShards() {
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(ArgumentParser.DEFAULT_SHARD_COUNT, parser.getShardCount());
+        assertEquals(ArgumentParser.NO_SHARD_INDEX, parser.getShardIndex());
+        assertEquals("", parser.getShardDirectory());
+    }
+
+    @Test
+    @DisplayName("Test if setting the shard count, index and directory works")
+    void testShards() {
+        defaultArgs.add("--shards");
+        defaultArgs.add("4");
+        defaultArgs.add("--shard-index");
+        defaultArgs.add("3");
+        defaultArgs.add("--shard-dir");
+        defaultArgs.add("shards");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(4, parser.getShardCount());
+        assertEquals(3, parser.getShardIndex());
+        assertEquals("shards", parser.getShardDirectory());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if parseArgs() returns false for an invalid shard count or index")
+    @CsvSource({
+            "0, 0",
+            "65, 0",
+            "2, -1",
+            "2, 2"
+    })
+    void testInvalidShards(String shardCount, String shardIndex) {
+        defaultArgs.add("--shards");
+        defaultArgs.add(shardCount);
+        defaultArgs.add("--shard-index");
+        defaultArgs.add(shardIndex);
+        defaultArgs.add("--shard-dir");
+        defaultArgs.add("shards");
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if parseArgs() returns false for a shard index without a shard directory")
+    void testShardIndexWithoutShardDirectory() {
+        defaultArgs.add("--shards");
+        defaultArgs.add("2");
+        defaultArgs.add("--shard-index");
+        defaultArgs.add("1");
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if parseArgs() returns false when a sharded crawl should be checkpointed")
+    void testShardsWithCheckpoint() {
+        defaultArgs.add("--shards");
+        defaultArgs.add("2");
+        defaultArgs.add("--checkpoint-dir");
+        defaultArgs.add("checkpoints");
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if the concurrency is fixed and may grow to a multiple of -t when nothing is set")
+    void testDefaultAdaptiveConcurrency() {
+        defaultArgs.add("-t");
+        defaultArgs.add("3");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertFalse(parser.adaptiveConcurrency());
+        assertEquals(3 * ArgumentParser.DEFAULT_MAX_CONCURRENCY_FACTOR, parser.getMaxConcurrency());
+        assertEquals("", parser.getConcurrencyMetricsFile());
+    }
+
+    @Test
+    @DisplayName("Test if setting the adaptive concurrency options works")
+    void testAdaptiveConcurrency() {
+        defaultArgs.add("--adaptive");
+        defaultArgs.add("--max-concurrency");
+        defaultArgs.add("64");
+        defaultArgs.add("--concurrency-metrics");
+        defaultArgs.add("metrics.jsonl");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertTrue(parser.adaptiveConcurrency());
+        assertEquals(64, parser.getMaxConcurrency());
+        assertEquals("metrics.jsonl", parser.getConcurrencyMetricsFile());
+        assertEquals("", parser.getWarnings());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if parseArgs() returns false for a max concurrency below -t or above the max thread count")
+    @ValueSource(strings = {"1", "1025"})
+    void testInvalidMaxConcurrency(String maxConcurrency) {
+        defaultArgs.add("-t");
+        defaultArgs.add("2");
+        defaultArgs.add("--max-concurrency");
+        defaultArgs.add(maxConcurrency);
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if a warning is given when the engine doesn't adapt its concurrency")
+    void testAdaptiveConcurrencyWarning() {
+        defaultArgs.add("-e");
+        defaultArgs.add("fork-join");
+        defaultArgs.add("--adaptive");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertTrue(parser.getWarnings().contains("--adaptive"));
+    }
+
+    @Test
+    @DisplayName("Test if the retry options have the correct default values")
+    void testDefaultRetries() {
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(ArgumentParser.DEFAULT_MAX_RETRIES, parser.getMaxRetries());
+        assertEquals(ArgumentParser.DEFAULT_RETRY_DELAY_MILLIS, parser.getRetryDelayMillis());
+        assertFalse(parser.hedgeRequests());
+    }
+
+    @Test
+    @DisplayName("Test if setting the retry options works")
+    void testRetries() {
+        defaultArgs.add("--retries");
+        defaultArgs.add("0");
+        defaultArgs.add("--retry-delay");
+        defaultArgs.add("250");
+        defaultArgs.add("--hedge");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(0, parser.getMaxRetries());
+        assertEquals(250, parser.getRetryDelayMillis());
+        assertTrue(parser.hedgeRequests());
+        assertEquals("", parser.getWarnings());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if parseArgs() returns false for invalid retry options")
+    @CsvSource({"--retries, -1", "--retries, 11", "--retry-delay, 0", "--retry-delay, 60001"})
+    void testInvalidRetries(String option, String value) {
+        defaultArgs.add(option);
+        defaultArgs.add(value);
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if a warning is given when retries are set for the fork-join engine")
+    void testRetriesWarning() {
+        defaultArgs.add("-e");
+        defaultArgs.add("fork-join");
+        defaultArgs.add("--retries");
+        defaultArgs.add("3");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertTrue(parser.getWarnings().contains("--retries"));
+    }
+
+    @Test
+    @DisplayName("Test if the fetcher options have the correct default values")
+    void testDefaultFetcher() {
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(ArgumentParser.DEFAULT_FETCHER, parser.getFetcherType());
+        assertEquals(ArgumentParser.DEFAULT_CONNECT_TIMEOUT_MILLIS, parser.getConnectTimeoutMillis());
+        assertEquals(ArgumentParser.DEFAULT_READ_TIMEOUT_MILLIS, parser.getReadTimeoutMillis());
+        assertEquals(ArgumentParser.DEFAULT_MAX_BODY_KILOBYTES, parser.getMaxBodyKilobytes());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if setting the fetcher works")
+    @CsvSource({"jsoup, JSOUP", "http-client, HTTP_CLIENT", "HTTP_CLIENT, HTTP_CLIENT"})
+    void testFetcher(String fetcherName, FetcherType fetcherType) {
+        defaultArgs.add("--fetcher");
+        defaultArgs.add(fetcherName);
+        defaultArgs.add("--connect-timeout");
+        defaultArgs.add("2000");
+        defaultArgs.add("--read-timeout");
+        defaultArgs.add("5000");
+        defaultArgs.add("--max-body-size");
+        defaultArgs.add("512");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(fetcherType, parser.getFetcherType());
+        assertEquals(2000, parser.getConnectTimeoutMillis());
+        assertEquals(5000, parser.getReadTimeoutMillis());
+        assertEquals(512, parser.getMaxBodyKilobytes());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if parseArgs() returns false for invalid fetcher options")
+    @CsvSource({"--fetcher, curl", "--connect-timeout, 0", "--read-timeout, 0", "--read-timeout, -5", "--max-body-size, 0", "--max-body-size, 1048577"})
+    void testInvalidFetcher(String option, String value) {
+        defaultArgs.add(option);
+        defaultArgs.add(value);
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if a warning is given when a connect timeout is set for the jsoup fetcher")
+    void testConnectTimeoutWarning() {
+        defaultArgs.add("--connect-timeout");
+        defaultArgs.add("2000");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertTrue(parser.getWarnings().contains("--connect-timeout"));
+    }
+
+    @Test
+    @DisplayName("Test if the cache is off by default and its options can be set")
+    void testCache() {
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+        assertEquals("", parser.getCacheDirectory());
+        assertEquals(ArgumentParser.DEFAULT_CACHE_SIZE_MEGABYTES, parser.getCacheSizeMegabytes());
+
+        defaultArgs.add("--cache-dir");
+        defaultArgs.add("crawl-cache");
+        defaultArgs.add("--cache-size");
+        defaultArgs.add("64");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+        assertEquals("crawl-cache", parser.getCacheDirectory());
+        assertEquals(64, parser.getCacheSizeMegabytes());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if parseArgs() returns false for an invalid cache size")
+    @ValueSource(strings = {"0", "-1"})
+    void testInvalidCacheSize(String cacheSize) {
+        defaultArgs.add("--cache-dir");
+        defaultArgs.add("crawl-cache");
+        defaultArgs.add("--cache-size");
+        defaultArgs.add(cacheSize);
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if a warning is given when a cache size is set without a cache directory")
+    void testCacheSizeWarning() {
+        defaultArgs.add("--cache-size");
+        defaultArgs.add("64");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertTrue(parser.getWarnings().contains("--cache-size"));
+    }
+
+    @Test
+    @DisplayName("Test if the DNS options are parsed and default correctly")
+    void testDns() {
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+        assertEquals(ArgumentParser.DEFAULT_DNS_TTL_SECONDS, parser.getDnsTtlSeconds());
+        assertEquals(ArgumentParser.DEFAULT_DNS_NEGATIVE_TTL_SECONDS, parser.getDnsNegativeTtlSeconds());
+        assertEquals(ArgumentParser.DEFAULT_DNS_PREFETCH_THREAD_COUNT, parser.getDnsPrefetchThreadCount());
+
+        defaultArgs.add("--dns-ttl");
+        defaultArgs.add("300");
+        defaultArgs.add("--dns-negative-ttl");
+        defaultArgs.add("0");
+        defaultArgs.add("--dns-prefetch-threads");
+        defaultArgs.add("0");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+        assertEquals(300, parser.getDnsTtlSeconds());
+        assertEquals(0, parser.getDnsNegativeTtlSeconds());
+        assertEquals(0, parser.getDnsPrefetchThreadCount());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if parseArgs() returns false for invalid DNS options")
+    @CsvSource({
+            "--dns-ttl,              0",
+            "--dns-negative-ttl,     -1",
+            "--dns-prefetch-threads, -1",
+            "--dns-prefetch-threads, 65"
+    })
+    void testInvalidDns(String option, String value) {
+        defaultArgs.add(option);
+        defaultArgs.add(value);
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if a warning is given when DNS prefetch threads are set for the fork-join engine")
+    void testDnsPrefetchWarning() {
+        defaultArgs.add("-e");
+        defaultArgs.add("fork-join");
+        defaultArgs.add("--dns-prefetch-threads");
+        defaultArgs.add("2");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertTrue(parser.getWarnings().contains("--dns-prefetch-threads"));
+    }
+
+    @Test
+    @DisplayName("Test if the broken-link report file is parsed and empty by default")
+    void testBrokenLinks() {
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+        assertEquals("", parser.getBrokenLinkReportFile());
+
+        defaultArgs.add("--broken-links");
+        defaultArgs.add("broken-links.json");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+        assertEquals("broken-links.json", parser.getBrokenLinkReportFile());
+    }
+
+    @Test
+    @DisplayName("Test if parseArgs() returns false for a sharded crawl checking links")
+    void testShardedBrokenLinks() {
+        defaultArgs.add("--shards");
+        defaultArgs.add("2");
+        defaultArgs.add("--broken-links");
+        defaultArgs.add("broken-links.json");
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if the WARC options are parsed and default correctly")
+    void testWarc() {
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+        assertEquals("", parser.getWarcDirectory());
+        assertEquals(ArgumentParser.DEFAULT_WARC_FILE_MEGABYTES, parser.getWarcFileMegabytes());
+
+        defaultArgs.add("--warc-dir");
+        defaultArgs.add("archive");
+        defaultArgs.add("--warc-size");
+        defaultArgs.add("100");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+        assertEquals("archive", parser.getWarcDirectory());
+        assertEquals(100, parser.getWarcFileMegabytes());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if parseArgs() returns false for an invalid WARC file size")
+    @ValueSource(strings = {"0", "-1"})
+    void testInvalidWarcSize(String warcSize) {
+        defaultArgs.add("--warc-dir");
+        defaultArgs.add("archive");
+        defaultArgs.add("--warc-size");
+        defaultArgs.add(warcSize);
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if a warning is given when a WARC file size is set without a WARC directory")
+    void testWarcSizeWarning() {
+        defaultArgs.add("--warc-size");
+        defaultArgs.add("100");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertTrue(parser.getWarnings().contains("--warc-size"));
+    }
+
+    @Test
+    @DisplayName("Test if the replay directory and latency are parsed")
+    void testReplay(@TempDir Path replayDirectory) {
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+        assertEquals("", parser.getReplayDirectory());
+        assertEquals(ArgumentParser.DEFAULT_REPLAY_LATENCY_PERCENT, parser.getReplayLatencyPercent());
+
+        defaultArgs.add("--replay");
+        defaultArgs.add(replayDirectory.toString());
+        defaultArgs.add("--replay-latency");
+        defaultArgs.add("50");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+        assertEquals(replayDirectory.toString(), parser.getReplayDirectory());
+        assertEquals(50, parser.getReplayLatencyPercent());
+        assertTrue(parser.getWarnings().contains("robots.txt"));
+    }
+
+    @Test
+    @DisplayName("Test if parseArgs() returns false for a replay directory that doesn't exist")
+    void testMissingReplayDirectory(@TempDir Path replayDirectory) {
+        defaultArgs.add("--replay");
+        defaultArgs.add(replayDirectory.resolve("missing").toString());
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if parseArgs() returns false for a negative replay latency")
+    void testInvalidReplayLatency(@TempDir Path replayDirectory) {
+        defaultArgs.add("--replay");
+        defaultArgs.add(replayDirectory.toString());
+        defaultArgs.add("--replay-latency");
+        defaultArgs.add("-1");
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if a warning is given when a replay latency is set without a replay directory")
+    void testReplayLatencyWarning() {
+        defaultArgs.add("--replay-latency");
+        defaultArgs.add("100");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertTrue(parser.getWarnings().contains("--replay-latency"));
+    }
+
+    @Test
+    @DisplayName("Test if a warning is given when a fetcher is set while replaying")
+    void testReplayFetcherWarning(@TempDir Path replayDirectory) {
+        defaultArgs.add("--replay");
+        defaultArgs.add(replayDirectory.toString());
+        defaultArgs.add("--fetcher");
+        defaultArgs.add("http-client");
+        defaultArgs.add("-r");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertTrue(parser.getWarnings().contains("--fetcher"));
+        assertFalse(parser.getWarnings().contains("robots.txt"));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if setting the analysis mode works and it defaults to dom")
+    @CsvSource({"'', DOM", "dom, DOM", "streaming, STREAMING", "STREAMING, STREAMING"})
+    void testAnalysisMode(String modeName, AnalysisMode analysisMode) {
+        if (!modeName.isEmpty()) {
+            defaultArgs.add("--analysis");
+            defaultArgs.add(modeName);
+        }
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(analysisMode, parser.getAnalysisMode());
+    }
+
+    @Test
+    @DisplayName("Test if parseArgs() returns false for an invalid analysis mode")
+    void testInvalidAnalysisMode() {
+        defaultArgs.add("--analysis");
+        defaultArgs.add("sax");
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+        assertTrue(parser.getErrorMessage().contains("sax"));
+    }
+
     @Test
     @DisplayName("Test if an empty String gets returned when the output file is not set")
     void testOutputFileNotSet() {
@@ -272,6 +892,106 @@ public class OptionsArgumentParserTest {
         assertTrue(parser.outputIntoFile());
     }
     
+    @ParameterizedTest
+    @DisplayName("Test if the engine can be selected by name")
+    @CsvSource({
+            "pool,    POOL",
+            "virtual, VIRTUAL",
+            "VIRTUAL, VIRTUAL",
+            "fork-join, FORK_JOIN",
+            "pipeline, PIPELINE",
+            "async, ASYNC"
+    })
+    void testEngine(String name, CrawlEngine expectedResult) {
+        defaultArgs.add("-e");
+        defaultArgs.add(name);
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(expectedResult, parser.getEngine());
+    }
+
+    @Test
+    @DisplayName("Test if the default engine is used when -e isn't set")
+    void testDefaultEngine() {
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(ArgumentParser.DEFAULT_ENGINE, parser.getEngine());
+    }
+
+    @Test
+    @DisplayName("Test if parseArgs() returns false for an unknown engine")
+    void testUnknownEngine() {
+        defaultArgs.add("-e");
+        defaultArgs.add("warp-drive");
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
+    @Test
+    @DisplayName("Test if the async engine allows more concurrent loads than the thread limit")
+    void testAsyncEngineConcurrency() {
+        defaultArgs.add("-e");
+        defaultArgs.add("async");
+        defaultArgs.add("-t");
+        defaultArgs.add("10000");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(10000, parser.getThreadCount());
+    }
+
+    @Test
+    @DisplayName("Test if the virtual engine only allows more concurrent loads than the thread limit with virtual threads")
+    void testVirtualEngineConcurrency() {
+        defaultArgs.add("-e");
+        defaultArgs.add("virtual");
+        defaultArgs.add("-t");
+        defaultArgs.add("10000");
+
+        assertEquals(Util.virtualThreadsAvailable(), parser.parseArgs(toArray(defaultArgs)));
+        if (!Util.virtualThreadsAvailable())
+            assertTrue(parser.getErrorMessage().contains("without virtual threads"));
+    }
+
+    @Test
+    @DisplayName("Test if the virtual engine allows as many concurrent loads as the thread limit without virtual threads")
+    void testVirtualEngineThreadLimit() {
+        defaultArgs.add("-e");
+        defaultArgs.add("virtual");
+        defaultArgs.add("-t");
+        defaultArgs.add(ArgumentParser.MAX_THREAD_COUNT + "");
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(ArgumentParser.MAX_THREAD_COUNT, parser.getThreadCount());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if the frontier can be selected by name")
+    @CsvSource({
+            "fifo,     FIFO",
+            "polite,   POLITE",
+            "Priority, PRIORITY"
+    })
+    void testFrontierType(String name, FrontierType expectedResult) {
+        defaultArgs.add("-f");
+        defaultArgs.add(name);
+
+        assertTrue(parser.parseArgs(toArray(defaultArgs)));
+
+        assertEquals(expectedResult, parser.getFrontierType());
+    }
+
+    @Test
+    @DisplayName("Test if parseArgs() returns false for an unknown frontier")
+    void testUnknownFrontierType() {
+        defaultArgs.add("-f");
+        defaultArgs.add("random");
+
+        assertFalse(parser.parseArgs(toArray(defaultArgs)));
+    }
+
     @Test
     @DisplayName("Test if errorMessage is an empty String when no error has happened")
     void testErrorMessageNoError() {
@@ -282,22 +1002,168 @@ public class OptionsArgumentParserTest {
     @DisplayName("Test if the help dialog is correct")
     void testHelpDialog() {
         String expectedResult =
-                "usage: Webcrawler [-b] [-d <arg>] [-h] [-l <arg>] [-o <arg>] [-r] [-s] [-t\n" +
-                "       <arg>] [-u <arg>]\n" +
-                " -b,--spoof-browser        If set, spoofs the UserAgent (in case some\n" +
-                "                           sites block the default UserAgent)\n" +
-                " -d,--max-depth <arg>      Specify the recursion depth for following\n" +
-                "                           links. Default: 2, Range 1-10\n" +
-                " -h,--help                 Open the help dialog\n" +
-                " -l,--max-links <arg>      Max amount of links to follow per page.\n" +
-                "                           Default: 100, Range: 1-inf\n" +
-                " -o,--output <arg>         Specify a Output File as alternative to stdout\n" +
-                " -r,--ignore-robots-txt    If set, ignores robots.txt\n" +
-                " -s,--omit-duplicates      If set, omits duplicate pages\n" +
-                " -t,--thread-count <arg>   Amount of threads to use, will increase CPU and\n" +
-                "                           Memory consumption. Default: 2, Range 1-1024\n" +
-                " -u,--urls <arg>           Specify the root urls for the crawler. Multiple\n" +
-                "                           urls must be comma separated\n";
+                "usage: Webcrawler [--adaptive] [--analysis <arg>] [-b] [--broken-links\n" +
+                "       <arg>] [--cache-dir <arg>] [--cache-size <arg>] [--checkpoint-dir\n" +
+                "       <arg>] [--checkpoint-interval <arg>] [--concurrency-metrics <arg>]\n" +
+                "       [--connect-timeout <arg>] [-d <arg>] [--dns-negative-ttl <arg>]\n" +
+                "       [--dns-prefetch-threads <arg>] [--dns-ttl <arg>] [-e <arg>] [-f\n" +
+                "       <arg>] [--fetcher <arg>] [-h] [--hedge] [-i <arg>] [-l <arg>] [-m\n" +
+                "       <arg>] [--max-body-size <arg>] [--max-bytes <arg>]\n" +
+                "       [--max-concurrency <arg>] [--max-pages <arg>] [--max-time <arg>]\n" +
+                "       [-o <arg>] [-p <arg>] [--parse-threads <arg>] [-r] [--read-timeout\n" +
+                "       <arg>] [--replay <arg>] [--replay-latency <arg>] [--resume]\n" +
+                "       [--retries <arg>] [--retry-delay <arg>] [-s] [--shard-dir <arg>]\n" +
+                "       [--shard-index <arg>] [--shards <arg>] [--spill-dir <arg>] [-t\n" +
+                "       <arg>] [-u <arg>] [-w <arg>] [--warc-dir <arg>] [--warc-size <arg>]\n" +
+                "    --adaptive                     If set, adapts the concurrency to the\n" +
+                "                                   latency, timeouts and 429/503\n" +
+                "                                   responses, starting at -t globally and\n" +
+                "                                   -p per host\n" +
+                "    --analysis <arg>               How pages are analyzed: dom (parsed\n" +
+                "                                   into a document) or streaming\n" +
+                "                                   (tokenized while read without a\n" +
+                "                                   document, constant memory for huge\n" +
+                "                                   pages). Default: dom\n" +
+                " -b,--spoof-browser                If set, spoofs the UserAgent (in case\n" +
+                "                                   some sites block the default UserAgent)\n" +
+                "    --broken-links <arg>           File to write the broken links with the\n" +
+                "                                   pages referring to them into as JSON,\n" +
+                "                                   the pages of the last depth level are\n" +
+                "                                   then only checked with HEAD requests.\n" +
+                "                                   Default: no link check\n" +
+                "    --cache-dir <arg>              Directory to cache pages with an ETag\n" +
+                "                                   or Last-Modified date in, they are\n" +
+                "                                   revalidated with conditional requests\n" +
+                "                                   on the next crawl. Default: no cache\n" +
+                "    --cache-size <arg>             Max megabytes of page bodies in\n" +
+                "                                   --cache-dir, the least recently used\n" +
+                "                                   pages are evicted first. Default: 1024,\n" +
+                "                                   Range: 1-inf\n" +
+                "    --checkpoint-dir <arg>         Directory to journal the crawl into, so\n" +
+                "                                   it can be resumed. Default: no\n" +
+                "                                   checkpoints\n" +
+                "    --checkpoint-interval <arg>    Seconds between forcing the journal to\n" +
+                "                                   disk. Default: 10, Range: 1-inf\n" +
+                "    --concurrency-metrics <arg>    File to write every concurrency limit\n" +
+                "                                   change of --adaptive into as JSON\n" +
+                "                                   lines. Default: no metrics\n" +
+                "    --connect-timeout <arg>        Milliseconds establishing a connection\n" +
+                "                                   may take with the http-client fetcher.\n" +
+                "                                   Default: 10000\n" +
+                " -d,--max-depth <arg>              Specify the recursion depth for\n" +
+                "                                   following links. Default: 2, Range 1-10\n" +
+                "    --dns-negative-ttl <arg>       Seconds hosts that can't be resolved\n" +
+                "                                   are cached. Default: 10, Range: 0-inf\n" +
+                "    --dns-prefetch-threads <arg>   Amount of threads resolving the hosts\n" +
+                "                                   of pages as they enter the frontier, 0\n" +
+                "                                   to resolve them when loading. Default:\n" +
+                "                                   4, Range: 0-64\n" +
+                "    --dns-ttl <arg>                Seconds resolved hosts are cached.\n" +
+                "                                   Default: 60, Range: 1-inf\n" +
+                " -e,--engine <arg>                 Engine used for loading pages: pool,\n" +
+                "                                   virtual, fork-join, pipeline or async.\n" +
+                "                                   With virtual and async, -t limits the\n" +
+                "                                   concurrently loading pages instead,\n" +
+                "                                   Range 1-65536. With pipeline, -t sets\n" +
+                "                                   the download threads. Default: pool\n" +
+                " -f,--frontier <arg>               Order in which pages are loaded: fifo\n" +
+                "                                   (breadth-first), polite (per host\n" +
+                "                                   limits) or priority (best-first).\n" +
+                "                                   Default: polite\n" +
+                "    --fetcher <arg>                Client used for loading pages: jsoup or\n" +
+                "                                   http-client. http-client pools\n" +
+                "                                   connections and uses HTTP/2 where\n" +
+                "                                   supported. Default: jsoup\n" +
+                " -h,--help                         Open the help dialog\n" +
+                "    --hedge                        If set, requests a page a second time\n" +
+                "                                   when it takes longer than 95% of the\n" +
+                "                                   previous requests to its host\n" +
+                " -i,--max-per-ip <arg>             Max amount of concurrent requests to\n" +
+                "                                   the same IP address. Default: 8, Range:\n" +
+                "                                   1-inf\n" +
+                " -l,--max-links <arg>              Max amount of links to follow per page.\n" +
+                "                                   Default: 100, Range: 1-inf\n" +
+                " -m,--max-frontier-memory <arg>    Max amount of pages waiting in memory,\n" +
+                "                                   further pages are spilled to disk.\n" +
+                "                                   Default: 100000, Range: 1-inf\n" +
+                "    --max-body-size <arg>          Max kilobytes read of a page, larger\n" +
+                "                                   pages are cut off and marked as\n" +
+                "                                   truncated. Default: 2048, Range:\n" +
+                "                                   1-1048576\n" +
+                "    --max-bytes <arg>              Stop loading new pages after this many\n" +
+                "                                   bytes were downloaded. Default: 0\n" +
+                "                                   (unlimited), Range: 0-inf\n" +
+                "    --max-concurrency <arg>        Max amount of concurrently loading\n" +
+                "                                   pages with --adaptive. Default: 4 times\n" +
+                "                                   -t\n" +
+                "    --max-pages <arg>              Stop loading new pages after this many\n" +
+                "                                   pages, the result is written\n" +
+                "                                   nonetheless. Default: 0 (unlimited),\n" +
+                "                                   Range: 0-inf\n" +
+                "    --max-time <arg>               Stop loading new pages after this many\n" +
+                "                                   seconds. Default: 0 (unlimited), Range:\n" +
+                "                                   0-inf\n" +
+                " -o,--output <arg>                 Specify a Output File as alternative to\n" +
+                "                                   stdout\n" +
+                " -p,--max-per-host <arg>           Max amount of concurrent requests to\n" +
+                "                                   the same host. Default: 4, Range: 1-inf\n" +
+                "    --parse-threads <arg>          Amount of threads parsing pages with\n" +
+                "                                   the pipeline and async engines.\n" +
+                "                                   Default: amount of available\n" +
+                "                                   processors, Range 1-1024\n" +
+                " -r,--ignore-robots-txt            If set, ignores robots.txt\n" +
+                "    --read-timeout <arg>           Milliseconds a page may take to load\n" +
+                "                                   once connected, the only timeout of the\n" +
+                "                                   jsoup fetcher. Default: 30000\n" +
+                "    --replay <arg>                 Directory of WARC files written with\n" +
+                "                                   --warc-dir to replay the responses from\n" +
+                "                                   instead of the network, URLs that\n" +
+                "                                   weren't recorded are answered with 404.\n" +
+                "                                   Default: no replay\n" +
+                "    --replay-latency <arg>         Percentage of the recorded latency of\n" +
+                "                                   every response to wait before it is\n" +
+                "                                   replayed from --replay. Default: 0,\n" +
+                "                                   Range: 0-inf\n" +
+                "    --resume                       If set, resumes the crawl journaled in\n" +
+                "                                   --checkpoint-dir instead of starting\n" +
+                "                                   over, use the same -u and -d\n" +
+                "    --retries <arg>                Max amount of retries of a page that\n" +
+                "                                   failed with a timeout, a reset\n" +
+                "                                   connection or a 408/425/429/5xx status.\n" +
+                "                                   Default: 2, Range: 0-10\n" +
+                "    --retry-delay <arg>            Milliseconds before the first retry,\n" +
+                "                                   doubled with every retry and jittered,\n" +
+                "                                   a longer Retry-After is respected.\n" +
+                "                                   Default: 500, Range: 1-60000\n" +
+                " -s,--omit-duplicates              If set, omits duplicate pages\n" +
+                "    --shard-dir <arg>              Directory the shards exchange pages and\n" +
+                "                                   results through. Default: a temporary\n" +
+                "                                   directory\n" +
+                "    --shard-index <arg>            Shard of this process, set for the\n" +
+                "                                   processes launched by --shards.\n" +
+                "                                   Default: this process launches the\n" +
+                "                                   other shards\n" +
+                "    --shards <arg>                 Amount of processes crawling the hosts\n" +
+                "                                   partitioned by their hash, limits apply\n" +
+                "                                   per process. Default: 1, Range: 1-64\n" +
+                "    --spill-dir <arg>              Directory for pages spilled to disk.\n" +
+                "                                   Default: a temporary directory\n" +
+                " -t,--thread-count <arg>           Amount of threads to use, will increase\n" +
+                "                                   CPU and Memory consumption. Default: 2,\n" +
+                "                                   Range 1-1024\n" +
+                " -u,--urls <arg>                   Specify the root urls for the crawler.\n" +
+                "                                   Multiple urls must be comma separated\n" +
+                " -w,--crawl-delay <arg>            Min milliseconds between requests to\n" +
+                "                                   the same host, a longer Crawl-delay\n" +
+                "                                   from robots.txt is respected. Default:\n" +
+                "                                   0, Range: 0-inf\n" +
+                "    --warc-dir <arg>               Directory to archive every response\n" +
+                "                                   into as WARC files, with an index of\n" +
+                "                                   the record offsets next to every file.\n" +
+                "                                   Default: no archive\n" +
+                "    --warc-size <arg>              Megabytes after which a new WARC file\n" +
+                "                                   is started in --warc-dir. Default:\n" +
+                "                                   1024, Range: 1-inf\n";
 
         assertEquals(expectedResult, parser.getHelpDialog());
     }
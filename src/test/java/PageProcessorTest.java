@@ -1,13 +1,43 @@
+import benchmarks.SyntheticSiteFetcher;
 import mocks.LocalFileFetcher;
 import crawler.webpage.AsyncWebpageLoader;
+import crawler.webpage.CrawlBudget;
+import crawler.webpage.CrawlEngine;
+import crawler.webpage.ForkJoinWebpageLoader;
+import crawler.webpage.NonBlockingWebpageLoader;
+import crawler.webpage.PipelinedWebpageLoader;
 import crawler.webpage.Webpage;
+import crawler.webpage.WebpageLoader;
+import crawler.webpage.concurrency.AdaptiveConcurrencyController;
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.filter.DuplicateLoadFilter;
+import crawler.webpage.filter.WebpageLoadFilter;
+import crawler.webpage.frontier.CrawlTask;
+import crawler.webpage.frontier.FifoCrawlFrontier;
+import crawler.webpage.frontier.PoliteCrawlFrontier;
+import crawler.webpage.frontier.SpillingCrawlFrontier;
+import org.jsoup.nodes.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -55,6 +85,190 @@ public class PageProcessorTest {
         assertNull(childPage.getPageTitle());
     }
 
+    @ParameterizedTest
+    @DisplayName("Tests if children get loaded with the virtual engine")
+    @ValueSource(ints = {1, 50, 10000})
+    void testLoadingChildrenVirtual(int concurrency) throws InterruptedException {
+        ArrayList<Webpage> rootPages = new ArrayList<>(Collections.singletonList(rootPage));
+        AsyncWebpageLoader webpageProcessor = new AsyncWebpageLoader(rootPages, 10, concurrency, CrawlEngine.VIRTUAL);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        for (int index=0; index<3; index++)
+            assertNotNull(rootPage.getChildren().get(index).getPageTitle());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Tests if children get loaded with the fork-join engine")
+    @ValueSource(ints = {1, 50, 100})
+    void testLoadingChildrenForkJoin(int threadCount) throws InterruptedException {
+        ForkJoinWebpageLoader webpageProcessor = new ForkJoinWebpageLoader(rootPage, 10, threadCount);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        for (int index=0; index<3; index++)
+            assertNotNull(rootPage.getChildren().get(index).getPageTitle());
+    }
+
+    @Test
+    @DisplayName("Test if the fork-join engine stops loading when the depth is reached")
+    void testDepthForkJoin() throws InterruptedException {
+        ForkJoinWebpageLoader webpageProcessor = new ForkJoinWebpageLoader(rootPage, 2, 4);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        assertNull(rootPage.getChildren().get(2).getChildren().get(0).getPageTitle());
+    }
+
+    @Test
+    @DisplayName("Test if the fork-join engine replaces workers that wait for a response")
+    void testForkJoinCompensatesBlockedWorkers() throws InterruptedException, URISyntaxException {
+        AtomicInteger loading = new AtomicInteger(), peakLoading = new AtomicInteger();
+        SyntheticSiteFetcher site = new SyntheticSiteFetcher(10, 100);
+        Webpage syntheticRootPage = new Webpage(SyntheticSiteFetcher.ROOT_URL);
+        syntheticRootPage.setFetcher(new Fetcher() {
+            @Override
+            public Document fetchDocument(String location, String userAgent) throws IOException {
+                peakLoading.accumulateAndGet(loading.incrementAndGet(), Math::max);
+                try {
+                    return site.fetchDocument(location, userAgent);
+                } finally {
+                    loading.decrementAndGet();
+                }
+            }
+        });
+
+        ForkJoinWebpageLoader webpageProcessor = new ForkJoinWebpageLoader(syntheticRootPage, 2, 1);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        assertEquals(10, syntheticRootPage.getChildren().size());
+        assertTrue(peakLoading.get() > 1);
+    }
+
+    @ParameterizedTest
+    @DisplayName("Tests if children get loaded with the pipeline engine")
+    @ValueSource(ints = {1, 2, 50})
+    void testLoadingChildrenPipelined(int threadCount) throws InterruptedException {
+        PipelinedWebpageLoader webpageProcessor = new PipelinedWebpageLoader(rootPage, 10, threadCount, threadCount);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        for (int index=0; index<3; index++)
+            assertNotNull(rootPage.getChildren().get(index).getPageTitle());
+    }
+
+    @Test
+    @DisplayName("Test if the expand stage keeps processing pages after the observer threw for a page")
+    void testThrowingObserverPipelined() {
+        PipelinedWebpageLoader webpageProcessor = new PipelinedWebpageLoader(rootPage, 2, 1, 1);
+        webpageProcessor.setCrawlObserver(task -> {
+            if (task.getParent() != null)
+                throw new IllegalStateException("Observer failed for " + task.getPage().getPageURI());
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), webpageProcessor::loadPagesRecursivelyAndBlock);
+        for (Webpage child : rootPage.getChildren())
+            assertNotNull(child.getPageTitle());
+        // the failure of the last page may be counted only after it finished the crawl
+        assertTrue(webpageProcessor.getExpandStage().getFailedCount() >= 2);
+    }
+
+    @Test
+    @DisplayName("Test if a fetch thread keeps taking pages after a filter threw for a page")
+    void testThrowingFilterPipelined() throws URISyntaxException {
+        ArrayList<WebpageLoadFilter> filters = new ArrayList<>();
+        Webpage throwingRootPage = new Webpage("3-children", filters);
+        throwingRootPage.setFetcher(new LocalFileFetcher());
+        filters.add(uri -> {
+            if (!uri.equals(throwingRootPage.getPageURI()))
+                throw new IllegalStateException("Filter failed for " + uri);
+            return true;
+        });
+        PipelinedWebpageLoader webpageProcessor = new PipelinedWebpageLoader(throwingRootPage, 2, 1, 1);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), webpageProcessor::loadPagesRecursivelyAndBlock);
+        assertNotNull(throwingRootPage.getPageTitle());
+        assertEquals(3, throwingRootPage.getChildren().size());
+        for (Webpage child : throwingRootPage.getChildren())
+            assertNull(child.getPageTitle());
+    }
+
+    @Test
+    @DisplayName("Test if the pipeline engine stops loading when the depth is reached")
+    void testDepthPipelined() throws InterruptedException {
+        PipelinedWebpageLoader webpageProcessor = new PipelinedWebpageLoader(rootPage, 2, 4, 2);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        assertNull(rootPage.getChildren().get(2).getChildren().get(0).getPageTitle());
+    }
+
+    @Test
+    @DisplayName("Test if every loaded page passes the parse and expand stage of the pipeline")
+    void testPipelineStatistics() throws InterruptedException {
+        PipelinedWebpageLoader webpageProcessor = new PipelinedWebpageLoader(rootPage, 2, 4, 2);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        // the root page and its 3 children
+        assertEquals(4, webpageProcessor.getParseStage().getProcessedCount());
+        assertEquals(4, webpageProcessor.getExpandStage().getProcessedCount());
+        assertTrue(webpageProcessor.getStatistics().contains("parse"));
+    }
+
+    @Test
+    @DisplayName("Tests if children get loaded through the polite frontier")
+    void testLoadingChildrenPolitely() throws InterruptedException {
+        PoliteCrawlFrontier frontier = new PoliteCrawlFrontier(1, 1, 0);
+        frontier.setAddressResolver(CompletableFuture::completedFuture);
+
+        AsyncWebpageLoader webpageProcessor = new AsyncWebpageLoader(rootPage, 10, 4);
+        webpageProcessor.setFrontier(frontier);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        for (int index=0; index<3; index++)
+            assertNotNull(rootPage.getChildren().get(index).getPageTitle());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Tests if children get loaded when the concurrency is adapted")
+    @ValueSource(strings = {"POOL", "VIRTUAL"})
+    void testLoadingChildrenAdaptively(CrawlEngine engine) throws InterruptedException {
+        AdaptiveConcurrencyController concurrency = new AdaptiveConcurrencyController(1, 4, 2);
+        PoliteCrawlFrontier frontier = new PoliteCrawlFrontier(2, 10, 0);
+        frontier.setAddressResolver(CompletableFuture::completedFuture);
+        frontier.setHostLimitLookup(concurrency::getHostLimit);
+
+        ArrayList<Webpage> rootPages = new ArrayList<>(Collections.singletonList(rootPage));
+        AsyncWebpageLoader webpageProcessor = new AsyncWebpageLoader(rootPages, 10, concurrency.getMaxLimit(), engine);
+        webpageProcessor.setFrontier(frontier);
+        webpageProcessor.setConcurrencyController(concurrency);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        for (int index=0; index<3; index++)
+            assertNotNull(rootPage.getChildren().get(index).getPageTitle());
+        assertTrue(concurrency.getLimit() > 1);
+        assertTrue(webpageProcessor.getStatistics().contains(AdaptiveConcurrencyController.GLOBAL_SCOPE));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Tests if all pages get loaded when most of them are spilled to disk")
+    @ValueSource(ints = {1, 50})
+    void testLoadingWithSpilling(int threadCount, @TempDir Path spillDirectory) throws InterruptedException, URISyntaxException {
+        AsyncWebpageLoader webpageProcessor = new AsyncWebpageLoader(rootPage, 3, threadCount);
+        webpageProcessor.setFrontier(new SpillingCrawlFrontier(new FifoCrawlFrontier(), 1, spillDirectory));
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        // restored children are put back at their index, so the result is the one of a crawl without spilling
+        Webpage unspilledRootPage = new Webpage("3-children");
+        unspilledRootPage.setFetcher(new LocalFileFetcher());
+        new AsyncWebpageLoader(unspilledRootPage, 3, threadCount).loadPagesRecursivelyAndBlock();
+        assertEquals(withoutLoadTimes(unspilledRootPage), withoutLoadTimes(rootPage));
+
+        assertEquals(3, rootPage.getChildren().size());
+        for (Webpage child : rootPage.getChildren())
+            assertNotNull(child.getPageTitle());
+
+        Webpage linksPage = findChildWithTitle("4 Links");
+        assertEquals(4, linksPage.getChildren().size());
+        for (Webpage grandchild : linksPage.getChildren())
+            assertTrue(grandchild.loadingWasAttempted());
+    }
+
     @Test
     @DisplayName("Test if the root page doesn't get loaded with a depth of zero")
     void testRootPageNotLoading() throws InterruptedException {
@@ -63,4 +277,321 @@ public class PageProcessorTest {
 
         assertNull(rootPage.getPageTitle());
     }
+
+    @Test
+    @DisplayName("Test if pages are loaded in breadth-first order")
+    void testBreadthFirstOrder() throws InterruptedException {
+        List<String> loadOrder = Collections.synchronizedList(new ArrayList<>());
+        rootPage.setFetcher(new LocalFileFetcher() {
+            @Override
+            public Document fetchDocument(String location, String userAgent) throws IOException {
+                loadOrder.add(location);
+                return super.fetchDocument(location, userAgent);
+            }
+        });
+
+        AsyncWebpageLoader webpageProcessor = new AsyncWebpageLoader(rootPage, 3, 1);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        List<String> expectedOrder = Arrays.asList(
+                "3-children",
+                "https://55-words.test",
+                "https://4-images.test",
+                "https://4-links.test",
+                "http://link1.com",
+                "http://link2.at",
+                "https://links.link3.de",
+                "https://link4.net"
+        );
+        assertEquals(expectedOrder, loadOrder);
+    }
+
+    @ParameterizedTest
+    @DisplayName("Tests if children get loaded with the async engine")
+    @ValueSource(ints = {1, 2, 50})
+    void testLoadingChildrenNonBlocking(int maxInFlight) throws InterruptedException {
+        NonBlockingWebpageLoader webpageProcessor = new NonBlockingWebpageLoader(rootPage, 10, maxInFlight, 2);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        for (int index=0; index<3; index++)
+            assertNotNull(rootPage.getChildren().get(index).getPageTitle());
+    }
+
+    @Test
+    @DisplayName("Test if the async engine stops loading when the depth is reached")
+    void testDepthNonBlocking() throws InterruptedException {
+        NonBlockingWebpageLoader webpageProcessor = new NonBlockingWebpageLoader(rootPage, 2, 4, 2);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        assertNull(rootPage.getChildren().get(2).getChildren().get(0).getPageTitle());
+    }
+
+    @Test
+    @DisplayName("Test if the async engine gives the same result as the pool engine")
+    void testNonBlockingEqualsPool() throws InterruptedException, URISyntaxException {
+        new AsyncWebpageLoader(rootPage, 3, 4).loadPagesRecursivelyAndBlock();
+
+        Webpage nonBlockingRootPage = new Webpage("3-children");
+        nonBlockingRootPage.setFetcher(new LocalFileFetcher());
+        new NonBlockingWebpageLoader(nonBlockingRootPage, 3, 4, 2).loadPagesRecursivelyAndBlock();
+
+        assertEquals(withoutLoadTimes(rootPage), withoutLoadTimes(nonBlockingRootPage));
+    }
+
+    @Test
+    @DisplayName("Test if the async engine keeps many requests in flight without a thread per request")
+    void testNonBlockingWithoutBlockingThreads() throws InterruptedException, URISyntaxException {
+        Webpage syntheticRootPage = new Webpage(SyntheticSiteFetcher.ROOT_URL);
+        syntheticRootPage.setFetcher(new SyntheticSiteFetcher(10, 50));
+        NonBlockingWebpageLoader webpageProcessor = new NonBlockingWebpageLoader(syntheticRootPage, 3, 1000, 2);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        // 1 + 10 + 100 pages
+        assertEquals(111, countAttemptedPages(syntheticRootPage));
+        assertTrue(webpageProcessor.getPeakInFlight() >= 10, webpageProcessor.getStatistics());
+        assertEquals(0, webpageProcessor.getPeakBlockingThreadCount());
+    }
+
+    @Test
+    @DisplayName("Test if the async engine keeps dispatching pages while a filter of another page blocks")
+    void testNonBlockingWithBlockingFilter() throws InterruptedException, URISyntaxException {
+        CountDownLatch childFetched = new CountDownLatch(1);
+        AtomicBoolean blocked = new AtomicBoolean(), released = new AtomicBoolean();
+        SyntheticSiteFetcher site = new SyntheticSiteFetcher(10, 0);
+        // blocks on the first child, until another child was fetched or 5 seconds passed
+        WebpageLoadFilter blockingFilter = uri -> {
+            if (!uri.toString().equals(SyntheticSiteFetcher.ROOT_URL) && blocked.compareAndSet(false, true)) {
+                try {
+                    released.set(childFetched.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return true;
+        };
+        Webpage syntheticRootPage = new Webpage(SyntheticSiteFetcher.ROOT_URL, new ArrayList<>(List.of(blockingFilter)));
+        syntheticRootPage.setFetcher(new Fetcher() {
+            @Override
+            public Document fetchDocument(String location, String userAgent) throws IOException {
+                Document document = site.fetchDocument(location, userAgent);
+                if (!location.equals(SyntheticSiteFetcher.ROOT_URL))
+                    childFetched.countDown();
+                return document;
+            }
+        });
+
+        new NonBlockingWebpageLoader(syntheticRootPage, 2, 4, 2).loadPagesRecursivelyAndBlock();
+
+        assertTrue(released.get());
+        assertEquals(11, countAttemptedPages(syntheticRootPage));
+    }
+
+    @Test
+    @DisplayName("Test if fetchers that block are run on threads of the async engine")
+    void testNonBlockingAdaptsBlockingFetcher() throws InterruptedException {
+        NonBlockingWebpageLoader webpageProcessor = new NonBlockingWebpageLoader(rootPage, 2, 4, 2);
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        assertTrue(webpageProcessor.getPeakBlockingThreadCount() > 0);
+        assertTrue(webpageProcessor.getPeakBlockingThreadCount() <= 4);
+    }
+
+    @Test
+    @DisplayName("Test if the async engine loads no more pages than the page budget")
+    void testPageBudgetNonBlocking() throws InterruptedException {
+        NonBlockingWebpageLoader webpageProcessor = new NonBlockingWebpageLoader(rootPage, 10, 4, 2);
+        webpageProcessor.setBudget(new CrawlBudget(2, CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED));
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        assertEquals(2, countAttemptedPages(rootPage));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if no more pages than the page budget are loaded")
+    @ValueSource(ints = {1, 50})
+    void testPageBudget(int threadCount) throws InterruptedException {
+        AsyncWebpageLoader webpageProcessor = new AsyncWebpageLoader(rootPage, 10, threadCount);
+        webpageProcessor.setBudget(new CrawlBudget(2, CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED));
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        assertEquals(2, countAttemptedPages(rootPage));
+    }
+
+    @Test
+    @DisplayName("Test if the pipeline engine loads no more pages than the page budget")
+    void testPageBudgetPipelined() throws InterruptedException {
+        PipelinedWebpageLoader webpageProcessor = new PipelinedWebpageLoader(rootPage, 10, 4, 2);
+        webpageProcessor.setBudget(new CrawlBudget(2, CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED));
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        assertEquals(2, countAttemptedPages(rootPage));
+    }
+
+    @Test
+    @DisplayName("Test if the fork-join engine loads no more pages than the page budget")
+    void testPageBudgetForkJoin() throws InterruptedException {
+        ForkJoinWebpageLoader webpageProcessor = new ForkJoinWebpageLoader(rootPage, 10, 4);
+        webpageProcessor.setBudget(new CrawlBudget(2, CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED));
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        assertEquals(2, countAttemptedPages(rootPage));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if pages rejected as duplicates don't use up the page budget")
+    @ValueSource(strings = {"POOL", "VIRTUAL", "FORK_JOIN", "PIPELINE", "ASYNC"})
+    void testPageBudgetWithDuplicates(CrawlEngine engine) throws InterruptedException, URISyntaxException {
+        DuplicateLoadFilter.forgetSeenUris();
+        AtomicInteger fetches = new AtomicInteger();
+        LocalFileFetcher files = new LocalFileFetcher();
+        Fetcher countingFetcher = (location, userAgent) -> {
+            fetches.incrementAndGet();
+            return files.fetchDocument(location, userAgent);
+        };
+
+        // the same root page ten times, all but one are rejected by the duplicate filter
+        ArrayList<WebpageLoadFilter> filters = new ArrayList<>(Collections.singletonList(new DuplicateLoadFilter()));
+        ArrayList<Webpage> rootPages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Webpage duplicate = new Webpage("3-children", filters);
+            duplicate.setFetcher(countingFetcher);
+            rootPages.add(duplicate);
+        }
+
+        WebpageLoader webpageProcessor;
+        switch (engine) {
+            case FORK_JOIN:
+                webpageProcessor = new ForkJoinWebpageLoader(rootPages, 3, 4);
+                break;
+            case PIPELINE:
+                webpageProcessor = new PipelinedWebpageLoader(rootPages, 3, 4, 2);
+                break;
+            case ASYNC:
+                webpageProcessor = new NonBlockingWebpageLoader(rootPages, 3, 4, 2);
+                break;
+            default:
+                webpageProcessor = new AsyncWebpageLoader(rootPages, 3, 4, engine);
+        }
+        CrawlBudget budget = new CrawlBudget(4, CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED);
+        webpageProcessor.setBudget(budget);
+        try {
+            webpageProcessor.loadPagesRecursivelyAndBlock();
+        } finally {
+            DuplicateLoadFilter.forgetSeenUris();
+        }
+
+        assertEquals(4, fetches.get());
+        assertEquals(4, budget.getStartedPages());
+    }
+
+    @Test
+    @DisplayName("Test if no further pages are loaded once the byte budget is exhausted")
+    void testByteBudget() throws InterruptedException {
+        AsyncWebpageLoader webpageProcessor = new AsyncWebpageLoader(rootPage, 10, 1);
+        webpageProcessor.setBudget(new CrawlBudget(CrawlBudget.UNLIMITED, 1, CrawlBudget.UNLIMITED));
+        webpageProcessor.loadPagesRecursivelyAndBlock();
+
+        assertEquals(1, countAttemptedPages(rootPage));
+        assertEquals(3, rootPage.getChildren().size());
+    }
+
+    @Test
+    @DisplayName("Test if loading stops without waiting for queued pages when the time budget is exhausted")
+    void testTimeBudget() {
+        // hands out the root page only, the children stay queued forever
+        FifoCrawlFrontier frontier = new FifoCrawlFrontier() {
+            private boolean rootTaken;
+
+            @Override
+            public synchronized CrawlTask take() throws InterruptedException {
+                if (rootTaken)
+                    wait();
+                rootTaken = true;
+                return super.take();
+            }
+        };
+
+        AsyncWebpageLoader webpageProcessor = new AsyncWebpageLoader(rootPage, 10, 4);
+        webpageProcessor.setFrontier(frontier);
+        webpageProcessor.setBudget(new CrawlBudget(CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED, 200));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), webpageProcessor::loadPagesRecursivelyAndBlock);
+        assertNotNull(rootPage.getPageTitle());
+    }
+
+    @Test
+    @DisplayName("Test if a worker keeps loading pages after the observer threw for a page")
+    void testThrowingObserver() {
+        AsyncWebpageLoader webpageProcessor = new AsyncWebpageLoader(rootPage, 2, 1);
+        webpageProcessor.setCrawlObserver(task -> {
+            if (task.getParent() != null)
+                throw new IllegalStateException("Observer failed for " + task.getPage().getPageURI());
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), webpageProcessor::loadPagesRecursivelyAndBlock);
+        for (Webpage child : rootPage.getChildren())
+            assertNotNull(child.getPageTitle());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if the crawl finishes when the frontier fails to take the children of a page")
+    @ValueSource(strings = {"POOL", "PIPELINE", "ASYNC"})
+    void testThrowingFrontier(CrawlEngine engine) {
+        WebpageLoader webpageProcessor;
+        FifoCrawlFrontier frontier = new FifoCrawlFrontier() {
+            @Override
+            public void push(CrawlTask task) {
+                if (task.getParent() != null)
+                    throw new UncheckedIOException(new IOException("Frontier failed for " + task.getPage().getPageURI()));
+                super.push(task);
+            }
+        };
+        switch (engine) {
+            case PIPELINE:
+                PipelinedWebpageLoader pipelinedLoader = new PipelinedWebpageLoader(rootPage, 2, 2, 1);
+                pipelinedLoader.setFrontier(frontier);
+                webpageProcessor = pipelinedLoader;
+                break;
+            case ASYNC:
+                NonBlockingWebpageLoader nonBlockingLoader = new NonBlockingWebpageLoader(rootPage, 2, 2, 1);
+                nonBlockingLoader.setFrontier(frontier);
+                webpageProcessor = nonBlockingLoader;
+                break;
+            default:
+                AsyncWebpageLoader asyncLoader = new AsyncWebpageLoader(rootPage, 2, 2);
+                asyncLoader.setFrontier(frontier);
+                webpageProcessor = asyncLoader;
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), webpageProcessor::loadPagesRecursivelyAndBlock);
+        assertNotNull(rootPage.getPageTitle());
+        for (Webpage child : rootPage.getChildren())
+            assertNull(child.getPageTitle());
+    }
+
+    @Test
+    @DisplayName("Test if loading without root pages returns immediately")
+    void testNoRootPages() {
+        AsyncWebpageLoader webpageProcessor = new AsyncWebpageLoader(new ArrayList<>(), 2, 4);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), webpageProcessor::loadPagesRecursivelyAndBlock);
+    }
+
+    private static String withoutLoadTimes(Webpage page) {
+        return page.asJSONObject().toString().replaceAll("\"nanoLoadTime\":\\d+", "");
+    }
+
+    private static int countAttemptedPages(Webpage page) {
+        int attemptedPages = page.loadingWasAttempted() ? 1 : 0;
+        for (Webpage child : page.getChildren())
+            attemptedPages += countAttemptedPages(child);
+        return attemptedPages;
+    }
+
+    private Webpage findChildWithTitle(String title) {
+        for (Webpage child : rootPage.getChildren())
+            if (title.equals(child.getPageTitle()))
+                return child;
+        throw new AssertionError("No child with title " + title);
+    }
 }
@@ -0,0 +1,155 @@
+import crawler.webpage.Webpage;
+import crawler.webpage.dns.DnsCache;
+import crawler.webpage.frontier.CrawlTask;
+import crawler.webpage.frontier.PoliteCrawlFrontier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoliteCrawlFrontierTest {
+
+    @Test
+    @DisplayName("Test if a busy host is skipped in favour of a ready one")
+    void testBusyHostSkipped() throws URISyntaxException, InterruptedException {
+        PoliteCrawlFrontier frontier = newFrontier(1, 10, 0);
+        CrawlTask firstA = task("https://a.test/1"), secondA = task("https://a.test/2"), firstB = task("https://b.test/1");
+        frontier.push(firstA);
+        frontier.push(secondA);
+        frontier.push(firstB);
+
+        assertSame(firstA, frontier.take());
+        assertSame(firstB, frontier.take());
+
+        frontier.complete(firstA);
+        assertSame(secondA, frontier.take());
+    }
+
+    @Test
+    @DisplayName("Test if hosts sharing an address are limited together")
+    void testAddressLimit() throws URISyntaxException, InterruptedException {
+        PoliteCrawlFrontier frontier = newFrontier(10, 1, 0);
+        frontier.setAddressResolver(host -> CompletableFuture.completedFuture("127.0.0.1"));
+        CrawlTask firstA = task("https://a.test/1"), firstB = task("https://b.test/1");
+        frontier.push(firstA);
+        frontier.push(firstB);
+
+        assertSame(firstA, frontier.take());
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            Thread completer = new Thread(() -> frontier.complete(firstA));
+            completer.start();
+            assertSame(firstB, frontier.take());
+        });
+    }
+
+    @Test
+    @DisplayName("Test if pushing doesn't wait for a slow DNS lookup and other hosts are taken while it runs")
+    void testSlowAddressLookup() throws URISyntaxException, InterruptedException {
+        CountDownLatch slowLookupReleased = new CountDownLatch(1);
+        DnsCache dnsCache = new DnsCache(host -> {
+            if (host.equals("slow.test")) {
+                try {
+                    slowLookupReleased.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new InetAddress[]{InetAddress.getByAddress(host, new byte[]{10, 0, 0, (byte) host.length()})};
+        }, DnsCache.DEFAULT_TTL, DnsCache.DEFAULT_NEGATIVE_TTL, 2);
+        PoliteCrawlFrontier frontier = newFrontier(10, 10, 0);
+        frontier.setAddressResolver(dnsCache::resolveAddressAsync);
+        CrawlTask slow = task("https://slow.test/1"), fast = task("https://a.test/1");
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            frontier.push(slow);
+            frontier.push(fast);
+            assertSame(fast, frontier.take());
+        });
+
+        slowLookupReleased.countDown();
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertSame(slow, frontier.take()));
+        dnsCache.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test if the delay between requests to the same host is respected")
+    void testMinDelay() throws URISyntaxException, InterruptedException {
+        PoliteCrawlFrontier frontier = newFrontier(10, 10, 200);
+        frontier.push(task("https://a.test/1"));
+        frontier.push(task("https://a.test/2"));
+
+        long startTime = System.nanoTime();
+        frontier.take();
+        frontier.take();
+
+        assertTrue(System.nanoTime() - startTime >= Duration.ofMillis(190).toNanos());
+    }
+
+    @Test
+    @DisplayName("Test if a longer crawl delay from robots.txt takes precedence")
+    void testCrawlDelayLookup() throws URISyntaxException, InterruptedException {
+        PoliteCrawlFrontier frontier = newFrontier(10, 10, 0);
+        frontier.setCrawlDelayLookup(host -> 200);
+        frontier.push(task("https://a.test/1"));
+        frontier.push(task("https://a.test/2"));
+
+        long startTime = System.nanoTime();
+        frontier.take();
+        frontier.take();
+
+        assertTrue(System.nanoTime() - startTime >= Duration.ofMillis(190).toNanos());
+    }
+
+    @Test
+    @DisplayName("Test if a lower limit from the host limit lookup is respected")
+    void testHostLimitLookup() throws URISyntaxException, InterruptedException {
+        PoliteCrawlFrontier frontier = newFrontier(2, 10, 0);
+        frontier.setHostLimitLookup(host -> host.equals("a.test") ? 1 : 5);
+        CrawlTask firstA = task("https://a.test/1"), secondA = task("https://a.test/2"),
+                firstB = task("https://b.test/1"), secondB = task("https://b.test/2"), thirdB = task("https://b.test/3");
+        frontier.push(firstA);
+        frontier.push(secondA);
+        frontier.push(firstB);
+        frontier.push(secondB);
+        frontier.push(thirdB);
+
+        assertSame(firstA, frontier.take());
+        assertSame(firstB, frontier.take());
+        assertSame(secondB, frontier.take());
+        // a.test is limited by the lookup, b.test by max per host
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            Thread completer = new Thread(() -> frontier.complete(firstA));
+            completer.start();
+            assertSame(secondA, frontier.take());
+        });
+    }
+
+    @Test
+    @DisplayName("Test if the size reflects the waiting tasks")
+    void testSize() throws URISyntaxException, InterruptedException {
+        PoliteCrawlFrontier frontier = newFrontier(10, 10, 0);
+        frontier.push(task("https://a.test/1"));
+        frontier.push(task("https://b.test/1"));
+        frontier.take();
+
+        assertEquals(1, frontier.size());
+    }
+
+    private PoliteCrawlFrontier newFrontier(int maxPerHost, int maxPerAddress, long minDelayMillis) {
+        PoliteCrawlFrontier frontier = new PoliteCrawlFrontier(maxPerHost, maxPerAddress, minDelayMillis);
+        frontier.setAddressResolver(CompletableFuture::completedFuture);
+        frontier.setCrawlDelayLookup(host -> 0);
+        return frontier;
+    }
+
+    private CrawlTask task(String url) throws URISyntaxException {
+        return new CrawlTask(new Webpage(url), 1);
+    }
+}
@@ -0,0 +1,88 @@
+import crawler.webpage.Webpage;
+import crawler.webpage.frontier.CrawlTask;
+import crawler.webpage.frontier.PriorityCrawlFrontier;
+import crawler.webpage.frontier.scorer.DepthScorer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriorityCrawlFrontierTest {
+
+    PriorityCrawlFrontier frontier;
+
+    @BeforeEach
+    void setup() {
+        frontier = new PriorityCrawlFrontier(new DepthScorer());
+    }
+
+    @Test
+    @DisplayName("Test if the task with the highest score is taken first")
+    void testHighestScoreFirst() throws URISyntaxException, InterruptedException {
+        CrawlTask deep = task("deep", 1), shallow = task("shallow", 3), middle = task("middle", 2);
+        frontier.push(deep);
+        frontier.push(shallow);
+        frontier.push(middle);
+
+        assertSame(shallow, frontier.take());
+        assertSame(middle, frontier.take());
+        assertSame(deep, frontier.take());
+    }
+
+    @Test
+    @DisplayName("Test if tasks with equal scores are taken in the order they were pushed")
+    void testEqualScoresFifo() throws URISyntaxException, InterruptedException {
+        CrawlTask first = task("first", 1), second = task("second", 1);
+        frontier.push(first);
+        frontier.push(second);
+
+        assertSame(first, frontier.take());
+        assertSame(second, frontier.take());
+    }
+
+    @Test
+    @DisplayName("Test if concurrent pushes and takes neither lose nor duplicate tasks")
+    void testConcurrentPushAndTake() {
+        int producers = 8, tasksPerProducer = 1000;
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            ExecutorService threadPool = Executors.newFixedThreadPool(producers * 2);
+            List<CrawlTask> taken = Collections.synchronizedList(new ArrayList<>());
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int producer = 0; producer < producers; producer++) {
+                futures.add(threadPool.submit(() -> {
+                    for (int i = 0; i < tasksPerProducer; i++)
+                        frontier.push(task("page" + i, i % 5));
+                    return null;
+                }));
+                futures.add(threadPool.submit(() -> {
+                    for (int i = 0; i < tasksPerProducer; i++)
+                        taken.add(frontier.take());
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+            threadPool.shutdown();
+
+            assertEquals(producers * tasksPerProducer, new HashSet<>(taken).size());
+            assertEquals(0, frontier.size());
+        });
+    }
+
+    private static CrawlTask task(String url, int remainingDepth) throws URISyntaxException {
+        return new CrawlTask(new Webpage(url), remainingDepth);
+    }
+}
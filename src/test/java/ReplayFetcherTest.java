@@ -0,0 +1,183 @@
+import crawler.webpage.AsyncWebpageLoader;
+import crawler.webpage.NonBlockingWebpageLoader;
+import crawler.webpage.Webpage;
+import crawler.webpage.archive.WarcReader;
+import crawler.webpage.archive.WarcWriter;
+import crawler.webpage.fetcher.ArchivingFetcher;
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.fetcher.HttpResponseException;
+import crawler.webpage.fetcher.JsoupFetcher;
+import crawler.webpage.fetcher.RawResponse;
+import crawler.webpage.fetcher.ReplayFetcher;
+import mocks.LoopbackServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayFetcherTest {
+
+    private static final long FETCH_MILLIS = 100;
+
+    @TempDir
+    Path warcDirectory;
+
+    @Test
+    @DisplayName("Test if recorded responses, redirects and error responses are replayed and unrecorded URLs are answered with 404")
+    void testReplay() throws IOException {
+        record();
+        ReplayFetcher fetcher = new ReplayFetcher(new WarcReader(warcDirectory), 0);
+
+        RawResponse page = fetcher.fetchRaw("https://example.test/page", "Crawler");
+        assertEquals(200, page.getStatusCode());
+        assertEquals("<title>Page</title>", new String(page.getBody(), StandardCharsets.UTF_8));
+        assertEquals("text/html; charset=UTF-8", page.getHeader("content-type"));
+        assertEquals("UTF-8", page.getCharset());
+        assertEquals("Page", fetcher.fetchDocument("https://example.test/page", "Crawler").title());
+
+        RawResponse redirected = fetcher.fetchRaw("https://example.test/moved", "Crawler");
+        assertEquals("https://example.test/page", redirected.getLocation());
+        assertArrayEquals(page.getBody(), redirected.getBody());
+
+        assertEquals(410, assertThrows(HttpResponseException.class, () -> fetcher.fetchRaw("https://example.test/gone", "Crawler")).getStatusCode());
+        assertEquals(404, assertThrows(HttpResponseException.class, () -> fetcher.fetchRaw("https://example.test/unknown", "Crawler")).getStatusCode());
+        assertEquals(410, fetcher.fetchStatus("https://example.test/gone", "Crawler"));
+        assertEquals(200, fetcher.fetchStatus("https://example.test/moved", "Crawler"));
+
+        assertEquals(6, fetcher.getReplayedCount());
+        assertEquals(1, fetcher.getMissingCount());
+    }
+
+    @Test
+    @DisplayName("Test if files without an index are scanned for their response records")
+    void testScanWithoutIndex() throws IOException {
+        record();
+        try (Stream<Path> files = Files.list(warcDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator)
+                if (file.toString().endsWith(WarcWriter.INDEX_EXTENSION))
+                    Files.delete(file);
+        }
+
+        WarcReader reader = new WarcReader(warcDirectory);
+        assertEquals(3, reader.getResponseCount());
+        assertEquals(1, reader.getFileCount());
+        assertTrue(reader.getTargetUris().contains("https://example.test/moved"));
+
+        RawResponse page = new ReplayFetcher(reader, 0).fetchRaw("https://example.test/moved", "Crawler");
+        assertEquals("<title>Page</title>", new String(page.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test if the recorded latency is injected into blocking and async fetches")
+    void testLatency() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        record();
+        WarcReader reader = new WarcReader(warcDirectory);
+        long recordedMillis = Long.parseLong(reader.read("https://example.test/page").getField(ArchivingFetcher.FETCH_MILLIS_FIELD));
+        assertTrue(recordedMillis >= FETCH_MILLIS);
+
+        ReplayFetcher fetcher = new ReplayFetcher(reader, 100);
+        long startTime = System.nanoTime();
+        fetcher.fetchRaw("https://example.test/page", "Crawler");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) >= recordedMillis);
+
+        CompletableFuture<RawResponse> response = fetcher.fetchRawAsync("https://example.test/page", "Crawler");
+        assertFalse(response.isDone());
+        assertEquals(200, response.get(5, TimeUnit.SECONDS).getStatusCode());
+
+        CompletableFuture<RawResponse> missing = fetcher.fetchRawAsync("https://example.test/unknown", "Crawler");
+        ExecutionException error = assertThrows(ExecutionException.class, () -> missing.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof HttpResponseException);
+    }
+
+    @Test
+    @DisplayName("Test if a replayed crawl finds the same pages as the recorded crawl")
+    void testReplayCrawl() throws IOException, URISyntaxException, InterruptedException {
+        JSONObject recorded;
+        String rootUrl;
+        try (LoopbackServer server = new LoopbackServer()) {
+            server.handle("/a", 200, "text/html; charset=UTF-8", "<title>A</title><a href=\"/c\">c</a>");
+            server.handle("/b", 200, "text/html; charset=UTF-8", "<title>B</title>");
+            server.handle("/c", 404, "text/html", "");
+            server.handle("/notes", 200, "text/plain", "Notes");
+            server.handle("/index", 200, "text/html; charset=UTF-8",
+                    "<title>Index</title><a href=\"/a\">a</a><a href=\"/b\">b</a><a href=\"/notes\">notes</a><a href=\"/slides.pdf\">slides</a>");
+            rootUrl = server.getUrl("/index");
+
+            WarcWriter writer = new WarcWriter(warcDirectory, "crawl", 1024 * 1024);
+            Webpage rootPage = new Webpage(rootUrl);
+            rootPage.setFetcher(new ArchivingFetcher(new JsoupFetcher(5_000), writer));
+            new AsyncWebpageLoader(rootPage, 3, 2).loadPagesRecursivelyAndBlock();
+            writer.close();
+            recorded = rootPage.asJSONObject();
+        }
+
+        ReplayFetcher fetcher = new ReplayFetcher(new WarcReader(warcDirectory), 0);
+        Webpage rootPage = new Webpage(rootUrl);
+        rootPage.setFetcher(fetcher);
+        new NonBlockingWebpageLoader(rootPage, 3, 2, 2).loadPagesRecursivelyAndBlock();
+
+        assertEquals(withoutLoadTimes(recorded).toString(), withoutLoadTimes(rootPage.asJSONObject()).toString());
+        assertTrue(recorded.toString().contains("text/plain"));
+        assertTrue(recorded.toString().contains("application/pdf"));
+        // the PDF is rejected by its extension without reading a record
+        assertEquals(5, fetcher.getReplayedCount());
+        assertEquals(0, fetcher.getMissingCount());
+    }
+
+    /**
+     * Records /page, /moved redirecting to /page and /gone answered with 410, every fetch takes {@link ReplayFetcherTest#FETCH_MILLIS}.
+     */
+    private void record() throws IOException {
+        WarcWriter writer = new WarcWriter(warcDirectory, "crawl", 1024 * 1024);
+        ArchivingFetcher fetcher = new ArchivingFetcher(new Fetcher() {
+            @Override
+            public Document fetchDocument(String location, String userAgent) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public RawResponse fetchRaw(String location, String userAgent) throws IOException {
+                try {
+                    Thread.sleep(FETCH_MILLIS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                if (location.endsWith("/gone"))
+                    throw new HttpResponseException(410, location, Map.of("Content-Type", "text/html"));
+
+                return new RawResponse("https://example.test/page", 200, Map.of("Content-Type", "text/html; charset=UTF-8"),
+                        "UTF-8", "<title>Page</title>".getBytes(StandardCharsets.UTF_8));
+            }
+        }, writer);
+
+        fetcher.fetchRaw("https://example.test/page", "Crawler");
+        fetcher.fetchRaw("https://example.test/moved", "Crawler");
+        assertThrows(HttpResponseException.class, () -> fetcher.fetchRaw("https://example.test/gone", "Crawler"));
+        writer.close();
+    }
+
+    private static JSONObject withoutLoadTimes(JSONObject page) {
+        page.remove("nanoLoadTime");
+        JSONArray children = page.optJSONArray("children");
+        if (children != null)
+            for (int i = 0; i < children.length(); i++)
+                withoutLoadTimes(children.getJSONObject(i));
+        return page;
+    }
+}
@@ -0,0 +1,243 @@
+import crawler.webpage.AsyncWebpageLoader;
+import crawler.webpage.CrawlBudget;
+import crawler.webpage.CrawlEngine;
+import crawler.webpage.NonBlockingWebpageLoader;
+import crawler.webpage.PipelinedWebpageLoader;
+import crawler.webpage.Webpage;
+import crawler.webpage.WebpageLoader;
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.fetcher.HedgingFetcher;
+import crawler.webpage.fetcher.HttpResponseException;
+import crawler.webpage.filter.WebpageLoadFilter;
+import crawler.webpage.retry.RetryPolicy;
+import mocks.FlakyFetcher;
+import mocks.LocalFileFetcher;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryTest {
+
+    private static final long NOW_MILLIS = 1_700_000_000_000L;
+
+    @ParameterizedTest
+    @DisplayName("Test if only server errors, throttling and timeouts are transient")
+    @CsvSource({"408, true", "429, true", "500, true", "503, true", "504, true", "400, false", "403, false", "404, false", "501, false"})
+    void testTransientStatusCodes(int statusCode, boolean transientError) {
+        assertEquals(transientError, RetryPolicy.isTransient(new HttpStatusException("HTTP error fetching URL", statusCode, "https://test")));
+    }
+
+    @Test
+    @DisplayName("Test if timeouts and refused connections are transient, but missing pages aren't")
+    void testTransientExceptions() {
+        assertTrue(RetryPolicy.isTransient(new SocketTimeoutException()));
+        assertTrue(RetryPolicy.isTransient(new ConnectException()));
+        assertFalse(RetryPolicy.isTransient(new FileNotFoundException()));
+        assertFalse(RetryPolicy.isTransient(null));
+    }
+
+    @Test
+    @DisplayName("Test if Retry-After is parsed as seconds or as HTTP date")
+    void testParseRetryAfter() {
+        String inTenSeconds = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(java.time.Instant.ofEpochMilli(NOW_MILLIS + 10_000), ZoneOffset.UTC));
+        String tenSecondsAgo = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(java.time.Instant.ofEpochMilli(NOW_MILLIS - 10_000), ZoneOffset.UTC));
+
+        assertEquals(120_000, RetryPolicy.parseRetryAfterMillis("120", NOW_MILLIS));
+        assertEquals(10_000, RetryPolicy.parseRetryAfterMillis(inTenSeconds, NOW_MILLIS));
+        assertEquals(0, RetryPolicy.parseRetryAfterMillis(tenSecondsAgo, NOW_MILLIS));
+        assertEquals(RetryPolicy.NO_RETRY_AFTER, RetryPolicy.parseRetryAfterMillis(null, NOW_MILLIS));
+        assertEquals(RetryPolicy.NO_RETRY_AFTER, RetryPolicy.parseRetryAfterMillis("soon", NOW_MILLIS));
+        assertEquals(RetryPolicy.NO_RETRY_AFTER, RetryPolicy.parseRetryAfterMillis("99999999999999999999", NOW_MILLIS));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if the delay doubles with every attempt, is jittered by at most half and capped")
+    @CsvSource({"1, 100", "2, 200", "3, 400", "4, 500", "20, 500"})
+    void testBackoff(int attempt, long backoffMillis) {
+        RetryPolicy policy = new RetryPolicy(30, 100, 500);
+
+        for (int i = 0; i < 100; i++) {
+            long delayMillis = policy.getDelayMillis(new SocketTimeoutException(), attempt);
+            assertTrue(delayMillis >= backoffMillis / 2 && delayMillis <= backoffMillis, delayMillis + "ms");
+        }
+    }
+
+    @Test
+    @DisplayName("Test if Retry-After is honoured and a retry that would wait too long is dropped")
+    void testRetryAfter() {
+        RetryPolicy policy = new RetryPolicy(2, 100, 5_000);
+
+        HttpResponseException shortRetryAfter = new HttpResponseException(503, "https://test", Map.of("retry-after", "3"));
+        assertTrue(policy.shouldRetry(shortRetryAfter, 1));
+        assertEquals(3_000, policy.getDelayMillis(shortRetryAfter, 1));
+
+        HttpResponseException longRetryAfter = new HttpResponseException(429, "https://test", Map.of("Retry-After", "3600"));
+        assertFalse(policy.shouldRetry(longRetryAfter, 1));
+    }
+
+    @Test
+    @DisplayName("Test if a page is retried at most the max retries")
+    void testMaxRetries() {
+        RetryPolicy policy = new RetryPolicy(2, 100, 500);
+
+        assertTrue(policy.shouldRetry(new SocketTimeoutException(), 1));
+        assertTrue(policy.shouldRetry(new SocketTimeoutException(), 2));
+        assertFalse(policy.shouldRetry(new SocketTimeoutException(), 3));
+        assertFalse(RetryPolicy.none().shouldRetry(new SocketTimeoutException(), 1));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if pages failing once with a timeout are retried through the frontier and give the same result")
+    @ValueSource(strings = {"POOL", "VIRTUAL", "PIPELINE", "ASYNC"})
+    void testRetriedCrawlEqualsReliableCrawl(CrawlEngine engine) throws Exception {
+        Webpage reliableRootPage = newRootPage(new LocalFileFetcher());
+        createLoader(reliableRootPage, engine, RetryPolicy.none()).loadPagesRecursivelyAndBlock();
+
+        FlakyFetcher flakyFetcher = new FlakyFetcher(1);
+        Webpage flakyRootPage = newRootPage(flakyFetcher);
+        createLoader(flakyRootPage, engine, new RetryPolicy(2, 1, 10)).loadPagesRecursivelyAndBlock();
+
+        assertEquals(withoutLoadTimes(reliableRootPage), withoutLoadTimes(flakyRootPage));
+        assertEquals(2, flakyFetcher.getRequestCount("https://3-children.test"));
+        assertEquals(2, flakyRootPage.getLoadAttempts());
+    }
+
+    @Test
+    @DisplayName("Test if a page keeps its error once the retries are used up")
+    void testRetriesUsedUp() throws Exception {
+        FlakyFetcher flakyFetcher = new FlakyFetcher(5);
+        Webpage rootPage = newRootPage(flakyFetcher);
+        createLoader(rootPage, CrawlEngine.POOL, new RetryPolicy(2, 1, 10)).loadPagesRecursivelyAndBlock();
+
+        assertEquals(3, flakyFetcher.getRequestCount("https://3-children.test"));
+        assertEquals("Read timed out", rootPage.asJSONObject().getString("error"));
+    }
+
+    @Test
+    @DisplayName("Test if errors that aren't transient are not retried")
+    void testPermanentErrorNotRetried() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        Webpage rootPage = newRootPage(new LocalFileFetcher() {
+            @Override
+            public Document fetchDocument(String location, String userAgent) throws IOException {
+                requestCount.incrementAndGet();
+                throw new HttpStatusException("HTTP error fetching URL", 404, location);
+            }
+        });
+        createLoader(rootPage, CrawlEngine.POOL, new RetryPolicy(2, 1, 10)).loadPagesRecursivelyAndBlock();
+
+        assertEquals(1, requestCount.get());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if retries don't count towards the page budget")
+    @ValueSource(strings = {"POOL", "PIPELINE", "ASYNC"})
+    void testRetriesNotCountedByBudget(CrawlEngine engine) throws Exception {
+        Webpage rootPage = newRootPage(new FlakyFetcher(1));
+        CrawlBudget budget = new CrawlBudget(1, CrawlBudget.UNLIMITED, CrawlBudget.UNLIMITED);
+        WebpageLoader loader = createLoader(rootPage, engine, new RetryPolicy(2, 1, 10));
+        loader.setBudget(budget);
+        loader.loadPagesRecursivelyAndBlock();
+
+        assertEquals("3 Children", rootPage.getPageTitle());
+        assertEquals(1, budget.getStartedPages());
+    }
+
+    @Test
+    @DisplayName("Test if hosts are only hedged once enough latencies are known")
+    void testNoHedgingWithoutSamples() throws IOException {
+        HedgingFetcher fetcher = new HedgingFetcher(new LocalFileFetcher());
+        for (int i = 1; i < HedgingFetcher.MIN_SAMPLES; i++)
+            fetcher.fetchDocument("https://3-children.test", "agent");
+
+        assertEquals(0, fetcher.getHedgeDelayNanos("3-children.test"));
+        fetcher.fetchDocument("https://3-children.test", "agent");
+        assertTrue(fetcher.getHedgeDelayNanos("3-children.test") > 0);
+        assertEquals(0, fetcher.getHedgedCount());
+    }
+
+    @Test
+    @DisplayName("Test if a request slower than the 95th percentile of its host is hedged and the faster response is used")
+    void testHedgedRequest() throws IOException {
+        AtomicInteger requestCount = new AtomicInteger();
+        HedgingFetcher fetcher = new HedgingFetcher(new Fetcher() {
+            @Override
+            public Document fetchDocument(String location, String userAgent) throws IOException {
+                if (requestCount.incrementAndGet() == HedgingFetcher.MIN_SAMPLES + 1) {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        throw new IOException("cancelled");
+                    }
+                }
+                return Jsoup.parse("<title>Test</title>");
+            }
+        });
+
+        for (int i = 0; i < HedgingFetcher.MIN_SAMPLES; i++)
+            fetcher.fetchDocument("https://slow.test", "agent");
+
+        Document document = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> fetcher.fetchDocument("https://slow.test", "agent"));
+
+        assertEquals("Test", document.title());
+        assertEquals(1, fetcher.getHedgedCount());
+        assertEquals(1, fetcher.getHedgeWinCount());
+    }
+
+    private static WebpageLoader createLoader(Webpage rootPage, CrawlEngine engine, RetryPolicy retryPolicy) {
+        ArrayList<Webpage> rootPages = new ArrayList<>(Collections.singletonList(rootPage));
+        if (engine == CrawlEngine.PIPELINE) {
+            PipelinedWebpageLoader loader = new PipelinedWebpageLoader(rootPages, 3, 2, 2);
+            loader.setRetryPolicy(retryPolicy);
+            return loader;
+        }
+        if (engine == CrawlEngine.ASYNC) {
+            NonBlockingWebpageLoader loader = new NonBlockingWebpageLoader(rootPages, 3, 2, 2);
+            loader.setRetryPolicy(retryPolicy);
+            return loader;
+        }
+
+        AsyncWebpageLoader loader = new AsyncWebpageLoader(rootPages, 3, 2, engine);
+        loader.setRetryPolicy(retryPolicy);
+        return loader;
+    }
+
+    private static Webpage newRootPage(Fetcher fetcher) throws URISyntaxException {
+        // rejects every page checked twice like the DuplicateLoadFilter, whose seen pages are shared by all tests
+        Set<String> checkedUrls = ConcurrentHashMap.newKeySet();
+        ArrayList<WebpageLoadFilter> loadFilters = new ArrayList<>();
+        loadFilters.add(uri -> checkedUrls.add(uri.toString()));
+        Webpage rootPage = new Webpage("https://3-children.test", loadFilters);
+        rootPage.setFetcher(fetcher);
+        return rootPage;
+    }
+
+    private static String withoutLoadTimes(Webpage rootPage) {
+        return rootPage.asJSONObject().toString().replaceAll("\"nanoLoadTime\":\\d+", "");
+    }
+}
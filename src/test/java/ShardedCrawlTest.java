@@ -0,0 +1,223 @@
+import crawler.webpage.AsyncWebpageLoader;
+import crawler.webpage.Webpage;
+import crawler.webpage.filter.ShardLoadFilter;
+import crawler.webpage.filter.WebpageLoadFilter;
+import crawler.webpage.shard.ForwardedPage;
+import crawler.webpage.shard.ShardExchange;
+import crawler.webpage.shard.ShardPartitioner;
+import crawler.webpage.shard.ShardResultMerger;
+import crawler.webpage.shard.ShardedCrawl;
+import mocks.LocalFileFetcher;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedCrawlTest {
+
+    private static final String ROOT_URL = "https://3-children.test";
+    private static final List<String> HOSTS = List.of("3-children.test", "55-words.test", "4-images.test", "4-links.test");
+
+    @TempDir
+    Path shardDirectory;
+
+    @Test
+    @DisplayName("Test if a host is always assigned to the same shard regardless of its case and path")
+    void testPartitioner() {
+        ShardPartitioner partitioner = new ShardPartitioner(3);
+
+        for (String host : HOSTS) {
+            int shard = partitioner.shardOf(URI.create("https://" + host));
+            assertTrue(shard >= 0 && shard < 3);
+            assertEquals(shard, partitioner.shardOf(URI.create("https://" + host.toUpperCase() + "/some/path")));
+        }
+        assertEquals(0, partitioner.shardOf(URI.create("no-host")));
+    }
+
+    @Test
+    @DisplayName("Test if forwarded pages are received once and only completely written lines are read")
+    void testExchange() throws IOException {
+        ShardExchange sender = new ShardExchange(shardDirectory, 0, 2);
+        ShardExchange receiver = new ShardExchange(shardDirectory, 1, 2);
+
+        sender.forward(1, new ForwardedPage("https://4-links.test", 2, 0, 7, 3));
+        assertTrue(receiver.receive().isEmpty());
+
+        sender.flush();
+        Files.write(shardDirectory.resolve("inbox-1").resolve("from-0.jsonl"),
+                "{\"url\":".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        List<ForwardedPage> received = receiver.receive();
+
+        assertEquals(1, received.size());
+        assertEquals("https://4-links.test", received.get(0).getUrl());
+        assertEquals(2, received.get(0).getRemainingDepth());
+        assertEquals(0, received.get(0).getParentShard());
+        assertEquals(7, received.get(0).getParentId());
+        assertEquals(3, received.get(0).getIndex());
+        assertTrue(receiver.receive().isEmpty());
+
+        sender.close();
+        receiver.close();
+    }
+
+    @Test
+    @DisplayName("Test if the crawl is only finished once every shard is idle and every forwarded page was received")
+    void testTermination() throws IOException {
+        ShardExchange firstShard = new ShardExchange(shardDirectory, 0, 2);
+        ShardExchange secondShard = new ShardExchange(shardDirectory, 1, 2);
+
+        firstShard.publishStatus(true);
+        assertFalse(firstShard.allShardsFinished());
+
+        firstShard.forward(1, new ForwardedPage("https://4-links.test", 1, 0, 0, 0));
+        firstShard.flush();
+        firstShard.publishStatus(true);
+        secondShard.publishStatus(true);
+        assertFalse(firstShard.allShardsFinished());
+
+        secondShard.receive();
+        secondShard.publishStatus(false);
+        assertFalse(firstShard.allShardsFinished());
+
+        secondShard.publishStatus(true);
+        assertTrue(firstShard.allShardsFinished());
+        assertTrue(secondShard.allShardsFinished());
+
+        firstShard.close();
+        secondShard.close();
+    }
+
+    @Test
+    @DisplayName("Test if files of a previous crawl are deleted")
+    void testClear() throws IOException {
+        ShardExchange shard = new ShardExchange(shardDirectory, 0, 1);
+        shard.publishStatus(true);
+        shard.publishResult(new JSONObject());
+        Files.createFile(shardDirectory.resolve("unrelated.txt"));
+
+        ShardExchange.clear(shardDirectory);
+
+        try (var files = Files.list(shardDirectory)) {
+            assertEquals(List.of(shardDirectory.resolve("unrelated.txt")), files.collect(Collectors.toList()));
+        }
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test if the merged result of all shards equals the result of a single process")
+    @ValueSource(ints = {1, 2, 3, 4})
+    void testShardedCrawlEqualsSingleCrawl(int shardCount) throws Exception {
+        ArrayList<Webpage> singleRootPages = newRootPages(new ArrayList<>());
+        new AsyncWebpageLoader(singleRootPages, 3, 2).loadPagesRecursivelyAndBlock();
+        JSONObject expected = new JSONObject();
+        expected.put("webpages", new JSONArray().put(singleRootPages.get(0).asJSONObject()));
+
+        ExecutorService shards = Executors.newFixedThreadPool(shardCount);
+        ArrayList<Future<ArrayList<Webpage>>> shardRootPages = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            int shardIndex = shard;
+            shardRootPages.add(shards.submit(() -> crawlShard(shardIndex, shardCount)));
+        }
+        for (Future<ArrayList<Webpage>> rootPages : shardRootPages)
+            rootPages.get();
+        shards.shutdown();
+
+        ShardExchange exchange = new ShardExchange(shardDirectory, 0, shardCount);
+        JSONObject merged = ShardResultMerger.merge(exchange.awaitResults(10), shardRootPages.get(0).get());
+
+        assertEquals(withoutLoadTimes(expected), withoutLoadTimes(merged));
+    }
+
+    @Test
+    @DisplayName("Test if the pages of other shards are forwarded without being scheduled in this shard")
+    void testForeignPagesNotScheduled() throws Exception {
+        int shardCount = 4;
+        ExecutorService shards = Executors.newFixedThreadPool(shardCount);
+        ArrayList<Future<ArrayList<Webpage>>> shardRootPages = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            int shardIndex = shard;
+            shardRootPages.add(shards.submit(() -> {
+                // without a shard filter, a page of another shard would be loaded if it was scheduled
+                ArrayList<Webpage> rootPages = newRootPages(new ArrayList<>());
+                try (ShardExchange exchange = new ShardExchange(shardDirectory, shardIndex, shardCount)) {
+                    new ShardedCrawl(exchange, () -> new AsyncWebpageLoader(rootPages, 3, 2)).crawl(rootPages, 3);
+                }
+                return rootPages;
+            }));
+        }
+
+        ShardPartitioner partitioner = new ShardPartitioner(shardCount);
+        int attemptedPages = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            ArrayList<Webpage> attempted = new ArrayList<>();
+            collectAttemptedPages(shardRootPages.get(shard).get(), attempted);
+            for (Webpage page : attempted)
+                assertEquals(shard, partitioner.shardOf(page.getPageURI()), page.getPageURI() + " was scheduled in the wrong shard");
+            attemptedPages += attempted.size();
+        }
+        shards.shutdown();
+
+        assertTrue(attemptedPages > 1);
+    }
+
+    @Test
+    @DisplayName("Test if the hosts of the test sites are spread over several shards")
+    void testHostsAreSpread() {
+        ShardPartitioner partitioner = new ShardPartitioner(4);
+
+        HashSet<Integer> shards = new HashSet<>();
+        for (String host : HOSTS)
+            shards.add(partitioner.shardOf(URI.create("https://" + host)));
+
+        assertTrue(shards.size() > 1);
+    }
+
+    private ArrayList<Webpage> crawlShard(int shardIndex, int shardCount) throws Exception {
+        ArrayList<WebpageLoadFilter> loadFilters = new ArrayList<>();
+        loadFilters.add(new ShardLoadFilter(new ShardPartitioner(shardCount), shardIndex));
+        ArrayList<Webpage> rootPages = newRootPages(loadFilters);
+
+        try (ShardExchange exchange = new ShardExchange(shardDirectory, shardIndex, shardCount)) {
+            new ShardedCrawl(exchange, () -> new AsyncWebpageLoader(rootPages, 3, 2)).crawl(rootPages, 3);
+        }
+        return rootPages;
+    }
+
+    private static void collectAttemptedPages(List<Webpage> pages, List<Webpage> attempted) {
+        for (Webpage page : pages) {
+            if (page.loadingWasAttempted())
+                attempted.add(page);
+            collectAttemptedPages(page.getChildren(), attempted);
+        }
+    }
+
+    private static ArrayList<Webpage> newRootPages(ArrayList<WebpageLoadFilter> loadFilters) throws URISyntaxException {
+        Webpage rootPage = new Webpage(ROOT_URL, loadFilters);
+        rootPage.setFetcher(new LocalFileFetcher());
+        return new ArrayList<>(Collections.singletonList(rootPage));
+    }
+
+    private static String withoutLoadTimes(JSONObject rootPages) {
+        return rootPages.toString().replaceAll("\"nanoLoadTime\":\\d+", "");
+    }
+}
@@ -0,0 +1,111 @@
+import benchmarks.SiteGraph;
+import benchmarks.SiteGraphFetcher;
+import benchmarks.SiteGraphServer;
+import crawler.webpage.AsyncWebpageLoader;
+import crawler.webpage.Webpage;
+import crawler.webpage.fetcher.HttpResponseException;
+import crawler.webpage.fetcher.JsoupFetcher;
+import crawler.webpage.fetcher.RawResponse;
+import crawler.webpage.filter.DuplicateLoadFilter;
+import crawler.webpage.filter.WebpageLoadFilter;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SiteGraphTest {
+
+    @Test
+    @DisplayName("Test if the same seed generates the same pages and a page links to its children")
+    void testGenerate() {
+        SiteGraph graph = new SiteGraph("generate", 1000, 10, 10, 1).setDuplicateRatio(0.5).setCycleRatio(0.5);
+        SiteGraph sameSeed = new SiteGraph("generate", 1000, 10, 10, 1).setDuplicateRatio(0.5).setCycleRatio(0.5);
+
+        assertArrayEquals(graph.generate(3).getBody(), sameSeed.generate(3).getBody());
+        assertEquals(4, graph.getDepth());
+        assertEquals("https://host-3.generate.test/page/3", graph.getUrl(3));
+        assertEquals(3, graph.getPageNumber(graph.getUrl(3)));
+        assertEquals(-1, graph.getPageNumber("https://host-3.generate.test/page/1000"));
+
+        Document page = Jsoup.parse(new String(graph.generate(3).getBody(), StandardCharsets.UTF_8));
+        Set<String> links = new HashSet<>(page.select("a").eachAttr("href"));
+        for (int child = 31; child <= 40; child++)
+            assertTrue(links.contains(graph.getUrl(child)));
+        assertTrue(links.size() > 10);
+    }
+
+    @Test
+    @DisplayName("Test if page sizes follow the median and are cut at the max size")
+    void testPageSizes() {
+        SiteGraph graph = new SiteGraph("sizes", 1000, 10, 10, 1).setPageSizes(4096, 1, 16384);
+
+        ArrayList<Integer> sizes = new ArrayList<>();
+        for (int page = 0; page < 1000; page++)
+            sizes.add(graph.generate(page).getBody().length);
+        Collections.sort(sizes);
+
+        assertTrue(sizes.get(500) > 3000 && sizes.get(500) < 5500);
+        assertTrue(sizes.get(999) <= 16384 + 64);
+    }
+
+    @Test
+    @DisplayName("Test if a crawl with the duplicate filter loads every page of the graph once")
+    void testCrawl() throws URISyntaxException, InterruptedException, IOException {
+        SiteGraph graph = new SiteGraph("crawl", 500, 5, 5, 1).setDuplicateRatio(0.3).setCycleRatio(0.3);
+        SiteGraphFetcher fetcher = new SiteGraphFetcher(graph);
+        ArrayList<WebpageLoadFilter> loadFilters = new ArrayList<>(Collections.singletonList(new DuplicateLoadFilter()));
+        Webpage rootPage = new Webpage(graph.getRootUrl(), loadFilters);
+        rootPage.setFetcher(fetcher);
+
+        // one thread loads the pages in breadth-first order, so every page is first reached through its shortest path
+        new AsyncWebpageLoader(rootPage, graph.getDepth(), 1).loadPagesRecursivelyAndBlock();
+
+        assertEquals(500, fetcher.getLatencies().getCount());
+        assertThrows(HttpResponseException.class, () -> fetcher.fetchRaw("https://host-0.crawl.test/page/500", "Crawler"));
+    }
+
+    @Test
+    @DisplayName("Test if redirects and broken links are generated and served over HTTP with 301, 404 and 429")
+    void testServer() throws IOException {
+        SiteGraph graph = new SiteGraph("server", 100, 3, 10, 1).setRedirectRatio(1).setBrokenLinkRatio(1);
+        try (SiteGraphServer server = new SiteGraphServer(graph)) {
+            assertTrue(graph.getRootUrl().startsWith("http://127.0.0.1:"));
+            assertEquals(5, graph.getRedirectTarget(graph.getRedirectUrl(5)));
+            assertEquals(-1, graph.getPageNumber(graph.getRedirectUrl(5)));
+
+            Set<String> links = new HashSet<>(Jsoup.parse(new String(graph.generate(0).getBody(), StandardCharsets.UTF_8)).select("a").eachAttr("href"));
+            assertTrue(links.contains(graph.getRedirectUrl(1)));
+            assertFalse(links.contains(graph.getUrl(1)));
+            assertEquals(20, links.size());
+
+            JsoupFetcher fetcher = new JsoupFetcher(5_000);
+            RawResponse redirected = fetcher.fetchRaw(graph.getRedirectUrl(5), "Crawler");
+            assertEquals(graph.getUrl(5), redirected.getLocation());
+            assertArrayEquals(graph.generate(5).getBody(), redirected.getBody());
+            assertEquals(graph.getUrl(5), new SiteGraphFetcher(graph).fetchRaw(graph.getRedirectUrl(5), "Crawler").getLocation());
+            assertEquals(404, assertThrows(HttpResponseException.class, () -> fetcher.fetchRaw(graph.getUrl(100), "Crawler")).getStatusCode());
+
+            server.setThrottling(1, 7);
+            HttpResponseException throttled = assertThrows(HttpResponseException.class, () -> fetcher.fetchRaw(graph.getRootUrl(), "Crawler"));
+            assertEquals(429, throttled.getStatusCode());
+            assertEquals("7", throttled.getHeader("Retry-After"));
+
+            assertEquals(1, server.getStatusCount(200));
+            assertEquals(1, server.getStatusCount(301));
+            assertEquals(1, server.getStatusCount(404));
+            assertEquals(1, server.getStatusCount(429));
+            assertEquals(redirected.getBody().length, server.getSentBytes());
+            assertTrue(server.getConnectionCount() >= 1);
+        }
+    }
+}
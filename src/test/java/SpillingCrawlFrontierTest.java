@@ -0,0 +1,149 @@
+import crawler.webpage.Webpage;
+import crawler.webpage.frontier.CrawlTask;
+import crawler.webpage.frontier.FifoCrawlFrontier;
+import crawler.webpage.frontier.MappedSpillQueue;
+import crawler.webpage.frontier.SpillingCrawlFrontier;
+import mocks.LocalFileFetcher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpillingCrawlFrontierTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    @DisplayName("Test if tasks above the memory limit are spilled and come back in order")
+    void testSpillAndRefill() throws URISyntaxException, InterruptedException {
+        Webpage parent = loadedParent();
+        SpillingCrawlFrontier frontier = new SpillingCrawlFrontier(new FifoCrawlFrontier(), 1, spillDirectory);
+        List<String> childUrls = childUrls(parent);
+
+        for (Webpage child : new ArrayList<>(parent.getChildren()))
+            frontier.push(new CrawlTask(child, 1, parent));
+
+        assertEquals(2, frontier.spilledSize());
+        assertEquals(3, frontier.size());
+        assertEquals(1, parent.getChildren().size());
+
+        List<String> takenUrls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CrawlTask task = frontier.take();
+            takenUrls.add(task.getPage().getPageURI().toString());
+            assertSame(parent, task.getParent());
+            frontier.complete(task);
+        }
+
+        assertEquals(List.of("https://55-words.test", "https://4-images.test", "https://4-links.test"), takenUrls);
+        assertEquals(childUrls, childUrls(parent));
+        assertEquals(0, frontier.size());
+    }
+
+    @Test
+    @DisplayName("Test if children released in any order are restored at their former index")
+    void testRestoreChildOrder() throws URISyntaxException {
+        Webpage parent = loadedParent();
+        List<String> childUrls = childUrls(parent);
+        ArrayList<Webpage> children = new ArrayList<>(parent.getChildren());
+
+        assertEquals(2, parent.releaseChild(children.get(2)));
+        assertEquals(0, parent.releaseChild(children.get(0)));
+        assertEquals(1, parent.releaseChild(children.get(1)));
+        assertEquals(-1, parent.releaseChild(children.get(1)));
+
+        parent.restoreChild(children.get(1).getPageURI(), 1);
+        parent.restoreChild(children.get(2).getPageURI(), 2);
+        parent.restoreChild(children.get(0).getPageURI(), 0);
+
+        assertEquals(childUrls, childUrls(parent));
+    }
+
+    @Test
+    @DisplayName("Test if restored children keep the settings of their parent")
+    void testRestoredChildSettings() throws URISyntaxException, InterruptedException {
+        Webpage parent = loadedParent();
+        parent.setRequestUserAgent("agent");
+        SpillingCrawlFrontier frontier = new SpillingCrawlFrontier(new FifoCrawlFrontier(), 1, spillDirectory);
+        for (Webpage child : new ArrayList<>(parent.getChildren()))
+            frontier.push(new CrawlTask(child, 1, parent));
+
+        frontier.complete(frontier.take());
+        CrawlTask restored = frontier.take();
+        restored.getPage().loadPage();
+
+        assertEquals("agent", restored.getPage().getUserAgent());
+        assertEquals("4 Images", restored.getPage().getPageTitle());
+    }
+
+    @Test
+    @DisplayName("Test if root pages are never spilled")
+    void testRootPagesNotSpilled() throws URISyntaxException {
+        SpillingCrawlFrontier frontier = new SpillingCrawlFrontier(new FifoCrawlFrontier(), 1, spillDirectory);
+        frontier.push(new CrawlTask(new Webpage("first"), 1));
+        frontier.push(new CrawlTask(new Webpage("second"), 1));
+
+        assertEquals(0, frontier.spilledSize());
+    }
+
+    @Test
+    @DisplayName("Test if retries are never spilled, so the page keeps its attempts")
+    void testRetriesNotSpilled() throws URISyntaxException {
+        Webpage parent = loadedParent();
+        SpillingCrawlFrontier frontier = new SpillingCrawlFrontier(new FifoCrawlFrontier(), 1, spillDirectory);
+        ArrayList<Webpage> children = new ArrayList<>(parent.getChildren());
+
+        frontier.push(new CrawlTask(children.get(0), 1, parent));
+        frontier.push(new CrawlTask(children.get(1), 1, parent).nextAttempt());
+
+        assertEquals(0, frontier.spilledSize());
+        assertEquals(2, frontier.size());
+        assertEquals(3, parent.getChildren().size());
+    }
+
+    @Test
+    @DisplayName("Test if the spill queue spans segments and deletes read segments")
+    void testSpillQueueSegments() throws Exception {
+        MappedSpillQueue spillQueue = new MappedSpillQueue(spillDirectory, 64);
+        for (int i = 0; i < 10; i++)
+            spillQueue.append(i, i * 2, i % 3, "https://page.test/" + i);
+
+        assertTrue(spillQueue.segmentCount() > 1);
+
+        for (int i = 0; i < 10; i++) {
+            MappedSpillQueue.SpilledTask spilledTask = spillQueue.poll();
+            assertEquals(i, spilledTask.getParentId());
+            assertEquals(i * 2, spilledTask.getChildIndex());
+            assertEquals(i % 3, spilledTask.getRemainingDepth());
+            assertEquals("https://page.test/" + i, spilledTask.getUrl());
+        }
+
+        assertNull(spillQueue.poll());
+        assertEquals(1, spillQueue.segmentCount());
+        try (var files = Files.list(spillDirectory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private static List<String> childUrls(Webpage parent) {
+        List<String> urls = new ArrayList<>();
+        for (Webpage child : parent.getChildren())
+            urls.add(child.getPageURI().toString());
+        return urls;
+    }
+
+    private static Webpage loadedParent() throws URISyntaxException {
+        Webpage parent = new Webpage("3-children");
+        parent.setFetcher(new LocalFileFetcher());
+        parent.loadPage();
+        return parent;
+    }
+}
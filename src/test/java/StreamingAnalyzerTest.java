@@ -0,0 +1,113 @@
+import benchmarks.SiteGraph;
+import crawler.webpage.analysis.DocumentAnalyzer;
+import crawler.webpage.analysis.StreamingAnalyzer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingAnalyzerTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"10-symbols", "3-children", "4-images", "4-links", "55-words-hyphen", "55-words-numbers", "55-words",
+            "big-pagesize", "invalid-url", "link-to-self", "no-pagetitle", "not-a-http-url", "pagetitle-missing"})
+    @DisplayName("Test if the test sites get the same statistics as from the DOM")
+    void testTestSites(String site) throws IOException {
+        assertSameAsDom(Files.readAllBytes(new File(String.format("src/test/java/mocks/test-sites/%s.html", site)).toPath()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "<body>   </body>",
+            "<!DOCTYPE html><html><head><title>T</title><script>var a = '<p>no words</p>';</script></head><body>One two</body></html>",
+            "<p>One</p>Two<div>Three<br>Four</div><span>Five</span> <span>Six</span>",
+            "<p>  leading and   trailing  </p>  <p></p>\n\n<div> </div>tail<hr>after rule",
+            "<pre>  preserved   spaces\n\tand lines  </pre> after <textarea> a  b </textarea>",
+            "<p>no&nbsp;break&#160;spaces and zero&#8203;width&shy;chars, &amp; &lt;tags&gt; &unknown; &amp</p>",
+            "<title>  The\n  Title &amp; more </title><title>Second</title><a href=x>A</a><a>no href</a><A HREF=y>B</A><a href>empty</a>",
+            "<img src=a.PNG><img src='b.jpg?x=1'><img src=c.webp><img alt=none><img src=\"d.gif\" src=e.webp><video></video><video src=v.mp4></video>",
+            "<a href=\"/a?x=1&amp;y=2\" title='>'>quoted</a><a  href = spaced >spaced</a><a href=first href=second>twice</a>",
+            "text before the head <head><title>Late</title></head><body>more</body>",
+            "<body><p>block</p><!-- comment -->text</body>",
+            "<p>a < b and c<d</p><!-- a <p>comment</p> --><p>after<!---->comment</p><?php echo 1 ?>",
+            "<ul><li>one</li><li>two</li></ul><table><tr><td>three</td><td>four</td></tr></table>",
+            "<style>p { color: red }</style><p>styled</p><script src=x.js></script>script after",
+            "<textarea><b>not a tag</b> </textar </textarea>word",
+    })
+    @DisplayName("Test if whitespace, blocks, raw text, character references and attributes give the same statistics as from the DOM")
+    void testEdgeCases(String html) throws IOException {
+        assertSameAsDom(html.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test if generated pages with many links get the same statistics as from the DOM")
+    void testGeneratedPages() throws IOException {
+        SiteGraph graph = new SiteGraph("streaming", 1000, 10, 20, 1).setDuplicateRatio(0.5).setCycleRatio(0.5).setPageSizes(16 * 1024, 1, 256 * 1024);
+        for (int page = 0; page < 50; page++)
+            assertSameAsDom(graph.generate(page).getBody());
+    }
+
+    @Test
+    @DisplayName("Test if the charset is taken from a byte order mark or a meta tag, UTF-8 otherwise")
+    void testCharset() throws IOException {
+        String html = "<html><head><meta charset=\"ISO-8859-1\"><title>K\u00e4se</title></head><body>Gr\u00fc\u00dfe</body></html>";
+        assertEquals("K\u00e4se", StreamingAnalyzer.analyze(new ByteArrayInputStream(html.getBytes(StandardCharsets.ISO_8859_1)), null).getTitle());
+
+        byte[] utf8 = "<title>K\u00e4se</title>".getBytes(StandardCharsets.UTF_8);
+        assertEquals("K\u00e4se", StreamingAnalyzer.analyze(new ByteArrayInputStream(utf8), null).getTitle());
+        assertEquals("K\u00e4se", StreamingAnalyzer.analyze(new ByteArrayInputStream(utf8), "UTF-8").getTitle());
+
+        byte[] withBom = new byte[utf8.length + 3];
+        withBom[0] = (byte) 0xEF;
+        withBom[1] = (byte) 0xBB;
+        withBom[2] = (byte) 0xBF;
+        System.arraycopy(utf8, 0, withBom, 3, utf8.length);
+        StreamingAnalyzer analyzer = StreamingAnalyzer.analyze(new ByteArrayInputStream(withBom), "ISO-8859-1");
+        assertEquals("K\u00e4se", analyzer.getTitle());
+        assertEquals(1, analyzer.getWordCount());
+
+        assertThrows(IOException.class, () -> StreamingAnalyzer.analyze(new ByteArrayInputStream(utf8), "no-such-charset"));
+    }
+
+    @Test
+    @DisplayName("Test if a link with a target longer than the max length is counted but not followed")
+    void testLongLink() throws IOException {
+        String longTarget = "/" + "x".repeat(StreamingAnalyzer.MAX_VALUE_LENGTH);
+        String html = "<a href=\"" + longTarget + "\">long</a><a href=\"/short\">short</a>";
+
+        StreamingAnalyzer analyzer = StreamingAnalyzer.analyze(new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)), null);
+        assertEquals(2, analyzer.getLinkCount());
+        assertEquals(List.of("/short"), analyzer.getLinkTargets());
+    }
+
+    private static void assertSameAsDom(byte[] body) throws IOException {
+        Document document = Jsoup.parse(new ByteArrayInputStream(body), null, "");
+        DocumentAnalyzer expected = DocumentAnalyzer.analyze(document);
+        StreamingAnalyzer actual = StreamingAnalyzer.analyze(new ByteArrayInputStream(body), null);
+
+        List<String> expectedTargets = new ArrayList<>();
+        for (Element link : expected.getLinks())
+            expectedTargets.add(link.attr("href"));
+
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getLinks().size(), actual.getLinkCount());
+        assertEquals(expectedTargets, actual.getLinkTargets());
+        assertEquals(expected.getImages().size(), actual.getImageCount());
+        assertEquals(expected.getVideos().size(), actual.getVideoCount());
+        assertEquals(expected.getWordCount(), actual.getWordCount());
+    }
+}
@@ -0,0 +1,69 @@
+import crawler.webpage.Webpage;
+import crawler.webpage.frontier.CrawlTask;
+import crawler.webpage.frontier.scorer.DepthScorer;
+import crawler.webpage.frontier.scorer.InLinkCountScorer;
+import crawler.webpage.frontier.scorer.SameHostScorer;
+import crawler.webpage.frontier.scorer.UrlPatternScorer;
+import crawler.webpage.frontier.scorer.WeightedUrlScorer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URISyntaxException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class UrlScorerTest {
+
+    @Test
+    @DisplayName("Test if the depth scorer prefers shallow pages")
+    void testDepthScorer() throws URISyntaxException {
+        assertEquals(3, new DepthScorer().score(task("https://a.test", 3)));
+    }
+
+    @Test
+    @DisplayName("Test if the same host scorer only rates preferred hosts")
+    void testSameHostScorer() throws URISyntaxException {
+        SameHostScorer scorer = new SameHostScorer(Collections.singletonList("a.test"));
+
+        assertEquals(1, scorer.score(task("https://a.test/page", 1)));
+        assertEquals(0, scorer.score(task("https://b.test/page", 1)));
+    }
+
+    @Test
+    @DisplayName("Test if the in-link scorer counts links to the same page")
+    void testInLinkCountScorer() throws URISyntaxException {
+        InLinkCountScorer scorer = new InLinkCountScorer();
+        scorer.score(task("https://a.test/popular", 1));
+        scorer.score(task("https://a.test/popular", 1));
+
+        assertEquals(3, scorer.score(task("https://a.test/popular", 1)));
+        assertEquals(1, scorer.score(task("https://a.test/lonely", 1)));
+    }
+
+    @Test
+    @DisplayName("Test if the pattern scorer sums the weights of matching patterns")
+    void testUrlPatternScorer() throws URISyntaxException {
+        UrlPatternScorer scorer = new UrlPatternScorer()
+                .addPattern("/docs/", 2)
+                .addPattern("\\.pdf$", -5)
+                .addPattern("a\\.test", 1);
+
+        assertEquals(3, scorer.score(task("https://a.test/docs/index.html", 1)));
+        assertEquals(-3, scorer.score(task("https://b.test/docs/file.pdf", 1)));
+    }
+
+    @Test
+    @DisplayName("Test if the weighted scorer combines scores")
+    void testWeightedUrlScorer() throws URISyntaxException {
+        WeightedUrlScorer scorer = new WeightedUrlScorer()
+                .add(new DepthScorer(), 2)
+                .add(new SameHostScorer(Collections.singletonList("a.test")), 10);
+
+        assertEquals(14, scorer.score(task("https://a.test", 2)));
+    }
+
+    private static CrawlTask task(String url, int remainingDepth) throws URISyntaxException {
+        return new CrawlTask(new Webpage(url), remainingDepth);
+    }
+}
@@ -0,0 +1,196 @@
+import crawler.webpage.archive.WarcRecord;
+import crawler.webpage.archive.WarcWriter;
+import crawler.webpage.fetcher.ArchivingFetcher;
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.fetcher.HttpResponseException;
+import crawler.webpage.fetcher.RawResponse;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarcWriterTest {
+
+    @TempDir
+    Path warcDirectory;
+
+    @Test
+    @DisplayName("Test if responses and error responses are archived as request and response records")
+    void testArchiveResponses() throws IOException {
+        WarcWriter writer = new WarcWriter(warcDirectory, "crawl", 1024 * 1024);
+        ArchivingFetcher fetcher = new ArchivingFetcher(stubFetcher(), writer);
+
+        RawResponse response = fetcher.fetchRaw("https://example.test/page?q=1", "Crawler");
+        assertThrows(HttpResponseException.class, () -> fetcher.fetchRaw("https://example.test/missing", "Crawler"));
+        writer.close();
+
+        assertEquals("<p>archived</p>", new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(2, fetcher.getArchivedCount());
+        assertEquals(5, writer.getRecordCount());
+        assertEquals(1, writer.getFileCount());
+
+        Path warcFile = listFiles(WarcWriter.FILE_EXTENSION).get(0);
+        List<String> records = readRecords(warcFile);
+        assertEquals(5, records.size());
+        assertTrue(records.get(0).contains("WARC-Type: warcinfo\r\n"));
+        assertTrue(records.get(0).contains("WARC-Filename: " + warcFile.getFileName() + "\r\n"));
+
+        String request = records.get(1), archivedResponse = records.get(2);
+        assertTrue(request.startsWith("WARC/1.1\r\nWARC-Type: request\r\n"));
+        assertTrue(request.contains("GET /page?q=1 HTTP/1.1\r\nHost: example.test\r\nUser-Agent: Crawler\r\n\r\n"));
+        assertTrue(request.contains("WARC-Concurrent-To: " + field(archivedResponse, "WARC-Record-ID") + "\r\n"));
+        assertTrue(archivedResponse.contains("WARC-Target-URI: https://example.test/page?q=1\r\n"));
+        assertTrue(archivedResponse.contains("HTTP/1.1 200 \r\n"));
+        assertTrue(archivedResponse.contains("Content-Type: text/html\r\n"));
+        assertFalse(archivedResponse.contains("Content-Encoding"));
+        assertTrue(archivedResponse.endsWith("Content-Length: 15\r\n\r\n<p>archived</p>\r\n\r\n"));
+        assertFalse(archivedResponse.contains("WARC-Truncated"));
+
+        assertTrue(records.get(4).contains("HTTP/1.1 404 \r\n"));
+        assertTrue(records.get(4).contains("WARC-Target-URI: https://example.test/missing\r\n"));
+    }
+
+    @Test
+    @DisplayName("Test if the whole file can be read as one gzip stream and every index line points to its record")
+    void testIndex() throws IOException {
+        WarcWriter writer = new WarcWriter(warcDirectory, "crawl", 1024 * 1024);
+        ArchivingFetcher fetcher = new ArchivingFetcher(stubFetcher(), writer);
+        fetcher.fetchRaw("https://example.test/page", "Crawler");
+        fetcher.fetchRaw("https://example.test/other", "Crawler");
+        writer.close();
+
+        Path warcFile = listFiles(WarcWriter.FILE_EXTENSION).get(0);
+        List<String> index = Files.readAllLines(Path.of(warcFile + WarcWriter.INDEX_EXTENSION));
+        assertEquals(5, index.size());
+        assertTrue(index.get(0).matches("0 \\d+ warcinfo \\S+Z -"));
+        assertTrue(index.get(4).matches("\\d+ \\d+ response \\S+Z https://example.test/other"));
+
+        try (InputStream whole = new GZIPInputStream(Files.newInputStream(warcFile))) {
+            assertEquals(String.join("", readRecords(warcFile)), new String(whole.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(Files.size(warcFile), writer.getBytesWritten());
+    }
+
+    @Test
+    @DisplayName("Test if a new file is started once the max file size is reached, a request stays with its response")
+    void testRotation() throws IOException {
+        WarcWriter writer = new WarcWriter(warcDirectory, "crawl", 1);
+        ArchivingFetcher fetcher = new ArchivingFetcher(stubFetcher(), writer);
+        for (int i = 0; i < 3; i++)
+            fetcher.fetchRaw("https://example.test/page" + i, "Crawler");
+        writer.close();
+
+        List<Path> warcFiles = listFiles(WarcWriter.FILE_EXTENSION);
+        assertEquals(3, warcFiles.size());
+        assertEquals(3, writer.getFileCount());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(warcFiles.get(i).getFileName().toString().matches("crawl-\\d{14}-0000" + i + "\\.warc\\.gz"));
+            List<String> records = readRecords(warcFiles.get(i));
+            assertEquals(3, records.size());
+            assertTrue(records.get(2).contains("WARC-Target-URI: https://example.test/page" + i + "\r\n"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test if a cut off body is marked as truncated")
+    void testTruncated() throws IOException {
+        WarcWriter writer = new WarcWriter(warcDirectory, "crawl", 1024 * 1024);
+        ArchivingFetcher fetcher = new ArchivingFetcher(new Fetcher() {
+            @Override
+            public Document fetchDocument(String location, String userAgent) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public RawResponse fetchRaw(String location, String userAgent) {
+                return new RawResponse(location, 200, Map.of(), null, new byte[10], true, null);
+            }
+        }, writer);
+
+        fetcher.fetchRaw("https://example.test/large", "Crawler");
+        writer.close();
+
+        assertTrue(readRecords(listFiles(WarcWriter.FILE_EXTENSION).get(0)).get(2).contains("WARC-Truncated: length\r\n"));
+    }
+
+    @Test
+    @DisplayName("Test if records can't be written after close()")
+    void testWriteAfterClose() throws IOException {
+        WarcWriter writer = new WarcWriter(warcDirectory, "crawl", 1024 * 1024);
+        writer.close();
+
+        assertThrows(IllegalStateException.class,
+                () -> writer.write(new WarcRecord("resource", Instant.now(), "text/plain", new byte[0])));
+        assertEquals(0, writer.getFileCount());
+    }
+
+    /**
+     * @return  a fetcher answering /missing with 404 and every other URL with a gzip encoded HTML body, as decoded by jsoup
+     */
+    private static Fetcher stubFetcher() {
+        return new Fetcher() {
+            @Override
+            public Document fetchDocument(String location, String userAgent) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public RawResponse fetchRaw(String location, String userAgent) throws IOException {
+                if (location.endsWith("/missing"))
+                    throw new HttpResponseException(404, location, Map.of("Content-Type", "text/html"));
+
+                return new RawResponse(location, 200, Map.of("Content-Type", "text/html", "Content-Encoding", "gzip", "Content-Length", "35"),
+                        "UTF-8", "<p>archived</p>".getBytes(StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    private List<Path> listFiles(String extension) throws IOException {
+        try (Stream<Path> files = Files.list(warcDirectory)) {
+            return files.filter(file -> file.toString().endsWith(extension)).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Reads every record of the file on its own, seeking to the offset given in the index.
+     */
+    private static List<String> readRecords(Path warcFile) throws IOException {
+        ArrayList<String> records = new ArrayList<>();
+        try (RandomAccessFile file = new RandomAccessFile(warcFile.toFile(), "r")) {
+            for (String line : Files.readAllLines(Path.of(warcFile + WarcWriter.INDEX_EXTENSION))) {
+                String[] fields = line.split(" ");
+                byte[] member = new byte[Integer.parseInt(fields[1])];
+                file.seek(Long.parseLong(fields[0]));
+                file.readFully(member);
+                try (InputStream record = new GZIPInputStream(new ByteArrayInputStream(member))) {
+                    records.add(new String(record.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return records;
+    }
+
+    private static String field(String record, String name) {
+        for (String line : record.split("\r\n"))
+            if (line.startsWith(name + ": "))
+                return line.substring(name.length() + 2);
+        return null;
+    }
+}
@@ -1,18 +1,34 @@
 import mocks.LocalFileFetcher;
 import crawler.webpage.Webpage;
+import crawler.webpage.analysis.AnalysisMode;
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.fetcher.NonHtmlContentException;
+import crawler.webpage.fetcher.RawResponse;
 import crawler.webpage.filter.WebpageLoadFilter;
+import crawler.webpage.linkcheck.LinkChecker;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.jsoup.HttpStatusException;
+import org.jsoup.nodes.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class WebpageTest {
 
@@ -34,6 +50,101 @@ public class WebpageTest {
         assertEquals("FF78D1AB741350018A5290629C7AB3FE", webpage.getPageHashString());
     }
 
+    @Test
+    @DisplayName("Test if fetching and analyzing a page separately gives the same result as loading it")
+    void testFetchAndAnalyzeSeparately() throws URISyntaxException {
+        Webpage loadedPage = new Webpage("4-links");
+        loadedPage.setFetcher(new LocalFileFetcher());
+        loadedPage.loadPage();
+
+        Webpage pipelinedPage = new Webpage("4-links");
+        pipelinedPage.setFetcher(new LocalFileFetcher());
+        assertTrue(pipelinedPage.fetchPage());
+        pipelinedPage.analyzePage();
+        pipelinedPage.expandChildren();
+
+        assertEquals(loadedPage.getPageTitle(), pipelinedPage.getPageTitle());
+        assertEquals(loadedPage.getWordCount(), pipelinedPage.getWordCount());
+        assertEquals(loadedPage.getChildren().size(), pipelinedPage.getChildren().size());
+    }
+
+    @Test
+    @DisplayName("Test if the size and hash are those of the body as received and a truncated page is marked in the JSON")
+    void testTruncatedPage() throws Exception {
+        byte[] body = "<title>Truncated</title><p>cut o".getBytes(StandardCharsets.UTF_8);
+        Webpage webpage = new Webpage("https://truncated.test");
+        webpage.setFetcher(new Fetcher() {
+            @Override
+            public Document fetchDocument(String location, String userAgent) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public RawResponse fetchRaw(String location, String userAgent) {
+                return new RawResponse(location, 200, Map.of("Content-Type", "text/html"), "UTF-8", body, true, null);
+            }
+        });
+
+        webpage.loadPage();
+
+        assertEquals("Truncated", webpage.getPageTitle());
+        assertEquals(body.length, webpage.getPageSize());
+        assertTrue(webpage.isTruncated());
+        JSONObject json = webpage.asJSONObject();
+        assertTrue(json.getBoolean("truncated"));
+        assertEquals(toHex(MessageDigest.getInstance("MD5").digest(body)), json.getString("pageHash"));
+
+        Webpage restoredPage = new Webpage("https://truncated.test");
+        restoredPage.restoreFromCheckpointRecord(webpage.asCheckpointRecord());
+        assertTrue(restoredPage.isTruncated());
+    }
+
+    @Test
+    @DisplayName("Test if a resource that isn't HTML is reported as non-html instead of an error")
+    void testNonHtmlPage() throws URISyntaxException {
+        Webpage webpage = new Webpage("https://example.test/report.pdf");
+        webpage.setFetcher(new Fetcher() {
+            @Override
+            public Document fetchDocument(String location, String userAgent) throws IOException {
+                throw new NonHtmlContentException("application/pdf", location);
+            }
+        });
+
+        webpage.loadPage();
+
+        assertTrue(webpage.isNonHtml());
+        assertEquals("{\"url\":\"https://example.test/report.pdf\",\"nonHtml\":true,\"contentType\":\"application/pdf\"}",
+                webpage.asJSONObject().toString());
+
+        Webpage restoredPage = new Webpage("https://example.test/report.pdf");
+        restoredPage.restoreFromCheckpointRecord(webpage.asCheckpointRecord());
+        assertEquals(webpage.asJSONObject().toString(), restoredPage.asJSONObject().toString());
+    }
+
+    @Test
+    @DisplayName("Test if a page that was only checked reports the status of its link and survives a checkpoint")
+    void testCheckedPage() throws URISyntaxException {
+        Webpage referrer = new Webpage("https://example.test/");
+        Webpage webpage = new Webpage("https://example.test/gone");
+        webpage.setLinkChecker(new LinkChecker());
+        webpage.setFetcher(new Fetcher() {
+            @Override
+            public Document fetchDocument(String location, String userAgent) throws IOException {
+                throw new HttpStatusException("HTTP error fetching URL", 410, location);
+            }
+        });
+
+        webpage.checkLink(referrer);
+
+        assertEquals(410, webpage.getLinkStatus().getStatusCode());
+        assertEquals("{\"url\":\"https://example.test/gone\",\"status\":410}", webpage.asJSONObject().toString());
+        assertEquals(List.of("https://example.test/"), webpage.getLinkChecker().getReferrers(webpage.getPageURI()));
+
+        Webpage restoredPage = new Webpage("https://example.test/gone");
+        restoredPage.restoreFromCheckpointRecord(webpage.asCheckpointRecord());
+        assertEquals(webpage.asJSONObject().toString(), restoredPage.asJSONObject().toString());
+    }
+
     @Test
     @DisplayName("Test if maxChildren can be set")
     void testMaxChildrenPerPage() {
@@ -90,6 +201,32 @@ public class WebpageTest {
         assertEquals(expectedResult, actualResult);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"3-children", "4-images", "55-words", "big-pagesize", "link-to-self", "not-a-http-url"})
+    @DisplayName("Test if the streaming analysis gathers the same statistics and children as the DOM analysis")
+    void testStreamingAnalysis(String site) throws URISyntaxException {
+        Webpage domPage = new Webpage(site);
+        domPage.setFetcher(new LocalFileFetcher());
+        domPage.loadPage();
+
+        Webpage streamedPage = new Webpage(site);
+        streamedPage.setFetcher(new LocalFileFetcher());
+        streamedPage.setAnalysisMode(AnalysisMode.STREAMING);
+        streamedPage.loadPage();
+
+        JSONObject expected = domPage.asJSONObjectWithoutChildren(), actual = streamedPage.asJSONObjectWithoutChildren();
+        expected.remove("nanoLoadTime");
+        actual.remove("nanoLoadTime");
+        assertEquals(expected.toString(), actual.toString());
+
+        assertEquals(domPage.getChildren().size(), streamedPage.getChildren().size());
+        for (int i = 0; i < domPage.getChildren().size(); i++) {
+            assertEquals(domPage.getChildren().get(i).getPageURI(), streamedPage.getChildren().get(i).getPageURI());
+            assertEquals(AnalysisMode.STREAMING, streamedPage.getChildren().get(i).getAnalysisMode());
+        }
+        assertNull(streamedPage.getLinks());
+    }
+
     @Test
     @DisplayName("Test if the page size gets calculated correctly")
     void testPageSize() throws URISyntaxException {
@@ -310,4 +447,11 @@ public class WebpageTest {
         return resultingJSON.toString();
     }
 
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes)
+            hex.append(String.format("%02X", b));
+        return hex.toString();
+    }
 }
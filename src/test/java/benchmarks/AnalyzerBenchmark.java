@@ -0,0 +1,106 @@
+package benchmarks;
+
+import crawler.webpage.analysis.DocumentAnalyzer;
+import crawler.webpage.analysis.StreamingAnalyzer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.function.IntSupplier;
+
+/**
+ * Compares the single traversal of the {@link DocumentAnalyzer} with the three selectors and the split body text
+ * the pages were analyzed with before, on big-pagesize.html and on generated pages of 64 KB, 1 MB and 8 MB. <br>
+ * The documents are parsed once, only the analysis is measured: the time per page and the bytes allocated per page,
+ * which shows the text of the body that isn't built anymore. <br>
+ * The {@link StreamingAnalyzer} works on the bytes of the page instead of a document, so it is compared with
+ * parsing the bytes and traversing the document, which is what the default analysis mode does per page. <br>
+ * Run with: ./gradlew benchmark -PbenchmarkClass=AnalyzerBenchmark
+ */
+public class AnalyzerBenchmark {
+
+    private static final long MEASURE_NANOS = 2_000_000_000L;
+
+    private static final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static int blackhole;
+
+    private AnalyzerBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-18s %10s %-10s %12s %12s %14s%n", "page", "KB", "analysis", "pages/sec", "us/page", "KB alloc/page");
+
+        run("big-pagesize.html", Files.readAllBytes(new File("src/test/java/mocks/test-sites/big-pagesize.html").toPath()));
+        for (int size : new int[] {64 * 1024, 1024 * 1024, 8 * 1024 * 1024}) {
+            SiteGraph graph = new SiteGraph("analyzer", 1000, 1, 50, 42).setDuplicateRatio(1).setPageSizes(size, 0, size);
+            run("generated", graph.generate(1).getBody());
+        }
+    }
+
+    private static void run(String name, byte[] body) {
+        int kilobytes = body.length / 1024;
+        Document document = parse(body);
+        measure(name, kilobytes, "selectors", () -> analyzeWithSelectors(document));
+        measure(name, kilobytes, "traversal", () -> analyzeWithTraversal(document));
+        measure(name, kilobytes, "parse+trav", () -> analyzeWithTraversal(parse(body)));
+        measure(name, kilobytes, "streaming", () -> analyzeWithStreaming(body));
+    }
+
+    /**
+     * Runs the analysis for {@link AnalyzerBenchmark#MEASURE_NANOS} to warm up, then as long again to measure it.
+     */
+    private static void measure(String name, int kilobytes, String analysis, IntSupplier analyze) {
+        for (long end = System.nanoTime() + MEASURE_NANOS; System.nanoTime() < end; )
+            blackhole += analyze.getAsInt();
+
+        long threadId = Thread.currentThread().getId();
+        long startBytes = threads.getThreadAllocatedBytes(threadId), startTime = System.nanoTime();
+        long pages = 0, elapsed;
+        do {
+            blackhole += analyze.getAsInt();
+            pages++;
+            elapsed = System.nanoTime() - startTime;
+        } while (elapsed < MEASURE_NANOS);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - startBytes;
+
+        System.out.printf("%-18s %10d %-10s %12.1f %12.1f %14.1f%n",
+                name, kilobytes, analysis, pages / (elapsed / 1e9), elapsed / 1e3 / pages, allocated / 1024.0 / pages);
+    }
+
+    private static int analyzeWithSelectors(Document document) {
+        String title = document.title();
+        int links = document.select("a[href]").size();
+        int images = document.select("img[src~=(?i)\\.(png|jpe?g|gif|svg)]").size();
+        int videos = document.select("video").size();
+        int words = document.body().text().split(" ").length;
+        return title.length() + links + images + videos + words;
+    }
+
+    private static int analyzeWithTraversal(Document document) {
+        DocumentAnalyzer analyzer = DocumentAnalyzer.analyze(document);
+        return analyzer.getTitle().length() + analyzer.getLinks().size() + analyzer.getImages().size()
+                + analyzer.getVideos().size() + analyzer.getWordCount();
+    }
+
+    private static int analyzeWithStreaming(byte[] body) {
+        try {
+            StreamingAnalyzer analyzer = StreamingAnalyzer.analyze(new ByteArrayInputStream(body), null);
+            return analyzer.getTitle().length() + analyzer.getLinkCount() + analyzer.getImageCount()
+                    + analyzer.getVideoCount() + analyzer.getWordCount();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Document parse(byte[] body) {
+        try {
+            return Jsoup.parse(new ByteArrayInputStream(body), null, "");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
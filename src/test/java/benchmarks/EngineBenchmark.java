@@ -0,0 +1,92 @@
+package benchmarks;
+
+import crawler.webpage.AsyncWebpageLoader;
+import crawler.webpage.CrawlEngine;
+import crawler.webpage.ForkJoinWebpageLoader;
+import crawler.webpage.NonBlockingWebpageLoader;
+import crawler.webpage.PipelinedWebpageLoader;
+import crawler.webpage.Webpage;
+import crawler.webpage.WebpageLoader;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Compares the crawl engines on a synthetic site. <br>
+ * With latency the engines are bound by blocking I/O, without latency
+ * the overhead of handing pages between threads (queue contention) dominates.
+ * The async engine uses the non-blocking fetch of the synthetic site, so its concurrency costs no threads. <br>
+ * Run with: ./gradlew benchmark -PbenchmarkClass=EngineBenchmark
+ */
+public class EngineBenchmark {
+
+    private static final int FAN_OUT = 10;
+
+    private EngineBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        scenario(4, 50, new int[] {16, 256, 1024}, new int[] {16, 256, 1024, 10000});
+        scenario(5, 0, new int[] {1, 4, 16, 64, 256}, new int[] {16, 256});
+    }
+
+    private static void scenario(int depth, long latencyMillis, int[] threadCounts, int[] virtualConcurrencies)
+            throws URISyntaxException, InterruptedException {
+        System.out.printf("%nSynthetic site: fan-out %d, depth %d, latency %d ms%n", FAN_OUT, depth, latencyMillis);
+        System.out.printf("%-10s %12s %8s %10s %12s %10s %10s%n", "engine", "concurrency", "pages", "seconds", "pages/sec", "threads", "steals");
+
+        for (int threadCount : threadCounts)
+            run(CrawlEngine.POOL, threadCount, depth, latencyMillis);
+        for (int threadCount : threadCounts)
+            run(CrawlEngine.FORK_JOIN, threadCount, depth, latencyMillis);
+        for (int threadCount : threadCounts)
+            run(CrawlEngine.PIPELINE, threadCount, depth, latencyMillis);
+        for (int concurrency : virtualConcurrencies)
+            run(CrawlEngine.VIRTUAL, concurrency, depth, latencyMillis);
+        for (int concurrency : virtualConcurrencies)
+            run(CrawlEngine.ASYNC, concurrency, depth, latencyMillis);
+    }
+
+    private static void run(CrawlEngine engine, int concurrency, int depth, long latencyMillis)
+            throws URISyntaxException, InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        Webpage rootPage = new Webpage(SyntheticSiteFetcher.ROOT_URL);
+        rootPage.setFetcher(new SyntheticSiteFetcher(FAN_OUT, latencyMillis));
+        ArrayList<Webpage> rootPages = new ArrayList<>(Collections.singletonList(rootPage));
+
+        WebpageLoader loader;
+        if (engine == CrawlEngine.FORK_JOIN)
+            loader = new ForkJoinWebpageLoader(rootPages, depth, concurrency);
+        else if (engine == CrawlEngine.PIPELINE)
+            loader = new PipelinedWebpageLoader(rootPages, depth, concurrency, Runtime.getRuntime().availableProcessors());
+        else if (engine == CrawlEngine.ASYNC)
+            loader = new NonBlockingWebpageLoader(rootPages, depth, concurrency, Runtime.getRuntime().availableProcessors());
+        else
+            loader = new AsyncWebpageLoader(rootPages, depth, concurrency, engine);
+
+        long startTime = System.nanoTime();
+        loader.loadPagesRecursivelyAndBlock();
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        String steals = loader instanceof ForkJoinWebpageLoader
+                ? String.valueOf(((ForkJoinWebpageLoader) loader).getStealCount())
+                : "-";
+        long pages = countLoadedPages(rootPage);
+        System.out.printf("%-10s %12d %8d %10.3f %12.1f %10d %10s%n",
+                engine.name().toLowerCase(), concurrency, pages, seconds, pages / seconds, threads.getPeakThreadCount(), steals);
+    }
+
+    static long countLoadedPages(Webpage page) {
+        if (!page.loadingWasAttempted())
+            return 0;
+
+        long count = 1;
+        for (Webpage child : page.getChildren())
+            count += countLoadedPages(child);
+        return count;
+    }
+}
@@ -0,0 +1,120 @@
+package benchmarks;
+
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.fetcher.HttpClientFetcher;
+import crawler.webpage.fetcher.JsoupFetcher;
+import crawler.webpage.fetcher.RawResponse;
+import mocks.LoopbackServer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Compares the jsoup fetcher, which reuses connections through the keep-alive cache of HttpURLConnection
+ * (at most 5 idle connections per host), with the pooled connections of the http-client fetcher on a server on the loopback interface. <br>
+ * The loopback server speaks plain HTTP/1.1, so this measures connection reuse and the async API, not HTTP/2 multiplexing.
+ * The http-client fetcher is run with blocking threads like the engines use it and with sendAsync,
+ * where a semaphore limits the requests in flight instead of threads. <br>
+ * Run with: ./gradlew benchmark -PbenchmarkClass=FetcherBenchmark
+ */
+public class FetcherBenchmark {
+
+    private static final int REQUESTS = 2000;
+    private static final String USER_AGENT = "FetcherBenchmark";
+
+    private static final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private static volatile long latencyMillis;
+
+    private FetcherBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        try (LoopbackServer server = new LoopbackServer()) {
+            server.handle("/", exchange -> {
+                clientPorts.add(exchange.getRemoteAddress().getPort());
+                try {
+                    if (latencyMillis > 0)
+                        Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                LoopbackServer.respond(exchange, 200, Map.of("Content-Type", "text/html; charset=UTF-8"), createPage(exchange.getRequestURI().getPath()));
+            });
+
+            scenario(server, 0, new int[] {1, 16, 64});
+            scenario(server, 10, new int[] {16, 64, 256});
+        }
+    }
+
+    private static void scenario(LoopbackServer server, long latency, int[] concurrencies) throws Exception {
+        latencyMillis = latency;
+        System.out.printf("%nLoopback server: %d requests, latency %d ms%n", REQUESTS, latency);
+        System.out.printf("%-18s %12s %10s %12s %12s%n", "fetcher", "concurrency", "seconds", "requests/sec", "connections");
+
+        for (int concurrency : concurrencies)
+            runBlocking("jsoup", new JsoupFetcher(), server, concurrency);
+        for (int concurrency : concurrencies)
+            runBlocking("http-client", new HttpClientFetcher(), server, concurrency);
+        for (int concurrency : concurrencies)
+            runAsync(new HttpClientFetcher(), server, concurrency);
+    }
+
+    private static void runBlocking(String name, Fetcher fetcher, LoopbackServer server, int concurrency) throws Exception {
+        clientPorts.clear();
+        ExecutorService threads = Executors.newFixedThreadPool(concurrency);
+        try {
+            long startTime = System.nanoTime();
+            List<Future<?>> requests = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                String location = server.getUrl("/page-" + i);
+                requests.add(threads.submit(() -> fetcher.fetchDocument(location, USER_AGENT)));
+            }
+            for (Future<?> request : requests)
+                request.get();
+            print(name, concurrency, System.nanoTime() - startTime);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static void runAsync(HttpClientFetcher fetcher, LoopbackServer server, int concurrency) throws Exception {
+        clientPorts.clear();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long startTime = System.nanoTime();
+        List<CompletableFuture<?>> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            inFlight.acquire();
+            CompletableFuture<RawResponse> request = fetcher.fetchRawAsync(server.getUrl("/page-" + i), USER_AGENT);
+            requests.add(request.thenApply(response -> {
+                try {
+                    return response.parseDocument();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }).whenComplete((document, error) -> inFlight.release()));
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).join();
+        print("http-client async", concurrency, System.nanoTime() - startTime);
+    }
+
+    private static void print(String name, int concurrency, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-18s %12d %10.3f %12.1f %12d%n", name, concurrency, seconds, REQUESTS / seconds, clientPorts.size());
+    }
+
+    private static byte[] createPage(String path) {
+        StringBuilder page = new StringBuilder("<html><head><title>").append(path).append("</title></head><body>");
+        for (int i = 0; i < 20; i++)
+            page.append("<p><a href=\"").append(path).append('/').append(i).append("\">Link ").append(i).append("</a></p>");
+        return page.append("</body></html>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
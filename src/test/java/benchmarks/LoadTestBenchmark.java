@@ -0,0 +1,104 @@
+package benchmarks;
+
+import crawler.Main;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Crawls a generated {@link SiteGraph} of 10^4 pages (or the amount given as first argument) served by a {@link SiteGraphServer}
+ * on the loopback interface with the full crawler: every run starts {@link Main} in its own JVM, like a user would,
+ * so fetchers, engines, frontiers, retries and connection pools are measured on real sockets without the internet. <br>
+ * The site has latency, slow bodies, redirects, broken links and throttles 1% of the requests with 429.
+ * All pages share the host of the server, so the per-host and per-IP limits are raised to the concurrency of the run. <br>
+ * Every run reports the wall time including the start of the JVM, the requests per status code, the connections the crawler opened
+ * and the server side latency percentiles, from the request until the last byte of the response. <br>
+ * Further arguments are passed to every run, e.g. to compare --adaptive or --hedge against the defaults. <br>
+ * Run with: ./gradlew benchmark -PbenchmarkClass=LoadTestBenchmark -PbenchmarkArgs="10000 --adaptive"
+ */
+public class LoadTestBenchmark {
+
+    private static final int HOST_COUNT = 10;
+    private static final int FAN_OUT = 10;
+    private static final long TIMEOUT_MINUTES = 30;
+
+    private LoadTestBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        long pageCount = args.length > 0 ? Long.parseLong(args[0]) : 10_000;
+        List<String> extraArgs = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : List.of();
+
+        SiteGraph graph = new SiteGraph("load-test", pageCount, HOST_COUNT, FAN_OUT, 42)
+                .setDuplicateRatio(0.2)
+                .setCycleRatio(0.05)
+                .setRedirectRatio(0.05)
+                .setBrokenLinkRatio(0.02)
+                .setPageSizes(16 * 1024, 1, 512 * 1024)
+                .setLatency(10, 0.5, 0.5)
+                .setBandwidth(2 * 1024 * 1024);
+
+        try (SiteGraphServer server = new SiteGraphServer(graph).setThrottling(0.01, 1)) {
+            System.out.printf("%nLoopback site: %d pages on %d virtual hosts, fan-out %d, latency 10 ms, bandwidth 2 MB/s, 1%% throttled, extra arguments %s%n",
+                    pageCount, HOST_COUNT, FAN_OUT, extraArgs);
+            System.out.printf("%-24s %5s %9s %9s %12s %8s %6s %6s %6s %12s %8s %8s %8s %9s%n",
+                    "run", "exit", "seconds", "requests", "requests/sec", "200", "301", "404", "429", "connections", "p50 ms", "p99 ms", "p999 ms", "sent MB");
+
+            run(server, graph, "pool jsoup", extraArgs, "-e", "pool", "-t", "64", "--fetcher", "jsoup");
+            run(server, graph, "pool http-client", extraArgs, "-e", "pool", "-t", "64", "--fetcher", "http-client");
+            run(server, graph, "virtual http-client", extraArgs, "-e", "virtual", "-t", "256", "--fetcher", "http-client");
+            run(server, graph, "async http-client", extraArgs, "-e", "async", "-t", "256", "--fetcher", "http-client");
+        }
+    }
+
+    private static void run(SiteGraphServer server, SiteGraph graph, String name, List<String> extraArgs, String... runArgs)
+            throws IOException, InterruptedException {
+        Path output = Files.createTempFile("load-test", ".json");
+        Path log = Files.createTempFile("load-test", ".log");
+        String concurrency = runArgs[Arrays.asList(runArgs).indexOf("-t") + 1];
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Main.class.getName());
+        command.addAll(List.of("-u", graph.getRootUrl(), "-d", String.valueOf(graph.getDepth()), "-s", "-r",
+                "-p", concurrency, "-i", concurrency, "--retries", "3", "--retry-delay", "100", "-o", output.toString()));
+        command.addAll(Arrays.asList(runArgs));
+        command.addAll(extraArgs);
+
+        server.reset();
+        long startTime = System.nanoTime();
+        Process crawler = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(log.toFile())
+                .start();
+        int exitCode;
+        if (crawler.waitFor(TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+            exitCode = crawler.exitValue();
+        } else {
+            crawler.destroyForcibly().waitFor();
+            exitCode = -1;
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        LatencyHistogram latencies = server.getLatencies();
+        long requests = latencies.getCount();
+        System.out.printf("%-24s %5d %9.2f %9d %12.1f %8d %6d %6d %6d %12d %8.1f %8.1f %8.1f %9.1f%n",
+                name, exitCode, seconds, requests, requests / seconds,
+                server.getStatusCount(200), server.getStatusCount(301), server.getStatusCount(404), server.getStatusCount(429),
+                server.getConnectionCount(), latencies.getPercentileMillis(0.5), latencies.getPercentileMillis(0.99),
+                latencies.getPercentileMillis(0.999), server.getSentBytes() / 1024.0 / 1024.0);
+
+        Files.deleteIfExists(output);
+        if (exitCode == 0)
+            Files.deleteIfExists(log);
+        else
+            System.out.println("The crawler failed, see " + log);
+    }
+}
@@ -0,0 +1,106 @@
+package benchmarks;
+
+import crawler.webpage.AsyncWebpageLoader;
+import crawler.webpage.CrawlEngine;
+import crawler.webpage.NonBlockingWebpageLoader;
+import crawler.webpage.Webpage;
+import crawler.webpage.WebpageLoader;
+import crawler.webpage.filter.DuplicateLoadFilter;
+import crawler.webpage.filter.WebpageLoadFilter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Crawls a generated {@link SiteGraph} of 10^5 pages (or the amount given as first argument) end to end,
+ * with the duplicate filter and the JSON output, to see how the crawler scales with the size of the site. <br>
+ * Every run reports pages/sec, the latency percentiles of the fetches as seen by the crawler, the peak heap
+ * (the sum of the peaks of the heap pools, so an upper bound) and the time and size of the JSON output. <br>
+ * Run with: ./gradlew benchmark -PbenchmarkClass=ScalingBenchmark -PbenchmarkArgs=1000000
+ */
+public class ScalingBenchmark {
+
+    private static final int FAN_OUT = 10;
+    private static final int HOST_COUNT = 100;
+    private static final double DUPLICATE_RATIO = 0.2;
+    private static final double CYCLE_RATIO = 0.05;
+
+    private static int runCount;
+
+    private ScalingBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        long pageCount = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+
+        scenario(pageCount, 0, 0, new int[] {4, 16, 64}, new int[] {64, 256});
+        scenario(pageCount, 20, 1024 * 1024, new int[] {64, 256, 1024}, new int[] {256, 1024, 4096});
+    }
+
+    private static void scenario(long pageCount, long latencyMillis, long bytesPerSecond, int[] threadCounts, int[] asyncConcurrencies)
+            throws URISyntaxException, InterruptedException {
+        System.out.printf("%nSite graph: %d pages on %d hosts, fan-out %d, %.0f%% duplicate and %.0f%% cycle links, latency %d ms, bandwidth %d KB/s%n",
+                pageCount, HOST_COUNT, FAN_OUT, DUPLICATE_RATIO * 100, CYCLE_RATIO * 100, latencyMillis, bytesPerSecond / 1024);
+        System.out.printf("%-8s %12s %9s %9s %10s %9s %9s %9s %10s %9s %9s%n",
+                "engine", "concurrency", "fetches", "seconds", "pages/sec", "p50 ms", "p99 ms", "p999 ms", "heap MB", "json sec", "json MB");
+
+        for (int threadCount : threadCounts)
+            run(CrawlEngine.POOL, threadCount, pageCount, latencyMillis, bytesPerSecond);
+        for (int concurrency : asyncConcurrencies)
+            run(CrawlEngine.ASYNC, concurrency, pageCount, latencyMillis, bytesPerSecond);
+    }
+
+    private static void run(CrawlEngine engine, int concurrency, long pageCount, long latencyMillis, long bytesPerSecond)
+            throws URISyntaxException, InterruptedException {
+        SiteGraph graph = new SiteGraph("run-" + runCount++, pageCount, HOST_COUNT, FAN_OUT, 42)
+                .setDuplicateRatio(DUPLICATE_RATIO)
+                .setCycleRatio(CYCLE_RATIO)
+                .setLatency(latencyMillis, 0.5, 0.5)
+                .setBandwidth(bytesPerSecond);
+        SiteGraphFetcher fetcher = new SiteGraphFetcher(graph);
+
+        DuplicateLoadFilter.forgetSeenUris();
+        ArrayList<WebpageLoadFilter> loadFilters = new ArrayList<>(Collections.singletonList(new DuplicateLoadFilter()));
+        Webpage rootPage = new Webpage(graph.getRootUrl(), loadFilters);
+        rootPage.setFetcher(fetcher);
+        ArrayList<Webpage> rootPages = new ArrayList<>(Collections.singletonList(rootPage));
+
+        WebpageLoader loader = engine == CrawlEngine.ASYNC
+                ? new NonBlockingWebpageLoader(rootPages, graph.getDepth(), concurrency, Runtime.getRuntime().availableProcessors())
+                : new AsyncWebpageLoader(rootPages, graph.getDepth(), concurrency, engine);
+
+        System.gc();
+        resetPeakHeap();
+        long startTime = System.nanoTime();
+        loader.loadPagesRecursivelyAndBlock();
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        long jsonStartTime = System.nanoTime();
+        int jsonLength = rootPage.asJSONObject().toString().length();
+        double jsonSeconds = (System.nanoTime() - jsonStartTime) / 1e9;
+
+        LatencyHistogram latencies = fetcher.getLatencies();
+        long pages = latencies.getCount();
+        System.out.printf("%-8s %12d %9d %9.2f %10.1f %9.1f %9.1f %9.1f %10.1f %9.2f %9.1f%n",
+                engine.name().toLowerCase(), concurrency, pages, seconds, pages / seconds,
+                latencies.getPercentileMillis(0.5), latencies.getPercentileMillis(0.99), latencies.getPercentileMillis(0.999),
+                getPeakHeap() / 1024.0 / 1024.0, jsonSeconds, jsonLength / 1024.0 / 1024.0);
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP)
+                pool.resetPeakUsage();
+    }
+
+    private static long getPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP)
+                peak += pool.getPeakUsage().getUsed();
+        return peak;
+    }
+}
@@ -0,0 +1,296 @@
+package benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * A generated link graph of synthetic pages spread over several hosts. Nothing is stored:
+ * the links, size and latency of a page are derived from the seed and the page number, so a graph of 10^6 pages costs no memory
+ * and the same seed always generates the same site. <br>
+ * Page n is on host n % hostCount and links to its children n * fanOut + 1 to n * fanOut + fanOut,
+ * so every page is reachable from page 0 within {@link SiteGraph#getDepth()} levels.
+ * Every child link may be followed by a link to a random page (duplicate ratio), which is then reached on more than one path,
+ * and by a link back to one of the ancestors of the page (cycle ratio). A child link may instead point at a redirect to the child
+ * (redirect ratio) and may be followed by a link to a page that doesn't exist (broken link ratio). <br>
+ * Page sizes are log-normal around a median. Every host gets its own latency and bandwidth, log-normal around the medians,
+ * and every request varies log-normal around the latency of its host, which makes up the tail latency.
+ */
+public class SiteGraph {
+
+    private static final String FILLER = "Synthetic text to bring the page to its generated size, it is counted as words by the analyzer. ";
+
+    private final String siteName;
+    private final long pageCount;
+    private final int hostCount;
+    private final int fanOut;
+    private final long seed;
+    private double duplicateRatio, cycleRatio, redirectRatio, brokenLinkRatio;
+    private String serverUrl;
+    private int medianPageBytes = 8 * 1024, maxPageBytes = 1024 * 1024;
+    private double pageSizeSigma = 1;
+    private long medianLatencyMillis, medianBytesPerSecond;
+    private double hostSigma = 0.5, requestSigma = 0.5;
+
+    /**
+     * @param siteName  part of every host name, so graphs with different names share no URLs
+     * @param pageCount how many pages the site has
+     * @param hostCount how many hosts the pages are spread over
+     * @param fanOut    how many children every page links to
+     * @param seed      the seed everything is derived from
+     */
+    public SiteGraph(String siteName, long pageCount, int hostCount, int fanOut, long seed) {
+        this.siteName = siteName;
+        this.pageCount = pageCount;
+        this.hostCount = hostCount;
+        this.fanOut = fanOut;
+        this.seed = seed;
+    }
+
+    /**
+     * @param ratio the chance of a link to a random page after every child link, defaults to 0
+     * @return      this graph
+     */
+    public SiteGraph setDuplicateRatio(double ratio) {
+        duplicateRatio = ratio;
+        return this;
+    }
+
+    /**
+     * @param ratio the chance of a link to an ancestor after every child link, defaults to 0
+     * @return      this graph
+     */
+    public SiteGraph setCycleRatio(double ratio) {
+        cycleRatio = ratio;
+        return this;
+    }
+
+    /**
+     * @param ratio the chance that a child is linked through a redirect to it, defaults to 0
+     * @return      this graph
+     */
+    public SiteGraph setRedirectRatio(double ratio) {
+        redirectRatio = ratio;
+        return this;
+    }
+
+    /**
+     * @param ratio the chance of a link to a page that doesn't exist after every child link, defaults to 0,<br>
+     *              the missing page of child n is page count + n
+     * @return      this graph
+     */
+    public SiteGraph setBrokenLinkRatio(double ratio) {
+        brokenLinkRatio = ratio;
+        return this;
+    }
+
+    /**
+     * Serves the graph from one server instead of its own host names, the hosts become the first path segment.
+     *
+     * @param serverUrl the URL of the server without a trailing slash, e.g. http://127.0.0.1:8080
+     * @return          this graph
+     */
+    public SiteGraph setServer(String serverUrl) {
+        this.serverUrl = serverUrl;
+        return this;
+    }
+
+    /**
+     * @param medianBytes   the median page size, defaults to 8 KB
+     * @param sigma         the sigma of the log-normal distribution, defaults to 1
+     * @param maxBytes      the size pages are cut at, defaults to 1 MB
+     * @return              this graph
+     */
+    public SiteGraph setPageSizes(int medianBytes, double sigma, int maxBytes) {
+        medianPageBytes = medianBytes;
+        pageSizeSigma = sigma;
+        maxPageBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * @param medianMillis  the median latency of the hosts, defaults to 0
+     * @param hostSigma     how much the latencies of the hosts differ, defaults to 0.5
+     * @param requestSigma  how much the requests to one host differ, defaults to 0.5
+     * @return              this graph
+     */
+    public SiteGraph setLatency(long medianMillis, double hostSigma, double requestSigma) {
+        medianLatencyMillis = medianMillis;
+        this.hostSigma = hostSigma;
+        this.requestSigma = requestSigma;
+        return this;
+    }
+
+    /**
+     * @param medianBytesPerSecond  the median bandwidth of the hosts, differing like their latencies, 0 for unlimited (default)
+     * @return                      this graph
+     */
+    public SiteGraph setBandwidth(long medianBytesPerSecond) {
+        this.medianBytesPerSecond = medianBytesPerSecond;
+        return this;
+    }
+
+    public long getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * @return  how many levels a crawl from the root page needs to reach every page
+     */
+    public int getDepth() {
+        int depth = 1;
+        for (long lastPage = 0; lastPage < pageCount - 1; depth++)
+            lastPage = lastPage * fanOut + fanOut;
+        return depth;
+    }
+
+    public String getRootUrl() {
+        return getUrl(0);
+    }
+
+    /**
+     * @param page  the number of the page
+     * @return      the URL of the page on its host
+     */
+    public String getUrl(long page) {
+        return getHostUrl(page) + "/page/" + page;
+    }
+
+    /**
+     * @param page  the number of the page
+     * @return      the URL redirecting to the page
+     */
+    public String getRedirectUrl(long page) {
+        return getHostUrl(page) + "/moved/" + page;
+    }
+
+    /**
+     * @param location  a URL of this graph
+     * @return          the number of the page, -1 if the URL isn't a page of this graph
+     */
+    public long getPageNumber(String location) {
+        try {
+            long page = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+            return page >= 0 && page < pageCount && location.equals(getUrl(page)) ? page : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param location  a URL of this graph
+     * @return          the number of the page the URL redirects to, -1 if the URL isn't a redirect of this graph
+     */
+    public long getRedirectTarget(String location) {
+        try {
+            long page = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+            return page >= 0 && page < pageCount && location.equals(getRedirectUrl(page)) ? page : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param page  the number of the page, must be a page of this graph
+     * @return      the generated page
+     */
+    public Page generate(long page) {
+        SplittableRandom random = new SplittableRandom(seed ^ page * 0x9E3779B97F4A7C15L);
+        int size = (int) Math.min(maxPageBytes, Math.round(medianPageBytes * Math.exp(pageSizeSigma * nextGaussian(random))));
+
+        StringBuilder html = new StringBuilder(size + 256).append("<html><head><title>Page ").append(page).append("</title></head><body>");
+        for (long child = page * fanOut + 1; child <= page * fanOut + fanOut && child < pageCount; child++) {
+            appendLink(html, child, redirectRatio > 0 && random.nextDouble() < redirectRatio ? getRedirectUrl(child) : getUrl(child));
+            if (random.nextDouble() < duplicateRatio)
+                appendLink(html, random.nextLong(pageCount));
+            if (random.nextDouble() < cycleRatio)
+                appendLink(html, randomAncestor(page, random));
+            if (brokenLinkRatio > 0 && random.nextDouble() < brokenLinkRatio)
+                appendLink(html, pageCount + child);
+        }
+        html.append("<p>");
+        while (html.length() < size)
+            html.append(FILLER, 0, Math.min(FILLER.length(), size - html.length()));
+        byte[] body = html.append("</p></body></html>").toString().getBytes(StandardCharsets.UTF_8);
+
+        SplittableRandom host = new SplittableRandom(~seed ^ page % hostCount * 0xBF58476D1CE4E5B9L);
+        double hostLatency = medianLatencyMillis * Math.exp(hostSigma * nextGaussian(host));
+        double hostBandwidth = medianBytesPerSecond * Math.exp(hostSigma * nextGaussian(host));
+        long latencyMillis = Math.round(hostLatency * Math.exp(requestSigma * nextGaussian(random)));
+        long transferMillis = hostBandwidth > 0 ? Math.round(body.length * 1000.0 / hostBandwidth) : 0;
+
+        return new Page(page, body, latencyMillis, transferMillis);
+    }
+
+    private String getHostUrl(long page) {
+        return serverUrl == null
+                ? "https://host-" + page % hostCount + "." + siteName + ".test"
+                : serverUrl + "/" + siteName + "/host-" + page % hostCount;
+    }
+
+    private void appendLink(StringBuilder html, long page) {
+        appendLink(html, page, getUrl(page));
+    }
+
+    private void appendLink(StringBuilder html, long page, String url) {
+        html.append("<a href=\"").append(url).append("\">Page ").append(page).append("</a>");
+    }
+
+    /**
+     * Draws from the standard normal distribution with the Box-Muller transform,
+     * SplittableRandom only has nextGaussian() from Java 17 on.
+     */
+    private static double nextGaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private long randomAncestor(long page, SplittableRandom random) {
+        long ancestor = page;
+        do {
+            ancestor = ancestor == 0 ? 0 : (ancestor - 1) / fanOut;
+        } while (ancestor > 0 && random.nextBoolean());
+        return ancestor;
+    }
+
+    /**
+     * A generated page with the time it takes to load it.
+     */
+    public static class Page {
+        private final long number;
+        private final byte[] body;
+        private final long latencyMillis;
+        private final long transferMillis;
+
+        private Page(long number, byte[] body, long latencyMillis, long transferMillis) {
+            this.number = number;
+            this.body = body;
+            this.latencyMillis = latencyMillis;
+            this.transferMillis = transferMillis;
+        }
+
+        public long getNumber() {
+            return number;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * @return  the time until the first byte of the page
+         */
+        public long getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        /**
+         * @return  the time the body takes at the bandwidth of the host
+         */
+        public long getTransferMillis() {
+            return transferMillis;
+        }
+
+        public long getDelayMillis() {
+            return latencyMillis + transferMillis;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import crawler.webpage.fetcher.AsyncFetcher;
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.fetcher.HttpResponseException;
+import crawler.webpage.fetcher.RawResponse;
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the pages of a {@link SiteGraph} from memory, delayed by the latency and bandwidth of their host. <br>
+ * Blocking fetches sleep, async fetches are completed after the delay without blocking a thread, like a response arriving.
+ * The time from the request until the response is ready is counted in a {@link LatencyHistogram},
+ * Redirects of the graph are followed like a fetcher does, URLs that aren't pages of the graph are answered with 404.
+ */
+public class SiteGraphFetcher implements Fetcher, AsyncFetcher {
+
+    private static final Map<String, String> HEADERS = Collections.singletonMap("Content-Type", "text/html; charset=UTF-8");
+
+    private final SiteGraph graph;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * @param graph the site to serve
+     */
+    public SiteGraphFetcher(SiteGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public Document fetchDocument(String location, String userAgent) throws IOException {
+        return fetchRaw(location, userAgent).parseDocument();
+    }
+
+    @Override
+    public RawResponse fetchRaw(String location, String userAgent) throws IOException {
+        long startTime = System.nanoTime();
+        SiteGraph.Page page = generate(location);
+        try {
+            Thread.sleep(page.getDelayMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + location);
+        }
+
+        latencies.record(System.nanoTime() - startTime);
+        return toRawResponse(page);
+    }
+
+    @Override
+    public CompletableFuture<RawResponse> fetchRawAsync(String location, String userAgent) {
+        long startTime = System.nanoTime();
+        SiteGraph.Page page;
+        try {
+            page = generate(location);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        Executor afterDelay = CompletableFuture.delayedExecutor(page.getDelayMillis(), TimeUnit.MILLISECONDS);
+        return CompletableFuture.supplyAsync(() -> {
+            latencies.record(System.nanoTime() - startTime);
+            return toRawResponse(page);
+        }, afterDelay);
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    private SiteGraph.Page generate(String location) throws IOException {
+        long pageNumber = graph.getRedirectTarget(location);
+        if (pageNumber < 0)
+            pageNumber = graph.getPageNumber(location);
+        if (pageNumber < 0)
+            throw new HttpResponseException(404, location, Collections.emptyMap());
+        return graph.generate(pageNumber);
+    }
+
+    private RawResponse toRawResponse(SiteGraph.Page page) {
+        return new RawResponse(graph.getUrl(page.getNumber()), 200, HEADERS, StandardCharsets.UTF_8.name(), page.getBody());
+    }
+}
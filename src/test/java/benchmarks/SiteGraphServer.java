@@ -0,0 +1,164 @@
+package benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import mocks.LoopbackServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves the pages of a {@link SiteGraph} over HTTP on the loopback interface, so a crawl runs through the real network stack. <br>
+ * Every response waits for the latency of its page before the headers are sent, the body is then written in chunks
+ * paced to the bandwidth of the host, like a slow download. Redirects of the graph are answered with 301,
+ * URLs that aren't pages of the graph with 404 and a share of the requests (throttle ratio) with 429 and a Retry-After. <br>
+ * The time from a request until its last byte is written is counted in a {@link LatencyHistogram},
+ * the remote ports of the requests count the connections the crawler opened.
+ */
+public class SiteGraphServer implements AutoCloseable {
+
+    private static final Map<String, String> HTML_HEADERS = Map.of("Content-Type", "text/html; charset=UTF-8");
+    private static final int CHUNK_BYTES = 8 * 1024;
+
+    private final LoopbackServer server;
+    private final SiteGraph graph;
+    private final String serverUrl;
+    private volatile double throttleRatio;
+    private volatile int retryAfterSeconds = 1;
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder sentBytes = new LongAdder();
+
+    /**
+     * Starts the server and points the URLs of the graph at it with {@link SiteGraph#setServer(String)}.
+     *
+     * @param graph the site to serve
+     */
+    public SiteGraphServer(SiteGraph graph) throws IOException {
+        this.graph = graph;
+        server = new LoopbackServer();
+        serverUrl = server.getUrl("");
+        graph.setServer(serverUrl);
+        server.handle("/", this::serve);
+    }
+
+    /**
+     * @param ratio         the chance that a request is answered with 429, defaults to 0
+     * @param retryAfter    the seconds of the Retry-After header of the 429 responses, defaults to 1
+     * @return              this server
+     */
+    public SiteGraphServer setThrottling(double ratio, int retryAfter) {
+        throttleRatio = ratio;
+        retryAfterSeconds = retryAfter;
+        return this;
+    }
+
+    /**
+     * Forgets the latencies, connections and status codes counted so far.
+     */
+    public void reset() {
+        latencies.reset();
+        clientPorts.clear();
+        statusCounts.clear();
+        sentBytes.reset();
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * @return  how many connections were used since the last reset, as far as the clients didn't reuse a port
+     */
+    public int getConnectionCount() {
+        return clientPorts.size();
+    }
+
+    /**
+     * @param statusCode    an HTTP status code
+     * @return              how many responses had the status code since the last reset
+     */
+    public long getStatusCount(int statusCode) {
+        LongAdder count = statusCounts.get(statusCode);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * @return  the bytes of all bodies sent since the last reset
+     */
+    public long getSentBytes() {
+        return sentBytes.sum();
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        long startTime = System.nanoTime();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        String location = serverUrl + exchange.getRequestURI().getPath();
+
+        try {
+            if (throttleRatio > 0 && ThreadLocalRandom.current().nextDouble() < throttleRatio) {
+                respond(exchange, 429, Map.of("Retry-After", String.valueOf(retryAfterSeconds)), new byte[0]);
+                return;
+            }
+
+            long redirectTarget = graph.getRedirectTarget(location);
+            if (redirectTarget >= 0) {
+                respond(exchange, 301, Map.of("Location", graph.getUrl(redirectTarget)), new byte[0]);
+                return;
+            }
+
+            long pageNumber = graph.getPageNumber(location);
+            if (pageNumber < 0) {
+                respond(exchange, 404, HTML_HEADERS, new byte[0]);
+                return;
+            }
+
+            SiteGraph.Page page = graph.generate(pageNumber);
+            Thread.sleep(page.getLatencyMillis());
+            sendPaced(exchange, page);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+        } finally {
+            latencies.record(System.nanoTime() - startTime);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int statusCode, Map<String, String> headers, byte[] body) throws IOException {
+        statusCounts.computeIfAbsent(statusCode, status -> new LongAdder()).increment();
+        LoopbackServer.respond(exchange, statusCode, headers, body);
+    }
+
+    private void sendPaced(HttpExchange exchange, SiteGraph.Page page) throws IOException, InterruptedException {
+        byte[] body = page.getBody();
+        statusCounts.computeIfAbsent(200, status -> new LongAdder()).increment();
+        exchange.getResponseHeaders().set("Content-Type", HTML_HEADERS.get("Content-Type"));
+        exchange.sendResponseHeaders(200, body.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            long startTime = System.nanoTime();
+            for (int offset = 0; offset < body.length; offset += CHUNK_BYTES) {
+                int length = Math.min(CHUNK_BYTES, body.length - offset);
+                sentBytes.add(length);
+                out.write(body, offset, length);
+                out.flush();
+
+                long dueNanos = page.getTransferMillis() * 1_000_000L * (offset + length) / body.length;
+                long waitNanos = dueNanos - (System.nanoTime() - startTime);
+                if (waitNanos > 0)
+                    Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.close();
+    }
+}
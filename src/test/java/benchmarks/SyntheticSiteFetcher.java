@@ -0,0 +1,81 @@
+package benchmarks;
+
+import crawler.webpage.fetcher.AsyncFetcher;
+import crawler.webpage.fetcher.Fetcher;
+import crawler.webpage.fetcher.RawResponse;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves a generated tree of pages without touching the network. <br>
+ * Page n links to the pages n * fanOut + 1 to n * fanOut + fanOut,
+ * every fetch is delayed by a fixed latency to simulate blocking network I/O.
+ * Async fetches are completed after the latency without blocking a thread, like a response arriving.
+ */
+public class SyntheticSiteFetcher implements Fetcher, AsyncFetcher {
+
+    public static final String ROOT_URL = "https://synthetic.test/page/0";
+
+    private final int fanOut;
+    private final long latencyMillis;
+
+    /**
+     * @param fanOut        amount of links on every page
+     * @param latencyMillis how long every fetch blocks
+     */
+    public SyntheticSiteFetcher(int fanOut, long latencyMillis) {
+        this.fanOut = fanOut;
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public Document fetchDocument(String location, String userAgent) throws IOException {
+        return Jsoup.parse(generatePage(location), location);
+    }
+
+    @Override
+    public RawResponse fetchRaw(String location, String userAgent) throws IOException {
+        return toRawResponse(location, generatePage(location));
+    }
+
+    @Override
+    public CompletableFuture<RawResponse> fetchRawAsync(String location, String userAgent) {
+        Executor afterLatency = CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS);
+        return CompletableFuture.supplyAsync(() -> toRawResponse(location, generatePageWithoutLatency(location)), afterLatency);
+    }
+
+    private static RawResponse toRawResponse(String location, String page) {
+        return new RawResponse(location, 200, Collections.singletonMap("Content-Type", "text/html; charset=UTF-8"),
+                StandardCharsets.UTF_8.name(), page.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String generatePage(String location) throws IOException {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + location);
+        }
+
+        return generatePageWithoutLatency(location);
+    }
+
+    private String generatePageWithoutLatency(String location) {
+        long pageNumber = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+
+        StringBuilder html = new StringBuilder("<html><head><title>Page ")
+                .append(pageNumber).append("</title></head><body><p>Synthetic page</p>");
+        for (long link = pageNumber * fanOut + 1; link <= pageNumber * fanOut + fanOut; link++)
+            html.append("<a href=\"/page/").append(link).append("\">").append(link).append("</a>");
+        html.append("</body></html>");
+
+        return html.toString();
+    }
+}
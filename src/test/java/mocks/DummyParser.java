@@ -1,6 +1,10 @@
 package mocks;
 
 import crawler.argumentparser.ArgumentParser;
+import crawler.webpage.CrawlEngine;
+import crawler.webpage.analysis.AnalysisMode;
+import crawler.webpage.fetcher.FetcherType;
+import crawler.webpage.frontier.FrontierType;
 
 import java.util.ArrayList;
 
@@ -12,12 +16,51 @@ public class DummyParser implements ArgumentParser {
     private boolean spoofBrowser = false;
     private boolean respectRobotsTxt = false;
     private boolean outputIntoFile = false;
+    private boolean resumeRequested = false;
+    private boolean adaptiveConcurrency = false;
+    private boolean hedgeRequests = false;
     
     private int maxDepth = 0;
     private int threadCount = 0;
     private int maxLinksPerPage = 0;
+    private int maxPerHost = 0;
+    private int maxPerIp = 0;
+    private int crawlDelayMillis = 0;
+    private int maxFrontierMemory = 0;
+    private int parseThreadCount = 0;
+    private long maxPages = 0;
+    private long maxBytes = 0;
+    private long maxTimeSeconds = 0;
+    private int checkpointIntervalSeconds = 0;
+    private int shardCount = 0;
+    private int shardIndex = 0;
+    private int maxConcurrency = 0;
+    private int maxRetries = 0;
+    private int retryDelayMillis = 0;
+    private int connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private int readTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+    private int cacheSizeMegabytes = DEFAULT_CACHE_SIZE_MEGABYTES;
+    private int maxBodyKilobytes = DEFAULT_MAX_BODY_KILOBYTES;
+    private int dnsTtlSeconds = DEFAULT_DNS_TTL_SECONDS;
+    private int dnsNegativeTtlSeconds = DEFAULT_DNS_NEGATIVE_TTL_SECONDS;
+    private int dnsPrefetchThreadCount = 0;
+
+    private CrawlEngine engine = CrawlEngine.POOL;
+    private FrontierType frontierType = FrontierType.FIFO;
+    private FetcherType fetcherType = FetcherType.JSOUP;
 
     private String outputFile = "";
+    private String spillDirectory = "";
+    private String checkpointDirectory = "";
+    private String shardDirectory = "";
+    private String concurrencyMetricsFile = "";
+    private String cacheDirectory = "";
+    private String brokenLinkReportFile = "";
+    private String warcDirectory = "";
+    private int warcFileMegabytes = DEFAULT_WARC_FILE_MEGABYTES;
+    private String replayDirectory = "";
+    private int replayLatencyPercent = DEFAULT_REPLAY_LATENCY_PERCENT;
+    private AnalysisMode analysisMode = DEFAULT_ANALYSIS_MODE;
     private String errorMessage = "";
     private String helpDialog = "";
     private String warnings = "";
@@ -48,6 +91,10 @@ public class DummyParser implements ArgumentParser {
         this.outputIntoFile = outputIntoFile;
     }
 
+    public void setResumeRequested(boolean resumeRequested) {
+        this.resumeRequested = resumeRequested;
+    }
+
     public void setMaxDepth(int maxDepth) {
         this.maxDepth = maxDepth;
     }
@@ -60,6 +107,154 @@ public class DummyParser implements ArgumentParser {
         this.maxLinksPerPage = maxLinksPerPage;
     }
 
+    public void setMaxPerHost(int maxPerHost) {
+        this.maxPerHost = maxPerHost;
+    }
+
+    public void setMaxPerIp(int maxPerIp) {
+        this.maxPerIp = maxPerIp;
+    }
+
+    public void setCrawlDelayMillis(int crawlDelayMillis) {
+        this.crawlDelayMillis = crawlDelayMillis;
+    }
+
+    public void setMaxFrontierMemory(int maxFrontierMemory) {
+        this.maxFrontierMemory = maxFrontierMemory;
+    }
+
+    public void setParseThreadCount(int parseThreadCount) {
+        this.parseThreadCount = parseThreadCount;
+    }
+
+    public void setMaxPages(long maxPages) {
+        this.maxPages = maxPages;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public void setMaxTimeSeconds(long maxTimeSeconds) {
+        this.maxTimeSeconds = maxTimeSeconds;
+    }
+
+    public void setCheckpointDirectory(String checkpointDirectory) {
+        this.checkpointDirectory = checkpointDirectory;
+    }
+
+    public void setCheckpointIntervalSeconds(int checkpointIntervalSeconds) {
+        this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+    }
+
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public void setHedgeRequests(boolean hedgeRequests) {
+        this.hedgeRequests = hedgeRequests;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public void setRetryDelayMillis(int retryDelayMillis) {
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    public void setFetcherType(FetcherType fetcherType) {
+        this.fetcherType = fetcherType;
+    }
+
+    public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public void setReadTimeoutMillis(int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    public void setMaxBodyKilobytes(int maxBodyKilobytes) {
+        this.maxBodyKilobytes = maxBodyKilobytes;
+    }
+
+    public void setDnsTtlSeconds(int dnsTtlSeconds) {
+        this.dnsTtlSeconds = dnsTtlSeconds;
+    }
+
+    public void setDnsNegativeTtlSeconds(int dnsNegativeTtlSeconds) {
+        this.dnsNegativeTtlSeconds = dnsNegativeTtlSeconds;
+    }
+
+    public void setDnsPrefetchThreadCount(int dnsPrefetchThreadCount) {
+        this.dnsPrefetchThreadCount = dnsPrefetchThreadCount;
+    }
+
+    public void setCacheDirectory(String cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public void setBrokenLinkReportFile(String brokenLinkReportFile) {
+        this.brokenLinkReportFile = brokenLinkReportFile;
+    }
+
+    public void setWarcDirectory(String warcDirectory) {
+        this.warcDirectory = warcDirectory;
+    }
+
+    public void setWarcFileMegabytes(int warcFileMegabytes) {
+        this.warcFileMegabytes = warcFileMegabytes;
+    }
+
+    public void setReplayDirectory(String replayDirectory) {
+        this.replayDirectory = replayDirectory;
+    }
+
+    public void setReplayLatencyPercent(int replayLatencyPercent) {
+        this.replayLatencyPercent = replayLatencyPercent;
+    }
+
+    public void setAnalysisMode(AnalysisMode analysisMode) {
+        this.analysisMode = analysisMode;
+    }
+
+    public void setCacheSizeMegabytes(int cacheSizeMegabytes) {
+        this.cacheSizeMegabytes = cacheSizeMegabytes;
+    }
+
+    public void setConcurrencyMetricsFile(String concurrencyMetricsFile) {
+        this.concurrencyMetricsFile = concurrencyMetricsFile;
+    }
+
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public void setShardIndex(int shardIndex) {
+        this.shardIndex = shardIndex;
+    }
+
+    public void setShardDirectory(String shardDirectory) {
+        this.shardDirectory = shardDirectory;
+    }
+
+    public void setSpillDirectory(String spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    public void setFrontierType(FrontierType frontierType) {
+        this.frontierType = frontierType;
+    }
+
+    public void setEngine(CrawlEngine engine) {
+        this.engine = engine;
+    }
+
     public void setOutputFile(String outputFile) {
         this.outputFile = outputFile;
     }
@@ -95,6 +290,11 @@ public class DummyParser implements ArgumentParser {
         return omitDuplicates;
     }
 
+    @Override
+    public boolean resumeRequested() {
+        return resumeRequested;
+    }
+
     @Override
     public boolean spoofBrowser() {
         return spoofBrowser;
@@ -125,6 +325,191 @@ public class DummyParser implements ArgumentParser {
         return maxLinksPerPage;
     }
 
+    @Override
+    public int getMaxFrontierMemory() {
+        return maxFrontierMemory;
+    }
+
+    @Override
+    public int getParseThreadCount() {
+        return parseThreadCount;
+    }
+
+    @Override
+    public long getMaxPages() {
+        return maxPages;
+    }
+
+    @Override
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public long getMaxTimeSeconds() {
+        return maxTimeSeconds;
+    }
+
+    @Override
+    public String getCheckpointDirectory() {
+        return checkpointDirectory;
+    }
+
+    @Override
+    public int getCheckpointIntervalSeconds() {
+        return checkpointIntervalSeconds;
+    }
+
+    @Override
+    public boolean adaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public boolean hedgeRequests() {
+        return hedgeRequests;
+    }
+
+    @Override
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    @Override
+    public int getRetryDelayMillis() {
+        return retryDelayMillis;
+    }
+
+    @Override
+    public FetcherType getFetcherType() {
+        return fetcherType;
+    }
+
+    @Override
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    @Override
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    @Override
+    public int getMaxBodyKilobytes() {
+        return maxBodyKilobytes;
+    }
+
+    @Override
+    public int getDnsTtlSeconds() {
+        return dnsTtlSeconds;
+    }
+
+    @Override
+    public int getDnsNegativeTtlSeconds() {
+        return dnsNegativeTtlSeconds;
+    }
+
+    @Override
+    public int getDnsPrefetchThreadCount() {
+        return dnsPrefetchThreadCount;
+    }
+
+    @Override
+    public String getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    @Override
+    public String getBrokenLinkReportFile() {
+        return brokenLinkReportFile;
+    }
+
+    @Override
+    public String getWarcDirectory() {
+        return warcDirectory;
+    }
+
+    @Override
+    public int getWarcFileMegabytes() {
+        return warcFileMegabytes;
+    }
+
+    @Override
+    public String getReplayDirectory() {
+        return replayDirectory;
+    }
+
+    @Override
+    public int getReplayLatencyPercent() {
+        return replayLatencyPercent;
+    }
+
+    @Override
+    public AnalysisMode getAnalysisMode() {
+        return analysisMode;
+    }
+
+    @Override
+    public int getCacheSizeMegabytes() {
+        return cacheSizeMegabytes;
+    }
+
+    @Override
+    public String getConcurrencyMetricsFile() {
+        return concurrencyMetricsFile;
+    }
+
+    @Override
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    @Override
+    public String getShardDirectory() {
+        return shardDirectory;
+    }
+
+    @Override
+    public String getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    @Override
+    public FrontierType getFrontierType() {
+        return frontierType;
+    }
+
+    @Override
+    public int getMaxPerHost() {
+        return maxPerHost;
+    }
+
+    @Override
+    public int getMaxPerIp() {
+        return maxPerIp;
+    }
+
+    @Override
+    public int getCrawlDelayMillis() {
+        return crawlDelayMillis;
+    }
+
+    @Override
+    public CrawlEngine getEngine() {
+        return engine;
+    }
+
     @Override
     public String getOutputFile() {
         return outputFile;
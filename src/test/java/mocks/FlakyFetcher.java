@@ -0,0 +1,42 @@
+package mocks;
+
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fails the first requests of every page with a timeout, then loads the local test sites.
+ */
+public class FlakyFetcher extends LocalFileFetcher {
+
+    private final int failuresPerPage;
+    private final ConcurrentHashMap<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+
+    /**
+     * @param failuresPerPage   how many requests of every page time out
+     */
+    public FlakyFetcher(int failuresPerPage) {
+        this.failuresPerPage = failuresPerPage;
+    }
+
+    @Override
+    public Document fetchDocument(String location, String userAgent) throws IOException {
+        int request = requestCounts.computeIfAbsent(location, key -> new AtomicInteger()).incrementAndGet();
+        if (request <= failuresPerPage)
+            throw new SocketTimeoutException("Read timed out");
+
+        return super.fetchDocument(location, userAgent);
+    }
+
+    /**
+     * @param location  the requested page
+     * @return          how often the page was requested
+     */
+    public int getRequestCount(String location) {
+        AtomicInteger requestCount = requestCounts.get(location);
+        return requestCount == null ? 0 : requestCount.get();
+    }
+}
@@ -0,0 +1,84 @@
+package mocks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A plain HTTP/1.1 server on a free port of the loopback interface, so fetchers can be tested without internet access.
+ * Every request is handled on its own daemon thread.
+ */
+public class LoopbackServer implements AutoCloseable {
+
+    static {
+        // the server writes headers and body separately, with Nagle's algorithm every response would wait for a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlerThreads = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "loopback-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LoopbackServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(handlerThreads);
+        server.start();
+    }
+
+    /**
+     * @param path      the path the handler answers, including all paths below it
+     * @param handler   answers the requests
+     */
+    public void handle(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+    }
+
+    /**
+     * Answers the path always with the same response.
+     *
+     * @param path          the path to answer
+     * @param statusCode    the HTTP status code
+     * @param contentType   the Content-Type of the body
+     * @param body          the body, sent UTF-8 encoded
+     */
+    public void handle(String path, int statusCode, String contentType, String body) {
+        handle(path, exchange -> respond(exchange, statusCode, Map.of("Content-Type", contentType), body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @param path  the path on this server
+     * @return      the URL of the path
+     */
+    public String getUrl(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * Sends the response and closes the exchange, the connection is kept open for the next request.
+     */
+    public static void respond(HttpExchange exchange, int statusCode, Map<String, String> headers, byte[] body) throws IOException {
+        headers.forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+        exchange.sendResponseHeaders(statusCode, body.length == 0 ? -1 : body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlerThreads.shutdownNow();
+    }
+}